@@ -10,11 +10,22 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 import static omero.rtypes.rint;
 import static omero.rtypes.rstring;
@@ -35,11 +46,19 @@ import org.apache.commons.io.filefilter.TrueFileFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 /**
  * Utility class which given any {@link File} object will determine the correct
  * number and members of a given import. This facility permits iterating over a
  * directory.
  *
+ * The calls to {@link OMEROWrapper#setId(String)} are made by {@link #THREADS}
+ * threads, each with its own reader, and optionally skipped for unchanged
+ * files via an on-disk cache (see {@link #CACHE}). The results are still
+ * processed in the order of the directory walk so that the grouping is the
+ * same as for a single reader.
+ *
  * This class is NOT thread-safe.
  *
  * @since Beta4.1
@@ -114,13 +133,61 @@ public class ImportCandidates extends DirectoryWalker
         MetadataLevel.valueOf(System.getProperty(
                 "omero.import.metadata.level","MINIMUM"));
 
+    /**
+     * Number of readers used concurrently for the calls to
+     * {@link IFormatReader#setId(String)}. Set via the
+     * "omero.import.candidates.threads" system property.
+     */
+    final public static int THREADS = Integer.valueOf(
+            System.getProperty("omero.import.candidates.threads",
+                    String.valueOf(Math.min(4,
+                            Runtime.getRuntime().availableProcessors()))));
+
+    /**
+     * Path of the file caching the results of
+     * {@link IFormatReader#setId(String)} between imports, keyed by the path,
+     * size and modification time of each file. Set via the
+     * "omero.import.candidates.cache" system property. Disabled if null.
+     */
+    final public static String CACHE =
+        System.getProperty("omero.import.candidates.cache");
+
     final private IObserver observer;
     final private OMEROWrapper reader;
+    final private int threads;
+    final private ImportCandidatesCache cache;
     final private Set<String> allFiles = new HashSet<String>();
     final private Map<String, List<String>> usedBy = new LinkedHashMap<String, List<String>>();
     final private List<ImportContainer> containers = new ArrayList<ImportContainer>();
     final private long start = System.currentTimeMillis();
 
+    /**
+     * Files found during the second pass, parsed once the walk is complete.
+     */
+    final private List<Candidate> pending = new ArrayList<Candidate>();
+
+    /**
+     * Used files of all candidates parsed by the background readers. A file
+     * found here is not parsed again in the background since it will most
+     * likely be skipped; if not, it is parsed on the calling thread.
+     */
+    final private Set<String> claimed = Collections.newSetFromMap(
+            new ConcurrentHashMap<String, Boolean>());
+
+    /**
+     * Reader used by {@link #singleFile(File, ImportConfig)} on the current
+     * thread. Unset on the calling thread, which uses {@link #reader}.
+     */
+    final private ThreadLocal<OMEROWrapper> currentReader =
+        new ThreadLocal<OMEROWrapper>();
+
+    /**
+     * Events raised on the current thread which are held back until the
+     * candidate is processed on the calling thread.
+     */
+    final private ThreadLocal<List<ImportEvent>> deferred =
+        new ThreadLocal<List<ImportEvent>>();
+
     /**
      * Time take for {@link IFormatReader#setId()}
      */
@@ -136,6 +203,11 @@ public class ImportCandidates extends DirectoryWalker
      */
     int unknown = 0;
 
+    /**
+     * Number of calls to {@link IFormatReader#setId()} avoided via the cache.
+     */
+    int cached = 0;
+
     /**
      * Current count of files processed. This will be incremented in two phases:
      * once during directory counting, and once during parsing.
@@ -192,12 +264,43 @@ public class ImportCandidates extends DirectoryWalker
      */
     public ImportCandidates(int depth, OMEROWrapper reader, String[] paths,
             IObserver observer)
+    {
+        this(depth, reader, paths, observer, THREADS,
+                CACHE == null ? null : new File(CACHE));
+    }
+
+    /**
+     * Constructor which additionally sets the number of readers used
+     * concurrently and the cache file.
+     *
+     * @param depth
+     *            number of directory levels to search down.
+     * @param reader
+     *            instance used for parsing each of the paths. Not used once the
+     *            constructor completes.
+     * @param paths
+     *            file paths which are searched. May be directories.
+     * @param observer
+     *            {@link IObserver} which will monitor any exceptions during
+     *            {@link OMEROWrapper#setId(String)}. Otherwise no error
+     *            reporting takes place.
+     * @param threads
+     *            number of readers used concurrently. Values less than 2 parse
+     *            all files with the given reader.
+     * @param cacheFile
+     *            file caching the setId results between imports. May be null.
+     */
+    public ImportCandidates(int depth, OMEROWrapper reader, String[] paths,
+            IObserver observer, int threads, File cacheFile)
     {
         super(TrueFileFilter.INSTANCE, depth);
         this.reader = reader;
         this.observer = observer;
-        log.info(String.format("Depth: %s Metadata Level: %s", depth,
-                METADATA_LEVEL));
+        this.threads = threads;
+        this.cache = cacheFile == null ? null
+                : new ImportCandidatesCache(cacheFile);
+        log.info(String.format("Depth: %s Metadata Level: %s Threads: %s",
+                depth, METADATA_LEVEL, threads));
 
         if (paths != null && paths.length == 2 && "".equals(paths[0])
                 && "".equals(paths[1]))
@@ -219,14 +322,22 @@ public class ImportCandidates extends DirectoryWalker
             execute(paths);
             total = count;
             count = 0;
+            if (cache != null) {
+                cache.load();
+            }
             execute(paths);
+            parsePending();
+            if (cache != null) {
+                cache.save();
+            }
             g = new Groups(usedBy);
             g.parse(containers);
             long totalElapsed = System.currentTimeMillis() - start;
             log.info(String.format("%s file(s) parsed into "
                     + "%s group(s) with %s call(s) to setId in "
-                    + "%sms. (%sms total) [%s unknowns]", this.total, size(), this.setids,
-                    readerTime, totalElapsed, unknown));
+                    + "%sms. (%sms total) [%s unknowns] [%s cached]",
+                    this.total, size(), this.setids,
+                    readerTime, totalElapsed, unknown, cached));
         } catch (CANCEL c)
         {
             log.info(String.format("Cancelling search after %sms "
@@ -348,8 +459,8 @@ public class ImportCandidates extends DirectoryWalker
      * Method called during
      * {@link ImportCandidates#ImportCandidates(OMEROWrapper, String[], IObserver)}
      * to operate on all the given paths. This will be called twice: once
-     * without reading the files, and once (with the known total) using
-     * {@link #reader}
+     * without reading the files, and once (with the known total) collecting
+     * the files which are then parsed by {@link #parsePending()}.
      *
      * @param paths
      */
@@ -398,11 +509,14 @@ public class ImportCandidates extends DirectoryWalker
 
         String format = null;
         String[] usedFiles = new String[] { path };
+        final OMEROWrapper reader = reader();
         long start = System.currentTimeMillis();
         try {
 
             try {
-                setids++;
+                synchronized (this) {
+                    setids++;
+                }
                 reader.close();
                 reader.setMetadataStore(new ImageNameMetadataStore());
                 reader.setMetadataOptions(
@@ -414,37 +528,28 @@ public class ImportCandidates extends DirectoryWalker
                 boolean isSPW = Arrays.asList(domains).contains(FormatTools.HCS_DOMAIN);
 
                 final String readerClassName = reader.unwrap().getClass().getCanonicalName();
-                ImportContainer ic = new ImportContainer(config,
-                        file, null, null,
-                        readerClassName, usedFiles, isSPW);
-                ic.setDoThumbnails(config.doThumbnails.get());
-                ic.setNoStatsInfo(config.noStatsInfo.get());
-                String configImageName = config.userSpecifiedName.get();
-                if (configImageName == null)
-                {
-                    ic.setUserSpecifiedName(file.getName());
-                }
-                else
-                {
-                    ic.setUserSpecifiedName(configImageName);
-                }
-                ic.setUserSpecifiedDescription(config.userSpecifiedDescription.get());
-                ic.setCustomAnnotationList(config.annotations.get());
-                return ic;
+                return container(config, file, readerClassName, usedFiles,
+                        isSPW);
             } finally
             {
-                readerTime += (System.currentTimeMillis() - start);
+                synchronized (this) {
+                    readerTime += (System.currentTimeMillis() - start);
+                }
                 reader.close();
             }
 
         } catch (UnsupportedCompressionException uce)
         {
-            unknown++;
+            synchronized (this) {
+                unknown++;
+            }
             // Handling as UNKNOWN_FORMAT for 4.3.0
             safeUpdate(new ErrorHandler.UNKNOWN_FORMAT(path, uce, this));
         } catch (UnknownFormatException ufe)
         {
-            unknown++;
+            synchronized (this) {
+                unknown++;
+            }
             safeUpdate(new ErrorHandler.UNKNOWN_FORMAT(path, ufe, this));
         } catch (MissingLibraryException mle)
         {
@@ -465,12 +570,48 @@ public class ImportCandidates extends DirectoryWalker
 
     }
 
+    /**
+     * Creates the {@link ImportContainer} for a file which was successfully
+     * parsed, either just now or by a previous import (see {@link #cache}).
+     */
+    private ImportContainer container(ImportConfig config, File file,
+            String readerClassName, String[] usedFiles, boolean isSPW)
+    {
+        ImportContainer ic = new ImportContainer(config,
+                file, null, null,
+                readerClassName, usedFiles, isSPW);
+        ic.setDoThumbnails(config.doThumbnails.get());
+        ic.setNoStatsInfo(config.noStatsInfo.get());
+        String configImageName = config.userSpecifiedName.get();
+        if (configImageName == null)
+        {
+            ic.setUserSpecifiedName(file.getName());
+        }
+        else
+        {
+            ic.setUserSpecifiedName(configImageName);
+        }
+        ic.setUserSpecifiedDescription(config.userSpecifiedDescription.get());
+        ic.setCustomAnnotationList(config.annotations.get());
+        return ic;
+    }
+
+    /**
+     * Returns the reader for the current thread.
+     */
+    private OMEROWrapper reader()
+    {
+        OMEROWrapper r = currentReader.get();
+        return r == null ? reader : r;
+    }
+
     /**
      * Retrieves Image names for each image that Bio-Formats has detected.
      * @return See A list of Image names, in the order of <i>series</i>.
      */
     private List<String> getImageNames() {
         List<String> toReturn = new ArrayList<String>();
+        OMEROWrapper reader = reader();
         Map<Integer, String> imageNames = ((ImageNameMetadataStore)
                 reader.getMetadataStore()).getImageNames();
         for (int i = 0; i < reader.getSeriesCount(); i++) {
@@ -486,7 +627,7 @@ public class ImportCandidates extends DirectoryWalker
      */
     private String[] getOrderedFiles() {
 
-        FileInfo[] infos = reader.getAdvancedUsedFiles(false);
+        FileInfo[] infos = reader().getAdvancedUsedFiles(false);
         String[] usedFiles = new String[infos.length];
 
         int count = 0;
@@ -522,6 +663,11 @@ public class ImportCandidates extends DirectoryWalker
      * @param event
      */
     private void safeUpdate(ImportEvent event) {
+        List<ImportEvent> events = deferred.get();
+        if (events != null) {
+            events.add(event);
+            return;
+        }
         try {
             observer.update(null, event);
         } catch (Exception ex) {
@@ -541,6 +687,12 @@ public class ImportCandidates extends DirectoryWalker
     @Override
     public void handleFile(File file, int depth, Collection collection) {
 
+        // If this is the parsing pass, wait for the walk to complete.
+        if (total >= 0) {
+            pending.add(new Candidate(file, depth));
+            return;
+        }
+
         count++;
 
         // Our own filtering
@@ -553,21 +705,115 @@ public class ImportCandidates extends DirectoryWalker
             scanWithCancel(file, depth);
         }
 
-        // If this is just a count, return
-        if (total < 0) {
-            return;
-        }
+        // This is just a count
+    }
 
-        // Optimization.
-        if (allFiles.contains(file.getAbsolutePath())) {
-            return;
-        }
+    /**
+     * Parses the files collected during the second pass. With more than one
+     * thread, each file is handed to a pool of readers as soon as the walk
+     * completes. The results are then processed in the order of the walk,
+     * skipping files which are used by a previous candidate exactly as when
+     * parsing serially. A file which a background reader skipped but which
+     * is still needed is parsed on the calling thread.
+     */
+    private void parsePending() {
 
-        ImportContainer info = singleFile(file, reader.getConfig());
-        if (info == null) {
-            return;
+        List<OMEROWrapper> readers = new ArrayList<OMEROWrapper>();
+        ExecutorService pool = null;
+        try {
+            if (threads > 1 && pending.size() > 1) {
+                final BlockingQueue<OMEROWrapper> idle =
+                    new LinkedBlockingQueue<OMEROWrapper>();
+                for (int i = 0; i < threads; i++) {
+                    OMEROWrapper r = new OMEROWrapper(reader.getConfig());
+                    readers.add(r);
+                    idle.add(r);
+                }
+                ThreadFactory tf = new ThreadFactoryBuilder()
+                    .setNameFormat("ImportCandidates-%d")
+                    .setDaemon(true).build();
+                pool = Executors.newFixedThreadPool(threads, tf);
+                for (final Candidate c : pending) {
+                    c.future = pool.submit(new Callable<Candidate>() {
+                        public Candidate call() throws Exception {
+                            if (c.file.getName().startsWith(".") ||
+                                    claimed.contains(c.path)) {
+                                return null;
+                            }
+                            OMEROWrapper r = idle.take();
+                            try {
+                                c.parse(r);
+                            } finally {
+                                idle.add(r);
+                            }
+                            if (c.info != null) {
+                                for (String used : c.info.getUsedFiles()) {
+                                    if (!used.equals(c.path)) {
+                                        claimed.add(used);
+                                    }
+                                }
+                            }
+                            return c;
+                        }
+                    });
+                }
+            }
+
+            for (Candidate c : pending) {
+                count++;
+
+                // Our own filtering
+                if (c.file.getName().startsWith(".")) {
+                    continue; // Omitting dot files.
+                }
+
+                // If this is the 100th file, publish an event
+                if (count%100 == 0) {
+                    scanWithCancel(c.file, c.depth);
+                }
+
+                // Optimization.
+                if (allFiles.contains(c.path)) {
+                    continue;
+                }
+
+                if (!c.await()) {
+                    c.parse(null);
+                }
+                for (ImportEvent event : c.events) {
+                    safeUpdate(event);
+                }
+                if (c.info != null) {
+                    add(c.file, c.info);
+                }
+            }
+        } finally {
+            if (pool != null) {
+                // After a cancel, give the readers a chance to finish
+                // before they are closed.
+                pool.shutdownNow();
+                try {
+                    pool.awaitTermination(1, TimeUnit.MINUTES);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            for (OMEROWrapper r : readers) {
+                try {
+                    r.close();
+                } catch (IOException e) {
+                    log.debug("Failed to close reader", e);
+                }
+            }
+            pending.clear();
+            claimed.clear();
         }
+    }
 
+    /**
+     * Records a parsed candidate and all of the files it uses.
+     */
+    private void add(File file, ImportContainer info) {
         containers.add(info);
         allFiles.addAll(Arrays.asList(info.getUsedFiles()));
         for (String string : info.getUsedFiles()) {
@@ -580,6 +826,79 @@ public class ImportCandidates extends DirectoryWalker
         }
     }
 
+    /**
+     * A file found during the second pass along with the result of parsing
+     * it, which may happen on a background thread.
+     */
+    private class Candidate {
+
+        final File file;
+        final String path;
+        final int depth;
+        Future<Candidate> future;
+        ImportContainer info;
+        List<ImportEvent> events = new ArrayList<ImportEvent>();
+
+        Candidate(File file, int depth) {
+            this.file = file;
+            this.path = file.getAbsolutePath();
+            this.depth = depth;
+        }
+
+        /**
+         * Parses the file with the given reader, or with {@link #reader} if
+         * null, using the cache if enabled. Events are collected rather than
+         * raised.
+         */
+        void parse(OMEROWrapper r) {
+            if (cache != null) {
+                ImportCandidatesCache.Entry entry = cache.get(path);
+                if (entry != null) {
+                    ImportConfig config = reader.getConfig();
+                    synchronized (ImportCandidates.this) {
+                        cached++;
+                    }
+                    info = container(config, file, entry.reader,
+                            entry.getUsedFiles(), entry.isSPW);
+                    return;
+                }
+            }
+            events = new ArrayList<ImportEvent>();
+            currentReader.set(r);
+            deferred.set(events);
+            try {
+                info = singleFile(file, reader.getConfig());
+            } finally {
+                currentReader.remove();
+                deferred.remove();
+            }
+            if (info != null && cache != null) {
+                cache.put(path, info);
+            }
+        }
+
+        /**
+         * Waits for the background parse if any.
+         * @return whether this file was parsed in the background.
+         */
+        boolean await() {
+            if (future == null) {
+                return false;
+            }
+            try {
+                return future.get() != null;
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new CANCEL();
+            } catch (ExecutionException ee) {
+                log.warn("Background parse failed: " + path, ee.getCause());
+                info = null;
+                return false;
+            }
+        }
+
+    }
+
     /**
      * The {@link Groups} class servers as an algorithm for sorting the usedBy
      * map from the {@link ImportCandidates#walk(File, Collection)} method.
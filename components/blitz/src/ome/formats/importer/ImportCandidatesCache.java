@@ -0,0 +1,239 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+
+package ome.formats.importer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * On-disk cache of the results of {@link OMEROWrapper#setId(String)} as used
+ * by {@link ImportCandidates}. Each entry is keyed by the path of the file
+ * which was passed to setId and stores the reader type, the SPW flag and the
+ * ordered used files. An entry is only returned if the size and modification
+ * time of the file <em>and</em> of each of its used files are unchanged, so
+ * that re-running an import over the same tree only calls setId for files
+ * which have been added or modified.
+ *
+ * Lookups and additions are thread-safe; {@link #load()} and {@link #save()}
+ * are not.
+ *
+ * @since 5.1
+ */
+class ImportCandidatesCache {
+
+    private final static Logger log = LoggerFactory.getLogger(ImportCandidatesCache.class);
+
+    /** Version of the file format, checked on {@link #load()}. */
+    private final static int VERSION = 1;
+
+    /**
+     * Result of a single call to setId.
+     */
+    static class Entry {
+
+        final String reader;
+
+        final boolean isSPW;
+
+        /** The file itself followed by the used files, in order. */
+        final String[] files;
+
+        final long[] sizes;
+
+        final long[] mtimes;
+
+        private Entry(String reader, boolean isSPW, String[] files,
+                long[] sizes, long[] mtimes) {
+            this.reader = reader;
+            this.isSPW = isSPW;
+            this.files = files;
+            this.sizes = sizes;
+            this.mtimes = mtimes;
+        }
+
+        String[] getUsedFiles() {
+            final String[] usedFiles = new String[files.length - 1];
+            System.arraycopy(files, 1, usedFiles, 0, usedFiles.length);
+            return usedFiles;
+        }
+
+        /**
+         * Whether none of the files has changed since the entry was created.
+         */
+        boolean isCurrent() {
+            for (int i = 0; i < files.length; i++) {
+                final File f = new File(files[i]);
+                if (f.length() != sizes[i] || f.lastModified() != mtimes[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+    }
+
+    private final File file;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+
+    private volatile boolean modified = false;
+
+    /**
+     * @param file the cache file. Need not exist.
+     */
+    ImportCandidatesCache(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns the cached entry for the given path if its files are unchanged,
+     * otherwise null. Outdated entries are removed.
+     */
+    Entry get(String path) {
+        final Entry entry = entries.get(path);
+        if (entry == null) {
+            return null;
+        }
+        if (!entry.isCurrent()) {
+            entries.remove(path);
+            modified = true;
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Stores the result of setId for the given path along with the current
+     * sizes and modification times of all of the files.
+     */
+    void put(String path, ImportContainer ic) {
+        final String[] usedFiles = ic.getUsedFiles();
+        final String[] files = new String[usedFiles.length + 1];
+        final long[] sizes = new long[files.length];
+        final long[] mtimes = new long[files.length];
+        files[0] = path;
+        System.arraycopy(usedFiles, 0, files, 1, usedFiles.length);
+        for (int i = 0; i < files.length; i++) {
+            final File f = new File(files[i]);
+            sizes[i] = f.length();
+            mtimes[i] = f.lastModified();
+        }
+        entries.put(path, new Entry(ic.getReader(),
+                Boolean.TRUE.equals(ic.getIsSPW()), files, sizes, mtimes));
+        modified = true;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Reads all entries from the cache file. A missing, unreadable or
+     * outdated file leaves the cache empty.
+     */
+    void load() {
+        if (!file.exists()) {
+            return;
+        }
+        final long start = System.currentTimeMillis();
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(
+                    new FileInputStream(file)));
+            if (in.readInt() != VERSION) {
+                log.info("Ignoring cache of unknown version: " + file);
+                return;
+            }
+            final int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                final String reader = in.readUTF();
+                final boolean isSPW = in.readBoolean();
+                final int length = in.readInt();
+                final String[] files = new String[length];
+                final long[] sizes = new long[length];
+                final long[] mtimes = new long[length];
+                for (int j = 0; j < length; j++) {
+                    files[j] = in.readUTF();
+                    sizes[j] = in.readLong();
+                    mtimes[j] = in.readLong();
+                }
+                entries.put(files[0],
+                        new Entry(reader, isSPW, files, sizes, mtimes));
+            }
+            log.info(String.format("Loaded %s cached candidate(s) from %s in %sms",
+                    count, file, System.currentTimeMillis() - start));
+        } catch (IOException e) {
+            log.warn("Failed to load candidate cache: " + file, e);
+            entries.clear();
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                    log.debug("Failed to close " + file, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes all entries to the cache file if any were added or removed. The
+     * entries are written to a temporary file first so that an interrupted
+     * import never leaves a partial cache behind.
+     */
+    void save() {
+        if (!modified) {
+            return;
+        }
+        final File dir = file.getAbsoluteFile().getParentFile();
+        if (dir != null) {
+            dir.mkdirs();
+        }
+        final File tmp = new File(dir, "." + file.getName() + ".tmp");
+        try {
+            final DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(tmp)));
+            try {
+                out.writeInt(VERSION);
+                out.writeInt(entries.size());
+                for (Entry entry : entries.values()) {
+                    out.writeUTF(entry.reader == null ? "" : entry.reader);
+                    out.writeBoolean(entry.isSPW);
+                    out.writeInt(entry.files.length);
+                    for (int j = 0; j < entry.files.length; j++) {
+                        out.writeUTF(entry.files[j]);
+                        out.writeLong(entry.sizes[j]);
+                        out.writeLong(entry.mtimes[j]);
+                    }
+                }
+            } finally {
+                out.close();
+            }
+            if (!tmp.renameTo(file)) {
+                file.delete();
+                if (!tmp.renameTo(file)) {
+                    throw new IOException("Failed to replace " + file);
+                }
+            }
+            modified = false;
+        } catch (IOException e) {
+            log.warn("Failed to save candidate cache: " + file, e);
+            tmp.delete();
+        }
+    }
+
+}
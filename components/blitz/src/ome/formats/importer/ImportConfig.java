@@ -125,6 +125,7 @@ public class ImportConfig {
     public final BoolValue useCustomImageNaming;
     public final BoolValue useFullPath;
     public final IntValue numOfDirectories;
+    public final IntValue parallelFileset;
 
     public final FileValue savedDirectory;
     public final StrValue readersPath;
@@ -267,6 +268,7 @@ public class ImportConfig {
         useFullPath  = new BoolValue("useFullPath", this, true);
         useCustomImageNaming = new BoolValue("overrideImageName", this, true);
         numOfDirectories = new IntValue("numOfDirectories", this, 0);
+        parallelFileset = new IntValue("parallelFileset", this, 1);
         savedDirectory = new FileValue("savedDirectory", this);
 
         encryptedConnection = new BoolValue("ecryptedConnection", this, true);
@@ -317,6 +317,42 @@ public class ImportEvent {
         }
     }
 
+    /**
+     * Raised once the server has finished processing a fileset, or after
+     * the upload if the importer does not wait on the server.
+     */
+    public static class FILESET_THROUGHPUT extends ImportEvent {
+        public final ImportContainer container;
+        /** Milliseconds taken to prepare and upload the fileset. */
+        public final long uploadTime;
+        /** Milliseconds taken by the server, or -1 if not waited on. */
+        public final long processTime;
+
+        public FILESET_THROUGHPUT(ImportContainer container, long uploadTime,
+                long processTime) {
+            this.container = container;
+            this.uploadTime = uploadTime;
+            this.processTime = processTime;
+        }
+
+        /**
+         * @return the upload rate in megabytes per second.
+         */
+        public double getUploadRate() {
+            long size = container.getUsedFilesTotalSize();
+            return uploadTime <= 0 ? 0.0 :
+                (size / (1024.0 * 1024.0)) / (uploadTime / 1000.0);
+        }
+
+        @Override
+        public String toLog() {
+            return String.format("%s: %s uploaded in %sms (%.2f MB/s), "
+                    + "processed in %sms", super.toLog(),
+                    container.getFile().getAbsolutePath(), uploadTime,
+                    getUploadRate(), processTime);
+        }
+    }
+
     // count-events
 
     public static class LOADING_IMAGE extends COUNT_EVENT {
@@ -24,9 +24,14 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import loci.common.Location;
 import loci.formats.FormatException;
@@ -82,6 +87,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import Ice.Current;
 
@@ -150,6 +156,17 @@ public class ImportLibrary implements IObservable
      */
     private final String category;
 
+    /**
+     * Index of the fileset being imported by the current thread during a
+     * concurrent import. Null otherwise.
+     */
+    private final ThreadLocal<Integer> currentIndex = new ThreadLocal<Integer>();
+
+    /**
+     * Orders the events of a concurrent import. Null otherwise.
+     */
+    private volatile OrderedEvents orderedEvents;
+
     static {
         final Set<ChecksumType> availableTypes = checksumProviderFactory.getAvailableTypes();
         final ImmutableList.Builder<ChecksumAlgorithm> builder = ImmutableList.builder();
@@ -246,12 +263,125 @@ public class ImportLibrary implements IObservable
      * @see ome.formats.importer.IObservable#notifyObservers(ome.formats.importer.ImportEvent)
      */
     public void notifyObservers(ImportEvent event)
+    {
+        notifyObservers(currentIndex.get(), event);
+    }
+
+    /**
+     * Passes the event to the observers unless it belongs to a fileset of a
+     * concurrent import which is preceded by unfinished filesets, in which
+     * case it is held back by the {@link OrderedEvents}.
+     * @param index the index of the fileset, may be null.
+     * @param event the event to pass on
+     */
+    private void notifyObservers(Integer index, ImportEvent event)
+    {
+        final OrderedEvents ordered = orderedEvents;
+        if (index != null && ordered != null) {
+            ordered.add(index, event);
+        } else {
+            deliver(event);
+        }
+    }
+
+    private void deliver(ImportEvent event)
     {
         for (IObserver observer : observers) {
             observer.update(this, event);
         }
     }
 
+    /**
+     * Holds back the events of each fileset of a concurrent import until all
+     * of the preceding filesets are finished, so that observers receive the
+     * events in the same order as for a serial import. The events of the
+     * first unfinished fileset are delivered immediately. Observers are
+     * never called concurrently, nor while the lock of this instance is
+     * held: the released events are queued and passed on by one thread at
+     * a time.
+     */
+    private class OrderedEvents
+    {
+        private final List<List<ImportEvent>> held;
+        private final boolean[] finished;
+        private final LinkedList<ImportEvent> released =
+                new LinkedList<ImportEvent>();
+        private boolean delivering = false;
+        private int head = 0;
+
+        OrderedEvents(int total)
+        {
+            held = new ArrayList<List<ImportEvent>>(total);
+            for (int i = 0; i < total; i++) {
+                held.add(new ArrayList<ImportEvent>());
+            }
+            finished = new boolean[total];
+        }
+
+        void add(int index, ImportEvent event)
+        {
+            synchronized (this) {
+                if (index <= head) {
+                    released.add(event);
+                } else {
+                    held.get(index).add(event);
+                }
+            }
+            deliverReleased();
+        }
+
+        void finish(int index)
+        {
+            synchronized (this) {
+                finished[index] = true;
+                while (head < finished.length && finished[head]) {
+                    head++;
+                    if (head < finished.length) {
+                        final List<ImportEvent> events = held.get(head);
+                        released.addAll(events);
+                        events.clear();
+                    }
+                }
+            }
+            deliverReleased();
+        }
+
+        /**
+         * Passes on the released events unless another thread is already
+         * doing so, in which case that thread will pass them on.
+         */
+        private void deliverReleased()
+        {
+            synchronized (this) {
+                if (delivering) {
+                    return;
+                }
+                delivering = true;
+            }
+            boolean done = false;
+            try {
+                while (true) {
+                    final ImportEvent event;
+                    synchronized (this) {
+                        event = released.poll();
+                        if (event == null) {
+                            delivering = false;
+                            done = true;
+                            return;
+                        }
+                    }
+                    deliver(event);
+                }
+            } finally {
+                if (!done) {
+                    synchronized (this) {
+                        delivering = false;
+                    }
+                }
+            }
+        }
+    }
+
 
     // ~ Actions
     // =========================================================================
@@ -266,36 +396,20 @@ public class ImportLibrary implements IObservable
     {
         List<ImportContainer> containers = candidates.getContainers();
         if (containers != null) {
+            final int threads = config.parallelFileset.get();
+            if (threads > 1 && containers.size() > 1) {
+                return importConcurrently(config, containers, threads);
+            }
             int numDone = 0;
             for (int index = 0; index < containers.size(); index++) {
                 ImportContainer ic = containers.get(index);
-                if (DATASET_CLASS.equals(config.targetClass.get()))
-                {
-                    ic.setTarget(store.getTarget(
-                            Dataset.class, config.targetId.get()));
-                }
-                else if (SCREEN_CLASS.equals(config.targetClass.get()))
-                {
-                    ic.setTarget(store.getTarget(
-                            Screen.class, config.targetId.get()));
-                }
-
-                if (config.checksumAlgorithm.get() != null) {
-                    ic.setChecksumAlgorithm(config.checksumAlgorithm.get());
-                }
+                prepare(config, ic);
 
                 try {
                     importImage(ic,index,numDone,containers.size());
                     numDone++;
                 } catch (Throwable t) {
-                    String message = "Error on import";
-                    if (t instanceof ServerError) {
-                        final ServerError se = (ServerError) t;
-                        if (StringUtils.isNotBlank(se.message)) {
-                            message += ": " + se.message;
-                        }
-                    }
-                    log.error(message, t);
+                    logError(t);
                     if (!config.contOnError.get()) {
                         log.info("Exiting on error");
                         return false;
@@ -308,6 +422,116 @@ public class ImportLibrary implements IObservable
         return true;
     }
 
+    /**
+     * Imports the containers with the given number of threads, each of which
+     * uploads a fileset and then waits on the server to process it. The
+     * upload of one fileset therefore overlaps with the processing of the
+     * previous ones. The events are passed to the observers in the order of
+     * the containers via {@link OrderedEvents}. On an error without
+     * {@link ImportConfig#contOnError}, filesets which have not yet started
+     * are skipped and those which are running are allowed to finish.
+     * @param config The configuration information.
+     * @param containers The containers to import.
+     * @param threads The number of filesets imported at once.
+     * @return if the import did not exit because of an error
+     */
+    private boolean importConcurrently(final ImportConfig config,
+            final List<ImportContainer> containers, int threads)
+    {
+        final int total = containers.size();
+        final AtomicBoolean failed = new AtomicBoolean();
+        final OrderedEvents ordered = new OrderedEvents(total);
+        log.info("Importing {} filesets with {} threads", total, threads);
+
+        orderedEvents = ordered;
+        final ExecutorService pool = Executors.newFixedThreadPool(threads,
+                new ThreadFactoryBuilder()
+                    .setNameFormat("ImportLibrary-%d")
+                    .setDaemon(true).build());
+        try {
+            for (int i = 0; i < total; i++) {
+                final int index = i;
+                final ImportContainer ic = containers.get(index);
+                prepare(config, ic);
+                pool.execute(new Runnable() {
+                    public void run() {
+                        currentIndex.set(index);
+                        try {
+                            if (failed.get()) {
+                                return;
+                            }
+                            importImage(ic, index, index, total);
+                        } catch (Throwable t) {
+                            logError(t);
+                            if (!config.contOnError.get()) {
+                                failed.set(true);
+                            } else {
+                                log.info("Continuing after error");
+                            }
+                        } finally {
+                            currentIndex.remove();
+                            ordered.finish(index);
+                        }
+                    }
+                });
+            }
+        } finally {
+            pool.shutdown();
+            boolean interrupted = false;
+            while (!pool.isTerminated()) {
+                try {
+                    pool.awaitTermination(1, TimeUnit.SECONDS);
+                } catch (InterruptedException ie) {
+                    interrupted = true;
+                }
+            }
+            orderedEvents = null;
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (failed.get()) {
+            log.info("Exiting on error");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Sets the target and checksum algorithm of the container from the
+     * configuration.
+     */
+    private void prepare(ImportConfig config, ImportContainer ic)
+    {
+        if (DATASET_CLASS.equals(config.targetClass.get()))
+        {
+            ic.setTarget(store.getTarget(
+                    Dataset.class, config.targetId.get()));
+        }
+        else if (SCREEN_CLASS.equals(config.targetClass.get()))
+        {
+            ic.setTarget(store.getTarget(
+                    Screen.class, config.targetId.get()));
+        }
+
+        if (config.checksumAlgorithm.get() != null) {
+            ic.setChecksumAlgorithm(config.checksumAlgorithm.get());
+        }
+    }
+
+    private void logError(Throwable t)
+    {
+        String message = "Error on import";
+        if (t instanceof ServerError) {
+            final ServerError se = (ServerError) t;
+            if (StringUtils.isNotBlank(se.message)) {
+                message += ": " + se.message;
+            }
+        }
+        log.error(message, t);
+    }
+
     /**
      * Delete files from the managed repository.
      * @param container The current import container containing usedFiles to be
@@ -494,6 +718,7 @@ public class ImportLibrary implements IObservable
                 return Collections.emptyList();
             }
         }
+        final long uploadStart = System.currentTimeMillis();
         final ImportProcessPrx proc = createImport(container);
         final String[] srcFiles = container.getUsedFiles();
         final List<String> checksums = new ArrayList<String>();
@@ -531,6 +756,7 @@ public class ImportLibrary implements IObservable
 
         // At this point the import is running, check handle for number of
         // steps.
+        final long processStart = System.currentTimeMillis();
         ImportCallback cb = null;
         try {
             cb = createCallback(proc, handle, container);
@@ -540,6 +766,8 @@ public class ImportLibrary implements IObservable
                 cb.close(false);
                 cb = null;
                 handle = null;
+                notifyObservers(new ImportEvent.FILESET_THROUGHPUT(container,
+                        processStart - uploadStart, -1));
                 return Collections.emptyList(); // EARLY EXIT
             }
 
@@ -557,6 +785,9 @@ public class ImportLibrary implements IObservable
             if (rsp == null) {
                 throw new Exception("Import failure");
             }
+            notifyObservers(new ImportEvent.FILESET_THROUGHPUT(container,
+                    processStart - uploadStart,
+                    System.currentTimeMillis() - processStart));
             return rsp.pixels;
         } finally {
             if (cb != null) {
@@ -579,6 +810,12 @@ public class ImportLibrary implements IObservable
 
         final Long logFileId;
 
+        /**
+         * Index of the fileset during a concurrent import, since the
+         * callback methods are invoked by Ice threads.
+         */
+        final Integer index = currentIndex.get();
+
         /**
          * If null, then {@link #onFinished(Response, Status, Current)} has
          * not yet been called with a non-error response. Field is volatile
@@ -592,7 +829,7 @@ public class ImportLibrary implements IObservable
                 this.container = container;
                 this.logFileId = loadLogFile();
                 initializationDone();
-                notifyObservers(new ImportEvent.IMPORT_STARTED(
+                notifyObservers(index, new ImportEvent.IMPORT_STARTED(
                         0, this.container,
                         null, null, 0, null, 0, 0, logFileId));
         }
@@ -624,23 +861,23 @@ public class ImportLibrary implements IObservable
         @Override
         public void step(int step, int total, Ice.Current current) {
             if (step == 1) {
-                notifyObservers(new ImportEvent.METADATA_IMPORTED(
+                notifyObservers(index, new ImportEvent.METADATA_IMPORTED(
                         0, container,
                         null, null, 0, null, step, total, logFileId));
             } else if (step == 2) {
-                notifyObservers(new ImportEvent.PIXELDATA_PROCESSED(
+                notifyObservers(index, new ImportEvent.PIXELDATA_PROCESSED(
                         0, container,
                         null, null, 0, null, step, total, logFileId));
             } else if (step == 3) {
-                notifyObservers(new ImportEvent.THUMBNAILS_GENERATED(
+                notifyObservers(index, new ImportEvent.THUMBNAILS_GENERATED(
                         0, container,
                         null, null, 0, null, step, total, logFileId));
             } else if (step == 4) {
-                notifyObservers(new ImportEvent.METADATA_PROCESSED(
+                notifyObservers(index, new ImportEvent.METADATA_PROCESSED(
                         0, container,
                         null, null, 0, null, step, total, logFileId));
             } else if (step == 5) {
-                notifyObservers(new ImportEvent.OBJECTS_RETURNED(
+                notifyObservers(index, new ImportEvent.OBJECTS_RETURNED(
                         0, container,
                         null, null, 0, null, step, total, logFileId));
             }
@@ -666,7 +903,7 @@ public class ImportLibrary implements IObservable
                         "Name: %s\n" +
                         "Parameters: %s\n", err.category, err.name,
                         err.parameters));
-                notifyObservers(new ErrorHandler.INTERNAL_EXCEPTION(
+                notifyObservers(index, new ErrorHandler.INTERNAL_EXCEPTION(
                         container.getFile().getAbsolutePath(), rt,
                         container.getUsedFiles(), container.getReader()));
             } else if (rsp instanceof ImportResponse) {
@@ -674,7 +911,7 @@ public class ImportLibrary implements IObservable
                 if (this.importResponse == null)
                 {
                     // Only respond once.
-                    notifyObservers(new ImportEvent.IMPORT_DONE(
+                    notifyObservers(index, new ImportEvent.IMPORT_DONE(
                         0, container,
                         null, null, 0, null, rv.pixels, fs, rv.objects));
                 }
@@ -682,7 +919,7 @@ public class ImportLibrary implements IObservable
             } else {
                 final RuntimeException rt
                     = new RuntimeException("Unknown response: " + rsp);
-                notifyObservers(new ErrorHandler.INTERNAL_EXCEPTION(
+                notifyObservers(index, new ErrorHandler.INTERNAL_EXCEPTION(
                         container.getFile().getAbsolutePath(), rt,
                         container.getUsedFiles(), container.getReader()));
             }
@@ -440,6 +440,10 @@ public class CommandLineImporter {
             + "    --no-upgrade-check\t\tDisable upgrade check for each import\n"
             + "  e.g. $ bin/omero import -- --no-upgrade-check foo.tiff\n"
             + "       $ ./importer-cli --no-upgrade-check bar.tiff\n\n"
+            + "    --parallel-fileset=ARG\tNumber of filesets to upload and import at once (default: 1),\n"
+            + "                            \tuploading the next filesets while the server processes the previous ones\n"
+            + "  e.g. $ bin/omero import -- --parallel-fileset=4 some_directory/\n"
+            + "       $ ./importer-cli --parallel-fileset=4 some_directory/\n\n"
             + "\n"
             + "  Feedback:\n"
             + "  ---------\n\n"
@@ -564,6 +568,8 @@ public class CommandLineImporter {
                 new LongOpt("no-stats-info", LongOpt.NO_ARGUMENT, null, 22);
         LongOpt noUpgradeCheck =
                 new LongOpt("no-upgrade-check", LongOpt.NO_ARGUMENT, null, 23);
+        LongOpt parallelFileset =
+                new LongOpt("parallel-fileset", LongOpt.REQUIRED_ARGUMENT, null, 24);
 
         // DEPRECATED OPTIONS
         LongOpt plateName = new LongOpt(
@@ -589,7 +595,7 @@ public class CommandLineImporter {
                                 checksumAlgorithm, minutesWait,
                                 closeCompleted, waitCompleted, autoClose,
                                 exclude, noStatsInfo,
-                                noUpgradeCheck, qaBaseURL,
+                                noUpgradeCheck, qaBaseURL, parallelFileset,
                                 plateName, plateDescription,
                                 noThumbnailsDeprecated,
                                 checksumAlgorithmDeprecated,
@@ -727,6 +733,12 @@ public class CommandLineImporter {
                 config.checkUpgrade.set(false);
                 break;
             }
+            case 24: {
+                int threads = Integer.parseInt(g.getOptarg());
+                log.info("Importing {} filesets in parallel", threads);
+                config.parallelFileset.set(threads);
+                break;
+            }
             // ADVANCED END ---------------------------------------------------
             // DEPRECATED OPTIONS
             case 90: {
@@ -14,6 +14,9 @@ import ome.formats.importer.ImportEvent;
 import omero.model.IObject;
 import omero.model.Pixels;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.apache.commons.lang.time.DurationFormatUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,6 +48,9 @@ public class LoggingImportMonitor implements IObserver
             importSummary.setTime(ev.importTime);
             importSummary.setErrors(ev.errorCount);
             importSummary.report();
+        } else if (event instanceof FILESET_THROUGHPUT) {
+            log.info(event.toLog());
+            importSummary.update((FILESET_THROUGHPUT) event);
         } else if (event instanceof FILESET_UPLOAD_PREPARATION) {
             log.info(event.toLog());
         } else if (event instanceof FILESET_UPLOAD_START) {
@@ -81,6 +87,10 @@ public class LoggingImportMonitor implements IObserver
         /** Time taken by import in milliseconds. **/
         private long time;
 
+        /** Upload and processing times of each fileset. **/
+        private final List<FILESET_THROUGHPUT> throughput =
+            new ArrayList<FILESET_THROUGHPUT>();
+
         /**
          * Updates the state of the object using information held by given even
          * type.
@@ -107,6 +117,16 @@ public class LoggingImportMonitor implements IObserver
             uploadedFiles++;
         }
 
+        /**
+         * Updates the state of the object using information held by given event
+         * type.
+         *
+         * @param event An import event.
+         */
+        public void update(FILESET_THROUGHPUT event) {
+            throughput.add(event);
+        }
+
         /**
          * Sets the import error count to the given number.
          *
@@ -144,6 +164,25 @@ public class LoggingImportMonitor implements IObserver
             sb.append(entityCountToString("error", errors));
             sb.append(String.format(" in %s\n",
                     DurationFormatUtils.formatDurationHMS(time)));
+            if (!throughput.isEmpty()) {
+                sb.append("\n==> Throughput\n");
+                for (FILESET_THROUGHPUT ev : throughput) {
+                    sb.append(String.format(
+                            "%s: %.1f MB uploaded in %s (%.2f MB/s)",
+                            ev.container.getFile().getName(),
+                            ev.container.getUsedFilesTotalSize()
+                                / (1024.0 * 1024.0),
+                            DurationFormatUtils.formatDurationHMS(
+                                    ev.uploadTime),
+                            ev.getUploadRate()));
+                    if (ev.processTime >= 0) {
+                        sb.append(String.format(", processed in %s",
+                                DurationFormatUtils.formatDurationHMS(
+                                        ev.processTime)));
+                    }
+                    sb.append("\n");
+                }
+            }
             System.err.print(sb.toString());
         }
 
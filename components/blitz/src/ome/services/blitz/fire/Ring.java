@@ -272,6 +272,15 @@ public class Ring extends _ClusterNodeDisp implements Redirector.Context {
         return redirector.getProxyOrNull(this, userId, control, current);
     }
 
+    /**
+     * Delegates to the {@link #redirector} strategy configured for this
+     * instance. Called periodically so that other nodes can see the load of
+     * this one.
+     */
+    public void publishLoad() {
+        redirector.publishLoad(this);
+    }
+
     public Set<String> knownManagers() {
         return getManagerList(true);
     }
@@ -10,6 +10,8 @@ package ome.services.blitz.impl;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import ome.services.blitz.util.BlitzExecutor;
 import ome.services.blitz.util.ServiceFactoryAware;
@@ -93,12 +95,34 @@ import Ice.Current;
 public class RenderingEngineI extends AbstractPyramidServant implements
         _RenderingEngineOperations, ServiceFactoryAware {
 	
+	/** Number of instances which have not yet been closed. */
+	private static final AtomicInteger open = new AtomicInteger();
+
+	private final AtomicBoolean closed = new AtomicBoolean();
+
 	private ServiceFactoryI sf;
 	
 	private IRoiPrx roiService;
 	
     public RenderingEngineI(RenderingEngine service, BlitzExecutor be) {
         super(service, be);
+        open.incrementAndGet();
+    }
+
+    /**
+     * Returns the number of rendering engines in this server which have
+     * not yet been closed.
+     */
+    public static int getOpenCount() {
+        return open.get();
+    }
+
+    @Override
+    protected void postClose(Current current) {
+        super.postClose(current);
+        if (closed.compareAndSet(false, true)) {
+            open.decrementAndGet();
+        }
     }
     
 	public void setServiceFactory(ServiceFactoryI sf) throws ServerError {
@@ -26,22 +26,28 @@ import javax.imageio.ImageIO;
 
 import ome.api.IQuery;
 import ome.api.IUpdate;
+import ome.conditions.ApiUsageException;
+import ome.conditions.SecurityViolation;
 import ome.model.IObject;
 import ome.model.core.OriginalFile;
 import ome.parameters.Filter;
+import ome.security.ACLVoter;
 import ome.services.blitz.util.BlitzExecutor;
 import ome.services.blitz.util.BlitzOnly;
 import ome.services.blitz.util.ServiceFactoryAware;
 import ome.services.roi.GeomTool;
 import ome.services.throttling.Adapter;
 import ome.services.util.Executor.SimpleWork;
+import ome.system.EventContext;
 import ome.system.ServiceFactory;
 import ome.tools.hibernate.QueryBuilder;
 import ome.util.SqlAction;
+import ome.util.Utils;
 import omero.ServerError;
 import omero.api.AMD_IRoi_findByImage;
 import omero.api.AMD_IRoi_findByPlane;
 import omero.api.AMD_IRoi_findByRoi;
+import omero.api.AMD_IRoi_findShapeBatch;
 import omero.api.AMD_IRoi_getMeasuredRois;
 import omero.api.AMD_IRoi_getMeasuredRoisMap;
 import omero.api.AMD_IRoi_getPoints;
@@ -50,15 +56,18 @@ import omero.api.AMD_IRoi_getRoiStats;
 import omero.api.AMD_IRoi_getShapeStats;
 import omero.api.AMD_IRoi_getShapeStatsList;
 import omero.api.AMD_IRoi_getTable;
+import omero.api.AMD_IRoi_saveShapeBatch;
 import omero.api.AMD_IRoi_uploadMask;
 import omero.api.RoiOptions;
 import omero.api.RoiResult;
+import omero.api.ShapeBatch;
 import omero.api._IRoiOperations;
 import omero.constants.namespaces.NSMEASUREMENT;
 import omero.model.OriginalFileI;
 import omero.model.Roi;
 import omero.model.Shape;
 import omero.util.IceMapper;
+import omero.util.ShapeBatchCodec;
 
 import org.apache.commons.collections.MultiMap;
 import org.apache.commons.collections.map.MultiValueMap;
@@ -82,6 +91,14 @@ public class RoiI extends AbstractAmdServant implements _IRoiOperations,
     
     protected final SqlAction sql;
 
+    /**
+     * Largest number of shapes returned by a single call to
+     * {@link #findShapeBatch_async(AMD_IRoi_findShapeBatch, long, long, int, Current)}.
+     */
+    public static final int MAX_SHAPE_BATCH = 10000;
+
+    protected ACLVoter aclVoter;
+
     public RoiI(BlitzExecutor be, GeomTool geomTool, SqlAction sql) {
     	super(null, be);
         this.geomTool = geomTool;
@@ -92,6 +109,14 @@ public class RoiI extends AbstractAmdServant implements _IRoiOperations,
         this.factory = sf;
     }
 
+    /**
+     * Required by {@link #saveShapeBatch_async(AMD_IRoi_saveShapeBatch, long, ShapeBatch, Current)}
+     * which writes rows directly and so bypasses the Hibernate listeners.
+     */
+    public void setAclVoter(ACLVoter aclVoter) {
+        this.aclVoter = aclVoter;
+    }
+
     // ~ Service methods
     // =========================================================================
 
@@ -580,6 +605,279 @@ public class RoiI extends AbstractAmdServant implements _IRoiOperations,
 		}));
 	}
     
+    // Bulk methods.
+    // =========================================================================
+
+    public void findShapeBatch_async(AMD_IRoi_findShapeBatch __cb,
+            final long imageId, final long afterShapeId, final int limit,
+            Current __current) throws ServerError {
+
+        final IceMapper mapper = new IceMapper(IceMapper.UNMAPPED);
+
+        runnableCall(__current, new Adapter(__cb, __current, mapper, factory
+                .getExecutor(), factory.principal, new SimpleWork(this,
+                "findShapeBatch", imageId, afterShapeId, limit) {
+
+            @Transactional(readOnly = true)
+            public Object doWork(Session session, ServiceFactory sf) {
+                final int max = limit < 1 || limit > MAX_SHAPE_BATCH ?
+                        MAX_SHAPE_BATCH : limit;
+                // One extra row tells whether another page exists.
+                final List<ome.model.roi.Shape> shapes = session.createQuery(
+                        "select s from Shape s join s.roi r " +
+                        "where r.image.id = :id and s.id > :after " +
+                        "order by s.id")
+                        .setParameter("id", imageId)
+                        .setParameter("after", afterShapeId)
+                        .setMaxResults(max + 1).list();
+
+                final boolean more = shapes.size() > max;
+                final int count = more ? max : shapes.size();
+                final ShapeBatchCodec.Encoder encoder =
+                        new ShapeBatchCodec.Encoder(count);
+                for (int i = 0; i < count; i++) {
+                    encode(encoder, shapes.get(i));
+                }
+                final long next = more ? shapes.get(count - 1).getId()
+                        : ShapeBatchCodec.NO_MORE_SHAPES;
+                return encoder.build(imageId, next);
+            }
+        }));
+    }
+
+    public void saveShapeBatch_async(AMD_IRoi_saveShapeBatch __cb,
+            final long imageId, final ShapeBatch batch, Current __current)
+            throws ServerError {
+
+        final IceMapper mapper = new IceMapper(IceMapper.UNMAPPED);
+
+        runnableCall(__current, new Adapter(__cb, __current, mapper, factory
+                .getExecutor(), factory.principal, new SimpleWork(this,
+                "saveShapeBatch", imageId) {
+
+            @Transactional(readOnly = false)
+            public Object doWork(Session session, ServiceFactory sf) {
+                final ShapeBatchCodec.Decoder d;
+                try {
+                    d = new ShapeBatchCodec.Decoder(batch);
+                } catch (IllegalArgumentException iae) {
+                    throw new ApiUsageException(iae.getMessage());
+                }
+
+                final ome.model.core.Image image = (ome.model.core.Image)
+                        session.get(ome.model.core.Image.class, imageId);
+                if (image == null) {
+                    throw new ApiUsageException("No image: " + imageId);
+                }
+                final EventContext ec = sf.getAdminService().getEventContext();
+                if (aclVoter == null
+                        || !aclVoter.allowAnnotate(image, image.getDetails())
+                        || !ec.getCurrentGroupId().equals(
+                                image.getDetails().getGroup().getId())) {
+                    throw new SecurityViolation(
+                            "Cannot add ROIs to image " + imageId);
+                }
+                return insertShapeBatch(d, batch, imageId, ec);
+            }
+        }));
+    }
+
+    /**
+     * Inserts the decoded shapes as new ROIs via batched JDBC and records
+     * the matching event logs, mirroring what the Hibernate listeners would
+     * have written for the same objects.
+     */
+    private ShapeBatch insertShapeBatch(ShapeBatchCodec.Decoder d,
+            ShapeBatch batch, long imageId, EventContext ec) {
+
+        final int n = d.size();
+        final Map<Long, Long> roiKeys = new HashMap<Long, Long>();
+        final Map<Long, Integer> roiIndexes = new HashMap<Long, Integer>();
+        for (int i = 0; i < n; i++) {
+            if (!roiKeys.containsKey(d.roiId(i))) {
+                roiKeys.put(d.roiId(i), (long) roiKeys.size());
+            }
+        }
+
+        final long firstRoi = roiKeys.isEmpty() ? 0 :
+            sql.nextValue("seq_roi", roiKeys.size()) - roiKeys.size() + 1;
+        final long firstShape = n == 0 ? 0 :
+            sql.nextValue("seq_shape", n) - n + 1;
+
+        final Object perms = Utils.internalForm(ec.getCurrentGroupPermissions());
+        final Long eventId = ec.getCurrentEventId();
+        final Long groupId = ec.getCurrentGroupId();
+        final Long ownerId = ec.getCurrentUserId();
+
+        final List<Object[]> rois = new ArrayList<Object[]>(roiKeys.size());
+        final List<Object[]> logs = new ArrayList<Object[]>(roiKeys.size() + n);
+        for (Long key : roiKeys.values()) {
+            final long roiId = firstRoi + key;
+            rois.add(new Object[] { roiId, perms, imageId, eventId, groupId,
+                    ownerId, eventId });
+            logs.add(new Object[] { roiId, ome.model.roi.Roi.class });
+        }
+
+        final List<Object[]> shapes = new ArrayList<Object[]>(n);
+        final long[] roiIds = new long[n];
+        final long[] shapeIds = new long[n];
+        for (int i = 0; i < n; i++) {
+            final long key = d.roiId(i);
+            final long roiId = firstRoi + roiKeys.get(key);
+            final Integer index = roiIndexes.containsKey(key) ?
+                    roiIndexes.get(key) + 1 : 0;
+            roiIndexes.put(key, index);
+            roiIds[i] = roiId;
+            shapeIds[i] = firstShape + i;
+            shapes.add(shapeRow(d, i, shapeIds[i], roiId, index, perms,
+                    eventId, groupId, ownerId));
+            logs.add(new Object[] { shapeIds[i], shapeClass(d.type(i)) });
+        }
+
+        sql.insertRois(rois);
+        sql.insertShapes(shapes);
+
+        final long lastLog = sql.nextValue("seq_eventlog", logs.size());
+        long logId = lastLog - logs.size() + 1;
+        final List<Object[]> logRows = new ArrayList<Object[]>(logs.size());
+        for (Object[] log : logs) {
+            logRows.add(new Object[] { logId++, -35L, log[0],
+                    ((Class<?>) log[1]).getName(), "INSERT", eventId });
+        }
+        sql.insertLogs(logRows);
+
+        final ShapeBatch result = (ShapeBatch) batch.clone();
+        result.roiIds = roiIds;
+        result.shapeIds = shapeIds;
+        return result;
+    }
+
+    private static Object[] shapeRow(ShapeBatchCodec.Decoder d, int i,
+            long shapeId, long roiId, int index, Object perms, Long eventId,
+            Long groupId, Long ownerId) {
+        // x, y, width, height, cx, cy, rx, ry, x1, y1, x2, y2
+        final Double[] geom = new Double[12];
+        String points = null;
+        byte[] bytes = null;
+        final String discriminator;
+        switch (d.type(i)) {
+            case ShapeBatchCodec.RECT:
+                discriminator = "rect";
+                copy(d, i, geom, 0, 4);
+                break;
+            case ShapeBatchCodec.MASK:
+                discriminator = "mask";
+                copy(d, i, geom, 0, 4);
+                bytes = d.mask(i);
+                break;
+            case ShapeBatchCodec.ELLIPSE:
+                discriminator = "ellipse";
+                copy(d, i, geom, 4, 4);
+                break;
+            case ShapeBatchCodec.POINT:
+                discriminator = "point";
+                copy(d, i, geom, 4, 2);
+                break;
+            case ShapeBatchCodec.LINE:
+                discriminator = "line";
+                copy(d, i, geom, 8, 4);
+                break;
+            case ShapeBatchCodec.LABEL:
+                discriminator = "text";
+                copy(d, i, geom, 0, 2);
+                break;
+            case ShapeBatchCodec.POLYGON:
+                discriminator = "polygon";
+                points = d.points(i);
+                break;
+            case ShapeBatchCodec.POLYLINE:
+                discriminator = "polyline";
+                points = d.points(i);
+                break;
+            default:
+                throw new ApiUsageException("Unknown shape type: " + d.type(i));
+        }
+        return new Object[] { discriminator, shapeId, perms, roiId, index,
+                d.theZ(i), d.theT(i), d.theC(i), geom[0], geom[1], geom[2],
+                geom[3], geom[4], geom[5], geom[6], geom[7], geom[8], geom[9],
+                geom[10], geom[11], points, d.text(i), bytes, eventId,
+                groupId, ownerId, eventId };
+    }
+
+    private static void copy(ShapeBatchCodec.Decoder d, int i, Double[] geom,
+            int offset, int count) {
+        for (int j = 0; j < count; j++) {
+            geom[offset + j] = d.coord(i, j);
+        }
+    }
+
+    private static Class<? extends ome.model.roi.Shape> shapeClass(byte type) {
+        switch (type) {
+            case ShapeBatchCodec.RECT: return ome.model.roi.Rect.class;
+            case ShapeBatchCodec.MASK: return ome.model.roi.Mask.class;
+            case ShapeBatchCodec.ELLIPSE: return ome.model.roi.Ellipse.class;
+            case ShapeBatchCodec.POINT: return ome.model.roi.Point.class;
+            case ShapeBatchCodec.LINE: return ome.model.roi.Line.class;
+            case ShapeBatchCodec.LABEL: return ome.model.roi.Label.class;
+            case ShapeBatchCodec.POLYGON: return ome.model.roi.Polygon.class;
+            default: return ome.model.roi.Polyline.class;
+        }
+    }
+
+    /**
+     * Appends a server-side shape to the encoder. Paths are not part of the
+     * compact encoding and are skipped.
+     */
+    private static void encode(ShapeBatchCodec.Encoder encoder,
+            ome.model.roi.Shape shape) {
+        final long roiId = shape.getRoi().getId();
+        final long id = shape.getId();
+        final Integer z = shape.getTheZ();
+        final Integer t = shape.getTheT();
+        final Integer c = shape.getTheC();
+        if (shape instanceof ome.model.roi.Rect) {
+            ome.model.roi.Rect r = (ome.model.roi.Rect) shape;
+            encoder.add(roiId, id, ShapeBatchCodec.RECT, z, t, c,
+                    ShapeBatchCodec.coords(r.getX(), r.getY(), r.getWidth(),
+                            r.getHeight()), r.getTextValue(), null);
+        } else if (shape instanceof ome.model.roi.Mask) {
+            ome.model.roi.Mask m = (ome.model.roi.Mask) shape;
+            encoder.add(roiId, id, ShapeBatchCodec.MASK, z, t, c,
+                    ShapeBatchCodec.coords(m.getX(), m.getY(), m.getWidth(),
+                            m.getHeight()), m.getTextValue(), m.getBytes());
+        } else if (shape instanceof ome.model.roi.Ellipse) {
+            ome.model.roi.Ellipse e = (ome.model.roi.Ellipse) shape;
+            encoder.add(roiId, id, ShapeBatchCodec.ELLIPSE, z, t, c,
+                    ShapeBatchCodec.coords(e.getCx(), e.getCy(), e.getRx(),
+                            e.getRy()), e.getTextValue(), null);
+        } else if (shape instanceof ome.model.roi.Point) {
+            ome.model.roi.Point p = (ome.model.roi.Point) shape;
+            encoder.add(roiId, id, ShapeBatchCodec.POINT, z, t, c,
+                    ShapeBatchCodec.coords(p.getCx(), p.getCy()),
+                    p.getTextValue(), null);
+        } else if (shape instanceof ome.model.roi.Line) {
+            ome.model.roi.Line l = (ome.model.roi.Line) shape;
+            encoder.add(roiId, id, ShapeBatchCodec.LINE, z, t, c,
+                    ShapeBatchCodec.coords(l.getX1(), l.getY1(), l.getX2(),
+                            l.getY2()), l.getTextValue(), null);
+        } else if (shape instanceof ome.model.roi.Label) {
+            ome.model.roi.Label l = (ome.model.roi.Label) shape;
+            encoder.add(roiId, id, ShapeBatchCodec.LABEL, z, t, c,
+                    ShapeBatchCodec.coords(l.getX(), l.getY()),
+                    l.getTextValue(), null);
+        } else if (shape instanceof ome.model.roi.Polygon) {
+            ome.model.roi.Polygon p = (ome.model.roi.Polygon) shape;
+            encoder.add(roiId, id, ShapeBatchCodec.POLYGON, z, t, c,
+                    ShapeBatchCodec.parsePoints(p.getPoints()),
+                    p.getTextValue(), null);
+        } else if (shape instanceof ome.model.roi.Polyline) {
+            ome.model.roi.Polyline p = (ome.model.roi.Polyline) shape;
+            encoder.add(roiId, id, ShapeBatchCodec.POLYLINE, z, t, c,
+                    ShapeBatchCodec.parsePoints(p.getPoints()),
+                    p.getTextValue(), null);
+        }
+    }
+
     // Helpers
     // =========================================================================
 
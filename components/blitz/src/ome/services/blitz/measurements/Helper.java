@@ -77,6 +77,34 @@ public abstract class Helper {
 
     abstract void setValue(Column col, int rowIdx, Object object);
 
+    /**
+     * Returns the primitive (or String) array backing the given column.
+     */
+    abstract Object getValues(Column col);
+
+    /**
+     * Copies a range of a primitive array, e.g. a <code>double[]</code> for
+     * a {@link DoubleColumn}, into the column without boxing each value.
+     * 
+     * @param col The column, already sized by {@link #setSize(Column, int)}.
+     * @param rowIdx The first row of the column to copy to.
+     * @param array The values.
+     * @param from The first index of the array to copy from.
+     * @param length The number of values to copy.
+     * @throws ServerError if the array does not match the column type.
+     */
+    void copyValues(Column col, int rowIdx, Object array, int from, int length)
+            throws ServerError {
+        try {
+            System.arraycopy(array, from, getValues(col), rowIdx, length);
+        } catch (ArrayStoreException ase) {
+            throw new ValidationException(null, null, String.format(
+                    "Cannot copy %s into %s", array == null ? null : array
+                            .getClass().getSimpleName(), col.getClass()
+                            .getSimpleName()));
+        }
+    }
+
     static class FileHelper extends Helper {
         @Override
         Column newInstance() {
@@ -88,6 +116,11 @@ public abstract class Helper {
             ((FileColumn) col).values = new long[length];
         }
 
+        @Override
+        Object getValues(Column col) {
+            return ((FileColumn) col).values;
+        }
+
         @Override
         void setValue(Column col, int rowIdx, Object value) {
             ((FileColumn) col).values[rowIdx] = ((Long) value).longValue();
@@ -105,6 +138,11 @@ public abstract class Helper {
             ((RoiColumn) col).values = new long[length];
         }
 
+        @Override
+        Object getValues(Column col) {
+            return ((RoiColumn) col).values;
+        }
+
         @Override
         void setValue(Column col, int rowIdx, Object value) {
             ((RoiColumn) col).values[rowIdx] = ((Long) value).longValue();
@@ -122,6 +160,11 @@ public abstract class Helper {
             ((ImageColumn) col).values = new long[length];
         }
 
+        @Override
+        Object getValues(Column col) {
+            return ((ImageColumn) col).values;
+        }
+
         @Override
         void setValue(Column col, int rowIdx, Object value) {
             ((ImageColumn) col).values[rowIdx] = ((Long) value).longValue();
@@ -140,6 +183,11 @@ public abstract class Helper {
             ((WellColumn) col).values = new long[length];
         }
 
+        @Override
+        Object getValues(Column col) {
+            return ((WellColumn) col).values;
+        }
+
         @Override
         void setValue(Column col, int rowIdx, Object value) {
             ((WellColumn) col).values[rowIdx] = ((Long) value).longValue();
@@ -157,6 +205,11 @@ public abstract class Helper {
             ((BoolColumn) col).values = new boolean[length];
         }
 
+        @Override
+        Object getValues(Column col) {
+            return ((BoolColumn) col).values;
+        }
+
         @Override
         void setValue(Column col, int rowIdx, Object value) {
             ((BoolColumn) col).values[rowIdx] = ((Boolean) value)
@@ -175,6 +228,11 @@ public abstract class Helper {
             ((DoubleColumn) col).values = new double[length];
         }
 
+        @Override
+        Object getValues(Column col) {
+            return ((DoubleColumn) col).values;
+        }
+
         @Override
         void setValue(Column col, int rowIdx, Object value) {
             ((DoubleColumn) col).values[rowIdx] = ((Double) value)
@@ -193,6 +251,11 @@ public abstract class Helper {
             ((LongColumn) col).values = new long[length];
         }
 
+        @Override
+        Object getValues(Column col) {
+            return ((LongColumn) col).values;
+        }
+
         @Override
         void setValue(Column col, int rowIdx, Object value) {
             ((LongColumn) col).values[rowIdx] = ((Long) value).longValue();
@@ -210,6 +273,11 @@ public abstract class Helper {
             ((StringColumn) col).values = new String[length];
         }
 
+        @Override
+        Object getValues(Column col) {
+            return ((StringColumn) col).values;
+        }
+
         @Override
         void setValue(Column col, int rowIdx, Object value) {
             ((StringColumn) col).values[rowIdx] = (String) value;
@@ -9,6 +9,7 @@ package ome.services.blitz.measurements;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -20,6 +21,7 @@ import ome.model.roi.Roi;
 import omero.ApiUsageException;
 import omero.RType;
 import omero.ServerError;
+import omero.grid.Column;
 import omero.grid.TablePrx;
 
 import org.slf4j.Logger;
@@ -37,9 +39,12 @@ public class MeasurementStore implements OmeroMeasurementStore {
 
     private final static Logger log = LoggerFactory.getLogger(MeasurementStore.class);
 
+    /** Default number of rows written to the table at once by {@link #addColumns(Object[])}. */
+    public final static int DEFAULT_CHUNK_SIZE = 10000;
+
     // Final
 
-    private final Map<String, IObject> lsidMap = new HashMap<String, IObject>();
+    private final Map<String, IObject> lsidMap = new LinkedHashMap<String, IObject>();
 
     private final List<Long> roiIds = new ArrayList<Long>();
 
@@ -47,6 +52,8 @@ public class MeasurementStore implements OmeroMeasurementStore {
 
     private final TablePrx table;
 
+    private final int chunkSize;
+
     // Mutable
 
     private Map<String, Object> metadata;
@@ -63,10 +70,19 @@ public class MeasurementStore implements OmeroMeasurementStore {
 
     private boolean initialized = false;
 
+    /** Chunk which is still being written to the table, if any. */
+    private Ice.AsyncResult pendingChunk;
+
     public MeasurementStore(LocalUpdate update, TablePrx table)
             throws ServerError {
+        this(update, table, DEFAULT_CHUNK_SIZE);
+    }
+
+    public MeasurementStore(LocalUpdate update, TablePrx table, int chunkSize)
+            throws ServerError {
         this.table = table;
         this.update = update;
+        this.chunkSize = Math.max(1, chunkSize);
     }
 
     // LOCI API
@@ -86,6 +102,7 @@ public class MeasurementStore implements OmeroMeasurementStore {
         this.types = types;
 
         cols = new SmartColumns(lsidMap, headers, idTypes, types);
+        cols.chunkSize = chunkSize;
         table.initialize(cols.asArray());
         Map<String, RType> dict = new HashMap<String, RType>();
         if (metadata != null) {
@@ -115,13 +132,30 @@ public class MeasurementStore implements OmeroMeasurementStore {
     }
 
     public void addRows(Object[][] rows) throws ServerError {
-        if (rows != null) {
+        if (this.rows != null) {
             throw new ApiUsageException(null, null,
                     "Call save before adding more data");
         }
         this.rows = rows;
     }
 
+    public void addColumns(Object[] columns) throws ServerError {
+        if (!initialized) {
+            throw new ApiUsageException(null, null, "Not initialized");
+        }
+        final int length = cols.checkColumns(columns);
+        int from = 0;
+        while (from < length) {
+            final int count = Math.min(length - from,
+                    chunkSize - cols.buffered);
+            cols.append(columns, from, count);
+            from += count;
+            if (cols.buffered == chunkSize) {
+                writeChunk();
+            }
+        }
+    }
+
     public void addCircle(String roiLsid, double x, double y, double r)
             throws ServerError {
         Roi roi = new Roi();
@@ -163,9 +197,33 @@ public class MeasurementStore implements OmeroMeasurementStore {
         // First save the rois, so that if it fails, no changes will be
         // made to the table
         //
+        saveUnsaved();
+
+        // Then write any remaining columnar data
+        if (cols.buffered > 0) {
+            writeChunk();
+        }
+        waitForChunk();
+
+        // Now fill the columns with data, and send to the table instance
+        if (rows != null) {
+            cols.fill(rows);
+            table.addData(cols.asArray());
+            rows = null;
+        }
+
+    }
+
+    /**
+     * Saves all objects which have not yet been saved, e.g. the Rois from
+     * {@link #addCircle(String, double, double, double)}, in a single call.
+     */
+    private void saveUnsaved() {
         List<IObject> unsaved = new ArrayList<IObject>();
         for (Map.Entry<String, IObject> entry : lsidMap.entrySet()) {
-            unsaved.add(entry.getValue());
+            if (entry.getValue().getId() == null) {
+                unsaved.add(entry.getValue());
+            }
         }
         if (unsaved.size() > 0) {
             IObject[] objs = unsaved.toArray(new IObject[unsaved.size()]);
@@ -176,12 +234,27 @@ public class MeasurementStore implements OmeroMeasurementStore {
                 roiIds.add(ids.get(i));
             }
         }
+    }
 
-        // Now fill the columns with data, and send to the table instance
-        cols.fill(rows);
-        table.addData(cols.asArray());
-        rows = null;
+    /**
+     * Sends the buffered chunk of columnar data to the table without
+     * waiting for it to be written, once the previous chunk has been.
+     */
+    private void writeChunk() throws ServerError {
+        saveUnsaved();
+        final Column[] chunk = cols.takeChunk();
+        waitForChunk();
+        // The chunk has its own columns, so the next one can be buffered
+        // while the table writes this one.
+        pendingChunk = table.begin_addData(chunk);
+    }
 
+    private void waitForChunk() throws ServerError {
+        final Ice.AsyncResult pending = pendingChunk;
+        if (pending != null) {
+            pendingChunk = null;
+            table.end_addData(pending);
+        }
     }
 
     // OMERO API
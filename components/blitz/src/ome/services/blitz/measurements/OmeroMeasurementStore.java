@@ -39,6 +39,23 @@ public interface OmeroMeasurementStore {
      */
     public abstract void addRows(Object[][] rows) throws Exception;
 
+    /**
+     * Adds rows given column by column, which avoids boxing every value: one
+     * <code>String[]</code> of LSIDs per id column followed by one array per
+     * value column, i.e. <code>long[]</code>, <code>double[]</code>,
+     * <code>boolean[]</code> or <code>String[]</code> for {@link Long},
+     * {@link Double}, {@link Boolean} or {@link String} columns. All arrays
+     * must have the same length. Rows are collected into large chunks, each
+     * of which is written to the table in the background while further rows
+     * are added, so unlike {@link #addRows(Object[][])} this may be called
+     * any number of times before {@link #save()}, which writes the rest.
+     * Objects referenced by a chunk are saved before it is written.
+     * 
+     * @param columns
+     * @throws Exception
+     */
+    public abstract void addColumns(Object[] columns) throws Exception;
+
     public abstract void addCircle(String roiLsid, double x, double y, double r)
             throws Exception;
 
@@ -6,6 +6,7 @@
  */
 package ome.services.blitz.measurements;
 
+import java.lang.reflect.Array;
 import java.util.Map;
 
 import ome.model.IObject;
@@ -26,6 +27,15 @@ class SmartColumns {
     Column[] cols;
     Helper[] helpers;
 
+    /** LSIDs of the buffered rows per id column, resolved by {@link #takeChunk()}. */
+    String[][] lsids;
+
+    /** Number of rows buffered in {@link #cols} by {@link #append(Object[], int, int)}. */
+    int buffered = 0;
+
+    /** Number of rows allocated in {@link #cols} for each chunk. */
+    int chunkSize = 0;
+
     SmartColumns(Map<String, IObject> lsidMap, String[] headers,
             String[] idTypes, Class[] types) throws ServerError {
 
@@ -107,4 +117,100 @@ class SmartColumns {
     public Column[] asArray() {
         return cols;
     }
+
+    //
+    // Columnar ingestion
+    //
+
+    /**
+     * Checks that one array of the proper kind was passed per column and
+     * that all have the same length: LSIDs as <code>String[]</code> for the
+     * id columns and primitive arrays for the value columns.
+     * 
+     * @return the number of rows.
+     */
+    int checkColumns(Object[] data) throws ServerError {
+        if (data == null || data.length != cols.length) {
+            throw new omero.ApiUsageException(null, null, String.format(
+                    "Expected %s columns", cols.length));
+        }
+        int length = -1;
+        for (int colIdx = 0; colIdx < data.length; colIdx++) {
+            Object array = data[colIdx];
+            if (array == null || !array.getClass().isArray()) {
+                throw new omero.ApiUsageException(null, null,
+                        "Not an array: column " + colIdx);
+            }
+            if (colIdx < idTypes.length && !(array instanceof String[])) {
+                throw new ValidationException(null, null,
+                        "LSIDs expected: column " + colIdx);
+            }
+            int l = Array.getLength(array);
+            if (length >= 0 && l != length) {
+                throw new omero.ApiUsageException(null, null, String.format(
+                        "Column %s has %s rows, not %s", colIdx, l, length));
+            }
+            length = l;
+        }
+        return length;
+    }
+
+    /**
+     * Copies the given range of rows into the current chunk, which must
+     * have room for them.
+     */
+    void append(Object[] data, int from, int length) throws ServerError {
+        if (buffered == 0) {
+            lsids = new String[idTypes.length][chunkSize];
+            for (int colIdx = 0; colIdx < cols.length; colIdx++) {
+                helpers[colIdx].setSize(cols[colIdx], chunkSize);
+            }
+        }
+        for (int colIdx = 0; colIdx < idTypes.length; colIdx++) {
+            System.arraycopy(data[colIdx], from, lsids[colIdx], buffered,
+                    length);
+        }
+        for (int colIdx = idTypes.length; colIdx < cols.length; colIdx++) {
+            helpers[colIdx].copyValues(cols[colIdx], buffered, data[colIdx],
+                    from, length);
+        }
+        buffered += length;
+    }
+
+    /**
+     * Resolves the buffered LSIDs, which must all have been saved by now,
+     * and returns the columns holding exactly the buffered rows. The
+     * returned columns belong to the caller: the next chunk is buffered in
+     * new instances, so that a chunk which is still being written is not
+     * overwritten. The chunk is empty afterwards.
+     */
+    Column[] takeChunk() throws ServerError {
+        final Column[] chunk = new Column[cols.length];
+        for (int colIdx = 0; colIdx < cols.length; colIdx++) {
+            Helper helper = helpers[colIdx];
+            Column col = cols[colIdx];
+            if (buffered < chunkSize) {
+                Object full = helper.getValues(col);
+                helper.setSize(col, buffered);
+                System.arraycopy(full, 0, helper.getValues(col), 0, buffered);
+            }
+            chunk[colIdx] = col;
+            cols[colIdx] = helper.newInstance();
+            cols[colIdx].name = col.name;
+        }
+        for (int colIdx = 0; colIdx < idTypes.length; colIdx++) {
+            for (int rowIdx = 0; rowIdx < buffered; rowIdx++) {
+                String lsid = lsids[colIdx][rowIdx];
+                IObject obj = lsidMap.get(lsid);
+                if (obj == null || obj.getId() == null) {
+                    throw new omero.ApiUsageException(null, null,
+                            "No saved object for LSID: " + lsid);
+                }
+                helpers[colIdx].setValue(chunk[colIdx], rowIdx, obj.getId());
+            }
+        }
+        buffered = 0;
+        lsids = null;
+        return chunk;
+    }
 }
\ No newline at end of file
@@ -71,6 +71,13 @@ public abstract class AbstractRedirector implements Redirector {
 
     }
 
+    /**
+     * Does nothing since only load-based implementations need to publish.
+     */
+    public void publishLoad(Context ctx) {
+        // no-op
+    }
+
     protected boolean alreadyRouted(Ice.Current current) {
         if (current != null) {
             if (current.ctx != null) {
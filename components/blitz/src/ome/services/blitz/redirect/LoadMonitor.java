@@ -0,0 +1,48 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+
+package ome.services.blitz.redirect;
+
+import java.util.Collections;
+import java.util.List;
+
+import ome.services.blitz.impl.RenderingEngineI;
+import ome.services.scheduler.ThreadPool;
+import ome.services.sessions.state.SessionCache;
+
+/**
+ * Measures the {@link NodeLoad} of the local blitz node.
+ *
+ * @since 5.1
+ */
+public class LoadMonitor {
+
+    private final SessionCache sessions;
+
+    private final List<ThreadPool> pools;
+
+    /**
+     * @param sessions source of the number of active sessions. May be null.
+     * @param pools thread pools whose queued tasks are counted. May be null.
+     */
+    public LoadMonitor(SessionCache sessions, List<ThreadPool> pools) {
+        this.sessions = sessions;
+        this.pools = pools == null ? Collections.<ThreadPool>emptyList()
+                : pools;
+    }
+
+    public NodeLoad current() {
+        int queued = 0;
+        for (ThreadPool pool : pools) {
+            queued += pool.size();
+        }
+        final Runtime rt = Runtime.getRuntime();
+        final long used = rt.totalMemory() - rt.freeMemory();
+        final int heap = (int) (100 * used / rt.maxMemory());
+        return new NodeLoad(sessions == null ? 0 : sessions.getIds().size(),
+                queued, RenderingEngineI.getOpenCount(), heap);
+    }
+
+}
@@ -0,0 +1,212 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+
+package ome.services.blitz.redirect;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import ome.services.util.Executor;
+import ome.util.SqlAction;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import Glacier2.CannotCreateSessionException;
+import Glacier2.SessionPrx;
+
+/**
+ * {@link Redirector} which creates new sessions on the least loaded node of
+ * the cluster. Each node periodically publishes its {@link NodeLoad},
+ * measured by a {@link LoadMonitor}, in the {@code scale} column of its
+ * {@link ome.model.meta.Node} row, and each session creation compares the
+ * current local load with the published loads of the other active nodes.
+ *
+ * To keep sessions from flapping between nodes with similar loads, a new
+ * target is only chosen if its score is lower than the local score by
+ * more than the hysteresis fraction, and an existing target is kept until
+ * its advantage falls below half of that. Sessions sent to a node since it
+ * last published its load are added to its published session count so
+ * that a burst of logins is not all sent to the same node.
+ *
+ * @since 5.1
+ */
+public class LoadRedirector extends AbstractRedirector {
+
+    private final LoadMonitor monitor;
+
+    private final double[] weights;
+
+    private final double hysteresis;
+
+    /** Node to which new sessions are currently redirected. */
+    private String target;
+
+    /** Sessions sent to each node since its load was last seen to change. */
+    private final Map<String, Integer> sent = new HashMap<String, Integer>();
+
+    /** Last packed load seen for each node. */
+    private final Map<String, Integer> seen = new HashMap<String, Integer>();
+
+    /**
+     * @param ex executor for reading and writing the node table.
+     * @param monitor source of the local load.
+     * @param weights comma-separated weights of the sessions, queued
+     *          tasks, rendering engines and heap percentage, e.g.
+     *          {@code 1,4,2,1}.
+     * @param hysteresis fraction by which another node must be less loaded
+     *          than this one before new sessions are sent to it.
+     */
+    public LoadRedirector(Executor ex, LoadMonitor monitor, String weights,
+            double hysteresis) {
+        super(ex);
+        this.monitor = monitor;
+        this.weights = parseWeights(weights);
+        this.hysteresis = hysteresis;
+    }
+
+    private static double[] parseWeights(String weights) {
+        final String[] parts = weights.split(",");
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Expected 4 load weights: "
+                    + weights);
+        }
+        final double[] rv = new double[4];
+        for (int i = 0; i < 4; i++) {
+            rv[i] = Double.parseDouble(parts[i].trim());
+        }
+        return rv;
+    }
+
+    public SessionPrx getProxyOrNull(Context ctx, String userId,
+            Glacier2.SessionControlPrx control, Ice.Current current)
+            throws CannotCreateSessionException {
+
+        // First, give the abstract class a chance to handle common cases
+        SessionPrx prx = super.getProxyOrNull(ctx, userId, control, current);
+        if (prx != null) {
+            return prx; // EARLY EXIT
+        }
+
+        String proxyString = null;
+        final String uuid = chooseNode(ctx, readLoads(ctx));
+        if (uuid != null) {
+            proxyString = findProxy(ctx, uuid);
+            if (proxyString == null || proxyString.length() == 0) {
+                log.warn("No proxy found for manager: " + uuid);
+                proxyString = null;
+                handleRingShutdown(ctx, uuid);
+            } else {
+                log.info(String.format("Load balancing to %s", proxyString));
+            }
+        }
+
+        // Handles nulls
+        return obtainProxy(proxyString, ctx, userId, control, current);
+    }
+
+    /**
+     * Returns the uuid of the node on which the next session should be
+     * created, or null if it should be created locally.
+     *
+     * @param loads packed loads of the active nodes by uuid as returned by
+     *          {@link #readLoads(Context)}.
+     */
+    protected synchronized String chooseNode(Context ctx,
+            Map<String, Integer> loads) {
+        final double local = monitor.current().score(weights);
+        String best = null;
+        double bestScore = Double.MAX_VALUE;
+        final Map<String, Double> scores = new HashMap<String, Double>();
+        for (Map.Entry<String, Integer> entry : loads.entrySet()) {
+            final String uuid = entry.getKey();
+            final Integer packed = entry.getValue();
+            if (packed == null || uuid.equals(ctx.uuid())) {
+                continue;
+            }
+            if (!packed.equals(seen.put(uuid, packed))) {
+                sent.remove(uuid);
+            }
+            final Integer count = sent.get(uuid);
+            final double score = NodeLoad.unpack(packed)
+                    .plusSessions(count == null ? 0 : count).score(weights);
+            scores.put(uuid, score);
+            if (score < bestScore) {
+                best = uuid;
+                bestScore = score;
+            }
+        }
+
+        final Double targetScore = target == null ? null : scores.get(target);
+        if (targetScore == null
+                || targetScore >= local * (1 - hysteresis / 2)) {
+            target = null;
+        }
+        if (target == null && best != null
+                && bestScore < local * (1 - hysteresis)) {
+            target = best;
+            log.info(String.format("Redirecting new sessions to %s "
+                    + "(score %.1f, local %.1f)", best, bestScore, local));
+        }
+        if (target != null) {
+            final Integer count = sent.get(target);
+            sent.put(target, count == null ? 1 : count + 1);
+        }
+        return target;
+    }
+
+    /**
+     * Returns the packed {@link NodeLoad} of all active nodes by uuid.
+     */
+    @SuppressWarnings("unchecked")
+    protected Map<String, Integer> readLoads(Context ctx) {
+        return (Map<String, Integer>) executor.executeSql(
+                new Executor.SimpleSqlWork(this, "activeNodeScales") {
+                    @Transactional(readOnly = true)
+                    public Object doWork(SqlAction sql) {
+                        return sql.activeNodeScales();
+                    }
+                });
+    }
+
+    /**
+     * Stores the packed {@link NodeLoad} of the local node.
+     */
+    protected void writeLoad(final Context ctx, final int packed) {
+        executor.executeSql(new Executor.SimpleSqlWork(this, "setNodeScale") {
+            @Transactional(readOnly = false)
+            public Object doWork(SqlAction sql) {
+                return sql.setNodeScale(ctx.uuid(), packed);
+            }
+        });
+    }
+
+    public void publishLoad(Context ctx) {
+        final NodeLoad load = monitor.current();
+        writeLoad(ctx, load.pack());
+        log.debug("Published " + load);
+    }
+
+    /**
+     * Publishes the load of the newly joined node.
+     */
+    public void chooseNextRedirect(Context ctx, Set<String> nodeUuids) {
+        publishLoad(ctx);
+    }
+
+    /**
+     * Stops redirecting to the node if it is the current target. Its load
+     * is no longer read once the {@link ome.services.blitz.fire.Ring} has
+     * marked it as down.
+     */
+    public synchronized void handleRingShutdown(Context ctx, String uuid) {
+        if (uuid.equals(target)) {
+            target = null;
+        }
+        sent.remove(uuid);
+        seen.remove(uuid);
+    }
+
+}
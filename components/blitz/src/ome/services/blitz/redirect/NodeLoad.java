@@ -0,0 +1,81 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+
+package ome.services.blitz.redirect;
+
+/**
+ * Load of one blitz node, packed into a single int so that it can be
+ * published in the {@code scale} column of the {@link ome.model.meta.Node}
+ * table. Each value saturates at the maximum of its bit field:
+ *
+ * <pre>
+ * bits 31-22: active sessions (0-1023)
+ * bits 21-14: queued executor tasks (0-255)
+ * bits 13-7:  open rendering engines (0-127)
+ * bits 6-0:   used heap in percent (0-100)
+ * </pre>
+ *
+ * @since 5.1
+ */
+public class NodeLoad {
+
+    public final int sessions;
+
+    public final int queued;
+
+    public final int renderingEngines;
+
+    public final int heapPercent;
+
+    public NodeLoad(int sessions, int queued, int renderingEngines,
+            int heapPercent) {
+        this.sessions = clamp(sessions, 1023);
+        this.queued = clamp(queued, 255);
+        this.renderingEngines = clamp(renderingEngines, 127);
+        this.heapPercent = clamp(heapPercent, 100);
+    }
+
+    private static int clamp(int value, int max) {
+        return Math.max(0, Math.min(max, value));
+    }
+
+    public int pack() {
+        return sessions << 22 | queued << 14 | renderingEngines << 7
+                | heapPercent;
+    }
+
+    public static NodeLoad unpack(int packed) {
+        return new NodeLoad(packed >>> 22, (packed >>> 14) & 0xff,
+                (packed >>> 7) & 0x7f, packed & 0x7f);
+    }
+
+    /**
+     * Returns the weighted sum of the load values, where higher means
+     * busier.
+     *
+     * @param weights of the sessions, queued tasks, rendering engines and
+     *          heap percentage in that order.
+     */
+    public double score(double[] weights) {
+        return weights[0] * sessions + weights[1] * queued
+                + weights[2] * renderingEngines + weights[3] * heapPercent;
+    }
+
+    /**
+     * Returns a load with the given number of sessions added, e.g. to
+     * account for sessions redirected to a node since it last published.
+     */
+    public NodeLoad plusSessions(int count) {
+        return new NodeLoad(sessions + count, queued, renderingEngines,
+                heapPercent);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("NodeLoad(sessions=%s,queued=%s,re=%s,heap=%s%%)",
+                sessions, queued, renderingEngines, heapPercent);
+    }
+
+}
@@ -42,4 +42,11 @@ public class NullRedirector implements Redirector {
 
     }
 
+    /**
+     * Does nothing.
+     */
+    public void publishLoad(Context context) {
+
+    }
+
 }
\ No newline at end of file
@@ -89,4 +89,10 @@ public interface Redirector {
      */
     public void handleRingShutdown(Context context, String uuid);
 
+    /**
+     * Gives the {@link Redirector} a chance to publish the current load of
+     * the local node to the rest of the cluster. Called periodically.
+     */
+    public void publishLoad(Context context);
+
 }
\ No newline at end of file
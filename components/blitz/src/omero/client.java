@@ -23,7 +23,6 @@ import static omero.rtypes.rstring;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
@@ -61,6 +60,7 @@ import omero.model.OriginalFile;
 import omero.model.OriginalFileI;
 import omero.model.enums.ChecksumAlgorithmSHA1160;
 import omero.util.ModelObjectFactoryRegistry;
+import omero.util.ParallelDownload;
 import omero.util.Resources;
 import omero.util.Resources.Entry;
 import Glacier2.CannotCreateSessionException;
@@ -1104,27 +1104,47 @@ public class client {
     }
 
     public void download(long fileId, File file, int blockSize) throws ServerError, IOException  {
-        final ServiceFactoryPrx sf = getSession();
-        final OriginalFile obj = (OriginalFile) sf.getQueryService().get("OriginalFile", fileId);
-        final RawFileStorePrx store = sf.createRawFileStore();
-        final FileOutputStream stream = new FileOutputStream(file);
-
-        final long size = obj.getSize().getValue();
-
-        long offset = 0;
+        download(fileId, file, blockSize, 8, 1);
+    }
 
-        store.setFileId(fileId);
-        try {
-            for (offset = 0; (offset+blockSize) < size;) {
-                stream.write(store.read(offset, blockSize));
-                offset += blockSize;
-            }
-            stream.write(store.read(offset, (int) (size-offset)));
-        } finally {
-            Utils.closeQuietly(stream);
-            store.close();
-        }
+    /**
+     * Utility method to download a file from the server, keeping several
+     * reads in flight. Any existing content of the local file is
+     * overwritten. The checksum of the file is verified against the hash
+     * stored on the server.
+     *
+     * @param fileId
+     *            ID of the {@link OriginalFile} to download.
+     * @param file
+     *            Local file to write.
+     * @param blockSize
+     *            Number of bytes per read.
+     * @param inFlight
+     *            Maximum number of reads awaiting a reply.
+     * @param stores
+     *            Number of RawFileStore services to spread the reads over.
+     * @see ParallelDownload
+     */
+    public void download(long fileId, File file, int blockSize, int inFlight,
+            int stores) throws ServerError, IOException {
+        download(fileId, file, blockSize, inFlight, stores, false);
+    }
 
+    /**
+     * Like {@link #download(long, File, int, int, int)} but, if
+     * {@code resume} is set and the local file already holds the start of
+     * the download, e.g. after an interruption, only the rest is
+     * downloaded. Files without a hash stored on the server are always
+     * downloaded in full.
+     *
+     * @param resume
+     *            If the existing content of the local file should be kept.
+     * @see ParallelDownload
+     */
+    public void download(long fileId, File file, int blockSize, int inFlight,
+            int stores, boolean resume) throws ServerError, IOException {
+        new ParallelDownload(getSession(), blockSize, inFlight, stores, resume)
+                .download(fileId, file);
     }
 
     // Environment methods
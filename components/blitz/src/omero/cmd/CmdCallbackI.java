@@ -19,10 +19,19 @@ package omero.cmd;
 
 import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 import omero.ServerError;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 import Ice.Current;
 
 /**
@@ -44,6 +53,10 @@ import Ice.Current;
  *      // or
  *
  *      response = cb.loop(5, 500);
+ *
+ *      // or, without blocking a thread per command
+ *
+ *      Futures.addCallback(cb.getFuture(10, TimeUnit.SECONDS), ...);
  * </pre>
  *
  * Subclasses which depend on the proper ordering of either initialization
@@ -71,6 +84,20 @@ public class CmdCallbackI extends _CmdCallbackDisp {
 
     private static final long serialVersionUID = 1L;
 
+    /**
+     * Single thread shared by all instances which fails the futures returned
+     * by {@link #getFuture(long, TimeUnit)} once their timeout is reached.
+     */
+    private static final ScheduledThreadPoolExecutor timeouts;
+
+    static {
+        timeouts = new ScheduledThreadPoolExecutor(1, new ThreadFactoryBuilder()
+                .setNameFormat("cmd-callback-timeout-%d")
+                .setDaemon(true)
+                .build());
+        timeouts.setRemoveOnCancelPolicy(true);
+    }
+
     private final Ice.ObjectAdapter adapter;
 
     private final Ice.Identity id;
@@ -96,6 +123,12 @@ public class CmdCallbackI extends _CmdCallbackDisp {
     private final AtomicReference<State> state = new AtomicReference<State>(
             new State(null, null));
 
+    /**
+     * Set to the response once {@link #finished(Response, Status, Current)}
+     * is called.
+     */
+    private final SettableFuture<Response> future = SettableFuture.create();
+
     /**
      * Proxy passed to this instance on creation. Can be used by subclasses
      * freely. The object will not be nulled, but may be closed server-side.
@@ -138,24 +171,52 @@ public class CmdCallbackI extends _CmdCallbackDisp {
      * then there's a chance that this implementation will never
      * receive a call to finished, leading to perceived hangs.
      *
-     * By default, this method starts a background thread and
-     * calls {@link #poll()}. An {@link Ice.ObjectNotExistException}
+     * By default, this method asynchronously calls
+     * {@link HandlePrx#getResponse()} and, if the response is already
+     * present, {@link HandlePrx#getStatus()}, so that no thread is needed
+     * per callback. An {@link Ice.ObjectNotExistException}
      * implies that another caller has already closed the
-     * {@link HandlePrx}.
+     * {@link HandlePrx}. Any failure of the poll fails the future
+     * returned by {@link #getFuture()}.
      */
     protected void initialPoll() {
         // Now check just in case the process exited VERY quickly
-        new Thread() {
-            public void run() {
-                try {
-                    poll();
-                } catch (Exception e) {
-                    // don't throw any exceptions, e. g. if the handle
-                    // has already been closed
-                    onFinished(null, null, null);
+        try {
+            handle.begin_getResponse(new Callback_Handle_getResponse() {
+                @Override
+                public void response(final Response rsp) {
+                    if (rsp == null) {
+                        return; // Server will call finished
+                    }
+                    handle.begin_getStatus(new Callback_Handle_getStatus() {
+                        @Override
+                        public void response(Status s) {
+                            finished(rsp, s, null);
+                        }
+                        @Override
+                        public void exception(Ice.LocalException e) {
+                            initialPollFailed(e);
+                        }
+                    });
                 }
-            }
-        }.start();
+                @Override
+                public void exception(Ice.LocalException e) {
+                    initialPollFailed(e);
+                }
+            });
+        } catch (Ice.LocalException e) {
+            initialPollFailed(e);
+        }
+    }
+
+    private void initialPollFailed(Ice.LocalException e) {
+        // Whether the handle is gone or unreachable, there is no telling
+        // that finished will ever be called, so the future fails rather
+        // than hang. A later call to finished is then ignored by it.
+        future.setException(e);
+        // don't throw any exceptions, e. g. if the handle
+        // has already been closed
+        onFinished(null, null, null);
     }
 
     /**
@@ -297,6 +358,51 @@ public class CmdCallbackI extends _CmdCallbackDisp {
         return latch.await(ms, TimeUnit.MILLISECONDS);
     }
 
+    /**
+     * Returns a future which is completed with the response once
+     * {@link #finished(Response, Status, Current)} has been called. Use
+     * this instead of {@link #block(long)} or {@link #loop(int, long)} to
+     * wait on many commands without a thread for each.
+     *
+     * @return the future response
+     */
+    public ListenableFuture<Response> getFuture() {
+        return future;
+    }
+
+    /**
+     * Returns a future as {@link #getFuture()} which instead fails with an
+     * {@link omero.LockTimeout} if the command has not finished within the
+     * given time. The command itself is neither cancelled nor closed.
+     *
+     * @param timeout how long to wait for the command
+     * @param unit the unit of the timeout
+     * @return the future response
+     */
+    public ListenableFuture<Response> getFuture(final long timeout,
+            final TimeUnit unit) {
+        final SettableFuture<Response> timed = SettableFuture.create();
+        final ScheduledFuture<?> timer = timeouts.schedule(new Runnable() {
+            public void run() {
+                double waited = unit.toMillis(timeout) / 1000.0;
+                timed.setException(new omero.LockTimeout(null, null,
+                        String.format("Command unfinished after %s seconds",
+                            waited), 10000, (int) waited));
+            }
+        }, timeout, unit);
+        Futures.addCallback(future, new FutureCallback<Response>() {
+            public void onSuccess(Response rsp) {
+                timer.cancel(false);
+                timed.set(rsp);
+            }
+            public void onFailure(Throwable t) {
+                timer.cancel(false);
+                timed.setException(t);
+            }
+        });
+        return timed;
+    }
+
     //
     // Remote invocations
     //
@@ -331,7 +437,11 @@ public class CmdCallbackI extends _CmdCallbackDisp {
     public final void finished(Response rsp, Status status, Current __current) {
         state.set(new State(rsp, status));
         latch.countDown();
-        onFinished(rsp, status, __current);
+        try {
+            onFinished(rsp, status, __current);
+        } finally {
+            future.set(rsp);
+        }
     }
 
     /**
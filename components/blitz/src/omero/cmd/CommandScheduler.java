@@ -0,0 +1,441 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+
+package omero.cmd;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import ome.services.util.Executor;
+import ome.system.metrics.Counter;
+import ome.system.metrics.Metrics;
+import ome.system.metrics.Timer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import bitronix.tm.resource.jdbc.PoolingDataSource;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Queues the {@link IHandle} instances created by
+ * {@link SessionI#submit_async(AMD_Session_submit, Request, Ice.Current)}
+ * and starts them on the {@link Executor.Priority#BACKGROUND} pool of the
+ * {@link Executor} such that no single user or group can monopolize the
+ * server.
+ *
+ * Waiting handles are kept in a FIFO queue per user, and the users in a
+ * ring per group. Each time a slot is free, the next group in the ring
+ * starts the oldest handle of its next user, so that a user with hundreds
+ * of queued requests only delays the requests of other users by one
+ * request each. A handle is only started if:
+ * <ul>
+ * <li>fewer than the maximum number of handles are running overall,</li>
+ * <li>fewer than the limit for its request type are running, e.g. for
+ * {@code Chgrp2}, and</li>
+ * <li>at least the minimum number of database connections are free, so
+ * that interactive calls are not starved of connections.</li>
+ * </ul>
+ * If only the last condition blocks a handle, dispatch is retried shortly.
+ * Handles of the exempt request types, by default imports, whose
+ * duration is dominated by the client upload rather than the server, are
+ * started immediately and not counted against any limit.
+ *
+ * The position of a waiting handle is added to its {@link Status} by
+ * {@link HandleI#getStatus(Ice.Current)}, and the time spent waiting is
+ * recorded in the {@code waitTime} timer.
+ *
+ * @since 5.1
+ */
+public class CommandScheduler {
+
+    private final static Logger log = LoggerFactory.getLogger(CommandScheduler.class);
+
+    /** Milliseconds after which dispatch is retried if the database is busy. */
+    private final static long RETRY_MS = 500;
+
+    /**
+     * A handle waiting to be started.
+     */
+    private static class Entry {
+
+        final IHandle handle;
+
+        final String type;
+
+        final Map<String, String> callContext;
+
+        final Timer.Context waiting;
+
+        Entry(IHandle handle, String type, Map<String, String> callContext,
+                Timer.Context waiting) {
+            this.handle = handle;
+            this.type = type;
+            this.callContext = callContext;
+            this.waiting = waiting;
+        }
+    }
+
+    private final Executor executor;
+
+    private final DataSource dataSource;
+
+    private final int maxRunning;
+
+    private final int minFreeConnections;
+
+    private final Map<String, Integer> typeLimits;
+
+    private final Set<String> exemptTypes;
+
+    private final Timer waitTime;
+
+    private final Counter queued, running;
+
+    private final ScheduledExecutorService retry;
+
+    //
+    // State, all guarded by this.
+    //
+
+    /** Queues of waiting entries by user by group, in ring order. */
+    private final LinkedHashMap<Long, LinkedHashMap<Long, LinkedList<Entry>>> groups =
+            new LinkedHashMap<Long, LinkedHashMap<Long, LinkedList<Entry>>>();
+
+    private final Map<String, Integer> runningByType =
+            new HashMap<String, Integer>();
+
+    private int runningTotal = 0;
+
+    private int waitingTotal = 0;
+
+    private boolean retryScheduled = false;
+
+    /**
+     * @param executor on which handles are started.
+     * @param dataSource pool whose free connections are checked before
+     *          starting a handle. Only a bitronix {@link PoolingDataSource}
+     *          can be checked; any other source is assumed to be free.
+     * @param metrics source of the wait time timer and of the queued and
+     *          running counters.
+     * @param maxRunning maximum number of handles running at once. 0 or
+     *          less starts all handles immediately as before.
+     * @param typeLimits comma-separated list of request types and the
+     *          maximum number of each which may run at once, e.g.
+     *          {@code Chgrp2:2,Delete2:2}. Types are matched against the
+     *          last part of the Ice type id of the request.
+     * @param exemptTypes comma-separated list of request types which are
+     *          always started immediately, e.g. {@code ImportRequest}.
+     * @param minFreeConnections number of database connections which must
+     *          be free for a handle to be started.
+     */
+    public CommandScheduler(Executor executor, DataSource dataSource,
+            Metrics metrics, int maxRunning, String typeLimits,
+            String exemptTypes, int minFreeConnections) {
+        this.executor = executor;
+        this.dataSource = dataSource;
+        this.maxRunning = maxRunning;
+        this.minFreeConnections = minFreeConnections;
+        this.typeLimits = parseLimits(typeLimits);
+        this.exemptTypes = parseTypes(exemptTypes);
+        this.waitTime = metrics.timer(this, "waitTime");
+        this.queued = metrics.counter(this, "queued");
+        this.running = metrics.counter(this, "running");
+        this.retry = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder()
+                        .setNameFormat("command-scheduler-%d")
+                        .setDaemon(true)
+                        .build());
+        if (maxRunning <= 0) {
+            log.info("CommandScheduler disabled");
+        } else {
+            log.info("CommandScheduler: max_running={} type_limits={} "
+                    + "exempt_types={} min_free_connections={}",
+                    new Object[] { maxRunning, this.typeLimits,
+                    this.exemptTypes, minFreeConnections });
+        }
+    }
+
+    private static Map<String, Integer> parseLimits(String limits) {
+        final Map<String, Integer> rv = new HashMap<String, Integer>();
+        if (limits == null) {
+            return rv;
+        }
+        for (String limit : limits.split(",")) {
+            limit = limit.trim();
+            if (limit.isEmpty()) {
+                continue;
+            }
+            final int colon = limit.lastIndexOf(':');
+            if (colon < 1) {
+                throw new IllegalArgumentException("Bad type limit: " + limit);
+            }
+            rv.put(limit.substring(0, colon).trim(),
+                    Integer.valueOf(limit.substring(colon + 1).trim()));
+        }
+        return rv;
+    }
+
+    private static Set<String> parseTypes(String types) {
+        final Set<String> rv = new HashSet<String>();
+        if (types == null) {
+            return rv;
+        }
+        for (String type : types.split(",")) {
+            type = type.trim();
+            if (!type.isEmpty()) {
+                rv.add(type);
+            }
+        }
+        return rv;
+    }
+
+    /**
+     * Stops retrying dispatch. Called by Spring on context close.
+     */
+    public void destroy() {
+        retry.shutdownNow();
+    }
+
+    /**
+     * Returns the last part of the Ice type id of the request, e.g.
+     * {@code Delete2} for {@code ::omero::cmd::Delete2}.
+     */
+    public static String typeOf(Request req) {
+        final String id = req.ice_id();
+        return id.substring(id.lastIndexOf(':') + 1);
+    }
+
+    /**
+     * Queues an initialized handle to be run on behalf of the given user
+     * and group, and starts as many queued handles as possible.
+     */
+    public void submit(IHandle handle, Request req, long userId,
+            long groupId, Map<String, String> callContext) {
+        final Entry entry = new Entry(handle, typeOf(req), callContext,
+                waitTime.time());
+        if (maxRunning <= 0 || exemptTypes.contains(entry.type)) {
+            startUnscheduled(entry);
+            return;
+        }
+        synchronized (this) {
+            LinkedHashMap<Long, LinkedList<Entry>> users = groups.get(groupId);
+            if (users == null) {
+                users = new LinkedHashMap<Long, LinkedList<Entry>>();
+                groups.put(groupId, users);
+            }
+            LinkedList<Entry> entries = users.get(userId);
+            if (entries == null) {
+                entries = new LinkedList<Entry>();
+                users.put(userId, entries);
+            }
+            entries.add(entry);
+            waitingTotal++;
+        }
+        queued.inc();
+        dispatch();
+    }
+
+    /**
+     * Returns the status of the given handle with its queue position added
+     * while it is waiting, or the status itself once the handle has been
+     * started. The given status is never modified. The position is counted
+     * among the waiting handles of the same user, starting at 1.
+     */
+    public synchronized Status describe(IHandle handle, Status status) {
+        int position = 0;
+        search:
+        for (Map<Long, LinkedList<Entry>> users : groups.values()) {
+            for (LinkedList<Entry> entries : users.values()) {
+                int i = 0;
+                for (Entry entry : entries) {
+                    i++;
+                    if (entry.handle == handle) {
+                        position = i;
+                        break search;
+                    }
+                }
+            }
+        }
+        if (position == 0) {
+            return status;
+        }
+        final Status copy = (Status) status.clone();
+        copy.parameters = status.parameters == null
+                ? new HashMap<String, String>()
+                : new HashMap<String, String>(status.parameters);
+        copy.parameters.put("queue.position", Integer.toString(position));
+        copy.parameters.put("queue.waiting", Integer.toString(waitingTotal));
+        return copy;
+    }
+
+    /**
+     * Starts queued handles until a limit is reached.
+     */
+    private void dispatch() {
+        final List<Entry> toStart = new ArrayList<Entry>();
+        synchronized (this) {
+            while (waitingTotal > 0 && runningTotal < maxRunning) {
+                if (freeConnections() < minFreeConnections) {
+                    scheduleRetry();
+                    break;
+                }
+                final Entry entry = next();
+                if (entry == null) {
+                    break; // All waiting types are at their limit.
+                }
+                waitingTotal--;
+                runningTotal++;
+                final Integer count = runningByType.get(entry.type);
+                runningByType.put(entry.type, count == null ? 1 : count + 1);
+                toStart.add(entry);
+            }
+        }
+        for (Entry entry : toStart) {
+            queued.dec();
+            try {
+                start(entry);
+            } catch (RuntimeException rt) {
+                log.error("Failed to start " + entry.type, rt);
+            }
+        }
+    }
+
+    /**
+     * Removes and returns the oldest entry of the next user of the next
+     * group whose type is below its limit, moving that user and group to
+     * the end of their rings. Must be called while holding the lock.
+     */
+    private Entry next() {
+        final Iterator<Map.Entry<Long, LinkedHashMap<Long, LinkedList<Entry>>>> git =
+                groups.entrySet().iterator();
+        while (git.hasNext()) {
+            final Map.Entry<Long, LinkedHashMap<Long, LinkedList<Entry>>> group =
+                    git.next();
+            final LinkedHashMap<Long, LinkedList<Entry>> users = group.getValue();
+            final Iterator<Map.Entry<Long, LinkedList<Entry>>> uit =
+                    users.entrySet().iterator();
+            while (uit.hasNext()) {
+                final Map.Entry<Long, LinkedList<Entry>> user = uit.next();
+                final LinkedList<Entry> entries = user.getValue();
+                if (!belowLimit(entries.getFirst().type)) {
+                    continue;
+                }
+                final Entry entry = entries.removeFirst();
+                uit.remove();
+                if (!entries.isEmpty()) {
+                    users.put(user.getKey(), entries);
+                }
+                git.remove();
+                if (!users.isEmpty()) {
+                    groups.put(group.getKey(), users);
+                }
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private boolean belowLimit(String type) {
+        final Integer limit = typeLimits.get(type);
+        if (limit == null) {
+            return true;
+        }
+        final Integer count = runningByType.get(type);
+        return count == null || count < limit;
+    }
+
+    /**
+     * Returns the number of connections which the data source can hand out
+     * without waiting.
+     */
+    private long freeConnections() {
+        if (!(dataSource instanceof PoolingDataSource)) {
+            return Long.MAX_VALUE;
+        }
+        final PoolingDataSource pool = (PoolingDataSource) dataSource;
+        return pool.getInPoolSize()
+                + (pool.getMaxPoolSize() - pool.getTotalPoolSize());
+    }
+
+    private void scheduleRetry() {
+        if (retryScheduled) {
+            return;
+        }
+        retryScheduled = true;
+        try {
+            retry.schedule(new Runnable() {
+                public void run() {
+                    synchronized (CommandScheduler.this) {
+                        retryScheduled = false;
+                    }
+                    dispatch();
+                }
+            }, RETRY_MS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ree) {
+            log.debug("CommandScheduler is shut down");
+        }
+    }
+
+    /**
+     * Starts a handle which is not counted against any limit.
+     */
+    private void startUnscheduled(Entry entry) {
+        entry.waiting.stop();
+        executor.submit(Executor.Priority.BACKGROUND, entry.callContext,
+                Executors.callable(entry.handle));
+    }
+
+    private void start(final Entry entry) {
+        entry.waiting.stop();
+        running.inc();
+        try {
+            executor.submit(Executor.Priority.BACKGROUND, entry.callContext,
+                    new Callable<Object>() {
+                        public Object call() {
+                            try {
+                                entry.handle.run();
+                                return null;
+                            } finally {
+                                finished(entry);
+                            }
+                        }
+                    });
+        } catch (RuntimeException rt) {
+            finished(entry);
+            throw rt;
+        }
+    }
+
+    private void finished(Entry entry) {
+        running.dec();
+        synchronized (this) {
+            runningTotal--;
+            final Integer count = runningByType.get(entry.type);
+            if (count == null || count <= 1) {
+                runningByType.remove(entry.type);
+            } else {
+                runningByType.put(entry.type, count - 1);
+            }
+        }
+        dispatch();
+    }
+
+}
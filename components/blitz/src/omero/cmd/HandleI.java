@@ -11,6 +11,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -79,6 +81,13 @@ public class HandleI implements _HandleOperations, IHandle,
      */
     private final AtomicReference<State> state = new AtomicReference<State>();
 
+    /**
+     * Released once {@link #run()} has stopped working on the request, after
+     * which the state no longer changes other than by cancellation. Waited on
+     * by {@link #cancel(Current)}.
+     */
+    private final CountDownLatch stopped = new CountDownLatch(1);
+
     /**
      * Final response. If this value is non-null, then clients will assume that
      * processing is finished.
@@ -147,6 +156,16 @@ public class HandleI implements _HandleOperations, IHandle,
         this.executor = sess.getExecutor();
     }
 
+    /**
+     * Sets the {@link Executor} and {@link Principal} which are otherwise
+     * taken from the {@link SessionI} passed to {@link #setSession(SessionI)},
+     * so that the state diagram can be tested without a session.
+     */
+    void setExecutor(Executor executor, Principal principal) {
+        this.executor = executor;
+        this.principal = principal;
+    }
+
     public void initialize(Identity id, IRequest req, Map<String, String> ctx) {
         this.id = id;
         this.req = req;
@@ -221,8 +240,12 @@ public class HandleI implements _HandleOperations, IHandle,
     }
 
     public Status getStatus(Current __current) {
-        helper.info("getStatus: %s", status);
-        return status;
+        final CommandScheduler scheduler = sess == null ? null
+                : sess.getCommandScheduler();
+        final Status rv = scheduler == null ? status
+                : scheduler.describe(this, status);
+        helper.info("getStatus: %s", rv);
+        return rv;
     }
 
     //
@@ -257,7 +280,8 @@ public class HandleI implements _HandleOperations, IHandle,
         }
 
         long start = System.currentTimeMillis();
-        while (cancelTimeoutMs >= (System.currentTimeMillis() - start)) {
+        long remaining = cancelTimeoutMs;
+        while (remaining >= 0) {
 
             // This is the most important case. If things are running, then
             // we want to set "CANCELLING" as quickly as possible.
@@ -266,7 +290,9 @@ public class HandleI implements _HandleOperations, IHandle,
                     || state.compareAndSet(State.CANCELLING, State.CANCELLING)) {
 
                 try {
-                    Thread.sleep(cancelTimeoutMs / 10);
+                    // Woken as soon as run() notices the cancellation
+                    // rather than polling the state.
+                    stopped.await(remaining, TimeUnit.MILLISECONDS);
                 } catch (InterruptedException e) {
                     // Igoring the interruption since the while block
                     // will properly handle another iteration.
@@ -281,8 +307,12 @@ public class HandleI implements _HandleOperations, IHandle,
 
             } else if (state.compareAndSet(State.FINISHED, State.FINISHED)) {
                 return false;
+
+            } else if (stopped.getCount() == 0) {
+                break; // run() is over, so nothing will change.
             }
 
+            remaining = cancelTimeoutMs - (System.currentTimeMillis() - start);
         }
 
         // The only time that state gets set to CANCELLING is in the try
@@ -356,30 +386,53 @@ public class HandleI implements _HandleOperations, IHandle,
         try {
             Map<String, String> merged = mergeContexts();
 
-            @SuppressWarnings("unchecked")
-            List<Object> rv = (List<Object>) executor.execute(merged, principal,
-                    new Executor.SimpleWork(this, "run",
-                    Ice.Util.identityToString(id), req) {
-                @Transactional(readOnly = false)
-                public List<Object> doWork(Session session, ServiceFactory sf) {
-                    try {
-                        List<Object> rv = steps(getSqlAction(), session, sf);
-                        state.set(State.FINISHED); // Regardless of current
-                        return rv;
-                    } catch (Cancel c) {
-                        // TODO: Perhaps remove local State enum and use solely
-                        // the slice defined one.
-                        state.set(State.CANCELLED);
-                        throw c; // Exception intended to rollback transaction
+            if (req instanceof IChunkedRequest) {
+                ((IChunkedRequest) req).enableChunks();
+            }
+
+            // Chunked requests commit each chunk in its own transaction and
+            // stay READY in between so that they may still be cancelled.
+            boolean moreChunks;
+            do {
+                @SuppressWarnings("unchecked")
+                List<Object> rv = (List<Object>) executor.execute(merged, principal,
+                        new Executor.SimpleWork(this, "run",
+                        Ice.Util.identityToString(id), req) {
+                    @Transactional(readOnly = false)
+                    public List<Object> doWork(Session session, ServiceFactory sf) {
+                        try {
+                            List<Object> rv = steps(getSqlAction(), session, sf);
+                            if (!hasMoreChunks()) {
+                                state.set(State.FINISHED); // Regardless of current
+                            }
+                            return rv;
+                        } catch (Cancel c) {
+                            // TODO: Perhaps remove local State enum and use solely
+                            // the slice defined one.
+                            state.set(State.CANCELLED);
+                            throw c; // Exception intended to rollback transaction
+                        }
                     }
+                });
+
+                // Post-process
+                for (int step = 0; step < status.steps; step++) {
+                    Object obj = rv.get(step);
+                    req.buildResponse(step, obj);
                 }
-            });
 
-            // Post-process
-            for (int step = 0; step < status.steps; step++) {
-                Object obj = rv.get(step);
-                req.buildResponse(step, obj);
-            }
+                moreChunks = hasMoreChunks();
+                if (moreChunks) {
+                    currentStep.set(0);
+                    notifyCallbacks();
+                    if (State.CANCELLED.equals(state.get())) {
+                        // cancel() caught us between chunks and has already
+                        // set the response; the committed chunks remain.
+                        helper.debug("Request cancelled between chunks");
+                        break;
+                    }
+                }
+            } while (moreChunks);
 
         } catch (Cancel cancel) {
             helper.debug("Request cancelled by %s", cancel.getCause());
@@ -394,10 +447,16 @@ public class HandleI implements _HandleOperations, IHandle,
             // is non-null.
             rsp.set(req.getResponse());
             sw.stop("omero.request.tx");
+            stopped.countDown();
             notifyCallbacks();
         }
     }
 
+    private boolean hasMoreChunks() {
+        return req instanceof IChunkedRequest
+                && ((IChunkedRequest) req).hasMoreChunks();
+    }
+
     private Map<String, String> mergeContexts() {
 
         final Map<String, String> merged = new HashMap<String, String>();
@@ -476,7 +535,9 @@ public class HandleI implements _HandleOperations, IHandle,
             throw helper.cancel(new ERR(), t, "steps-cancel");
         } finally {
             swWhole.stop("omero.request");
-            status.startTime = swWhole.getStartTime();
+            if (status.startTime == 0) {
+                status.startTime = swWhole.getStartTime(); // first chunk
+            }
             status.stopTime = swWhole.getStartTime() + swWhole.getElapsedTime();
         }
 
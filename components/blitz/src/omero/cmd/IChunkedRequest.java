@@ -0,0 +1,39 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+package omero.cmd;
+
+/**
+ * {@link IRequest} which may split its work across several transactions.
+ * {@link HandleI} calls {@link #enableChunks()} before processing and then,
+ * after each transaction has committed and {@link #buildResponse(int, Object)}
+ * has been called for its steps, calls {@link #init(Helper)} and the steps
+ * again in a new transaction for as long as {@link #hasMoreChunks()} returns
+ * true. Each call to {@link #init(Helper)} receives a new {@link Helper} and
+ * so a new Hibernate session.
+ *
+ * Requests which are processed by other drivers, e.g. within a
+ * {@link omero.cmd.DoAll}, never have {@link #enableChunks()} called and must
+ * then complete all of their work within a single transaction.
+ *
+ * @since 5.1
+ */
+public interface IChunkedRequest extends IRequest {
+
+    /**
+     * Permits this request to return true from {@link #hasMoreChunks()}.
+     */
+    void enableChunks();
+
+    /**
+     * Whether another transaction is needed. Called both within the
+     * transaction after {@link #finish()} and again once it has committed,
+     * so must return the same value each time until {@link #init(Helper)}
+     * is next called.
+     *
+     * @return if {@link #init(Helper)} and the steps should be run again
+     */
+    boolean hasMoreChunks();
+
+}
@@ -20,6 +20,8 @@ import ome.security.SecuritySystem;
 import ome.security.auth.PasswordProvider;
 import ome.security.auth.PasswordUtil;
 import ome.services.mail.MailUtil;
+import ome.services.util.FileSizeCache;
+import ome.services.util.GraphSummaryCache;
 import ome.system.OmeroContext;
 import ome.system.Roles;
 import ome.tools.hibernate.ExtendedMetadata;
@@ -75,6 +77,10 @@ public class RequestObjectFactoryRegistry extends
     
     private final GraphRequestFactory graphRequestFactory;
 
+    private final FileSizeCache fileSizeCache;
+
+    private final GraphSummaryCache<DiskUsageResponse> diskUsageCache;
+
     private/* final */OmeroContext ctx;
 
     public RequestObjectFactoryRegistry(ExtendedMetadata em,
@@ -86,7 +92,9 @@ public class RequestObjectFactoryRegistry extends
             PasswordUtil passwordUtil,
             SecuritySystem sec,
             PasswordProvider passwordProvider,
-            GraphRequestFactory graphRequestFactory) {
+            GraphRequestFactory graphRequestFactory,
+            FileSizeCache fileSizeCache,
+            GraphSummaryCache<DiskUsageResponse> diskUsageCache) {
 
         this.em = em;
         this.voter = voter;
@@ -98,6 +106,8 @@ public class RequestObjectFactoryRegistry extends
         this.sec = sec;
         this.passwordProvider = passwordProvider;
         this.graphRequestFactory = graphRequestFactory;
+        this.fileSizeCache = fileSizeCache;
+        this.diskUsageCache = diskUsageCache;
     }
 
     public void setApplicationContext(ApplicationContext ctx)
@@ -235,7 +245,8 @@ public class RequestObjectFactoryRegistry extends
                 new ObjectFactory(DiskUsageI.ice_staticId()) {
                     @Override
                     public Ice.Object create(String name) {
-                        return new DiskUsageI(pixelsService, thumbnailService, graphRequestFactory.getGraphPathBean());
+                        return new DiskUsageI(pixelsService, thumbnailService, graphRequestFactory.getGraphPathBean(),
+                                fileSizeCache, diskUsageCache);
                     }
                 });
         factories.put(SendEmailRequestI.ice_staticId(),
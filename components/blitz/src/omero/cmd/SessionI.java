@@ -19,6 +19,7 @@ import ome.conditions.SessionException;
 import ome.logic.HardWiredInterceptor;
 import ome.services.sessions.SessionManager;
 import ome.services.util.Executor;
+import ome.system.EventContext;
 import ome.system.OmeroContext;
 import ome.system.Principal;
 import omero.ApiUsageException;
@@ -142,6 +143,17 @@ public class SessionI implements _SessionOperations {
         return this.executor;
     }
 
+    /**
+     * Returns the scheduler which queues submitted handles, or null if
+     * handles should be passed directly to the {@link #executor}.
+     */
+    public CommandScheduler getCommandScheduler() {
+        if (!context.containsBean("commandScheduler")) {
+            return null;
+        }
+        return context.getBean("commandScheduler", CommandScheduler.class);
+    }
+
     // ~ Command API
     // =========================================================================
 
@@ -200,7 +212,15 @@ public class SessionI implements _SessionOperations {
             // Init
             try {
                 handle.initialize(id, (IRequest) req, current.ctx);
-                executor.submit(current.ctx, Executors.callable(handle));
+                final CommandScheduler scheduler = getCommandScheduler();
+                if (scheduler == null) {
+                    executor.submit(Executor.Priority.BACKGROUND, current.ctx,
+                            Executors.callable(handle));
+                } else {
+                    final EventContext ec = sessionManager.getEventContext(principal);
+                    scheduler.submit(handle, req, ec.getCurrentUserId(),
+                            ec.getCurrentGroupId(), current.ctx);
+                }
                 __cb.ice_response(prx);
             } catch (Throwable e) {
                 log.error("Exception on startup; removing handle " + id, e);
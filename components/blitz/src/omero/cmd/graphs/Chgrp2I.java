@@ -84,6 +84,8 @@ public class Chgrp2I extends Chgrp2 implements IRequest, WrappableRequest<Chgrp2
 
     private GraphTraversal.PlanExecutor unlinker;
     private GraphTraversal.PlanExecutor processor;
+    private SetMultimap<String, Long> deletionTargets;
+    private boolean isFilesQueued = false;
 
     private int targetObjectCount = 0;
     private int deletedObjectCount = 0;
@@ -194,7 +196,8 @@ public class Chgrp2I extends Chgrp2 implements IRequest, WrappableRequest<Chgrp2
                 }
                 final Entry<SetMultimap<String, Long>, SetMultimap<String, Long>> plan =
                         graphTraversal.planOperation(helper.getSession(), targetMultimap, true, true);
-                return Maps.immutableEntry(plan.getKey(), GraphUtil.arrangeDeletionTargets(helper.getSession(), plan.getValue()));
+                deletionTargets = GraphUtil.arrangeDeletionTargets(helper.getSession(), plan.getValue());
+                return Maps.immutableEntry(plan.getKey(), deletionTargets);
             case 1:
                 graphTraversal.assertNoPolicyViolations();
                 return null;
@@ -210,6 +213,7 @@ public class Chgrp2I extends Chgrp2 implements IRequest, WrappableRequest<Chgrp2
                 return null;
             case 5:
                 processor.execute();
+                isFilesQueued = deletionInstance.queueFiles(helper.getSql(), GraphUtil.trimPackageNames(deletionTargets));
                 return null;
             default:
                 final Exception e = new IllegalArgumentException("model object graph operation has no step " + step);
@@ -237,7 +241,7 @@ public class Chgrp2I extends Chgrp2 implements IRequest, WrappableRequest<Chgrp2
             /* if the results object were in terms of IObjectList then this would need IceMapper.map */
             final Entry<SetMultimap<String, Long>, SetMultimap<String, Long>> result =
                     (Entry<SetMultimap<String, Long>, SetMultimap<String, Long>>) object;
-            if (!dryRun) {
+            if (!dryRun && !isFilesQueued) {
                 try {
                     deletionInstance.deleteFiles(GraphUtil.trimPackageNames(result.getValue()));
                 } catch (Exception e) {
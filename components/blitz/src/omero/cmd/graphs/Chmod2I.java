@@ -93,6 +93,8 @@ public class Chmod2I extends Chmod2 implements IRequest, WrappableRequest<Chmod2
 
     private GraphTraversal.PlanExecutor unlinker;
     private GraphTraversal.PlanExecutor processor;
+    private SetMultimap<String, Long> deletionTargets;
+    private boolean isFilesQueued = false;
 
     private int targetObjectCount = 0;
     private int deletedObjectCount = 0;
@@ -238,7 +240,8 @@ public class Chmod2I extends Chmod2 implements IRequest, WrappableRequest<Chmod2
                     /* ... and apply the graph policy rules to those */
                     plan = graphTraversal.planOperation(helper.getSession(), targetsNotPrivate, true, true);
                 }
-                return Maps.immutableEntry(plan.getKey(), GraphUtil.arrangeDeletionTargets(helper.getSession(), plan.getValue()));
+                deletionTargets = GraphUtil.arrangeDeletionTargets(helper.getSession(), plan.getValue());
+                return Maps.immutableEntry(plan.getKey(), deletionTargets);
             case 1:
                 graphTraversal.assertNoPolicyViolations();
                 return null;
@@ -254,6 +257,7 @@ public class Chmod2I extends Chmod2 implements IRequest, WrappableRequest<Chmod2
                 return null;
             case 5:
                 processor.execute();
+                isFilesQueued = deletionInstance.queueFiles(helper.getSql(), GraphUtil.trimPackageNames(deletionTargets));
                 return null;
             default:
                 final Exception e = new IllegalArgumentException("model object graph operation has no step " + step);
@@ -281,7 +285,7 @@ public class Chmod2I extends Chmod2 implements IRequest, WrappableRequest<Chmod2
             /* if the results object were in terms of IObjectList then this would need IceMapper.map */
             final Entry<SetMultimap<String, Long>, SetMultimap<String, Long>> result =
                     (Entry<SetMultimap<String, Long>, SetMultimap<String, Long>>) object;
-            if (!dryRun) {
+            if (!dryRun && !isFilesQueued) {
                 try {
                     deletionInstance.deleteFiles(GraphUtil.trimPackageNames(result.getValue()));
                 } catch (Exception e) {
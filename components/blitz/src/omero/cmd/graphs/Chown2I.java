@@ -88,6 +88,8 @@ public class Chown2I extends Chown2 implements IRequest, WrappableRequest<Chown2
 
     private GraphTraversal.PlanExecutor unlinker;
     private GraphTraversal.PlanExecutor processor;
+    private SetMultimap<String, Long> deletionTargets;
+    private boolean isFilesQueued = false;
 
     private int targetObjectCount = 0;
     private int deletedObjectCount = 0;
@@ -197,7 +199,8 @@ public class Chown2I extends Chown2 implements IRequest, WrappableRequest<Chown2
                 }
                 final Entry<SetMultimap<String, Long>, SetMultimap<String, Long>> plan =
                         graphTraversal.planOperation(helper.getSession(), targetMultimap, true, true);
-                return Maps.immutableEntry(plan.getKey(), GraphUtil.arrangeDeletionTargets(helper.getSession(), plan.getValue()));
+                deletionTargets = GraphUtil.arrangeDeletionTargets(helper.getSession(), plan.getValue());
+                return Maps.immutableEntry(plan.getKey(), deletionTargets);
             case 1:
                 graphTraversal.assertNoPolicyViolations();
                 return null;
@@ -213,6 +216,7 @@ public class Chown2I extends Chown2 implements IRequest, WrappableRequest<Chown2
                 return null;
             case 5:
                 processor.execute();
+                isFilesQueued = deletionInstance.queueFiles(helper.getSql(), GraphUtil.trimPackageNames(deletionTargets));
                 return null;
             default:
                 final Exception e = new IllegalArgumentException("model object graph operation has no step " + step);
@@ -240,7 +244,7 @@ public class Chown2I extends Chown2 implements IRequest, WrappableRequest<Chown2
             /* if the results object were in terms of IObjectList then this would need IceMapper.map */
             final Entry<SetMultimap<String, Long>, SetMultimap<String, Long>> result =
                     (Entry<SetMultimap<String, Long>, SetMultimap<String, Long>>) object;
-            if (!dryRun) {
+            if (!dryRun && !isFilesQueued) {
                 try {
                     deletionInstance.deleteFiles(GraphUtil.trimPackageNames(result.getValue()));
                 } catch (Exception e) {
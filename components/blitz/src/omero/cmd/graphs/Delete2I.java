@@ -19,8 +19,10 @@
 
 package omero.cmd.graphs;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -32,6 +34,7 @@ import com.google.common.base.Function;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
 import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
@@ -52,20 +55,33 @@ import omero.cmd.Delete2Response;
 import omero.cmd.HandleI.Cancel;
 import omero.cmd.ERR;
 import omero.cmd.Helper;
-import omero.cmd.IRequest;
+import omero.cmd.IChunkedRequest;
 import omero.cmd.Response;
 
 /**
  * Request to delete model objects, replacing version 5.0's {@code DeleteI}.
+ * If a positive {@link #batchSize} is given then, rather than executing the
+ * deletions in the planning transaction, they are recorded in the order in
+ * which {@link GraphTraversal} would perform them and committed in batches
+ * by later transactions. Each property that must be nulled is nulled in the
+ * same transaction as the first deletion that requires it, so a batched
+ * deletion that stops part-way leaves no surviving object unlinked.
+ * The batches bound the size of each transaction but not the planning: the
+ * first transaction still traverses the whole model object graph in memory,
+ * then retains only the class, ID and properties to null of each object to
+ * delete.
  * @author m.t.b.carroll@dundee.ac.uk
  * @since 5.1.0
  */
-public class Delete2I extends Delete2 implements IRequest, WrappableRequest<Delete2> {
+public class Delete2I extends Delete2 implements IChunkedRequest, WrappableRequest<Delete2> {
 
     private static final ImmutableMap<String, String> ALL_GROUPS_CONTEXT = ImmutableMap.of(Login.OMERO_GROUP, "-1");
 
     private static final Set<GraphPolicy.Ability> REQUIRED_ABILITIES = ImmutableSet.of(GraphPolicy.Ability.DELETE);
 
+    /* the most IDs to pass to a single nulling of a property, as for GraphTraversal */
+    private static final int NULL_BATCH_SIZE = 256;
+
     private final ACLVoter aclVoter;
     private final SystemTypes systemTypes;
     private final GraphPathBean graphPathBean;
@@ -80,10 +96,24 @@ public class Delete2I extends Delete2 implements IRequest, WrappableRequest<Dele
 
     private GraphTraversal.PlanExecutor unlinker;
     private GraphTraversal.PlanExecutor processor;
+    private SetMultimap<String, Long> deletionTargets;
+    private boolean isFilesQueued = false;
+    private DeletionRecorder recorder = null;
 
     private int targetObjectCount = 0;
     private int deletedObjectCount = 0;
 
+    private boolean isChunksEnabled = false;
+
+    /* the deletions planned by the first transaction of a batched deletion that are yet to be committed */
+    private Deque<PlannedDeletion> plannedDeletions = null;
+
+    private Map<String, List<Long>> deletedObjects;
+    private final List<Long> batchObjectCounts = new ArrayList<Long>();
+    private final List<Long> batchTimes = new ArrayList<Long>();
+    private boolean isBatchTransaction = false;
+    private long batchStartTime;
+
     /**
      * Construct a new <q>delete</q> request; called from {@link GraphRequestFactory#getRequest(Class)}.
      * @param aclVoter ACL voter for permissions checking
@@ -112,9 +142,25 @@ public class Delete2I extends Delete2 implements IRequest, WrappableRequest<Dele
        return new HashMap<String, String>(ALL_GROUPS_CONTEXT);
     }
 
+    @Override
+    public void enableChunks() {
+        isChunksEnabled = true;
+    }
+
+    @Override
+    public boolean hasMoreChunks() {
+        return plannedDeletions != null && !plannedDeletions.isEmpty();
+    }
+
     @Override
     public void init(Helper helper) {
         this.helper = helper;
+        if (plannedDeletions != null) {
+            /* a later transaction of a batched deletion */
+            isBatchTransaction = true;
+            helper.setSteps(1);
+            return;
+        }
         helper.setSteps(dryRun ? 4 : 6);
 
         final EventContext eventContext = helper.getEventContext();
@@ -139,6 +185,10 @@ public class Delete2I extends Delete2 implements IRequest, WrappableRequest<Dele
         GraphTraversal.Processor processor = new InternalProcessor();
         if (dryRun) {
             processor = GraphUtil.disableProcessor(processor);
+        } else if (isChunksEnabled && batchSize > 0) {
+            plannedDeletions = new ArrayDeque<PlannedDeletion>();
+            recorder = new DeletionRecorder(processor);
+            processor = recorder;
         }
 
         graphTraversal = new GraphTraversal(helper.getSession(), eventContext, aclVoter, systemTypes, graphPathBean, unnullable,
@@ -149,6 +199,9 @@ public class Delete2I extends Delete2 implements IRequest, WrappableRequest<Dele
     public Object step(int step) throws Cancel {
         helper.assertStep(step);
         try {
+            if (isBatchTransaction) {
+                return deleteBatch();
+            }
             switch (step) {
             case 0:
                 /* if targetObjects were an IObjectList then this would need IceMapper.reverse */
@@ -176,7 +229,8 @@ public class Delete2I extends Delete2 implements IRequest, WrappableRequest<Dele
                 }
                 final Entry<SetMultimap<String, Long>, SetMultimap<String, Long>> plan =
                         graphTraversal.planOperation(helper.getSession(), targetMultimap, false, true);
-                return Maps.immutableEntry(plan.getKey(), GraphUtil.arrangeDeletionTargets(helper.getSession(), plan.getValue()));
+                deletionTargets = GraphUtil.arrangeDeletionTargets(helper.getSession(), plan.getValue());
+                return Maps.immutableEntry(plan.getKey(), deletionTargets);
             case 1:
                 graphTraversal.assertNoPolicyViolations();
                 return null;
@@ -192,6 +246,13 @@ public class Delete2I extends Delete2 implements IRequest, WrappableRequest<Dele
                 return null;
             case 5:
                 processor.execute();
+                if (recorder != null) {
+                    recorder.assignRemainingNulls();
+                    recorder = null;
+                } else if (plannedDeletions == null) {
+                    isFilesQueued = deletionInstance.queueFiles(helper.getSql(),
+                            GraphUtil.trimPackageNames(deletionTargets));
+                }
                 return null;
             default:
                 final Exception e = new IllegalArgumentException("model object graph operation has no step " + step);
@@ -208,6 +269,31 @@ public class Delete2I extends Delete2 implements IRequest, WrappableRequest<Dele
         }
     }
 
+    /**
+     * Commit the next batch of the planned deletions, nulling beforehand the properties that they require to be nulled.
+     * @return the model objects deleted by this batch
+     * @throws GraphException if the deletion failed
+     */
+    private SetMultimap<String, Long> deleteBatch() throws GraphException {
+        batchStartTime = System.currentTimeMillis();
+        final GraphTraversal.Processor deleter = new InternalProcessor();
+        final SetMultimap<String, Long> deleted = HashMultimap.create();
+        int count = 0;
+        while (count < batchSize && !plannedDeletions.isEmpty()) {
+            final PlannedDeletion next = plannedDeletions.remove();
+            for (final Entry<Entry<String, String>, Collection<Long>> toNull : next.toNull.asMap().entrySet()) {
+                for (final List<Long> ids : Iterables.partition(toNull.getValue(), NULL_BATCH_SIZE)) {
+                    deleter.nullProperties(toNull.getKey().getKey(), toNull.getKey().getValue(), ids);
+                }
+            }
+            deleter.deleteInstances(next.className, next.ids);
+            deleted.putAll(next.className, next.ids);
+            count += next.ids.size();
+        }
+        isFilesQueued = deletionInstance.queueFiles(helper.getSql(), GraphUtil.trimPackageNames(deleted));
+        return deleted;
+    }
+
     @Override
     public void finish() {
     }
@@ -215,27 +301,47 @@ public class Delete2I extends Delete2 implements IRequest, WrappableRequest<Dele
     @Override
     public void buildResponse(int step, Object object) {
         helper.assertResponse(step);
-        if (step == 0) {
+        if (isBatchTransaction) {
+            /* the deleted model objects are already noted by the first transaction's response */
+            final SetMultimap<String, Long> resultDeleted = (SetMultimap<String, Long>) object;
+            batchObjectCounts.add((long) resultDeleted.size());
+            batchTimes.add(System.currentTimeMillis() - batchStartTime);
+            if (!isFilesQueued) {
+                try {
+                    deletionInstance.deleteFiles(GraphUtil.trimPackageNames(resultDeleted));
+                } catch (Exception e) {
+                    helper.cancel(new ERR(), e, "file-delete-fail");
+                }
+            }
+            helper.info("in batched delete of " + targetObjectCount + ", batch " + batchObjectCounts.size() +
+                    " deleted " + resultDeleted.size() + " in " + batchTimes.get(batchTimes.size() - 1) + "ms, " +
+                    plannedDeletions.size() + " deletion group(s) remaining");
+            if (!hasMoreChunks()) {
+                helper.setResponseIfNull(new Delete2Response(deletedObjects, batchObjectCounts, batchTimes));
+            }
+        } else if (step == 0) {
             /* if the results object were in terms of IObjectList then this would need IceMapper.map */
             final Entry<SetMultimap<String, Long>, SetMultimap<String, Long>> result =
                     (Entry<SetMultimap<String, Long>, SetMultimap<String, Long>>) object;
             final SetMultimap<String, Long> resultProcessed = result.getKey();
             final SetMultimap<String, Long> resultDeleted = result.getValue();
-            if (!dryRun) {
+            if (!dryRun && plannedDeletions == null && !isFilesQueued) {
                 try {
                     deletionInstance.deleteFiles(GraphUtil.trimPackageNames(resultDeleted));
                 } catch (Exception e) {
                     helper.cancel(new ERR(), e, "file-delete-fail");
                 }
             }
-            final Map<String, List<Long>> deletedObjects = new HashMap<String, List<Long>>();
+            deletedObjects = new HashMap<String, List<Long>>();
             for (final String className : Sets.union(resultProcessed.keySet(), resultDeleted.keySet())) {
                 final Set<Long> ids = Sets.union(resultProcessed.get(className), resultDeleted.get(className));
                 deletedObjects.put(className, new ArrayList<Long>(ids));
                 deletedObjectCount += ids.size();
             }
-            final Delete2Response response = new Delete2Response(deletedObjects);
-            helper.setResponseIfNull(response);
+            if (!hasMoreChunks()) {
+                final Delete2Response response = new Delete2Response(deletedObjects, batchObjectCounts, batchTimes);
+                helper.setResponseIfNull(response);
+            }
             helper.info("in " + (dryRun ? "mock " : "") + "delete of " + targetObjectCount +
                     ", deleted " + deletedObjectCount + " in total");
         }
@@ -296,4 +402,160 @@ public class Delete2I extends Delete2 implements IRequest, WrappableRequest<Dele
             return REQUIRED_ABILITIES;
         }
     }
+
+    /**
+     * A deletion planned by the first transaction of a batched deletion, along with the properties to null beforehand.
+     * @since 5.1.0
+     */
+    private static final class PlannedDeletion {
+
+        final String className;
+        final Collection<Long> ids;
+
+        /* the IDs of the objects whose given class' property is to be nulled before the deletion */
+        final SetMultimap<Entry<String, String>, Long> toNull = HashMultimap.create();
+
+        PlannedDeletion(String className, Collection<Long> ids) {
+            this.className = className;
+            this.ids = ids;
+        }
+    }
+
+    /**
+     * A property to null, not yet assigned to a planned deletion.
+     * @since 5.1.0
+     */
+    private static final class PlannedNull {
+
+        final String className;
+        final String propertyName;
+        final Long id;
+        boolean isAssigned = false;
+
+        PlannedNull(String className, String propertyName, Long id) {
+            this.className = className;
+            this.propertyName = propertyName;
+            this.id = id;
+        }
+    }
+
+    /**
+     * A <q>delete</q> processor that, for a batched deletion, records the deletions in order for later transactions
+     * instead of performing them. Each property to null is recorded with the first deletion of either the object that
+     * has the property or the object to which the property links, so that it is nulled in the same transaction.
+     * @since 5.1.0
+     */
+    private final class DeletionRecorder implements GraphTraversal.Processor {
+
+        private final GraphTraversal.Processor processor;
+
+        /* the properties to null not yet assigned to a deletion, by the class and ID of the linking and of the linked object */
+        private final SetMultimap<Entry<String, Long>, PlannedNull> nullsByObject = HashMultimap.create();
+
+        DeletionRecorder(GraphTraversal.Processor processor) {
+            this.processor = processor;
+        }
+
+        /**
+         * @param className the name of a class
+         * @param propertyName a property of that class that links to another model object
+         * @return the name of the class to which the property links, or {@code null} if it is not known
+         */
+        private String getLinkedClass(String className, String propertyName) {
+            for (final Entry<String, String> link : graphPathBean.getLinkedTo(className)) {
+                if (propertyName.equals(link.getValue())) {
+                    return link.getKey();
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public void nullProperties(String className, String propertyName, Collection<Long> ids) {
+            final String linkedClassName = getLinkedClass(className, propertyName);
+            final Map<Long, Long> linkedIds = new HashMap<Long, Long>();
+            if (linkedClassName != null) {
+                final String query = "SELECT id, " + propertyName + ".id FROM " + className + " WHERE id IN (:ids)";
+                for (final Object[] result :
+                    (List<Object[]>) helper.getSession().createQuery(query).setParameterList("ids", ids).list()) {
+                    linkedIds.put((Long) result[0], (Long) result[1]);
+                }
+            }
+            for (final Long id : ids) {
+                final PlannedNull toNull = new PlannedNull(className, propertyName, id);
+                nullsByObject.put(Maps.immutableEntry(className, id), toNull);
+                final Long linkedId = linkedIds.get(id);
+                if (linkedId != null) {
+                    nullsByObject.put(Maps.immutableEntry(linkedClassName, linkedId), toNull);
+                }
+            }
+        }
+
+        /**
+         * Assign the properties to null to the given deletion if they link from or to any of its objects.
+         * @param deletion a planned deletion
+         */
+        private void assignNulls(PlannedDeletion deletion) {
+            if (nullsByObject.isEmpty()) {
+                return;
+            }
+            for (final String className : graphPathBean.getSuperclassesOfReflexive(deletion.className)) {
+                for (final Long id : deletion.ids) {
+                    for (final PlannedNull toNull : nullsByObject.removeAll(Maps.immutableEntry(className, id))) {
+                        if (!toNull.isAssigned) {
+                            toNull.isAssigned = true;
+                            deletion.toNull.put(Maps.immutableEntry(toNull.className, toNull.propertyName), toNull.id);
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Assign any properties to null that are not involved in any deletion to the first batch.
+         * If there are no deletions then null them now.
+         */
+        void assignRemainingNulls() {
+            final SetMultimap<Entry<String, String>, Long> remaining = HashMultimap.create();
+            for (final PlannedNull toNull : nullsByObject.values()) {
+                if (!toNull.isAssigned) {
+                    toNull.isAssigned = true;
+                    remaining.put(Maps.immutableEntry(toNull.className, toNull.propertyName), toNull.id);
+                }
+            }
+            nullsByObject.clear();
+            final PlannedDeletion first = plannedDeletions.peekFirst();
+            if (first != null) {
+                first.toNull.putAll(remaining);
+                return;
+            }
+            for (final Entry<Entry<String, String>, Collection<Long>> toNull : remaining.asMap().entrySet()) {
+                for (final List<Long> ids : Iterables.partition(toNull.getValue(), NULL_BATCH_SIZE)) {
+                    processor.nullProperties(toNull.getKey().getKey(), toNull.getKey().getValue(), ids);
+                }
+            }
+        }
+
+        @Override
+        public void deleteInstances(String className, Collection<Long> ids) {
+            final PlannedDeletion deletion = new PlannedDeletion(className, new ArrayList<Long>(ids));
+            assignNulls(deletion);
+            plannedDeletions.add(deletion);
+        }
+
+        @Override
+        public void processInstances(String className, Collection<Long> ids) {
+            deleteInstances(className, ids);
+        }
+
+        @Override
+        public Set<GraphPolicy.Ability> getRequiredPermissions() {
+            return processor.getRequiredPermissions();
+        }
+
+        @Override
+        public void assertMayProcess(String className, long id, ome.model.internal.Details details) throws GraphException {
+            processor.assertMayProcess(className, id, details);
+        }
+    }
 }
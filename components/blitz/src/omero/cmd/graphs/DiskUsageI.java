@@ -19,14 +19,18 @@
 
 package omero.cmd.graphs;
 
-import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,6 +52,8 @@ import ome.io.nio.ThumbnailService;
 import ome.model.IObject;
 import ome.parameters.Parameters;
 import ome.services.graphs.GraphPathBean;
+import ome.services.util.FileSizeCache;
+import ome.services.util.GraphSummaryCache;
 import ome.system.Login;
 import omero.api.LongPair;
 import omero.cmd.DiskUsage;
@@ -61,6 +67,11 @@ import omero.model.OriginalFile;
 
 /**
  * Calculate the disk usage entailed by the given objects.
+ * The sizes of original files are summed by the database while the sizes of the pixels, pyramid and thumbnail files,
+ * which are not stored there, are read through the {@link FileSizeCache}. Each user's response is kept in the
+ * {@link GraphSummaryCache}, along with the objects traversed and the types of the rows followed to reach them,
+ * so that repeating a request returns the same response until the event logs show a change to any of those.
+ * A changed summary is not patched but dropped, so the next request traverses the model graph afresh.
  * @author m.t.b.carroll@dundee.ac.uk
  * @since 5.1.0
  */
@@ -79,11 +90,20 @@ public class DiskUsageI extends DiskUsage implements IRequest {
     private static final ImmutableSet<String> OWNED_OBJECTS;
     private static final ImmutableSet<String> ANNOTATABLE_OBJECTS;
 
+    /* <FromClass, types of rows other than FromClass queried by its traversal queries> */
+    private static final ImmutableMultimap<String, String> TRAVERSAL_DEPENDENCIES;
+
+    /* types whose changes may affect any user's usage summary, by changing what the user may read */
+    private static final ImmutableSet<String> SECURITY_DEPENDENCIES = ImmutableSet.of("ExperimenterGroup",
+            "GroupExperimenterMap");
+
     private static final Map<String, String> classIdProperties = Collections.synchronizedMap(new HashMap<String, String>());
 
     private final PixelsService pixelsService;
     private final ThumbnailService thumbnailService;
     private final GraphPathBean graphPathBean;
+    private final FileSizeCache fileSizeCache;
+    private final GraphSummaryCache<DiskUsageResponse> summaryCache;
 
     private Helper helper;
 
@@ -92,11 +112,16 @@ public class DiskUsageI extends DiskUsage implements IRequest {
      * @param pixelsService the pixels service
      * @param thumbnailService the thumbnail service
      * @param graphPathBean the graph path bean
+     * @param fileSizeCache the cache through which to read the sizes of pixels and thumbnail files
+     * @param summaryCache the cache of previous responses
      */
-    public DiskUsageI(PixelsService pixelsService, ThumbnailService thumbnailService, GraphPathBean graphPathBean) {
+    public DiskUsageI(PixelsService pixelsService, ThumbnailService thumbnailService, GraphPathBean graphPathBean,
+            FileSizeCache fileSizeCache, GraphSummaryCache<DiskUsageResponse> summaryCache) {
         this.pixelsService = pixelsService;
         this.thumbnailService = thumbnailService;
         this.graphPathBean = graphPathBean;
+        this.fileSizeCache = fileSizeCache;
+        this.summaryCache = summaryCache;
     }
 
     /* NAVIGATION OF MODEL OBJECT GRAPH */
@@ -174,6 +199,21 @@ public class DiskUsageI extends DiskUsage implements IRequest {
         TRAVERSAL_QUERIES = builder.build();
     }
 
+    static {
+        final ImmutableMultimap.Builder<String, String> builder = ImmutableMultimap.builder();
+
+        /* changes to the queried object itself are noted by its ID */
+        final Pattern rowType = Pattern.compile(" FROM (\\w+) WHERE (\\S+) IN ");
+        for (final Map.Entry<String, Map.Entry<String, String>> query : TRAVERSAL_QUERIES.entries()) {
+            final Matcher matcher = rowType.matcher(query.getValue().getValue());
+            if (matcher.find() && !"id".equals(matcher.group(2))) {
+                builder.put(query.getKey(), matcher.group(1));
+            }
+        }
+
+        TRAVERSAL_DEPENDENCIES = builder.build();
+    }
+
     static {
         final ImmutableSet.Builder<String> builder = ImmutableSet.builder();
 
@@ -277,6 +317,35 @@ public class DiskUsageI extends DiskUsage implements IRequest {
                 return;
             }
             final LongPair ownership = new LongPair(owner, group);
+            addToType(ownership, type, 1, size);
+            if (bumpTotals) {
+                addToTotals(ownership, 1, size);
+                bumpTotals = false;
+            }
+        }
+
+        /**
+         * Adjust counts and sizes according to the given aggregate of files of the same ownership.
+         * Each file is counted against every one of the given types, but only once in the totals.
+         * Does not adjust anything unless {@code size > 0}.
+         * @param owner the ID of an owner
+         * @param group the ID of a group
+         * @param types the types
+         * @param count how many files
+         * @param size the total size of the files
+         */
+        void addFiles(long owner, long group, Collection<String> types, int count, long size) {
+            if (size <= 0) {
+                return;
+            }
+            final LongPair ownership = new LongPair(owner, group);
+            for (final String type : types) {
+                addToType(ownership, type, count, size);
+            }
+            addToTotals(ownership, count, size);
+        }
+
+        private void addToType(LongPair ownership, String type, int count, long size) {
             final Map<String, Integer> countByType;
             final Map<String, Long> sizeByType;
             if (countByTypeByWho.containsKey(ownership)) {
@@ -290,27 +359,27 @@ public class DiskUsageI extends DiskUsage implements IRequest {
             }
             Long sizeThisType = sizeByType.get(type);
             if (sizeThisType == null) {
-                countByType.put(type, Integer.valueOf(1));
+                countByType.put(type, Integer.valueOf(count));
                 sizeByType.put(type, size);
             } else {
-                countByType.put(type, countByType.get(type) + 1);
+                countByType.put(type, countByType.get(type) + count);
                 sizeByType.put(type, sizeThisType + size);
             }
-            if (bumpTotals) {
-                Integer totalCount = totalCountByWho.get(ownership);
-                Long totalSize = totalSizeByWho.get(ownership);
-                if (totalCount == null) {
-                    totalCount = 0;
-                }
-                if (totalSize == null) {
-                    totalSize = 0L;
-                }
-                totalCount++;
-                totalSize += size;
-                totalCountByWho.put(ownership, totalCount);
-                totalSizeByWho.put(ownership, totalSize);
-                bumpTotals = false;
+        }
+
+        private void addToTotals(LongPair ownership, int count, long size) {
+            Integer totalCount = totalCountByWho.get(ownership);
+            Long totalSize = totalSizeByWho.get(ownership);
+            if (totalCount == null) {
+                totalCount = 0;
+            }
+            if (totalSize == null) {
+                totalSize = 0L;
             }
+            totalCount += count;
+            totalSize += size;
+            totalCountByWho.put(ownership, totalCount);
+            totalSizeByWho.put(ownership, totalSize);
         }
 
         /**
@@ -366,7 +435,17 @@ public class DiskUsageI extends DiskUsage implements IRequest {
             throw helper.cancel(new ERR(), new IllegalArgumentException(), "disk usage operation has no step " + step);
         }
         try {
-            return getDiskUsage();
+            final String summaryKey = getSummaryKey();
+            final DiskUsageResponse cached = summaryCache.get(summaryKey);
+            if (cached != null) {
+                return cached;
+            }
+            final GraphSummaryCache.Computation computation = summaryCache.begin();
+            try {
+                return getDiskUsage(computation, summaryKey);
+            } finally {
+                summaryCache.end(computation);
+            }
         } catch (Cancel c) {
             throw c;
         } catch (Throwable t) {
@@ -394,43 +473,32 @@ public class DiskUsageI extends DiskUsage implements IRequest {
     /* DISK USAGE CALCULATION */
 
     /**
-     * Notes the ownership and disk usage of an original file. Immutable.
-     * @author m.t.b.carroll@dundee.ac.uk
+     * Notes the ownership of a model object whose files' sizes are yet to be read. Immutable.
      * @since 5.1.0
      */
-    private static class OwnershipAndSize {
-        /** the ID of the owner of the file */
+    private static class OwnershipAndFiles {
+        /** the ID of the owner of the object */
         public final long owner;
 
-        /** the ID of the group of the file */
+        /** the ID of the group of the object */
         public final long group;
 
-        /** the size of the file */
-        public final long size;
+        /** the type of the object */
+        public final String type;
 
         /**
-         * Construct a tuple of a file's ownership and disk usage.
-         * @param owner the ID of the owner of the file
-         * @param group the ID of the group of the file
-         * @param size the size of the file
+         * Construct a tuple of an object's ownership and type.
+         * @param owner the ID of the owner of the object
+         * @param group the ID of the group of the object
+         * @param type the type of the object
          */
-        OwnershipAndSize(long owner, long group, long size) {
+        OwnershipAndFiles(long owner, long group, String type) {
             this.owner = owner;
             this.group = group;
-            this.size = size;
+            this.type = type;
         }
     }
 
-    /**
-     * Get the size of the file at the given path, or {@code 0} if it does not exist.
-     * @param path a file path
-     * @return the file's size, or {@code 0} if the file does not exist
-     */
-    private static long getFileSize(String path) {
-        final File file = new File(path);
-        return file.exists() ? file.length() : 0;
-    }
-
     /**
      * Look up the identifier property for the given class.
      * @param className a class name
@@ -455,11 +523,25 @@ public class DiskUsageI extends DiskUsage implements IRequest {
         return idProperty;
     }
 
+    /**
+     * @return the key of this request's response in the summary cache
+     */
+    private String getSummaryKey() {
+        final Map<String, Set<Long>> sortedObjects = new TreeMap<String, Set<Long>>();
+        for (final Map.Entry<String, List<Long>> objectList : objects.entrySet()) {
+            sortedObjects.put(objectList.getKey(), new TreeSet<Long>(objectList.getValue()));
+        }
+        return "DiskUsage user=" + helper.getEventContext().getCurrentUserId() + " classes=" +
+                new TreeSet<String>(classes) + " objects=" + sortedObjects;
+    }
+
     /**
      * Calculate the disk usage of the model objects specified in the request.
+     * @param computation the computation begun for the response in the summary cache
+     * @param summaryKey the key of the response in the summary cache
      * @return the total usage, in bytes
      */
-    private DiskUsageResponse getDiskUsage() {
+    private DiskUsageResponse getDiskUsage(GraphSummaryCache.Computation computation, String summaryKey) {
         final IQuery queryService = helper.getServiceFactory().getQueryService();
 
         final int batchSize = 256;
@@ -470,8 +552,13 @@ public class DiskUsageI extends DiskUsage implements IRequest {
 
         /* original file ID to types that refer to them */
         final SetMultimap<Long, String> typesWithFiles = HashMultimap.create();
-        /* original file ID to file ownership and size */
-        final Map<Long, OwnershipAndSize> fileSizes = new HashMap<Long, OwnershipAndSize>();
+        /* original files whose sizes are to be summed */
+        final Set<Long> fileIds = new HashSet<Long>();
+        /* file size cache key to the ownership and the paths of the files whose sizes are to be read */
+        final Map<String, OwnershipAndFiles> filesToSize = new HashMap<String, OwnershipAndFiles>();
+        final Map<String, String[]> pathsToSize = new HashMap<String, String[]>();
+        /* types whose changes may affect the usage even if none of the objects processed change */
+        final Set<String> dependencies = new HashSet<String>(SECURITY_DEPENDENCIES);
 
         /* note the objects to process */
 
@@ -483,6 +570,7 @@ public class DiskUsageI extends DiskUsage implements IRequest {
                     objectsToProcess.put(className, objectId);
                 }
             }
+            dependencies.add(className.substring(className.lastIndexOf('.') + 1));
         }
 
         for (final Map.Entry<String, List<Long>> objectList : objects.entrySet()) {
@@ -533,10 +621,10 @@ public class DiskUsageI extends DiskUsage implements IRequest {
                         final Long ownerId = (Long) resultRow[1];
                         final Long groupId = (Long) resultRow[2];
                         final String pixelsPath = pixelsService.getPixelsPath(pixelsId);
-                        usage.bumpTotals().add(ownerId, groupId, className, getFileSize(pixelsPath));
-                        usage.bumpTotals().add(ownerId, groupId, className, getFileSize(pixelsPath + PixelsService.PYRAMID_SUFFIX));
-                        usage.bumpTotals().add(ownerId, groupId, className, getFileSize(pixelsPath + PixelsService.PYRAMID_SUFFIX +
-                                BfPyramidPixelBuffer.PYR_LOCK_EXT));
+                        final String key = FileSizeCache.key(ome.model.core.Pixels.class, pixelsId);
+                        filesToSize.put(key, new OwnershipAndFiles(ownerId, groupId, className));
+                        pathsToSize.put(key, new String[] {pixelsPath, pixelsPath + PixelsService.PYRAMID_SUFFIX,
+                                pixelsPath + PixelsService.PYRAMID_SUFFIX + BfPyramidPixelBuffer.PYR_LOCK_EXT});
                     }
                 }
             } else if ("Thumbnail".equals(className)) {
@@ -548,23 +636,17 @@ public class DiskUsageI extends DiskUsage implements IRequest {
                         final Long ownerId = (Long) resultRow[1];
                         final Long groupId = (Long) resultRow[2];
                         final String thumbnailPath = thumbnailService.getThumbnailPath(thumbnailId);
-                        usage.bumpTotals().add(ownerId, groupId, className, getFileSize(thumbnailPath));
+                        final String key = FileSizeCache.key(ome.model.display.Thumbnail.class, thumbnailId);
+                        filesToSize.put(key, new OwnershipAndFiles(ownerId, groupId, className));
+                        pathsToSize.put(key, new String[] {thumbnailPath});
                     }
                 }
             } else if ("OriginalFile".equals(className)) {
-                /* OriginalFiles have their size noted */
-                final String hql = "SELECT id, details.owner.id, details.group.id, size FROM OriginalFile WHERE id IN (:ids)";
-                for (final Object[] resultRow : queryService.projection(hql, parameters)) {
-                    if (resultRow != null && resultRow[3] instanceof Long) {
-                        final Long fileId = (Long) resultRow[0];
-                        final Long ownerId = (Long) resultRow[1];
-                        final Long groupId = (Long) resultRow[2];
-                        final Long fileSize = (Long) resultRow[3];
-                        fileSizes.put(fileId, new OwnershipAndSize(ownerId, groupId, fileSize));
-                    }
-                }
+                /* OriginalFiles have their size noted in the database, summed once the referers are known */
+                fileIds.addAll(idsToQuery);
             } else if ("Experimenter".equals(className)) {
                 /* for an experimenter, use the list of owned objects */
+                dependencies.addAll(OWNED_OBJECTS);
                 for (final String resultClassName : OWNED_OBJECTS) {
                     final String hql = "SELECT " + getIdPropertyFor(resultClassName) + " FROM " + resultClassName +
                             " WHERE details.owner.id IN (:ids)";
@@ -574,6 +656,7 @@ public class DiskUsageI extends DiskUsage implements IRequest {
                 }
             } else if ("ExperimenterGroup".equals(className)) {
                 /* for an experimenter group, use the list of owned objects */
+                dependencies.addAll(OWNED_OBJECTS);
                 for (final String resultClassName : OWNED_OBJECTS) {
                     final String hql = "SELECT " + getIdPropertyFor(resultClassName) + " FROM " + resultClassName +
                             " WHERE details.group.id IN (:ids)";
@@ -584,6 +667,7 @@ public class DiskUsageI extends DiskUsage implements IRequest {
             }
 
             /* follow the next step from here on the model object graph */
+            dependencies.addAll(TRAVERSAL_DEPENDENCIES.get(className));
             for (final Map.Entry<String, String> query : TRAVERSAL_QUERIES.get(className)) {
                 final String resultClassName = query.getKey();
                 final String hql = query.getValue();
@@ -599,6 +683,7 @@ public class DiskUsageI extends DiskUsage implements IRequest {
             }
             if (ANNOTATABLE_OBJECTS.contains(className)) {
                 /* also watch for annotations on the current objects */
+                dependencies.add(className + "AnnotationLink");
                 final String hql = "SELECT child.id FROM " + className + "AnnotationLink WHERE parent.id IN (:ids)";
                 for (final Object[] resultRow : queryService.projection(hql, parameters)) {
                     objectsToProcess.put("Annotation", (Long) resultRow[0]);
@@ -611,17 +696,37 @@ public class DiskUsageI extends DiskUsage implements IRequest {
             }
         }
 
-        /* collate file counts and sizes by referer type */
-        for (final Map.Entry<Long, OwnershipAndSize> fileIdSize : fileSizes.entrySet()) {
-            final Long fileId = fileIdSize.getKey();
-            final OwnershipAndSize fileSize = fileIdSize.getValue();
-            Set<String> types = typesWithFiles.get(fileId);
-            if (types.isEmpty()) {
-                types = ImmutableSet.of("OriginalFile");
+        /* read the sizes of the pixels and thumbnail files, in parallel or from the cache */
+        for (final Map.Entry<String, long[]> sizesByKey : fileSizeCache.getSizes(pathsToSize).entrySet()) {
+            final OwnershipAndFiles files = filesToSize.get(sizesByKey.getKey());
+            for (final long size : sizesByKey.getValue()) {
+                usage.bumpTotals().add(files.owner, files.group, files.type, size);
             }
-            usage.bumpTotals();
-            for (final String type : types) {
-                usage.add(fileSize.owner, fileSize.group, type, fileSize.size);
+        }
+
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("usage is " + usage + " after including " + pathsToSize.size() + " objects' file sizes");
+        }
+
+        /* collate file counts and sizes by referer type, summing the stored sizes in the database */
+        final SetMultimap<Set<String>, Long> filesByTypes = HashMultimap.create();
+        for (final Long fileId : fileIds) {
+            final Set<String> types = typesWithFiles.get(fileId);
+            filesByTypes.put(types.isEmpty() ? ImmutableSet.of("OriginalFile") : ImmutableSet.copyOf(types), fileId);
+        }
+        final String fileSizeHql = "SELECT details.owner.id, details.group.id, COUNT(id), SUM(size) FROM OriginalFile " +
+                "WHERE id IN (:ids) AND size > 0 GROUP BY details.owner.id, details.group.id";
+        for (final Map.Entry<Set<String>, Collection<Long>> filesOfTypes : filesByTypes.asMap().entrySet()) {
+            for (final List<Long> idsToQuery : Iterables.partition(filesOfTypes.getValue(), batchSize)) {
+                for (final Object[] resultRow : queryService.projection(fileSizeHql, new Parameters().addIds(idsToQuery))) {
+                    if (resultRow != null && resultRow[3] instanceof Long) {
+                        final Long ownerId = (Long) resultRow[0];
+                        final Long groupId = (Long) resultRow[1];
+                        final Long fileCount = (Long) resultRow[2];
+                        final Long fileSize = (Long) resultRow[3];
+                        usage.addFiles(ownerId, groupId, filesOfTypes.getKey(), fileCount.intValue(), fileSize);
+                    }
+                }
             }
         }
 
@@ -629,6 +734,12 @@ public class DiskUsageI extends DiskUsage implements IRequest {
             LOGGER.debug("usage is " + usage + " after including " + OriginalFile.class.getSimpleName() + " sizes");
         }
 
-        return usage.getDiskUsageResponse();
+        final DiskUsageResponse response = usage.getDiskUsageResponse();
+        final List<String> objectsProcessedKeys = new ArrayList<String>(objectsProcessed.size());
+        for (final Map.Entry<String, Long> object : objectsProcessed.entries()) {
+            objectsProcessedKeys.add(GraphSummaryCache.key(object.getKey(), object.getValue()));
+        }
+        summaryCache.put(computation, summaryKey, response, objectsProcessedKeys, dependencies);
+        return response;
     }
 }
@@ -30,6 +30,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.collections.CollectionUtils;
@@ -81,11 +82,15 @@ import omero.api.RawFileStorePrxHelper;
 import omero.api.RawPixelsStorePrx;
 import omero.api.RawPixelsStorePrxHelper;
 import omero.api.RenderingEnginePrx;
+import omero.api.RenderingEnginePrxHelper;
 import omero.api.SearchPrx;
 import omero.api.SearchPrxHelper;
 import omero.api.ServiceFactoryPrx;
+import omero.api.ServiceFactoryPrxHelper;
 import omero.api.ServiceInterfacePrx;
+import omero.api.ServiceInterfacePrxHelper;
 import omero.api.StatefulServiceInterfacePrx;
+import omero.api.StatefulServiceInterfacePrxHelper;
 import omero.api.ThumbnailStorePrx;
 import omero.api.ThumbnailStorePrxHelper;
 import omero.cmd.CmdCallbackI;
@@ -101,7 +106,10 @@ import omero.model.Session;
 import omero.sys.Principal;
 
 /** 
- * Manages the various services and entry points.
+ * Manages the various services and entry points. A connector either owns
+ * its session or, if created for another group on top of an existing
+ * connector, multiplexes that session by passing <code>omero.group</code>
+ * in the context of every call.
  *
  * @author Jean-Marie Burel &nbsp;&nbsp;&nbsp;&nbsp;
  * <a href="mailto:j.burel@dundee.ac.uk">j.burel@dundee.ac.uk</a>
@@ -132,6 +140,21 @@ class Connector
      */
     private final client secureClient;
 
+    /**
+     * The connector owning the session if this connector multiplexes it,
+     * <code>null</code> otherwise.
+     */
+    private final Connector base;
+
+    /** The call context selecting the group if multiplexed. */
+    private final Map<String, String> groupContext;
+
+    /** The number of connectors multiplexing the session of this one. */
+    private final AtomicInteger multiplexed = new AtomicInteger(0);
+
+    /** Set once a multiplexed connector has been closed. */
+    private final AtomicBoolean released = new AtomicBoolean(false);
+
     /** 
      * The client object, this is the entry point to the
      * OMERO Server using non secure data transfer
@@ -151,17 +174,27 @@ class Connector
     private ServiceFactoryPrx entryUnencrypted;
 
     /** Collection of stateless services to prevent re-lookup */
-    private final Map<String, ServiceInterfacePrx> statelessServices;
+    private final Map<String, ServiceInterfacePrx> statelessServices =
+            new MapMaker().makeMap();
 
     /** Collection of stateful services to prevent re-lookup.
      * {@link RenderingEnginePrx} and {@link OMEROMetadataStoreClient}
      * instances are stored separately */
-    private final Multimap<String, StatefulServiceInterfacePrx> statefulServices;
+    private final Multimap<String, StatefulServiceInterfacePrx> statefulServices =
+            Multimaps.<String, StatefulServiceInterfacePrx>synchronizedMultimap(
+                    HashMultimap.<String, StatefulServiceInterfacePrx>create());
+
+    /** The time at which each of the stateful services was handed out. */
+    private final Map<StatefulServiceInterfacePrx, Long> statefulCreated =
+            new MapMaker().makeMap();
 
-    private final Map<OMEROMetadataStoreClient, String> importStores;
+    private final Map<OMEROMetadataStoreClient, String> importStores =
+            new MapMaker().makeMap();
 
     /** Collection of services to keep alive. */
-    private final Multimap<Long, RenderingEnginePrx> reServices;
+    private final Multimap<Long, RenderingEnginePrx> reServices =
+            Multimaps.<Long, RenderingEnginePrx>synchronizedMultimap(
+                    HashMultimap.<Long, RenderingEnginePrx>create());
 
     /** The security context for that connector.*/
     private final SecurityContext context;
@@ -212,20 +245,42 @@ class Connector
         this.secureClient = client;
         this.entryEncrypted = entryEncrypted;
         this.context = context;
-        final MapMaker mapMaker = new MapMaker();
-        statelessServices = mapMaker.makeMap();
-        importStores = mapMaker.makeMap();
-        statefulServices = Multimaps.<String, StatefulServiceInterfacePrx>
-        synchronizedMultimap(
-                HashMultimap.<String, StatefulServiceInterfacePrx>create());
-        reServices = Multimaps.<Long, RenderingEnginePrx>
-        synchronizedMultimap(
-                HashMultimap.<Long, RenderingEnginePrx>create());
+        this.base = null;
+        this.groupContext = null;
 
         derived = CacheBuilder.newBuilder().build();
         logger.debug(this, "Created Connector nConnector="+nConnector.incrementAndGet());
     }
 
+    /**
+     * Creates a new instance for the group of the passed context which
+     * shares the session of the passed connector instead of creating its
+     * own client.
+     *
+     * @param context The context hosting information about the user.
+     * @param base The connector owning the session.
+     * @param logger Reference to the logger.
+     */
+    Connector(SecurityContext context, Connector base, Logger logger)
+    {
+        if (context == null)
+            throw new IllegalArgumentException("No Security context.");
+        if (base == null || base.base != null)
+            throw new IllegalArgumentException("No session to share.");
+        this.logger = logger;
+        this.secureClient = base.secureClient;
+        this.context = context;
+        this.base = base;
+        this.groupContext = new HashMap<String, String>();
+        groupContext.put("omero.group", "" + context.getGroupID());
+        bindToBase();
+        base.multiplexed.incrementAndGet();
+
+        derived = CacheBuilder.newBuilder().build();
+        logger.debug(this, "Created multiplexed Connector for group "
+                + context.getGroupID());
+    }
+
     //
     // Regular service lookups
     //
@@ -507,6 +562,9 @@ class Connector
             throws DSOutOfServiceException
     {
         OMEROMetadataStoreClient importStore = new OMEROMetadataStoreClient();
+        if (groupContext != null) {
+            importStore.setGroup(context.getGroupID());
+        }
         try {
             if (entryUnencrypted != null) {
                 // Note: this is a change. Now permit unencrypted import!
@@ -539,6 +597,10 @@ class Connector
             } else {
                 prx = entryEncrypted.createRenderingEngine();
             }
+            if (groupContext != null) {
+                prx = RenderingEnginePrxHelper.uncheckedCast(
+                        prx.ice_context(groupContext));
+            }
             logger.debug(this, "Create rendering engine "+pixelsID+" nRenderingEngine="+nRenderingEngine.incrementAndGet());
         } catch (Exception e) {
             throw new DSOutOfServiceException("Could not get rendering engine", e);
@@ -557,10 +619,16 @@ class Connector
      void joinSession()
             throws Throwable
     {
-        String uuid = secureClient.getSessionId();
         statelessServices.clear();
         reServices.clear();
         statefulServices.clear();
+        statefulCreated.clear();
+        if (base != null) {
+            // The owner of the session must have rejoined first.
+            bindToBase();
+            return;
+        }
+        String uuid = secureClient.getSessionId();
         secureClient.closeSession();
         if (unsecureClient != null) {
             unsecureClient.closeSession();
@@ -595,6 +663,19 @@ class Connector
      void close(boolean networkup)
             throws Throwable
     {
+        if (base != null) {
+            // Only close what was created for this group.
+            if (networkup) {
+                shutDownServices(true);
+            }
+            closeDerived(networkup);
+            if (released.compareAndSet(false, true)) {
+                base.multiplexed.decrementAndGet();
+                logger.debug(this, "Closed multiplexed Connector for group "
+                        + context.getGroupID());
+            }
+            return;
+        }
         secureClient.setFastShutdown(!networkup);
         if (unsecureClient != null) 
             unsecureClient.setFastShutdown(!networkup);
@@ -667,6 +748,14 @@ class Connector
      */
      boolean keepSessionAlive()
     {
+        if (base != null) {
+            // keepAllAlive covers the services of every group.
+            if (!base.needsKeepAlive() || base.keepSessionAlive()) {
+                lastKeepAlive.set(System.currentTimeMillis());
+                return true;
+            }
+            return false;
+        }
         boolean success = true;
         try {
             entryEncrypted.keepAllAlive(null);
@@ -715,6 +804,7 @@ class Connector
                 }
             } else {
                 logger.debug(this, "Close stateful service "+proxy.getClass().getSimpleName()+" nStateful="+nStateful.decrementAndGet());
+                statefulCreated.remove(proxy);
                 Set<String> keys = statefulServices.keySet();
                 keys = Sets.newHashSet(keys);
                 for (String key : keys) {
@@ -794,6 +884,10 @@ class Connector
         DoAll all = new DoAll();
         all.requests = commands;
         Map<String, String> callContext = new HashMap<String, String>();
+        if (groupContext != null) {
+            // An explicit context replaces the one of the proxy.
+            callContext.putAll(groupContext);
+        }
         if (target != null) {
             callContext.put("omero.group", ""+target.getGroupID());
         }
@@ -868,10 +962,86 @@ class Connector
         });
     }
     
+    /**
+     * Closes the stateful services, other than rendering engines and import
+     * stores, which were handed out more than the passed time ago and have
+     * not been closed since. Each stateful service is handed out only once
+     * and calls on its proxy are not seen here, so this is a maximum age,
+     * not an idle time: a service still in use is closed too.
+     *
+     * @param maxAge The age in milliseconds.
+     * @return The number of services closed.
+     */
+     int closeExpiredServices(long maxAge)
+    {
+        long cutoff = System.currentTimeMillis() - maxAge;
+        List<StatefulServiceInterfacePrx> expired =
+                new ArrayList<StatefulServiceInterfacePrx>();
+        for (Map.Entry<StatefulServiceInterfacePrx, Long> e :
+            statefulCreated.entrySet()) {
+            if (e.getValue() < cutoff) {
+                expired.add(e.getKey());
+            }
+        }
+        for (StatefulServiceInterfacePrx prx : expired) {
+            logger.debug(this, "Closing expired stateful service " + prx);
+            close(prx);
+        }
+        return expired.size();
+    }
+
+    /**
+     * Returns <code>true</code> if this connector shares the session of
+     * another connector, <code>false</code> if it owns its session.
+     *
+     * @return See above.
+     */
+     boolean isMultiplexed() { return base != null; }
+
+    /**
+     * Returns the number of open connectors sharing the session of this one.
+     *
+     * @return See above.
+     */
+     int getMultiplexedCount() { return multiplexed.get(); }
+
+    /**
+     * Returns the client of the session used by this connector, which is
+     * shared by all connectors multiplexing the session.
+     *
+     * @return See above.
+     */
+     client getSessionClient() { return secureClient; }
+
+     int getStatelessCount() { return statelessServices.size(); }
+
+     int getStatefulCount() { return statefulServices.size(); }
+
+     int getRenderingEngineCount() { return reServices.size(); }
+
+     int getImportStoreCount() { return importStores.size(); }
+
     //
     // HELPERS
     //
 
+    /**
+     * Points the entry points at the session of the base connector, passing
+     * the group of this connector with every call.
+     */
+    private void bindToBase()
+    {
+        entryEncrypted = ServiceFactoryPrxHelper.uncheckedCast(
+                base.entryEncrypted.ice_context(groupContext));
+        unsecureClient = base.unsecureClient;
+        if (base.entryUnencrypted != null) {
+            entryUnencrypted = ServiceFactoryPrxHelper.uncheckedCast(
+                    base.entryUnencrypted.ice_context(groupContext));
+        } else {
+            entryUnencrypted = null;
+        }
+    }
+
     /**
      * Returns <code>true</code> if the services need to be kept alive,
      * <code>false</code> otherwise.
@@ -896,17 +1066,24 @@ class Connector
      */
     private ServiceInterfacePrx get(String name, boolean secure)
             throws DSOutOfServiceException {
+        // Cache the secure and unsecure proxies separately.
+        final boolean unencrypted = !secure && entryUnencrypted != null;
+        final String key = unencrypted ? name : name + ";secure";
         try {
-            ServiceInterfacePrx prx = statelessServices.get(name);
-            if (!secure && prx != null) { // Reload if secure is true. //TODO: Why?
+            ServiceInterfacePrx prx = statelessServices.get(key);
+            if (prx != null) {
                 return prx;
             }
-            if (!secure && entryUnencrypted != null) {
+            if (unencrypted) {
                 prx = entryUnencrypted.getByName(name);
             } else {
                 prx = entryEncrypted.getByName(name);
             }
-            statelessServices.put(name, prx);
+            if (groupContext != null) {
+                prx = ServiceInterfacePrxHelper.uncheckedCast(
+                        prx.ice_context(groupContext));
+            }
+            statelessServices.put(key, prx);
             logger.debug(this, "Create stateless service "+name+" nStateless="+nStateless.incrementAndGet());
             return prx;
         } catch (Exception e) {
@@ -932,7 +1109,12 @@ class Connector
             } else {
                 prx = entryEncrypted.createByName(name);
             }
+            if (groupContext != null) {
+                prx = StatefulServiceInterfacePrxHelper.uncheckedCast(
+                        prx.ice_context(groupContext));
+            }
             statefulServices.put(name, prx);
+            statefulCreated.put(prx, System.currentTimeMillis());
             logger.debug(this, "Create stateful service "+name+" nStateful="+nStateful.incrementAndGet());
             return prx;
         } catch (Exception e) {
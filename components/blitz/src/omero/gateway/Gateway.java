@@ -22,7 +22,10 @@ package omero.gateway;
 
 import java.net.InetAddress;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -30,6 +33,7 @@ import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang.StringUtils;
@@ -119,6 +123,18 @@ public class Gateway {
     /** Optional reference to a {@link CacheService} */
     private CacheService cacheService;
 
+    /** The number of stateful services closed for exceeding the maximum age. */
+    private final AtomicLong expiredServicesClosed = new AtomicLong(0);
+
+    /** Orders the connectors owning a session before those sharing one. */
+    private static final Comparator<Connector> SESSIONS_FIRST =
+            new Comparator<Connector>() {
+        @Override
+        public int compare(Connector c1, Connector c2) {
+            return Boolean.compare(c1.isMultiplexed(), c2.isMultiplexed());
+        }
+    };
+
     /**
      * Creates a new Gateway instance
      * @param log A {@link Logger}
@@ -170,6 +186,8 @@ public class Gateway {
     public void disconnect() {
         boolean online = isNetworkUp(false);
         List<Connector> connectors = getAllConnectors();
+        // Close the sessions only once nothing is using them.
+        Collections.sort(connectors, Collections.reverseOrder(SESSIONS_FIRST));
         Iterator<Connector> i = connectors.iterator();
         while (i.hasNext())
             i.next().shutDownServices(true);
@@ -211,6 +229,8 @@ public class Gateway {
             return false;
         }
         List<Connector> connectors = removeAllConnectors();
+        // Multiplexed connectors rebind to the rejoined sessions.
+        Collections.sort(connectors, SESSIONS_FIRST);
         Iterator<Connector> i = connectors.iterator();
         Connector c;
         int index = 0;
@@ -987,6 +1007,12 @@ public class Gateway {
         } catch (Exception e) {
             throw new DSOutOfServiceException("Network not available");
         }
+        long maxAge = login == null ? 0 : login.getStatefulMaxAge();
+        if (maxAge > 0) {
+            for (Connector c : getAllConnectors()) {
+                expiredServicesClosed.addAndGet(c.closeExpiredServices(maxAge));
+            }
+        }
         Iterator<Connector> i = getAllConnectors().iterator();
         Connector c;
         while (i.hasNext()) {
@@ -1110,7 +1136,9 @@ public class Gateway {
     }
 
     /**
-     * Close a connector for a certain {@link SecurityContext}
+     * Close a connector for a certain {@link SecurityContext}. If other
+     * groups are multiplexed over its session, only its services are closed
+     * and the session is kept until {@link #disconnect()}.
      * 
      * @param ctx
      *            The {@link SecurityContext}
@@ -1121,6 +1149,11 @@ public class Gateway {
             return;
 
         for (Connector c : clist) {
+            if (c.getMultiplexedCount() > 0) {
+                c.shutDownServices(true);
+                groupConnectorMap.put(c.getGroupID(), c);
+                continue;
+            }
             try {
                 c.close(isNetworkUp(true));
             } catch (Throwable e) {
@@ -1129,6 +1162,30 @@ public class Gateway {
         }
     }
 
+    /**
+     * Returns the number of sessions, connectors and services currently
+     * held open by this gateway.
+     * 
+     * @return See above.
+     */
+    public PoolStatistics getPoolStatistics() {
+        Map<client, Connector> sessions = new IdentityHashMap<client, Connector>();
+        int multiplexed = 0, stateless = 0, stateful = 0, re = 0, imports = 0;
+        List<Connector> connectors = getAllConnectors();
+        for (Connector c : connectors) {
+            sessions.put(c.getSessionClient(), c);
+            if (c.isMultiplexed())
+                multiplexed++;
+            stateless += c.getStatelessCount();
+            stateful += c.getStatefulCount();
+            re += c.getRenderingEngineCount();
+            imports += c.getImportStoreCount();
+        }
+        return new PoolStatistics(sessions.size(), connectors.size(),
+                multiplexed, stateless, stateful, re, imports,
+                expiredServicesClosed.get());
+    }
+
     /**
      * Close a service
      * 
@@ -1369,6 +1426,9 @@ public class Gateway {
         Connector c = null;
         try {
             ctx.setServerInformation(login.getServer());
+            c = createMultiplexedConnector(ctx);
+            if (c != null)
+                return c;
             // client will be cleaned up by connector
             client client = new client(login.getServer().getHostname(), login
                     .getServer().getPort());
@@ -1389,4 +1449,40 @@ public class Gateway {
         }
         return c;
     }
+
+    /**
+     * Creates a {@link Connector} for a particular {@link SecurityContext}
+     * which shares the least used session if
+     * {@link LoginCredentials#getMaxSessions()} sessions are already open.
+     * 
+     * @param ctx
+     *            The {@link SecurityContext}
+     * @return The connector or <code>null</code> if a new session should be
+     *         created.
+     */
+    private Connector createMultiplexedConnector(SecurityContext ctx) {
+        int max = login.getMaxSessions();
+        if (max <= 0)
+            return null;
+        synchronized (groupConnectorMap) {
+            // Connectors created at login share a client without being
+            // multiplexed, so sessions are counted by client.
+            Map<client, Connector> sessions = new IdentityHashMap<client, Connector>();
+            for (Connector c : groupConnectorMap.values()) {
+                if (!c.isMultiplexed())
+                    sessions.put(c.getSessionClient(), c);
+            }
+            if (sessions.size() < max)
+                return null;
+            Connector base = null;
+            for (Connector c : sessions.values()) {
+                if (base == null
+                        || c.getMultiplexedCount() < base.getMultiplexedCount())
+                    base = c;
+            }
+            Connector c = new Connector(ctx, base, log);
+            groupConnectorMap.put(ctx.getGroupID(), c);
+            return c;
+        }
+    }
 }
@@ -51,6 +51,18 @@ public class LoginCredentials {
     /** ID of the group if not the default group of the user should be used */
     private long groupID = -1;
 
+    /**
+     * Maximum number of sessions over which the groups are multiplexed.
+     * 0 or less creates one session per group.
+     */
+    private int maxSessions = 0;
+
+    /**
+     * Age in milliseconds after which stateful services which have not been
+     * closed are closed by the gateway. 0 or less keeps them open.
+     */
+    private long statefulMaxAge = 0;
+
     /**
      * Creates a new instance
      */
@@ -93,6 +105,50 @@ public class LoginCredentials {
         this.checkNetwork = checkNetwork;
     }
 
+    /**
+     * @return The maximum number of sessions over which groups are
+     *         multiplexed; 0 or less if each group has its own session
+     */
+    public int getMaxSessions() {
+        return maxSessions;
+    }
+
+    /**
+     * Sets the maximum number of sessions to create. Once reached, further
+     * groups share the least used session and are selected per call via the
+     * <code>omero.group</code> call context instead of opening a new
+     * session, client and communicator.
+     * 
+     * @param maxSessions
+     *            See above
+     */
+    public void setMaxSessions(int maxSessions) {
+        this.maxSessions = maxSessions;
+    }
+
+    /**
+     * @return The age in milliseconds after which unclosed stateful
+     *         services are closed; 0 or less if they are kept open
+     */
+    public long getStatefulMaxAge() {
+        return statefulMaxAge;
+    }
+
+    /**
+     * Sets the maximum age in milliseconds of stateful services, e.g.
+     * {@link omero.api.RawPixelsStorePrx}. The gateway closes services
+     * which are still open at that age even if they are in use. The age
+     * is counted from when the service was handed out. The gateway does
+     * not see calls made on a proxy, so it cannot tell how long a service
+     * has been idle.
+     * 
+     * @param statefulMaxAge
+     *            See above
+     */
+    public void setStatefulMaxAge(long statefulMaxAge) {
+        this.statefulMaxAge = statefulMaxAge;
+    }
+
     /**
      * Returns the compression level.
      * @return The compression level
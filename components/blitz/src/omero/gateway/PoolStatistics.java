@@ -0,0 +1,137 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2015 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+package omero.gateway;
+
+/**
+ * Snapshot of the sessions and services held open by a {@link Gateway}
+ *
+ * @since 5.1
+ * @see Gateway#getPoolStatistics()
+ */
+public class PoolStatistics {
+
+    /** The number of open sessions, i.e. clients */
+    private final int sessions;
+
+    /** The number of connectors, one per group and session */
+    private final int connectors;
+
+    /** The number of connectors sharing the session of another */
+    private final int multiplexed;
+
+    /** The number of cached stateless services */
+    private final int statelessServices;
+
+    /** The number of open stateful services */
+    private final int statefulServices;
+
+    /** The number of open rendering engines */
+    private final int renderingEngines;
+
+    /** The number of open import stores */
+    private final int importStores;
+
+    /** The number of stateful services closed for exceeding the maximum age so far */
+    private final long expiredServicesClosed;
+
+    /**
+     * Creates a new instance
+     */
+    PoolStatistics(int sessions, int connectors, int multiplexed,
+            int statelessServices, int statefulServices, int renderingEngines,
+            int importStores, long expiredServicesClosed) {
+        this.sessions = sessions;
+        this.connectors = connectors;
+        this.multiplexed = multiplexed;
+        this.statelessServices = statelessServices;
+        this.statefulServices = statefulServices;
+        this.renderingEngines = renderingEngines;
+        this.importStores = importStores;
+        this.expiredServicesClosed = expiredServicesClosed;
+    }
+
+    /**
+     * @return The number of open sessions
+     */
+    public int getSessions() {
+        return sessions;
+    }
+
+    /**
+     * @return The number of connectors, one per group and session
+     */
+    public int getConnectors() {
+        return connectors;
+    }
+
+    /**
+     * @return The number of connectors sharing the session of another
+     */
+    public int getMultiplexed() {
+        return multiplexed;
+    }
+
+    /**
+     * @return The number of cached stateless services
+     */
+    public int getStatelessServices() {
+        return statelessServices;
+    }
+
+    /**
+     * @return The number of open stateful services
+     */
+    public int getStatefulServices() {
+        return statefulServices;
+    }
+
+    /**
+     * @return The number of open rendering engines
+     */
+    public int getRenderingEngines() {
+        return renderingEngines;
+    }
+
+    /**
+     * @return The number of open import stores
+     */
+    public int getImportStores() {
+        return importStores;
+    }
+
+    /**
+     * @return The number of stateful services closed for exceeding the maximum age so far
+     */
+    public long getExpiredServicesClosed() {
+        return expiredServicesClosed;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolStatistics [sessions=" + sessions + ", connectors="
+                + connectors + ", multiplexed=" + multiplexed
+                + ", statelessServices=" + statelessServices
+                + ", statefulServices=" + statefulServices
+                + ", renderingEngines=" + renderingEngines
+                + ", importStores=" + importStores
+                + ", expiredServicesClosed=" + expiredServicesClosed + "]";
+    }
+}
@@ -29,7 +29,16 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import omero.RLong;
+import omero.RString;
+import omero.RType;
 import omero.api.IContainerPrx;
 import omero.api.IQueryPrx;
 import omero.gateway.Gateway;
@@ -42,6 +51,8 @@ import omero.model.Image;
 import omero.model.Well;
 import omero.sys.Parameters;
 import omero.sys.ParametersI;
+import omero.gateway.model.BrowsePage;
+import omero.gateway.model.BrowseRow;
 import omero.gateway.model.DataObject;
 import omero.gateway.model.DatasetData;
 import omero.gateway.model.ExperimenterData;
@@ -64,6 +75,46 @@ import omero.gateway.util.PojoMapper;
 
 public class BrowseFacility extends Facility {
 
+    /** The default number of rows returned by {@link #browse} */
+    public static final int DEFAULT_PAGE_SIZE = 500;
+
+    /**
+     * For each type which can be browsed page by page: the model class, the
+     * query counting the children of the objects with the given
+     * <code>ids</code> and the link class to the parent container (if any).
+     */
+    private static final Map<Class<? extends DataObject>, String[]> BROWSE_QUERIES;
+
+    static {
+        Map<Class<? extends DataObject>, String[]> m = new HashMap<Class<? extends DataObject>, String[]>();
+        m.put(ProjectData.class, new String[] {
+                "Project",
+                "select l.parent.id, count(l.id) from ProjectDatasetLink l "
+                        + "where l.parent.id in (:ids) group by l.parent.id",
+                null });
+        m.put(DatasetData.class, new String[] {
+                "Dataset",
+                "select l.parent.id, count(l.id) from DatasetImageLink l "
+                        + "where l.parent.id in (:ids) group by l.parent.id",
+                "ProjectDatasetLink" });
+        m.put(ImageData.class, new String[] { "Image", null,
+                "DatasetImageLink" });
+        m.put(ScreenData.class, new String[] {
+                "Screen",
+                "select l.parent.id, count(l.id) from ScreenPlateLink l "
+                        + "where l.parent.id in (:ids) group by l.parent.id",
+                null });
+        m.put(PlateData.class, new String[] {
+                "Plate",
+                "select w.plate.id, count(w.id) from Well w "
+                        + "where w.plate.id in (:ids) group by w.plate.id",
+                "ScreenPlateLink" });
+        BROWSE_QUERIES = Collections.unmodifiableMap(m);
+    }
+
+    /** Loads the pages requested via {@link #browseAsync} */
+    private ExecutorService browseExecutor;
+
     /**
      * Creates a new instance
      * 
@@ -889,6 +940,275 @@ public class BrowseFacility extends Facility {
         return result;
     }
     
+    /** Browse page by page */
+
+    /**
+     * Returns the executor used to load pages in the background, creating it
+     * if required
+     * 
+     * @return See above
+     */
+    private synchronized ExecutorService getBrowseExecutor() {
+        if (browseExecutor == null) {
+            final AtomicInteger count = new AtomicInteger();
+            browseExecutor = Executors.newFixedThreadPool(2,
+                    new ThreadFactory() {
+                        @Override
+                        public Thread newThread(Runnable r) {
+                            Thread t = new Thread(r, "BrowseFacility-"
+                                    + count.incrementAndGet());
+                            t.setDaemon(true);
+                            return t;
+                        }
+                    });
+        }
+        return browseExecutor;
+    }
+
+    /**
+     * Stops the threads loading pages in the background. Pages still being
+     * loaded are interrupted.
+     */
+    @Override
+    synchronized void shutDown() {
+        if (browseExecutor != null) {
+            browseExecutor.shutdownNow();
+            browseExecutor = null;
+        }
+    }
+
+    /**
+     * Returns the value of the given column of a projection row
+     * 
+     * @param row
+     *            The row
+     * @param index
+     *            The index of the column
+     * @return See above
+     */
+    private static long longValue(List<RType> row, int index) {
+        RType v = row.get(index);
+        if (v instanceof RLong)
+            return ((RLong) v).getValue();
+        return -1;
+    }
+
+    /**
+     * Loads a page of lightweight rows (id, name, owner and number of
+     * children) for the given type using projection queries. The rows are
+     * ordered by id; the following page is requested by passing the id of
+     * the last row of the current page, see {@link BrowsePage#getLastId()}.
+     * 
+     * @param ctx
+     *            The {@link SecurityContext}
+     * @param type
+     *            The type of the objects: {@link ProjectData},
+     *            {@link DatasetData}, {@link ImageData}, {@link ScreenData}
+     *            or {@link PlateData}
+     * @param parentId
+     *            The id of the project (for datasets), dataset (for images)
+     *            or screen (for plates) or <code>-1</code> to load all the
+     *            objects of the given type
+     * @param ownerId
+     *            The id of the owner or <code>-1</code> for all users
+     * @param afterId
+     *            Only objects with an id greater than this one are returned,
+     *            pass <code>-1</code> for the first page
+     * @param pageSize
+     *            The maximum number of rows to return
+     * @return See above
+     * @throws DSOutOfServiceException
+     *             If the connection is broken, or not logged in
+     * @throws DSAccessException
+     *             If an error occurred while trying to retrieve data from OMERO
+     *             service.
+     */
+    public BrowsePage browse(SecurityContext ctx,
+            Class<? extends DataObject> type, long parentId, long ownerId,
+            long afterId, int pageSize) throws DSOutOfServiceException,
+            DSAccessException {
+        String[] queries = BROWSE_QUERIES.get(type);
+        if (queries == null)
+            throw new IllegalArgumentException("Type not supported: " + type);
+        if (parentId >= 0 && queries[2] == null)
+            throw new IllegalArgumentException(type.getSimpleName()
+                    + " cannot have a parent container");
+        if (pageSize <= 0)
+            throw new IllegalArgumentException("Page size must be positive");
+
+        List<BrowseRow> rows = new ArrayList<BrowseRow>();
+        try {
+            IQueryPrx service = gateway.getQueryService(ctx);
+            ParametersI param = new ParametersI();
+            param.addLong("afterId", afterId);
+            param.page(0, pageSize);
+            StringBuilder sb = new StringBuilder();
+            sb.append("select o.id, o.name, o.details.owner.id from ");
+            sb.append(queries[0]);
+            sb.append(" as o where o.id > :afterId");
+            if (ownerId >= 0) {
+                sb.append(" and o.details.owner.id = :ownerId");
+                param.addLong("ownerId", ownerId);
+            }
+            if (parentId >= 0) {
+                sb.append(" and o.id in (select l.child.id from ");
+                sb.append(queries[2]);
+                sb.append(" as l where l.parent.id = :parentId)");
+                param.addLong("parentId", parentId);
+            }
+            sb.append(" order by o.id");
+            List<List<RType>> results = service.projection(sb.toString(),
+                    param);
+            if (results.isEmpty())
+                return new BrowsePage(type, parentId, ownerId, pageSize, rows);
+
+            Map<Long, Long> counts = new HashMap<Long, Long>();
+            if (queries[1] != null) {
+                List<Long> ids = new ArrayList<Long>(results.size());
+                for (List<RType> row : results)
+                    ids.add(longValue(row, 0));
+                ParametersI p = new ParametersI();
+                p.addIds(ids);
+                for (List<RType> row : service.projection(queries[1], p))
+                    counts.put(longValue(row, 0), longValue(row, 1));
+            }
+            long id;
+            Long count;
+            RType name;
+            for (List<RType> row : results) {
+                id = longValue(row, 0);
+                name = row.get(1);
+                count = counts.get(id);
+                rows.add(new BrowseRow(type, id,
+                        name instanceof RString ? ((RString) name).getValue()
+                                : null, longValue(row, 2), count == null ? 0
+                                : count));
+            }
+        } catch (Throwable t) {
+            handleException(this, t, "Cannot browse " + type.getSimpleName());
+        }
+        return new BrowsePage(type, parentId, ownerId, pageSize, rows);
+    }
+
+    /**
+     * Loads the first page of lightweight rows for the given type, see
+     * {@link #browse(SecurityContext, Class, long, long, long, int)}
+     * 
+     * @param ctx
+     *            The {@link SecurityContext}
+     * @param type
+     *            The type of the objects
+     * @param parentId
+     *            The id of the parent container or <code>-1</code>
+     * @param ownerId
+     *            The id of the owner or <code>-1</code> for all users
+     * @return See above
+     * @throws DSOutOfServiceException
+     *             If the connection is broken, or not logged in
+     * @throws DSAccessException
+     *             If an error occurred while trying to retrieve data from OMERO
+     *             service.
+     */
+    public BrowsePage browse(SecurityContext ctx,
+            Class<? extends DataObject> type, long parentId, long ownerId)
+            throws DSOutOfServiceException, DSAccessException {
+        return browse(ctx, type, parentId, ownerId, -1, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Loads the page following the given one
+     * 
+     * @param ctx
+     *            The {@link SecurityContext}
+     * @param page
+     *            The current page
+     * @return The next page, empty if there are no more rows
+     * @throws DSOutOfServiceException
+     *             If the connection is broken, or not logged in
+     * @throws DSAccessException
+     *             If an error occurred while trying to retrieve data from OMERO
+     *             service.
+     */
+    public BrowsePage browseNext(SecurityContext ctx, BrowsePage page)
+            throws DSOutOfServiceException, DSAccessException {
+        return browse(ctx, page.getType(), page.getParentId(),
+                page.getOwnerId(), page.getLastId(), page.getPageSize());
+    }
+
+    /**
+     * Loads the page following the given one in the background so that the
+     * caller can handle the current page in the meantime
+     * 
+     * @param ctx
+     *            The {@link SecurityContext}
+     * @param page
+     *            The current page
+     * @return The pending next page or <code>null</code> if the given page is
+     *         the last one
+     */
+    public Future<BrowsePage> browseAsync(final SecurityContext ctx,
+            final BrowsePage page) {
+        if (!page.hasMore())
+            return null;
+        return getBrowseExecutor().submit(new Callable<BrowsePage>() {
+            @Override
+            public BrowsePage call() throws Exception {
+                return browseNext(ctx, page);
+            }
+        });
+    }
+
+    /**
+     * Loads the {@link DataObject}s corresponding to the given rows, the
+     * children of the containers are not loaded
+     * 
+     * @param ctx
+     *            The {@link SecurityContext}
+     * @param rows
+     *            The rows to convert
+     * @return See above
+     * @throws DSOutOfServiceException
+     *             If the connection is broken, or not logged in
+     * @throws DSAccessException
+     *             If an error occurred while trying to retrieve data from OMERO
+     *             service.
+     */
+    public Collection<DataObject> getDataObjects(SecurityContext ctx,
+            Collection<BrowseRow> rows) throws DSOutOfServiceException,
+            DSAccessException {
+        Map<Class<? extends DataObject>, List<Long>> ids = new HashMap<Class<? extends DataObject>, List<Long>>();
+        List<Long> l;
+        for (BrowseRow row : rows) {
+            l = ids.get(row.getType());
+            if (l == null) {
+                l = new ArrayList<Long>();
+                ids.put(row.getType(), l);
+            }
+            l.add(row.getId());
+        }
+
+        List<DataObject> result = new ArrayList<DataObject>(rows.size());
+        try {
+            IQueryPrx service = gateway.getQueryService(ctx);
+            for (Map.Entry<Class<? extends DataObject>, List<Long>> e : ids
+                    .entrySet()) {
+                if (ImageData.class.equals(e.getKey())) {
+                    result.addAll(getImages(ctx, e.getValue()));
+                    continue;
+                }
+                ParametersI param = new ParametersI();
+                param.addIds(e.getValue());
+                List<IObject> objects = service.findAllByQuery("select o from "
+                        + BROWSE_QUERIES.get(e.getKey())[0]
+                        + " as o where o.id in (:ids)", param);
+                result.addAll(PojoMapper.asDataObjectsAsList(objects));
+            }
+        } catch (Throwable t) {
+            handleException(this, t, "Cannot load the objects");
+        }
+        return result;
+    }
+
     /** Load Images */
 
     /**
@@ -103,12 +103,23 @@ public abstract class Facility {
     }
     
     /**
-     * Clears the Facility object cache
+     * Clears the Facility object cache, shutting down the facilities first
      */
     public static void clear() {
+        for (Facility facility : Facility.cache.asMap().values()) {
+            facility.shutDown();
+        }
         Facility.cache.invalidateAll();
     }
 
+    /**
+     * Releases the resources, e.g. threads, held by this facility. Called
+     * by {@link #clear()} when the {@link Gateway} disconnects.
+     */
+    void shutDown() {
+        // Nothing to release by default
+    }
+
     /**
      * Helper method to simplify logging
      * 
@@ -24,6 +24,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -36,6 +37,7 @@ import omero.api.IRoiPrx;
 import omero.api.IUpdatePrx;
 import omero.api.RoiOptions;
 import omero.api.RoiResult;
+import omero.api.ShapeBatch;
 import omero.gateway.Gateway;
 import omero.gateway.SecurityContext;
 import omero.gateway.exception.DSAccessException;
@@ -54,6 +56,7 @@ import omero.gateway.model.ROICoordinate;
 import omero.gateway.model.ROIData;
 import omero.gateway.model.ShapeData;
 import omero.gateway.util.PojoMapper;
+import omero.util.ShapeBatchCodec;
 
 
 /**
@@ -66,6 +69,9 @@ import omero.gateway.util.PojoMapper;
 
 public class ROIFacility extends Facility {
 
+    /** The number of shapes transferred per bulk call. */
+    public static final int SHAPE_BATCH_SIZE = 5000;
+
     private DataManagerFacility dm;
 
     /**
@@ -532,4 +538,158 @@ public class ROIFacility extends Facility {
         return new ArrayList<ROIData>();
     }
 
+    /**
+     * Loads the shapes of the specified image, in the compact encoding, by
+     * pages of at most <code>limit</code> shapes ordered by id. Only the
+     * geometry, planes and text of the shapes are returned.
+     *
+     * @param ctx
+     *            The security context.
+     * @param imageID
+     *            The image's ID.
+     * @param afterShapeID
+     *            The ID of the last shape of the previous page or
+     *            <code>-1</code> for the first page.
+     * @param limit
+     *            The maximum number of shapes to return.
+     * @return See above. The <code>nextShapeId</code> of the batch is
+     *         {@link ShapeBatchCodec#NO_MORE_SHAPES} once the last page has
+     *         been loaded.
+     * @throws DSOutOfServiceException
+     *             If the connection is broken, or logged in.
+     * @throws DSAccessException
+     *             If an error occurred while trying to retrieve data from OMEDS
+     *             service.
+     */
+    public ShapeBatch loadShapeBatch(SecurityContext ctx, long imageID,
+            long afterShapeID, int limit) throws DSOutOfServiceException,
+            DSAccessException {
+        try {
+            IRoiPrx svc = gateway.getROIService(ctx);
+            return svc.findShapeBatch(imageID, afterShapeID, limit);
+        } catch (ServerError e) {
+            handleException(this, e, "Cannot load the shapes for image: "
+                    + imageID);
+        }
+        return null;
+    }
+
+    /**
+     * Loads the ROI related to the specified image using the bulk shape
+     * service. Much faster than {@link #loadROIs(SecurityContext, long)} for
+     * images with many shapes, but only the geometry, planes and text of the
+     * shapes are loaded.
+     *
+     * @param ctx
+     *            The security context.
+     * @param imageID
+     *            The image's ID.
+     * @return See above.
+     * @throws DSOutOfServiceException
+     *             If the connection is broken, or logged in.
+     * @throws DSAccessException
+     *             If an error occurred while trying to retrieve data from OMEDS
+     *             service.
+     */
+    public List<ROIData> loadROIsBulk(SecurityContext ctx, long imageID)
+            throws DSOutOfServiceException, DSAccessException {
+        Map<Long, Roi> rois = new LinkedHashMap<Long, Roi>();
+        try {
+            IRoiPrx svc = gateway.getROIService(ctx);
+            long after = -1;
+            do {
+                ShapeBatch batch = svc.findShapeBatch(imageID, after,
+                        SHAPE_BATCH_SIZE);
+                for (Roi roi : ShapeBatchCodec.toRois(batch)) {
+                    Roi existing = rois.get(roi.getId().getValue());
+                    if (existing == null) {
+                        rois.put(roi.getId().getValue(), roi);
+                    } else {
+                        // ROI split across two pages
+                        for (Shape shape : roi.copyShapes()) {
+                            existing.addShape(shape);
+                        }
+                    }
+                }
+                after = batch.nextShapeId;
+            } while (after != ShapeBatchCodec.NO_MORE_SHAPES);
+        } catch (Exception e) {
+            handleException(this, e, "Cannot load the ROI for image: "
+                    + imageID);
+        }
+        List<ROIData> result = new ArrayList<ROIData>(rois.size());
+        for (Roi roi : rois.values()) {
+            result.add(new ROIData(roi));
+        }
+        return result;
+    }
+
+    /**
+     * Saves the specified new ROI for the image using the bulk shape
+     * service, which inserts the rows directly rather than saving each model
+     * graph. Only the geometry, planes and text of the shapes are saved; use
+     * {@link #saveROIs(SecurityContext, long, Collection)} to update existing
+     * ROI or to keep the display settings of the shapes.
+     *
+     * @param ctx
+     *            The security context.
+     * @param imageID
+     *            The image's ID.
+     * @param roiList
+     *            The list of new ROI to save.
+     * @return The saved ROI.
+     * @throws DSOutOfServiceException
+     *             If the connection is broken, or logged in.
+     * @throws DSAccessException
+     *             If an error occurred while trying to retrieve data from OMEDS
+     *             service.
+     */
+    public Collection<ROIData> saveROIsBulk(SecurityContext ctx, long imageID,
+            Collection<ROIData> roiList) throws DSOutOfServiceException,
+            DSAccessException {
+        Collection<ROIData> saved = new ArrayList<ROIData>();
+        try {
+            IRoiPrx svc = gateway.getROIService(ctx);
+            ShapeBatchCodec.Encoder encoder =
+                    new ShapeBatchCodec.Encoder(SHAPE_BATCH_SIZE);
+            long key = 0;
+            for (ROIData roi : roiList) {
+                // A ROI is never split so that all its shapes are
+                // inserted into the same new ROI.
+                if (encoder.size() >= SHAPE_BATCH_SIZE) {
+                    saveShapeBatch(svc, imageID, encoder, saved);
+                    encoder = new ShapeBatchCodec.Encoder(SHAPE_BATCH_SIZE);
+                }
+                key++;
+                for (Shape shape : ((Roi) roi.asIObject()).copyShapes()) {
+                    if (!ShapeBatchCodec.add(encoder, key, shape)) {
+                        throw new IllegalArgumentException(
+                                "Shape cannot be saved in bulk: " + shape);
+                    }
+                }
+            }
+            if (encoder.size() > 0) {
+                saveShapeBatch(svc, imageID, encoder, saved);
+            }
+        } catch (Exception e) {
+            handleException(this, e, "Cannot Save the ROI for image: "
+                    + imageID);
+        }
+        return saved;
+    }
+
+    /**
+     * Sends the encoded shapes to the server and adds the new ROI to the
+     * specified collection.
+     */
+    private void saveShapeBatch(IRoiPrx svc, long imageID,
+            ShapeBatchCodec.Encoder encoder, Collection<ROIData> saved)
+            throws ServerError {
+        ShapeBatch result = svc.saveShapeBatch(imageID,
+                encoder.build(imageID, ShapeBatchCodec.NO_MORE_SHAPES));
+        for (Roi roi : ShapeBatchCodec.toRois(result)) {
+            saved.add(new ROIData(roi));
+        }
+    }
+
 }
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2015 University of Dundee & Open Microscopy Environment.
+ * All rights reserved.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package omero.gateway.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A page of {@link BrowseRow}s ordered by id. The page holds the query it
+ * was loaded with so the following page can be requested using the id of
+ * the last row as key (keyset pagination) rather than an offset.
+ *
+ * @since 5.1
+ */
+public class BrowsePage {
+
+    /** Indicates the type (ProjectData, DatasetData, ...).*/
+    private final Class<? extends DataObject> type;
+
+    /** Id of the parent container or <code>-1</code> */
+    private final long parentId;
+
+    /** Id of the owner to restrict the rows to or <code>-1</code> */
+    private final long ownerId;
+
+    /** The maximum number of rows per page */
+    private final int pageSize;
+
+    /** The rows of this page */
+    private final List<BrowseRow> rows;
+
+    /**
+     * Create a new instance
+     *
+     * @param type
+     *            Type of the objects
+     * @param parentId
+     *            Id of the parent container or <code>-1</code>
+     * @param ownerId
+     *            Id of the owner or <code>-1</code>
+     * @param pageSize
+     *            The maximum number of rows per page
+     * @param rows
+     *            The rows of this page
+     */
+    public BrowsePage(Class<? extends DataObject> type, long parentId,
+            long ownerId, int pageSize, List<BrowseRow> rows) {
+        this.type = type;
+        this.parentId = parentId;
+        this.ownerId = ownerId;
+        this.pageSize = pageSize;
+        this.rows = Collections.unmodifiableList(rows);
+    }
+
+    /**
+     * Returns the type of the objects
+     *
+     * @return See above
+     */
+    public Class<? extends DataObject> getType() {
+        return type;
+    }
+
+    /**
+     * Returns the id of the parent container or <code>-1</code> if the
+     * objects are not restricted to a container
+     *
+     * @return See above
+     */
+    public long getParentId() {
+        return parentId;
+    }
+
+    /**
+     * Returns the id of the owner or <code>-1</code> if the objects are not
+     * restricted to an owner
+     *
+     * @return See above
+     */
+    public long getOwnerId() {
+        return ownerId;
+    }
+
+    /**
+     * Returns the maximum number of rows per page
+     *
+     * @return See above
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Returns the rows of this page
+     *
+     * @return See above
+     */
+    public List<BrowseRow> getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the id of the last row, i.e. the key to use to request the
+     * following page, or <code>-1</code> if the page is empty
+     *
+     * @return See above
+     */
+    public long getLastId() {
+        if (rows.isEmpty())
+            return -1;
+        return rows.get(rows.size() - 1).getId();
+    }
+
+    /**
+     * Returns <code>true</code> if more rows may be available,
+     * <code>false</code> otherwise
+     *
+     * @return See above
+     */
+    public boolean hasMore() {
+        return rows.size() >= pageSize;
+    }
+}
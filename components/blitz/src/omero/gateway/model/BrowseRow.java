@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2015 University of Dundee & Open Microscopy Environment.
+ * All rights reserved.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package omero.gateway.model;
+
+/**
+ * Lightweight description of an object of the data hierarchy (project,
+ * dataset, image, screen or plate) as returned by a projection query.
+ * The full {@link DataObject} is only loaded on demand.
+ *
+ * Multiple rows are supposed to be held in a {@link BrowsePage}
+ *
+ * @since 5.1
+ */
+public class BrowseRow {
+
+    /** Indicates the type (ProjectData, DatasetData, ...).*/
+    private final Class<? extends DataObject> type;
+
+    /** Id of the object */
+    private final long id;
+
+    /** Name of the object */
+    private final String name;
+
+    /** Id of the owner of the object */
+    private final long ownerId;
+
+    /** The number of children e.g. the number of images in a dataset */
+    private final long childCount;
+
+    /**
+     * Create a new instance
+     *
+     * @param type
+     *            Type of the object
+     * @param id
+     *            Id of the object
+     * @param name
+     *            Name of the object
+     * @param ownerId
+     *            Id of the owner of the object
+     * @param childCount
+     *            The number of children, <code>0</code> for images
+     */
+    public BrowseRow(Class<? extends DataObject> type, long id, String name,
+            long ownerId, long childCount) {
+        this.type = type;
+        this.id = id;
+        this.name = name;
+        this.ownerId = ownerId;
+        this.childCount = childCount;
+    }
+
+    /**
+     * Returns the type of the object
+     *
+     * @return See above
+     */
+    public Class<? extends DataObject> getType() {
+        return type;
+    }
+
+    /**
+     * Returns the id of the object
+     *
+     * @return See above
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Returns the name of the object
+     *
+     * @return See above
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the id of the owner of the object
+     *
+     * @return See above
+     */
+    public long getOwnerId() {
+        return ownerId;
+    }
+
+    /**
+     * Returns the number of children of the object e.g. the number of
+     * datasets in a project or the number of wells in a plate.
+     *
+     * @return See above
+     */
+    public long getChildCount() {
+        return childCount;
+    }
+
+    @Override
+    public String toString() {
+        return type.getSimpleName() + " [id=" + id + ", name=" + name
+                + ", ownerId=" + ownerId + ", childCount=" + childCount + "]";
+    }
+}
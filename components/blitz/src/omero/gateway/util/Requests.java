@@ -847,7 +847,7 @@ public class Requests {
     public static Delete2 delete(String targetClass, Long targetId) {
         final Map<String, List<Long>> targetObjects = new HashMap<String, List<Long>>();
         targetObjects.put(targetClass, Collections.singletonList(targetId));
-        return new Delete2(targetObjects, (List<ChildOption>) null, false);
+        return new Delete2(targetObjects, (List<ChildOption>) null, false, 0);
     }
 
     /**
@@ -860,7 +860,7 @@ public class Requests {
     public static Delete2 delete(String targetClass, Long targetId, ChildOption childOption) {
         final Map<String, List<Long>> targetObjects = new HashMap<String, List<Long>>();
         targetObjects.put(targetClass, Collections.singletonList(targetId));
-        return new Delete2(targetObjects, Collections.singletonList(childOption), false);
+        return new Delete2(targetObjects, Collections.singletonList(childOption), false, 0);
     }
 
     /**
@@ -873,7 +873,7 @@ public class Requests {
     public static Delete2 delete(String targetClass, Long targetId, List<ChildOption> childOptions) {
         final Map<String, List<Long>> targetObjects = new HashMap<String, List<Long>>();
         targetObjects.put(targetClass, Collections.singletonList(targetId));
-        return new Delete2(targetObjects, childOptions, false);
+        return new Delete2(targetObjects, childOptions, false, 0);
     }
 
     /**
@@ -886,7 +886,7 @@ public class Requests {
     public static Delete2 delete(String targetClass, Long targetId, boolean dryRun) {
         final Map<String, List<Long>> targetObjects = new HashMap<String, List<Long>>();
         targetObjects.put(targetClass, Collections.singletonList(targetId));
-        return new Delete2(targetObjects, (List<ChildOption>) null, dryRun);
+        return new Delete2(targetObjects, (List<ChildOption>) null, dryRun, 0);
     }
 
     /**
@@ -900,7 +900,7 @@ public class Requests {
     public static Delete2 delete(String targetClass, Long targetId, ChildOption childOption, boolean dryRun) {
         final Map<String, List<Long>> targetObjects = new HashMap<String, List<Long>>();
         targetObjects.put(targetClass, Collections.singletonList(targetId));
-        return new Delete2(targetObjects, Collections.singletonList(childOption), dryRun);
+        return new Delete2(targetObjects, Collections.singletonList(childOption), dryRun, 0);
     }
 
     /**
@@ -914,7 +914,7 @@ public class Requests {
     public static Delete2 delete(String targetClass, Long targetId, List<ChildOption> childOptions, boolean dryRun) {
         final Map<String, List<Long>> targetObjects = new HashMap<String, List<Long>>();
         targetObjects.put(targetClass, Collections.singletonList(targetId));
-        return new Delete2(targetObjects, childOptions, dryRun);
+        return new Delete2(targetObjects, childOptions, dryRun, 0);
     }
 
     /**
@@ -926,7 +926,7 @@ public class Requests {
     public static Delete2 delete(String targetClass, List<Long> targetIds) {
         final Map<String, List<Long>> targetObjects = new HashMap<String, List<Long>>();
         targetObjects.put(targetClass, targetIds);
-        return new Delete2(targetObjects, (List<ChildOption>) null, false);
+        return new Delete2(targetObjects, (List<ChildOption>) null, false, 0);
     }
 
     /**
@@ -939,7 +939,7 @@ public class Requests {
     public static Delete2 delete(String targetClass, List<Long> targetIds, ChildOption childOption) {
         final Map<String, List<Long>> targetObjects = new HashMap<String, List<Long>>();
         targetObjects.put(targetClass, targetIds);
-        return new Delete2(targetObjects, Collections.singletonList(childOption), false);
+        return new Delete2(targetObjects, Collections.singletonList(childOption), false, 0);
     }
 
     /**
@@ -952,7 +952,7 @@ public class Requests {
     public static Delete2 delete(String targetClass, List<Long> targetIds, List<ChildOption> childOptions) {
         final Map<String, List<Long>> targetObjects = new HashMap<String, List<Long>>();
         targetObjects.put(targetClass, targetIds);
-        return new Delete2(targetObjects, childOptions, false);
+        return new Delete2(targetObjects, childOptions, false, 0);
     }
 
     /**
@@ -965,7 +965,7 @@ public class Requests {
     public static Delete2 delete(String targetClass, List<Long> targetIds, boolean dryRun) {
         final Map<String, List<Long>> targetObjects = new HashMap<String, List<Long>>();
         targetObjects.put(targetClass, targetIds);
-        return new Delete2(targetObjects, (List<ChildOption>) null, dryRun);
+        return new Delete2(targetObjects, (List<ChildOption>) null, dryRun, 0);
     }
 
     /**
@@ -979,7 +979,7 @@ public class Requests {
     public static Delete2 delete(String targetClass, List<Long> targetIds, ChildOption childOption, boolean dryRun) {
         final Map<String, List<Long>> targetObjects = new HashMap<String, List<Long>>();
         targetObjects.put(targetClass, targetIds);
-        return new Delete2(targetObjects, Collections.singletonList(childOption), dryRun);
+        return new Delete2(targetObjects, Collections.singletonList(childOption), dryRun, 0);
     }
 
     /**
@@ -993,7 +993,7 @@ public class Requests {
     public static Delete2 delete(String targetClass, List<Long> targetIds, List<ChildOption> childOptions, boolean dryRun) {
         final Map<String, List<Long>> targetObjects = new HashMap<String, List<Long>>();
         targetObjects.put(targetClass, targetIds);
-        return new Delete2(targetObjects, childOptions, dryRun);
+        return new Delete2(targetObjects, childOptions, dryRun, 0);
     }
 
     /**
@@ -1002,7 +1002,7 @@ public class Requests {
      * @return the new request
      */
     public static Delete2 delete(Map<String, List<Long>> targetObjects) {
-        return new Delete2(targetObjects, (List<ChildOption>) null, false);
+        return new Delete2(targetObjects, (List<ChildOption>) null, false, 0);
     }
 
     /**
@@ -1012,7 +1012,7 @@ public class Requests {
      * @return the new request
      */
     public static Delete2 delete(Map<String, List<Long>> targetObjects, ChildOption childOption) {
-        return new Delete2(targetObjects, Collections.singletonList(childOption), false);
+        return new Delete2(targetObjects, Collections.singletonList(childOption), false, 0);
     }
 
     /**
@@ -1022,7 +1022,7 @@ public class Requests {
      * @return the new request
      */
     public static Delete2 delete(Map<String, List<Long>> targetObjects, List<ChildOption> childOptions) {
-        return new Delete2(targetObjects, childOptions, false);
+        return new Delete2(targetObjects, childOptions, false, 0);
     }
 
     /**
@@ -1032,7 +1032,7 @@ public class Requests {
      * @return the new request
      */
     public static Delete2 delete(Map<String, List<Long>> targetObjects, boolean dryRun) {
-        return new Delete2(targetObjects, (List<ChildOption>) null, dryRun);
+        return new Delete2(targetObjects, (List<ChildOption>) null, dryRun, 0);
     }
 
     /**
@@ -1043,7 +1043,7 @@ public class Requests {
      * @return the new request
      */
     public static Delete2 delete(Map<String, List<Long>> targetObjects, ChildOption childOption, boolean dryRun) {
-        return new Delete2(targetObjects, Collections.singletonList(childOption), dryRun);
+        return new Delete2(targetObjects, Collections.singletonList(childOption), dryRun, 0);
     }
 
     /**
@@ -1054,7 +1054,7 @@ public class Requests {
      * @return the new request
      */
     public static Delete2 delete(Map<String, List<Long>> targetObjects, List<ChildOption> childOptions, boolean dryRun) {
-          return new Delete2(targetObjects, childOptions, dryRun);
+          return new Delete2(targetObjects, childOptions, dryRun, 0);
     }
 
     /**
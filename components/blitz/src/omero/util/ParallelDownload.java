@@ -0,0 +1,257 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+
+package omero.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import ome.services.blitz.util.ChecksumAlgorithmMapper;
+import ome.util.Utils;
+import ome.util.checksum.ChecksumProvider;
+import ome.util.checksum.ChecksumProviderFactory;
+import ome.util.checksum.ChecksumProviderFactoryImpl;
+import ome.util.checksum.ChecksumType;
+import omero.ClientError;
+import omero.ServerError;
+import omero.api.RawFileStorePrx;
+import omero.api.ServiceFactoryPrx;
+import omero.model.OriginalFile;
+import omero.sys.ParametersI;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Downloads an {@link OriginalFile} by keeping several asynchronous
+ * {@link RawFileStorePrx#begin_read(long, int)} calls in flight, spread
+ * over one or more {@link RawFileStorePrx} services, so that the transfer
+ * rate is not limited by the round-trip time to the server.
+ *
+ * Blocks are collected in order and written at their position in the
+ * local file through a {@link FileChannel}, while the checksum of the
+ * file is computed with the hasher of the {@link OriginalFile}. By default
+ * the local file is overwritten from the start. If resuming is enabled and
+ * the local file already holds the start of the file, e.g. from an
+ * interrupted download, the download instead resumes from the last
+ * complete block; files without a hash are always downloaded in full.
+ * Once all blocks have been written, the checksum is compared with the
+ * hash stored on the server and the local file is deleted if they do not
+ * match.
+ *
+ * @since 5.1
+ * @see omero.client#download(long, File, int, int, int, boolean)
+ */
+public class ParallelDownload {
+
+    private final static Logger log = LoggerFactory.getLogger(ParallelDownload.class);
+
+    private final static ChecksumProviderFactory checksums =
+            new ChecksumProviderFactoryImpl();
+
+    /**
+     * A read which has been sent to the server.
+     */
+    private static class Pending {
+
+        final RawFileStorePrx store;
+
+        final long offset;
+
+        final int length;
+
+        final Ice.AsyncResult result;
+
+        Pending(RawFileStorePrx store, long offset, int length) {
+            this.store = store;
+            this.offset = offset;
+            this.length = length;
+            this.result = store.begin_read(offset, length);
+        }
+    }
+
+    private final ServiceFactoryPrx sf;
+
+    private final int blockSize;
+
+    private final int inFlight;
+
+    private final int stores;
+
+    private final boolean resume;
+
+    /**
+     * @param sf session to download through.
+     * @param blockSize number of bytes requested by each read.
+     * @param inFlight maximum number of reads sent to the server but not
+     *          yet received.
+     * @param stores number of {@link RawFileStorePrx} services to spread
+     *          the reads over.
+     */
+    public ParallelDownload(ServiceFactoryPrx sf, int blockSize, int inFlight,
+            int stores) {
+        this(sf, blockSize, inFlight, stores, false);
+    }
+
+    /**
+     * @param sf session to download through.
+     * @param blockSize number of bytes requested by each read.
+     * @param inFlight maximum number of reads sent to the server but not
+     *          yet received.
+     * @param stores number of {@link RawFileStorePrx} services to spread
+     *          the reads over.
+     * @param resume if the content already present in the local file
+     *          should be kept and only the rest downloaded. Otherwise the
+     *          local file is truncated first.
+     */
+    public ParallelDownload(ServiceFactoryPrx sf, int blockSize, int inFlight,
+            int stores, boolean resume) {
+        this.sf = sf;
+        this.blockSize = Math.max(1, blockSize);
+        this.inFlight = Math.max(1, inFlight);
+        this.stores = Math.max(1, Math.min(stores, this.inFlight));
+        this.resume = resume;
+    }
+
+    /**
+     * Downloads the given file, resuming from the content already present
+     * in the local file if enabled.
+     *
+     * @param fileId the ID of the {@link OriginalFile} to download.
+     * @param file the local file to write. Created if missing.
+     * @throws ClientError if the checksum of the downloaded file does not
+     *          match the hash stored on the server.
+     */
+    public void download(long fileId, File file) throws ServerError,
+            IOException {
+        final OriginalFile obj = (OriginalFile) sf.getQueryService()
+                .findByQuery("select f from OriginalFile f "
+                        + "left outer join fetch f.hasher where f.id = :id",
+                        new ParametersI().addId(fileId));
+        if (obj == null) {
+            throw new ClientError("No such file: " + fileId);
+        }
+        final long size = obj.getSize().getValue();
+        final String expected = obj.getHash() == null ? null
+                : obj.getHash().getValue();
+        final ChecksumType type = obj.getHasher() == null ? null
+                : ChecksumAlgorithmMapper.getChecksumType(obj.getHasher());
+        final ChecksumProvider hasher = (expected == null || type == null)
+                ? null : checksums.getProvider(type);
+
+        final RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        final List<RawFileStorePrx> proxies = new ArrayList<RawFileStorePrx>();
+        final Deque<Pending> pending = new ArrayDeque<Pending>();
+        boolean verified = false;
+        try {
+            final FileChannel channel = raf.getChannel();
+            long offset = resume(channel, size, hasher);
+            if (offset < size) {
+                for (int i = 0; i < stores; i++) {
+                    final RawFileStorePrx store = sf.createRawFileStore();
+                    proxies.add(store);
+                    store.setFileId(fileId);
+                }
+            }
+            int next = 0;
+            while (offset < size || !pending.isEmpty()) {
+                while (offset < size && pending.size() < inFlight) {
+                    final int length = (int) Math.min(blockSize, size - offset);
+                    pending.add(new Pending(proxies.get(next), offset, length));
+                    next = (next + 1) % proxies.size();
+                    offset += length;
+                }
+                final Pending read = pending.removeFirst();
+                final byte[] block = read.store.end_read(read.result);
+                if (block.length != read.length) {
+                    throw new IOException(String.format(
+                            "Short read of file %s at %s: %s of %s bytes",
+                            fileId, read.offset, block.length, read.length));
+                }
+                final ByteBuffer buf = ByteBuffer.wrap(block);
+                long position = read.offset;
+                while (buf.hasRemaining()) {
+                    position += channel.write(buf, position);
+                }
+                if (hasher != null) {
+                    hasher.putBytes(block);
+                }
+            }
+            channel.force(false);
+            if (hasher != null) {
+                final String actual = hasher.checksumAsString();
+                if (!expected.equals(actual)) {
+                    throw new ClientError(String.format(
+                            "Checksum mismatch for file %s: expected %s "
+                            + "but downloaded %s", fileId, expected, actual));
+                }
+            }
+            verified = true;
+        } finally {
+            for (Pending read : pending) {
+                try {
+                    read.store.end_read(read.result);
+                } catch (Exception e) {
+                    // Already failing.
+                }
+            }
+            for (RawFileStorePrx store : proxies) {
+                try {
+                    store.close();
+                } catch (Exception e) {
+                    log.debug("Failed to close RawFileStore", e);
+                }
+            }
+            Utils.closeQuietly(raf);
+            if (!verified && hasher != null && pending.isEmpty()
+                    && file.length() == size) {
+                // Complete but corrupt, so resuming would not help.
+                file.delete();
+            }
+        }
+    }
+
+    /**
+     * Truncates the local file to the last complete block which it may
+     * share with the remote file and feeds that content to the hasher,
+     * or truncates it to nothing if not resuming or there is no hasher.
+     *
+     * @return the offset from which to download.
+     */
+    private long resume(FileChannel channel, long size,
+            ChecksumProvider hasher) throws IOException {
+        long start = channel.size();
+        if (!resume || start > size || hasher == null) {
+            // Without a checksum, old content could not be told apart.
+            start = 0;
+        }
+        start -= start % blockSize;
+        channel.truncate(start);
+        if (start > 0) {
+            log.info("Resuming download at {} of {} bytes", start, size);
+            final ByteBuffer buf = ByteBuffer.allocate(blockSize);
+            long position = 0;
+            while (position < start) {
+                buf.clear();
+                buf.limit((int) Math.min(blockSize, start - position));
+                final int read = channel.read(buf, position);
+                if (read < 0) {
+                    throw new IOException("Local file shrank while resuming");
+                }
+                hasher.putBytes(buf.array(), 0, read);
+                position += read;
+            }
+        }
+        return start;
+    }
+
+}
@@ -0,0 +1,650 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+package omero.util;
+
+import static omero.rtypes.rdouble;
+import static omero.rtypes.rint;
+import static omero.rtypes.rlong;
+import static omero.rtypes.rstring;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import omero.RDouble;
+import omero.RInt;
+import omero.RString;
+import omero.api.ShapeBatch;
+import omero.model.Ellipse;
+import omero.model.EllipseI;
+import omero.model.ImageI;
+import omero.model.Label;
+import omero.model.LabelI;
+import omero.model.Line;
+import omero.model.LineI;
+import omero.model.Mask;
+import omero.model.MaskI;
+import omero.model.Point;
+import omero.model.PointI;
+import omero.model.Polygon;
+import omero.model.PolygonI;
+import omero.model.Polyline;
+import omero.model.PolylineI;
+import omero.model.Rect;
+import omero.model.RectI;
+import omero.model.Roi;
+import omero.model.RoiI;
+import omero.model.Shape;
+
+/**
+ * Encodes and decodes the columnar {@link ShapeBatch} representation used by
+ * the bulk methods of {@link omero.api.IRoi}. Geometry is packed into a single
+ * array of doubles, polygon and polyline points are stored as coordinates
+ * rather than strings, and mask bytes are run-length encoded. Only geometry,
+ * planes and text values are carried: styling is left to the model API.
+ *
+ * The per-type layout of the coordinates is:
+ * <ul>
+ * <li>{@link #RECT}, {@link #MASK}: x, y, width, height</li>
+ * <li>{@link #ELLIPSE}: cx, cy, rx, ry</li>
+ * <li>{@link #POINT}: cx, cy</li>
+ * <li>{@link #LINE}: x1, y1, x2, y2</li>
+ * <li>{@link #LABEL}: x, y</li>
+ * <li>{@link #POLYGON}, {@link #POLYLINE}: x0, y0, x1, y1, ...</li>
+ * </ul>
+ * Unset coordinates are encoded as {@link Double#NaN}, unset planes as -1.
+ *
+ * @since 5.1
+ */
+public class ShapeBatchCodec {
+
+    public static final byte RECT = 1;
+
+    public static final byte ELLIPSE = 2;
+
+    public static final byte POINT = 3;
+
+    public static final byte LINE = 4;
+
+    public static final byte POLYGON = 5;
+
+    public static final byte POLYLINE = 6;
+
+    public static final byte MASK = 7;
+
+    public static final byte LABEL = 8;
+
+    /**
+     * Value stored in {@link ShapeBatch#nextShapeId} once the last page
+     * has been returned.
+     */
+    public static final long NO_MORE_SHAPES = -1L;
+
+    /** Longest run which can be stored by {@link #encodeMask(byte[])}. */
+    private static final int MAX_RUN = 255;
+
+    // Encoding
+    // =========================================================================
+
+    /**
+     * Accumulates shapes column by column. The server fills one per page of
+     * results, clients fill one per call to
+     * {@link omero.api.IRoiPrx#saveShapeBatch(long, ShapeBatch)}.
+     */
+    public static class Encoder {
+
+        private int size;
+
+        private long[] roiIds;
+
+        private long[] shapeIds;
+
+        private byte[] types;
+
+        private int[] planes;
+
+        private int[] coordOffsets;
+
+        private double[] coords;
+
+        private int coordCount;
+
+        private int[] maskOffsets;
+
+        private final ByteArrayOutputStream masks = new ByteArrayOutputStream();
+
+        private final List<String> texts;
+
+        public Encoder(int capacity) {
+            int c = Math.max(capacity, 1);
+            roiIds = new long[c];
+            shapeIds = new long[c];
+            types = new byte[c];
+            planes = new int[3 * c];
+            coordOffsets = new int[c + 1];
+            maskOffsets = new int[c + 1];
+            coords = new double[4 * c];
+            texts = new ArrayList<String>(c);
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Appends a single shape.
+         *
+         * @param roiId the ROI of the shape or, when saving, any key shared by
+         *            the shapes which belong to the same new ROI.
+         * @param shapeId the id of the shape, or -1 if unsaved.
+         * @param type one of the type constants of this class.
+         * @param theZ the plane or {@code null}.
+         * @param theT the timepoint or {@code null}.
+         * @param theC the channel or {@code null}.
+         * @param geometry the coordinates as laid out in the class comment.
+         * @param text the text value or {@code null}.
+         * @param mask the raw mask bytes for {@link #MASK}, else {@code null}.
+         */
+        public void add(long roiId, long shapeId, byte type, Integer theZ,
+                Integer theT, Integer theC, double[] geometry, String text,
+                byte[] mask) {
+            if (size == roiIds.length) {
+                grow();
+            }
+            roiIds[size] = roiId;
+            shapeIds[size] = shapeId;
+            types[size] = type;
+            planes[3 * size] = theZ == null ? -1 : theZ;
+            planes[3 * size + 1] = theT == null ? -1 : theT;
+            planes[3 * size + 2] = theC == null ? -1 : theC;
+            if (coordCount + geometry.length > coords.length) {
+                coords = Arrays.copyOf(coords,
+                        Math.max(2 * coords.length, coordCount + geometry.length));
+            }
+            System.arraycopy(geometry, 0, coords, coordCount, geometry.length);
+            coordCount += geometry.length;
+            if (mask != null) {
+                byte[] encoded = encodeMask(mask);
+                masks.write(encoded, 0, encoded.length);
+            }
+            texts.add(text == null ? "" : text);
+            size++;
+            coordOffsets[size] = coordCount;
+            maskOffsets[size] = masks.size();
+        }
+
+        /**
+         * Returns the accumulated shapes as a batch.
+         *
+         * @param imageId the image the shapes belong to.
+         * @param nextShapeId the value to pass to the next page request or
+         *            {@link ShapeBatchCodec#NO_MORE_SHAPES}.
+         */
+        public ShapeBatch build(long imageId, long nextShapeId) {
+            ShapeBatch batch = new ShapeBatch();
+            batch.imageId = imageId;
+            batch.roiIds = Arrays.copyOf(roiIds, size);
+            batch.shapeIds = Arrays.copyOf(shapeIds, size);
+            batch.types = Arrays.copyOf(types, size);
+            batch.planes = Arrays.copyOf(planes, 3 * size);
+            batch.coordOffsets = Arrays.copyOf(coordOffsets, size + 1);
+            batch.coords = Arrays.copyOf(coords, coordCount);
+            batch.maskOffsets = Arrays.copyOf(maskOffsets, size + 1);
+            batch.masks = masks.toByteArray();
+            batch.texts = texts.toArray(new String[size]);
+            batch.nextShapeId = nextShapeId;
+            return batch;
+        }
+
+        private void grow() {
+            int c = 2 * roiIds.length;
+            roiIds = Arrays.copyOf(roiIds, c);
+            shapeIds = Arrays.copyOf(shapeIds, c);
+            types = Arrays.copyOf(types, c);
+            planes = Arrays.copyOf(planes, 3 * c);
+            coordOffsets = Arrays.copyOf(coordOffsets, c + 1);
+            maskOffsets = Arrays.copyOf(maskOffsets, c + 1);
+        }
+    }
+
+    // Decoding
+    // =========================================================================
+
+    /**
+     * Read-only view of a {@link ShapeBatch}, one shape per index.
+     */
+    public static class Decoder {
+
+        private final ShapeBatch batch;
+
+        /**
+         * Checks that the arrays of the batch are consistent, so that no
+         * accessor can index outside of them.
+         *
+         * @throws IllegalArgumentException if the batch is malformed. The
+         *             server reports this as an
+         *             {@link omero.ApiUsageException}.
+         */
+        public Decoder(ShapeBatch batch) {
+            if (batch == null || batch.types == null || batch.roiIds == null
+                    || batch.planes == null || batch.coordOffsets == null
+                    || batch.coords == null || batch.maskOffsets == null
+                    || batch.masks == null || batch.texts == null) {
+                throw new IllegalArgumentException("No shape batch.");
+            }
+            int n = batch.types.length;
+            if (batch.roiIds.length != n || batch.planes.length != 3 * n
+                    || batch.coordOffsets.length != n + 1
+                    || batch.maskOffsets.length != n + 1
+                    || batch.texts.length != n
+                    || (batch.shapeIds != null && batch.shapeIds.length != 0
+                            && batch.shapeIds.length != n)) {
+                throw new IllegalArgumentException("Inconsistent shape batch.");
+            }
+            checkOffsets("coordinate", batch.coordOffsets, batch.coords.length);
+            checkOffsets("mask", batch.maskOffsets, batch.masks.length);
+            for (int i = 0; i < n; i++) {
+                if ((batch.maskOffsets[i + 1] - batch.maskOffsets[i]) % 2 != 0) {
+                    throw new IllegalArgumentException(
+                            "Truncated mask encoding: shape " + i);
+                }
+            }
+            this.batch = batch;
+        }
+
+        /**
+         * Checks that the offsets start at 0, never decrease and end at
+         * the length of the array they index.
+         */
+        private static void checkOffsets(String kind, int[] offsets,
+                int length) {
+            if (offsets[0] != 0) {
+                throw new IllegalArgumentException(
+                        "First " + kind + " offset is not 0.");
+            }
+            for (int i = 1; i < offsets.length; i++) {
+                if (offsets[i] < offsets[i - 1]) {
+                    throw new IllegalArgumentException(String.format(
+                            "Decreasing %s offset: shape %s", kind, i - 1));
+                }
+            }
+            if (offsets[offsets.length - 1] != length) {
+                throw new IllegalArgumentException(String.format(
+                        "Last %s offset is %s, not %s.", kind,
+                        offsets[offsets.length - 1], length));
+            }
+        }
+
+        public int size() {
+            return batch.types.length;
+        }
+
+        public long roiId(int i) {
+            return batch.roiIds[i];
+        }
+
+        public long shapeId(int i) {
+            return batch.shapeIds == null || batch.shapeIds.length == 0 ? -1
+                    : batch.shapeIds[i];
+        }
+
+        public byte type(int i) {
+            return batch.types[i];
+        }
+
+        public Integer theZ(int i) {
+            return plane(3 * i);
+        }
+
+        public Integer theT(int i) {
+            return plane(3 * i + 1);
+        }
+
+        public Integer theC(int i) {
+            return plane(3 * i + 2);
+        }
+
+        public double[] coords(int i) {
+            return Arrays.copyOfRange(batch.coords, batch.coordOffsets[i],
+                    batch.coordOffsets[i + 1]);
+        }
+
+        /**
+         * Returns the coordinate at the given position for the shape
+         * or {@code null} if it was not set.
+         */
+        public Double coord(int i, int position) {
+            int index = batch.coordOffsets[i] + position;
+            if (index >= batch.coordOffsets[i + 1]) {
+                return null;
+            }
+            double v = batch.coords[index];
+            return Double.isNaN(v) ? null : v;
+        }
+
+        /**
+         * Returns the decoded mask bytes or {@code null} if the shape has
+         * no mask.
+         */
+        public byte[] mask(int i) {
+            int from = batch.maskOffsets[i];
+            int to = batch.maskOffsets[i + 1];
+            if (from == to) {
+                return null;
+            }
+            return decodeMask(batch.masks, from, to);
+        }
+
+        public String text(int i) {
+            String text = batch.texts[i];
+            return text == null || text.length() == 0 ? null : text;
+        }
+
+        /**
+         * Returns the points string of a polygon or polyline.
+         */
+        public String points(int i) {
+            return formatPoints(batch.coords, batch.coordOffsets[i],
+                    batch.coordOffsets[i + 1]);
+        }
+
+        private Integer plane(int index) {
+            int v = batch.planes[index];
+            return v < 0 ? null : v;
+        }
+    }
+
+    // Model conversion
+    // =========================================================================
+
+    /**
+     * Adds a model shape to the encoder. Returns {@code false} if the shape
+     * type cannot be represented in a batch (paths and unknown types).
+     */
+    public static boolean add(Encoder encoder, long roiId, Shape shape) {
+        long shapeId = shape.getId() == null ? -1 : shape.getId().getValue();
+        Integer z = unwrap(shape.getTheZ());
+        Integer t = unwrap(shape.getTheT());
+        Integer c = unwrap(shape.getTheC());
+        if (shape instanceof Rect) {
+            Rect r = (Rect) shape;
+            encoder.add(roiId, shapeId, RECT, z, t, c, coords(r.getX(),
+                    r.getY(), r.getWidth(), r.getHeight()),
+                    unwrap(r.getTextValue()), null);
+        } else if (shape instanceof Mask) {
+            Mask m = (Mask) shape;
+            encoder.add(roiId, shapeId, MASK, z, t, c, coords(m.getX(),
+                    m.getY(), m.getWidth(), m.getHeight()),
+                    unwrap(m.getTextValue()), m.getBytes());
+        } else if (shape instanceof Ellipse) {
+            Ellipse e = (Ellipse) shape;
+            encoder.add(roiId, shapeId, ELLIPSE, z, t, c, coords(e.getCx(),
+                    e.getCy(), e.getRx(), e.getRy()),
+                    unwrap(e.getTextValue()), null);
+        } else if (shape instanceof Point) {
+            Point p = (Point) shape;
+            encoder.add(roiId, shapeId, POINT, z, t, c,
+                    coords(p.getCx(), p.getCy()), unwrap(p.getTextValue()),
+                    null);
+        } else if (shape instanceof Line) {
+            Line l = (Line) shape;
+            encoder.add(roiId, shapeId, LINE, z, t, c, coords(l.getX1(),
+                    l.getY1(), l.getX2(), l.getY2()),
+                    unwrap(l.getTextValue()), null);
+        } else if (shape instanceof Label) {
+            Label l = (Label) shape;
+            encoder.add(roiId, shapeId, LABEL, z, t, c,
+                    coords(l.getX(), l.getY()), unwrap(l.getTextValue()),
+                    null);
+        } else if (shape instanceof Polygon) {
+            Polygon p = (Polygon) shape;
+            encoder.add(roiId, shapeId, POLYGON, z, t, c,
+                    parsePoints(unwrap(p.getPoints())),
+                    unwrap(p.getTextValue()), null);
+        } else if (shape instanceof Polyline) {
+            Polyline p = (Polyline) shape;
+            encoder.add(roiId, shapeId, POLYLINE, z, t, c,
+                    parsePoints(unwrap(p.getPoints())),
+                    unwrap(p.getTextValue()), null);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Rebuilds the ROIs contained in the batch, in the order in which they
+     * first appear. The ROIs and shapes are loaded with their ids but carry
+     * no details.
+     */
+    public static List<Roi> toRois(ShapeBatch batch) {
+        Decoder d = new Decoder(batch);
+        Map<Long, Roi> rois = new LinkedHashMap<Long, Roi>();
+        for (int i = 0; i < d.size(); i++) {
+            Roi roi = rois.get(d.roiId(i));
+            if (roi == null) {
+                roi = d.roiId(i) > 0 ? new RoiI(d.roiId(i), true) : new RoiI();
+                roi.setImage(new ImageI(batch.imageId, false));
+                rois.put(d.roiId(i), roi);
+            }
+            Shape shape = toShape(d, i);
+            if (shape != null) {
+                roi.addShape(shape);
+            }
+        }
+        return new ArrayList<Roi>(rois.values());
+    }
+
+    /**
+     * Creates the model shape at the given index or returns {@code null} if
+     * the type is not known.
+     */
+    public static Shape toShape(Decoder d, int i) {
+        final Shape shape;
+        final RString text = d.text(i) == null ? null : rstring(d.text(i));
+        switch (d.type(i)) {
+            case RECT:
+                Rect r = new RectI();
+                r.setX(rd(d.coord(i, 0)));
+                r.setY(rd(d.coord(i, 1)));
+                r.setWidth(rd(d.coord(i, 2)));
+                r.setHeight(rd(d.coord(i, 3)));
+                r.setTextValue(text);
+                shape = r;
+                break;
+            case MASK:
+                Mask m = new MaskI();
+                m.setX(rd(d.coord(i, 0)));
+                m.setY(rd(d.coord(i, 1)));
+                m.setWidth(rd(d.coord(i, 2)));
+                m.setHeight(rd(d.coord(i, 3)));
+                m.setBytes(d.mask(i));
+                m.setTextValue(text);
+                shape = m;
+                break;
+            case ELLIPSE:
+                Ellipse e = new EllipseI();
+                e.setCx(rd(d.coord(i, 0)));
+                e.setCy(rd(d.coord(i, 1)));
+                e.setRx(rd(d.coord(i, 2)));
+                e.setRy(rd(d.coord(i, 3)));
+                e.setTextValue(text);
+                shape = e;
+                break;
+            case POINT:
+                Point p = new PointI();
+                p.setCx(rd(d.coord(i, 0)));
+                p.setCy(rd(d.coord(i, 1)));
+                p.setTextValue(text);
+                shape = p;
+                break;
+            case LINE:
+                Line l = new LineI();
+                l.setX1(rd(d.coord(i, 0)));
+                l.setY1(rd(d.coord(i, 1)));
+                l.setX2(rd(d.coord(i, 2)));
+                l.setY2(rd(d.coord(i, 3)));
+                l.setTextValue(text);
+                shape = l;
+                break;
+            case LABEL:
+                Label t = new LabelI();
+                t.setX(rd(d.coord(i, 0)));
+                t.setY(rd(d.coord(i, 1)));
+                t.setTextValue(text);
+                shape = t;
+                break;
+            case POLYGON:
+                Polygon pg = new PolygonI();
+                pg.setPoints(rstring(d.points(i)));
+                pg.setTextValue(text);
+                shape = pg;
+                break;
+            case POLYLINE:
+                Polyline pl = new PolylineI();
+                pl.setPoints(rstring(d.points(i)));
+                pl.setTextValue(text);
+                shape = pl;
+                break;
+            default:
+                return null;
+        }
+        long id = d.shapeId(i);
+        if (id > 0) {
+            shape.setId(rlong(id));
+        }
+        Integer v = d.theZ(i);
+        shape.setTheZ(v == null ? null : rint(v));
+        v = d.theT(i);
+        shape.setTheT(v == null ? null : rint(v));
+        v = d.theC(i);
+        shape.setTheC(v == null ? null : rint(v));
+        return shape;
+    }
+
+    // Packing helpers
+    // =========================================================================
+
+    /**
+     * Run-length encodes the mask as pairs of (run length, value) where the
+     * run length is an unsigned byte between 1 and 255.
+     */
+    public static byte[] encodeMask(byte[] mask) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int i = 0;
+        while (i < mask.length) {
+            byte value = mask[i];
+            int run = 1;
+            while (i + run < mask.length && run < MAX_RUN
+                    && mask[i + run] == value) {
+                run++;
+            }
+            out.write(run);
+            out.write(value);
+            i += run;
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Reverses {@link #encodeMask(byte[])} on the given range of the
+     * encoded bytes.
+     */
+    public static byte[] decodeMask(byte[] encoded, int from, int to) {
+        if ((to - from) % 2 != 0) {
+            throw new IllegalArgumentException("Truncated mask encoding.");
+        }
+        int length = 0;
+        for (int i = from; i < to; i += 2) {
+            length += encoded[i] & 0xff;
+        }
+        byte[] mask = new byte[length];
+        int pos = 0;
+        for (int i = from; i < to; i += 2) {
+            int run = encoded[i] & 0xff;
+            Arrays.fill(mask, pos, pos + run, encoded[i + 1]);
+            pos += run;
+        }
+        return mask;
+    }
+
+    /**
+     * Parses a points string into x, y pairs. Both the schema form
+     * {@code "x,y x,y"} and the client form
+     * {@code "points[x,y, x,y] points1[...] ..."} are understood.
+     */
+    public static double[] parsePoints(String points) {
+        if (points == null) {
+            return new double[0];
+        }
+        String s = points;
+        int start = s.indexOf("points[");
+        if (start >= 0) {
+            int end = s.indexOf(']', start);
+            s = s.substring(start + "points[".length(),
+                    end < 0 ? s.length() : end);
+        }
+        s = s.trim();
+        if (s.length() == 0) {
+            return new double[0];
+        }
+        String[] tokens = s.split("[,\\s]+");
+        double[] values = new double[tokens.length - tokens.length % 2];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Double.parseDouble(tokens[i]);
+        }
+        return values;
+    }
+
+    /**
+     * Formats the x, y pairs of the given range in the schema form
+     * {@code "x,y x,y"}.
+     */
+    public static String formatPoints(double[] coords, int from, int to) {
+        StringBuilder sb = new StringBuilder(8 * (to - from));
+        for (int i = from; i + 1 < to; i += 2) {
+            if (i > from) {
+                sb.append(' ');
+            }
+            sb.append(coords[i]).append(',').append(coords[i + 1]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Packs the given values, mapping {@code null} to {@link Double#NaN}.
+     */
+    public static double[] coords(Double... values) {
+        double[] coords = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            coords[i] = values[i] == null ? Double.NaN : values[i];
+        }
+        return coords;
+    }
+
+    private static double[] coords(RDouble... values) {
+        double[] coords = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            coords[i] = values[i] == null ? Double.NaN : values[i].getValue();
+        }
+        return coords;
+    }
+
+    private static RDouble rd(Double value) {
+        return value == null ? null : rdouble(value);
+    }
+
+    private static Integer unwrap(RInt value) {
+        return value == null ? null : value.getValue();
+    }
+
+    private static String unwrap(RString value) {
+        return value == null ? null : value.getValue();
+    }
+
+}
@@ -10,6 +10,7 @@ import java.io.File;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import junit.framework.TestCase;
 import ome.formats.OMEROMetadataStoreClient;
@@ -117,4 +118,55 @@ public class ImportCandidatesTest extends TestCase {
         };
     }
 
+    /**
+     * Parses a directory in which "a" uses "b" with several threads and then
+     * again from the cache, checking that "b" is never returned and that the
+     * second run makes no calls to setId.
+     */
+    @Test
+    public void testParallelAndCached() throws Exception {
+        File dir = File.createTempFile("candidates", "");
+        dir.delete();
+        dir.mkdir();
+        File cache = new File(dir, "cache");
+        final File a = new File(dir, "a");
+        final File b = new File(dir, "b");
+        try {
+            for (String name : new String[] {"a", "b", "c", "d"}) {
+                new File(dir, name).createNewFile();
+            }
+            final AtomicInteger parsed = new AtomicInteger();
+            for (int run = 0; run < 2; run++) {
+                parsed.set(0);
+                c = new ImportCandidates(1, w,
+                        new String[] { dir.getAbsolutePath() }, o, 3, cache) {
+                    @Override
+                    protected ImportContainer singleFile(File file,
+                            ImportConfig config) {
+                        if (file.equals(cache)) {
+                            return null;
+                        }
+                        parsed.incrementAndGet();
+                        String[] used = file.equals(a) ?
+                                new String[] { a.getAbsolutePath(),
+                                        b.getAbsolutePath() } :
+                                new String[] { file.getAbsolutePath() };
+                        return new ImportContainer(file, null, null, "r",
+                                used, false);
+                    }
+                };
+                assertEquals(3, c.size());
+                assertFalse(c.getPaths().contains(b.getAbsolutePath()));
+                if (run == 1) {
+                    assertEquals(0, parsed.get());
+                }
+            }
+        } finally {
+            for (File f : dir.listFiles()) {
+                f.delete();
+            }
+            dir.delete();
+        }
+    }
+
 }
@@ -20,6 +20,8 @@ import ome.security.SecuritySystem;
 import ome.security.auth.PasswordProvider;
 import ome.security.auth.PasswordUtil;
 import ome.services.mail.MailUtil;
+import ome.services.util.FileSizeCache;
+import ome.services.util.GraphSummaryCache;
 import ome.system.Roles;
 import ome.tools.hibernate.ExtendedMetadata;
 import omero.RType;
@@ -60,7 +62,9 @@ public class AbstractGraphTest extends AbstractServantTest {
                 user.ctx.getBean(PasswordUtil.class),
                 user.ctx.getBean(SecuritySystem.class),
                 user.ctx.getBean(PasswordProvider.class),
-                user.ctx.getBean("graphRequestFactory", GraphRequestFactory.class)
+                user.ctx.getBean("graphRequestFactory", GraphRequestFactory.class),
+                user.ctx.getBean("fileSizeCache", FileSizeCache.class),
+                user.ctx.getBean("diskUsageCache", GraphSummaryCache.class)
                 );
         rofr.setApplicationContext(ctx);
         rofr.setIceCommunicator(ic);
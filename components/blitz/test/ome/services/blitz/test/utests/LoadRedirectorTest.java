@@ -0,0 +1,151 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+package ome.services.blitz.test.utests;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import ome.services.blitz.fire.Ring;
+import ome.services.blitz.redirect.LoadMonitor;
+import ome.services.blitz.redirect.LoadRedirector;
+import ome.services.blitz.redirect.NodeLoad;
+import ome.services.blitz.redirect.Redirector;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.AssertJUnit.*;
+
+/**
+ * Tests the placement of new sessions by {@link LoadRedirector} between
+ * several in-process {@link Ring} instances which share a node table.
+ */
+@Test(groups = "unit")
+public class LoadRedirectorTest {
+
+    /** Shared stand-in for the scale column of the Node table. */
+    Map<String, Integer> table;
+
+    Node a, b, c;
+
+    /**
+     * One blitz node with its own load and redirector.
+     */
+    class Node extends LoadMonitor {
+
+        final TestRedirector redirector = new TestRedirector(this);
+
+        final Ring ring;
+
+        int sessions;
+
+        Node(String uuid, int sessions) {
+            super(null, null);
+            this.sessions = sessions;
+            this.ring = new Ring(uuid, null, redirector);
+        }
+
+        @Override
+        public NodeLoad current() {
+            return new NodeLoad(sessions, 0, 0, 0);
+        }
+
+        void publish(int sessions) {
+            this.sessions = sessions;
+            ring.publishLoad();
+        }
+
+        String choose() {
+            return redirector.choose(ring);
+        }
+    }
+
+    class TestRedirector extends LoadRedirector {
+
+        TestRedirector(LoadMonitor monitor) {
+            super(null, monitor, "1,0,0,0", 0.2);
+        }
+
+        String choose(Redirector.Context ctx) {
+            return chooseNode(ctx, readLoads(ctx));
+        }
+
+        @Override
+        protected Map<String, Integer> readLoads(Redirector.Context ctx) {
+            return new HashMap<String, Integer>(table);
+        }
+
+        @Override
+        protected void writeLoad(Redirector.Context ctx, int packed) {
+            table.put(ctx.uuid(), packed);
+        }
+    }
+
+    @BeforeMethod
+    public void setup() {
+        table = new HashMap<String, Integer>();
+        a = new Node("a", 100);
+        b = new Node("b", 10);
+        c = new Node("c", 50);
+        for (Node node : new Node[]{a, b, c}) {
+            node.ring.publishLoad();
+        }
+    }
+
+    public void testPackRoundTrip() {
+        NodeLoad load = new NodeLoad(1000, 200, 100, 99);
+        NodeLoad copy = NodeLoad.unpack(load.pack());
+        assertEquals(1000, copy.sessions);
+        assertEquals(200, copy.queued);
+        assertEquals(100, copy.renderingEngines);
+        assertEquals(99, copy.heapPercent);
+        assertEquals(1023, new NodeLoad(5000, 0, 0, 0).sessions);
+    }
+
+    public void testLeastLoadedIsChosen() {
+        assertEquals("b", a.choose());
+        assertEquals("b", c.choose());
+        assertNull(b.choose());
+    }
+
+    public void testSmallDifferencesAreIgnored() {
+        b.publish(90);
+        c.publish(95);
+        assertNull(a.choose());
+    }
+
+    public void testTargetIsKeptUntilAdvantageHalves() {
+        b.publish(50);
+        c.publish(200);
+        assertEquals("b", a.choose());
+        b.publish(85);
+        assertEquals("b", a.choose());
+        b.publish(95);
+        assertNull(a.choose());
+    }
+
+    public void testBurstIsSpreadByRedirectedSessions() {
+        b.publish(60);
+        c.publish(200);
+        int redirected = 0;
+        for (int i = 0; i < 50; i++) {
+            if ("b".equals(a.choose())) {
+                redirected++;
+            }
+        }
+        // b counts as full once it has 90 sessions, i.e. 90% of a's load.
+        assertEquals(30, redirected);
+        b.publish(61);
+        assertEquals("b", a.choose());
+    }
+
+    public void testDownNodeIsDropped() {
+        assertEquals("b", a.choose());
+        table.remove("b");
+        a.redirector.handleRingShutdown(a.ring, "b");
+        assertEquals("c", a.choose());
+    }
+
+}
@@ -10,6 +10,7 @@ package ome.services.roi.test;
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,7 +26,9 @@ import ome.services.blitz.measurements.MeasurementStore;
 import ome.services.blitz.measurements.OmeroMeasurementStore;
 import omero.ApiUsageException;
 import omero.RType;
+import omero.ValidationException;
 import omero.grid.Column;
+import omero.grid.DoubleColumn;
 import omero.grid.FileColumn;
 import omero.grid.ImageColumn;
 import omero.grid.LongColumn;
@@ -313,6 +316,66 @@ public class MeasurementStoreUnitTest extends MockObjectTestCase {
 
     }
 
+    public void testColumnsAreWrittenInChunks() throws Exception {
+
+        Column[] cols = new Column[] { new RoiColumn(), new LongColumn(),
+                new DoubleColumn() };
+        initialize(cols);
+        uMock.expects(once()).method("saveAndReturnIds")
+                .will(returnValue(Arrays.asList(11L, 12L, 13L)));
+        final List<Column[]> chunks = new ArrayList<Column[]>();
+        tMock.expects(atLeastOnce()).method("begin_addData").with(new Constraint() {
+            public boolean eval(Object arg0) {
+                chunks.add((Column[]) arg0);
+                return true;
+            }
+
+            public StringBuffer describeTo(StringBuffer arg0) {
+                arg0.append("chunk");
+                return arg0;
+            }
+        }).will(returnValue(null));
+
+        image.setId(1L);
+        mea = new MeasurementStore(update, table, 2);
+        mea.initialize(new String[] { "roi_id", "count", "area" },
+                new String[] { "Roi" },
+                new Class[] { Long.class, Double.class }, null);
+        for (String lsid : new String[] { "Roi:1", "Roi:2", "Roi:3" }) {
+            mea.addObject(lsid, image);
+            mea.addCircle(lsid, 5, 5, 1);
+        }
+        mea.addColumns(new Object[] {
+                new String[] { "Roi:1", "Roi:2", "Roi:3" },
+                new long[] { 1L, 0L, 1L },
+                new double[] { 0.5, 1.5, 2.5 } });
+        assertEquals(1, chunks.size()); // First chunk already sent
+        mea.save();
+
+        assertEquals(2, chunks.size());
+        assertNotSame(chunks.get(0)[0], chunks.get(1)[0]);
+        assertTrue(Arrays.equals(new long[] { 11L, 12L },
+                ((RoiColumn) chunks.get(0)[0]).values));
+        assertTrue(Arrays.equals(new long[] { 13L },
+                ((RoiColumn) chunks.get(1)[0]).values));
+        assertTrue(Arrays.equals(new long[] { 1L },
+                ((LongColumn) chunks.get(1)[1]).values));
+        assertTrue(Arrays.equals(new double[] { 0.5, 1.5 },
+                ((DoubleColumn) chunks.get(0)[2]).values));
+        assertEquals(Arrays.asList(11L, 12L, 13L), mea.getRoiIds());
+    }
+
+    @Test(expectedExceptions = ValidationException.class)
+    public void testColumnsOfTheWrongType() throws Exception {
+        Column[] cols = new Column[] { new StringColumn(), new LongColumn() };
+        initialize(cols);
+        mea = new MeasurementStore(update, table);
+        mea.initialize(new String[] { "roi_lsid", "value_1" }, new String[] {},
+                new Class[] { String.class, Long.class }, null);
+        mea.addColumns(new Object[] { new String[] { "a" },
+                new double[] { 1.0 } });
+    }
+
     // Helpers
     // =========================================================================
 
@@ -0,0 +1,160 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+
+package omero.cmd;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import ome.services.util.Executor;
+import ome.system.metrics.NullMetrics;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.AssertJUnit.*;
+
+/**
+ * Tests the order in which {@link CommandScheduler} starts handles.
+ */
+@Test(groups = "unit")
+public class CommandSchedulerTest {
+
+    /** Handles in the order in which they ran. */
+    List<String> ran;
+
+    /** Callables passed to the executor but not yet run. */
+    List<Callable<?>> submitted;
+
+    Executor executor;
+
+    class TestHandle implements IHandle {
+
+        final String name;
+
+        TestHandle(String name) {
+            this.name = name;
+        }
+
+        public void run() {
+            ran.add(name);
+        }
+
+        public void initialize(Ice.Identity id, IRequest req,
+                java.util.Map<String, String> ctx) {
+        }
+
+        public void close(Ice.Current current) {
+        }
+    }
+
+    @BeforeMethod
+    public void setup() {
+        ran = new ArrayList<String>();
+        submitted = new ArrayList<Callable<?>>();
+        executor = (Executor) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[]{Executor.class},
+                new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method,
+                            Object[] args) {
+                        assertEquals("submit", method.getName());
+                        submitted.add((Callable<?>) args[args.length - 1]);
+                        return null;
+                    }
+                });
+    }
+
+    /**
+     * Runs the oldest submitted callable.
+     */
+    private void runNext() throws Exception {
+        submitted.remove(0).call();
+    }
+
+    private CommandScheduler scheduler(int maxRunning, String limits) {
+        return new CommandScheduler(executor, null, new NullMetrics(),
+                maxRunning, limits, "ImportRequest", 0);
+    }
+
+    public void testUsersTakeTurns() throws Exception {
+        CommandScheduler scheduler = scheduler(1, "");
+        for (int i = 1; i <= 3; i++) {
+            scheduler.submit(new TestHandle("a" + i), new Delete2(), 1, 1, null);
+        }
+        scheduler.submit(new TestHandle("b1"), new Delete2(), 2, 1, null);
+        while (!submitted.isEmpty()) {
+            assertEquals(1, submitted.size());
+            runNext();
+        }
+        assertEquals("[a1, a2, b1, a3]", ran.toString());
+    }
+
+    public void testGroupsTakeTurns() throws Exception {
+        CommandScheduler scheduler = scheduler(1, "");
+        scheduler.submit(new TestHandle("a1"), new Delete2(), 1, 1, null);
+        scheduler.submit(new TestHandle("a2"), new Delete2(), 1, 1, null);
+        scheduler.submit(new TestHandle("b1"), new Delete2(), 2, 1, null);
+        scheduler.submit(new TestHandle("c1"), new Delete2(), 3, 2, null);
+        while (!submitted.isEmpty()) {
+            runNext();
+        }
+        assertEquals("[a1, a2, c1, b1]", ran.toString());
+    }
+
+    public void testTypeLimit() throws Exception {
+        CommandScheduler scheduler = scheduler(5, "Delete2:1");
+        scheduler.submit(new TestHandle("d1"), new Delete2(), 1, 1, null);
+        scheduler.submit(new TestHandle("d2"), new Delete2(), 2, 1, null);
+        scheduler.submit(new TestHandle("u1"), new DiskUsage(), 3, 1, null);
+        assertEquals(2, submitted.size());
+        runNext();
+        runNext();
+        assertEquals(1, submitted.size());
+        runNext();
+        assertEquals("[d1, u1, d2]", ran.toString());
+    }
+
+    public void testQueuePositionInStatus() throws Exception {
+        CommandScheduler scheduler = scheduler(1, "");
+        TestHandle first = new TestHandle("a1");
+        TestHandle second = new TestHandle("a2");
+        scheduler.submit(first, new Delete2(), 1, 1, null);
+        scheduler.submit(second, new Delete2(), 1, 1, null);
+        Status status = new Status();
+        Status described = scheduler.describe(second, status);
+        assertEquals("1", described.parameters.get("queue.position"));
+        assertEquals("1", described.parameters.get("queue.waiting"));
+        assertNull(status.parameters);
+        runNext();
+        assertSame(status, scheduler.describe(second, status));
+    }
+
+    public void testExemptTypeStartsImmediately() throws Exception {
+        CommandScheduler scheduler = scheduler(1, "");
+        scheduler.submit(new TestHandle("d1"), new Delete2(), 1, 1, null);
+        scheduler.submit(new TestHandle("d2"), new Delete2(), 1, 1, null);
+        TestHandle upload = new TestHandle("i1");
+        scheduler.submit(upload, new omero.grid.ImportRequest(), 1, 1, null);
+        assertEquals(2, submitted.size());
+        Status status = new Status();
+        assertSame(status, scheduler.describe(upload, status));
+        runNext();
+        runNext();
+        runNext();
+        assertEquals("[d1, i1, d2]", ran.toString());
+    }
+
+    public void testDisabled() throws Exception {
+        CommandScheduler scheduler = scheduler(0, "Delete2:1");
+        scheduler.submit(new TestHandle("d1"), new Delete2(), 1, 1, null);
+        scheduler.submit(new TestHandle("d2"), new Delete2(), 1, 1, null);
+        assertEquals(2, submitted.size());
+    }
+
+}
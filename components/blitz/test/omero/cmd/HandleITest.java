@@ -0,0 +1,115 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+
+package omero.cmd;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import ome.services.util.Executor;
+import ome.system.Principal;
+import omero.cmd.basic.TimingI;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.AssertJUnit.*;
+
+/**
+ * Tests that {@link HandleI#cancel(Ice.Current)} is woken as soon as
+ * {@link HandleI#run()} stops rather than waiting out its timeout.
+ */
+@Test(groups = "unit")
+public class HandleITest {
+
+    /** Much longer than any of the tests should take. */
+    static final int CANCEL_TIMEOUT_MS = 60000;
+
+    HandleI handle;
+
+    Started req;
+
+    /**
+     * Timing request which signals once its first step is running.
+     */
+    static class Started extends TimingI {
+
+        private static final long serialVersionUID = 1L;
+
+        final CountDownLatch started = new CountDownLatch(1);
+
+        Started(int millisPerStep, int steps) {
+            this.millisPerStep = millisPerStep;
+            this.steps = steps;
+        }
+
+        @Override
+        public Object step(int step) {
+            started.countDown();
+            return super.step(step);
+        }
+    }
+
+    @BeforeMethod
+    public void setup() {
+        handle = new HandleI(CANCEL_TIMEOUT_MS);
+        handle.setExecutor((Executor) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[]{Executor.class},
+                new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method,
+                            Object[] args) {
+                        assertEquals("execute", method.getName());
+                        Executor.Work<?> work =
+                                (Executor.Work<?>) args[args.length - 1];
+                        return work.doWork(null, null);
+                    }
+                }), new Principal("test"));
+    }
+
+    private Thread start(int millisPerStep, int steps) {
+        req = new Started(millisPerStep, steps);
+        handle.initialize(new Ice.Identity("handle", "test"), req, null);
+        Thread thread = new Thread(handle);
+        thread.start();
+        return thread;
+    }
+
+    public void testCancelReturnsOnceRunStops() throws Exception {
+        Thread thread = start(200, 10);
+        assertTrue(req.started.await(10, TimeUnit.SECONDS));
+        long start = System.currentTimeMillis();
+        assertTrue(handle.cancel(null));
+        long elapsed = System.currentTimeMillis() - start;
+        assertTrue("cancel took " + elapsed + "ms",
+                elapsed < CANCEL_TIMEOUT_MS / 10);
+        thread.join(10000);
+        assertFalse(thread.isAlive());
+        assertTrue(handle.getResponse(null) instanceof ERR);
+    }
+
+    public void testCancelAfterFinishedReturnsFalse() throws Exception {
+        Thread thread = start(0, 1);
+        thread.join(10000);
+        assertFalse(thread.isAlive());
+        long start = System.currentTimeMillis();
+        assertFalse(handle.cancel(null));
+        long elapsed = System.currentTimeMillis() - start;
+        assertTrue("cancel took " + elapsed + "ms",
+                elapsed < CANCEL_TIMEOUT_MS / 10);
+        assertTrue(handle.getResponse(null) instanceof OK);
+    }
+
+    public void testCancelBeforeRunReturnsTrue() throws Exception {
+        req = new Started(0, 1);
+        handle.initialize(new Ice.Identity("handle", "test"), req, null);
+        assertTrue(handle.cancel(null));
+        handle.run(); // Does nothing once cancelled.
+        assertEquals(1, req.started.getCount());
+    }
+
+}
@@ -0,0 +1,152 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+
+package omero.util.test;
+
+import static omero.rtypes.rdouble;
+import static omero.rtypes.rint;
+import static omero.rtypes.rstring;
+
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+import omero.api.ShapeBatch;
+import omero.model.Mask;
+import omero.model.MaskI;
+import omero.model.Polygon;
+import omero.model.PolygonI;
+import omero.model.Rect;
+import omero.model.RectI;
+import omero.model.Roi;
+import omero.util.ShapeBatchCodec;
+
+import org.testng.annotations.Test;
+
+@Test(groups = "unit")
+public class ShapeBatchCodecTest extends TestCase {
+
+    @Test
+    public void testMaskRoundTrip() {
+        byte[] mask = new byte[1000];
+        Arrays.fill(mask, 100, 700, (byte) 0xff);
+        mask[999] = 3;
+        byte[] encoded = ShapeBatchCodec.encodeMask(mask);
+        assertTrue(encoded.length < 20);
+        assertTrue(Arrays.equals(mask,
+                ShapeBatchCodec.decodeMask(encoded, 0, encoded.length)));
+    }
+
+    @Test
+    public void testPointsFormats() {
+        double[] expected = new double[] { 1.5, 2, 3, 4.25 };
+        assertTrue(Arrays.equals(expected,
+                ShapeBatchCodec.parsePoints("1.5,2 3,4.25")));
+        assertTrue(Arrays.equals(expected,
+                ShapeBatchCodec.parsePoints("points[1.5,2, 3,4.25] "
+                        + "points1[1.5,2, 3,4.25] points2[1.5,2, 3,4.25] "
+                        + "mask[0,0,0]")));
+        assertEquals(0, ShapeBatchCodec.parsePoints("").length);
+        assertEquals("1.5,2.0 3.0,4.25",
+                ShapeBatchCodec.formatPoints(expected, 0, expected.length));
+    }
+
+    @Test
+    public void testRoundTrip() {
+        Rect rect = new RectI();
+        rect.setX(rdouble(1));
+        rect.setY(rdouble(2));
+        rect.setWidth(rdouble(3));
+        rect.setTheZ(rint(4));
+        rect.setTextValue(rstring("cell"));
+        Polygon polygon = new PolygonI();
+        polygon.setPoints(rstring("0,0 10,0 10,10"));
+        polygon.setTheT(rint(1));
+        Mask mask = new MaskI();
+        mask.setBytes(new byte[] { 0, 0, 0, 1, 1 });
+
+        ShapeBatchCodec.Encoder encoder = new ShapeBatchCodec.Encoder(1);
+        assertTrue(ShapeBatchCodec.add(encoder, 7, rect));
+        assertTrue(ShapeBatchCodec.add(encoder, 7, polygon));
+        assertTrue(ShapeBatchCodec.add(encoder, 8, mask));
+        ShapeBatch batch = encoder.build(5, ShapeBatchCodec.NO_MORE_SHAPES);
+        assertEquals(3, batch.types.length);
+        assertEquals(4 + 6 + 4, batch.coords.length);
+
+        List<Roi> rois = ShapeBatchCodec.toRois(batch);
+        assertEquals(2, rois.size());
+        assertEquals(7, rois.get(0).getId().getValue());
+        assertEquals(5, rois.get(0).getImage().getId().getValue());
+        assertEquals(2, rois.get(0).sizeOfShapes());
+
+        Rect r = (Rect) rois.get(0).getShape(0);
+        assertEquals(3.0, r.getWidth().getValue());
+        assertNull(r.getHeight());
+        assertEquals(4, r.getTheZ().getValue());
+        assertNull(r.getTheT());
+        assertEquals("cell", r.getTextValue().getValue());
+
+        Polygon p = (Polygon) rois.get(0).getShape(1);
+        assertEquals("0.0,0.0 10.0,0.0 10.0,10.0", p.getPoints().getValue());
+        assertEquals(1, p.getTheT().getValue());
+
+        Mask m = (Mask) rois.get(1).getShape(0);
+        assertTrue(Arrays.equals(new byte[] { 0, 0, 0, 1, 1 }, m.getBytes()));
+    }
+
+    private ShapeBatch twoShapes() {
+        Rect rect = new RectI();
+        rect.setX(rdouble(1));
+        Mask mask = new MaskI();
+        mask.setBytes(new byte[] { 0, 1 });
+        ShapeBatchCodec.Encoder encoder = new ShapeBatchCodec.Encoder(1);
+        assertTrue(ShapeBatchCodec.add(encoder, 7, rect));
+        assertTrue(ShapeBatchCodec.add(encoder, 7, mask));
+        return encoder.build(5, ShapeBatchCodec.NO_MORE_SHAPES);
+    }
+
+    private void assertRejected(ShapeBatch batch) {
+        try {
+            new ShapeBatchCodec.Decoder(batch);
+            fail("malformed batch accepted");
+        } catch (IllegalArgumentException iae) {
+            // good
+        }
+    }
+
+    @Test
+    public void testMalformedBatchIsRejected() {
+        new ShapeBatchCodec.Decoder(twoShapes());
+
+        ShapeBatch batch = twoShapes();
+        batch.coordOffsets[0] = 1;
+        assertRejected(batch);
+
+        batch = twoShapes();
+        batch.coordOffsets[1] = batch.coords.length + 1;
+        assertRejected(batch);
+
+        batch = twoShapes();
+        batch.coordOffsets[2] = batch.coords.length - 1;
+        assertRejected(batch);
+
+        batch = twoShapes();
+        batch.maskOffsets[2] = batch.masks.length + 2;
+        assertRejected(batch);
+
+        batch = twoShapes();
+        batch.maskOffsets[1] = 1;
+        assertRejected(batch);
+
+        batch = twoShapes();
+        batch.coords = null;
+        assertRejected(batch);
+
+        batch = twoShapes();
+        batch.shapeIds = new long[1];
+        assertRejected(batch);
+    }
+
+}
@@ -24,6 +24,7 @@ package org.openmicroscopy.shoola.agents.imviewer;
 
 
 //Java imports
+import java.awt.Rectangle;
 import java.util.Collection;
 
 //Third-party libraries
@@ -36,7 +37,7 @@ import org.openmicroscopy.shoola.agents.imviewer.view.ImViewer;
 import org.openmicroscopy.shoola.env.data.events.DSCallFeedbackEvent;
 import omero.gateway.SecurityContext;
 import org.openmicroscopy.shoola.env.data.views.CallHandle;
-import org.openmicroscopy.shoola.env.rnd.RenderingControl;
+import org.openmicroscopy.shoola.env.rnd.TilePipeline;
 import org.openmicroscopy.shoola.env.rnd.data.Tile;
 
 /** 
@@ -71,8 +72,11 @@ public class TileLoader
     /** Count the number of tiles loaded.*/
     private int count;
     
-    /** The proxy to use.*/
-    private RenderingControl proxy;
+    /** The pipeline used to render the tiles.*/
+    private TilePipeline pipeline;
+    
+    /** The visible area.*/
+    private Rectangle viewport;
     
     /**
      * Creates a new instance.
@@ -81,25 +85,28 @@ public class TileLoader
      * @param ctx The security context.
      * @param pixelsID The id of the pixels set.
      * @param pDef The plane to render.
-     * @param proxy The rendering control to use.
+     * @param pipeline The pipeline used to render the tiles.
      * @param tiles The tiles to handle.
+     * @param viewport The visible area or <code>null</code>.
      */
 	public TileLoader(ImViewer viewer, SecurityContext ctx, long pixelsID,
-			PlaneDef pDef, RenderingControl proxy, Collection<Tile> tiles)
+			PlaneDef pDef, TilePipeline pipeline, Collection<Tile> tiles,
+			Rectangle viewport)
 	{
 		super(viewer, ctx);
 		if (tiles == null || tiles.size() == 0)
 			throw new IllegalArgumentException("No tiles to load.");
 		if (pDef == null)
 			throw new IllegalArgumentException("No plane to render.");
-		if (proxy == null)
+		if (pipeline == null)
 			throw new IllegalArgumentException("No rendering control.");
-		if (pixelsID != proxy.getPixelsID())
+		if (pixelsID != pipeline.getMaster().getPixelsID())
 			throw new IllegalArgumentException("Pixels ID not valid.");
 		this.tiles = tiles;
 		this.pixelsID = pixelsID;
 		this.pDef = pDef;
-		this.proxy = proxy;
+		this.pipeline = pipeline;
+		this.viewport = viewport;
 	}
 	
 	/**
@@ -108,7 +115,8 @@ public class TileLoader
      */
     public void load()
     {
-    	handle = ivView.loadTiles(ctx, pixelsID, pDef, proxy, tiles, this);
+    	handle = ivView.loadTiles(ctx, pixelsID, pDef, pipeline, tiles,
+    			viewport, this);
     }
     
     /**
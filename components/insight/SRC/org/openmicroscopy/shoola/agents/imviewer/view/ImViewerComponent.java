@@ -3256,7 +3256,7 @@ class ImViewerComponent
     	model.clearTileImages(toClear);
 		if (l.size() > 0) {
 			view.removeComponentListener(controller);
-			model.fireTileLoading(l);
+			model.fireTileLoading(l, region);
 			fireStateChange();
 		}
 	}
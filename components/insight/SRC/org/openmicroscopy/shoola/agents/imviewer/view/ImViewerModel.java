@@ -30,8 +30,6 @@ import java.awt.Toolkit;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -82,6 +80,7 @@ import omero.gateway.model.TableResult;
 
 import org.openmicroscopy.shoola.env.event.EventBus;
 import org.openmicroscopy.shoola.env.rnd.RenderingControl;
+import org.openmicroscopy.shoola.env.rnd.TilePipeline;
 import org.openmicroscopy.shoola.env.rnd.RndProxyDef;
 import org.openmicroscopy.shoola.env.rnd.data.Region;
 import org.openmicroscopy.shoola.env.rnd.data.ResolutionLevel;
@@ -314,6 +313,9 @@ class ImViewerModel
     /** The display mode.*/
     private int displayMode;
     
+    /** The pipeline used to render the tiles.*/
+    private TilePipeline tilePipeline;
+    
     /** The number of tiles to load.*/
     private int tileTotalCount;
     
@@ -426,27 +428,6 @@ class ImViewerModel
 		}
 	}
 
-    /**
-     * Sorts the tiles by index.
-     * 
-     * @param tiles The tiles to sort.
-     */
-    private void sortTilesByIndex(List<Tile> tiles)
-    {
-    	 if (tiles == null || tiles.size() == 0) return;
-         Comparator c = new Comparator() {
-             public int compare(Object o1, Object o2)
-             {
-                 int n1 = ((Tile) o1).getIndex(), n2 = ((Tile) o2).getIndex();
-                 int v = 0;
-                 if (n1 < n2) v = -1;
-                 else if (n1 > n2) v = 1;
-                 return v;
-             }
-         };
-         Collections.sort(tiles, c);
-    }
-    
     /**
 	 * Transforms 3D coordinates into linear coordinates.
 	 * The returned value <code>L</code> is calculated as follows: 
@@ -782,6 +763,10 @@ class ImViewerModel
 		browser.discard();
 		if (image == null) return;
 		resetTiles();
+		if (tilePipeline != null) {
+			tilePipeline.discard();
+			tilePipeline = null;
+		}
 		Iterator<Integer> i = loaders.keySet().iterator();
 		while (i.hasNext()) {
 			loaders.get(i.next()).cancel();
@@ -2709,10 +2694,14 @@ class ImViewerModel
 
     /** 
      * Fires an asynchronous call to load the tiles.
+     * The tiles are rendered in parallel using all the rendering engines
+     * available for the image. Tiles previously requested that are no longer
+     * visible are cancelled.
      * 
      * @param selection The collection of tiles to load.
+     * @param region The visible area or <code>null</code>.
      */
-    void fireTileLoading(List<Tile> selection)
+    void fireTileLoading(List<Tile> selection, Rectangle region)
     {
     	Renderer rnd = metadataViewer.getRenderer();
 		if (rnd == null || selection == null) return;
@@ -2720,38 +2709,17 @@ class ImViewerModel
 		pDef.t = getDefaultT();
 		pDef.z = getDefaultZ();
 		pDef.slice = omero.romio.XY.value;
-		List<Tile> list;
-		list = selection;
-		sortTilesByIndex(list);
 		state = ImViewer.LOADING_TILES;
 		List<RenderingControl> proxies = rnd.getRenderingControls();
-		int m = proxies.size();
-		//Create n sublist
-		int n = selection.size();
-		int diff = n/m;
-		List<Tile> l;
-		int j;
-		int step = 0;
-		if (n < m) diff = 1;
-		tileTotalCount = n;
-		tileLoadedCount = 0;
-		RenderingControl proxy;
-		TileLoader loader;
-		for (int i = 0; i < m; i++) {
-			l = new ArrayList<Tile>();
-			j = step+diff;
-			if (i == (m-1)) j += (n-j);
-			if (j <= n) {
-				l =  list.subList(step, j);
-				step += l.size();
-			}
-			if (l.size() > 0) {
-				proxy = proxies.get(i);
-				loader = new TileLoader(component, ctx, currentPixelsID,
-						pDef, proxy, l);
-				loader.load();
-			}
+		if (tilePipeline == null || !tilePipeline.isFor(proxies)) {
+			if (tilePipeline != null) tilePipeline.discard();
+			tilePipeline = new TilePipeline(proxies);
 		}
+		tileTotalCount = selection.size();
+		tileLoadedCount = 0;
+		TileLoader loader = new TileLoader(component, ctx, currentPixelsID,
+				pDef, tilePipeline, selection, region);
+		loader.load();
     }
     
     /** Resets the tiles.*/
@@ -21,6 +21,7 @@
 package org.openmicroscopy.shoola.env.data.views;
 
 
+import java.awt.Rectangle;
 import java.io.File;
 import java.util.Collection;
 import java.util.List;
@@ -39,6 +40,7 @@ import omero.gateway.SecurityContext;
 import org.openmicroscopy.shoola.env.event.AgentEventListener;
 import org.openmicroscopy.shoola.env.rnd.RenderingControl;
 import org.openmicroscopy.shoola.env.rnd.RndProxyDef;
+import org.openmicroscopy.shoola.env.rnd.TilePipeline;
 import org.openmicroscopy.shoola.env.rnd.data.Tile;
 
 import omero.gateway.model.DataObject;
@@ -451,6 +453,24 @@ public interface ImageDataView
 		PlaneDef pDef, RenderingControl proxy, Collection<Tile> tiles,
 		 AgentEventListener observer);
 
+	/**
+	 * Loads the tiles using the rendering engines of the specified pipeline.
+	 * Several tiles are rendered in parallel, the ones closest to the centre
+	 * of the viewport first.
+	 * 
+	 * @param ctx The security context.
+	 * @param pixelsID The id of the pixels set.
+	 * @param pDef The plane to render.
+	 * @param pipeline The pipeline used to render the tiles.
+	 * @param tiles The visible tiles to load.
+	 * @param viewport The visible area or <code>null</code>.
+	 * @param observer Call-back handler.
+	 * @return See above.
+	 */
+	public CallHandle loadTiles(SecurityContext ctx, long pixelsID,
+		PlaneDef pDef, TilePipeline pipeline, Collection<Tile> tiles,
+		Rectangle viewport, AgentEventListener observer);
+
 	/**
 	 * Saves the ImageJ results back to OMERO.
 	 *
@@ -20,6 +20,7 @@
  */
 package org.openmicroscopy.shoola.env.data.views;
 
+import java.awt.Rectangle;
 import java.io.File;
 import java.util.Collection;
 import java.util.List;
@@ -63,6 +64,7 @@ import org.openmicroscopy.shoola.env.data.views.calls.TileLoader;
 import org.openmicroscopy.shoola.env.event.AgentEventListener;
 import org.openmicroscopy.shoola.env.rnd.RenderingControl;
 import org.openmicroscopy.shoola.env.rnd.RndProxyDef;
+import org.openmicroscopy.shoola.env.rnd.TilePipeline;
 import org.openmicroscopy.shoola.env.rnd.data.Tile;
 
 import omero.gateway.model.DataObject;
@@ -437,6 +439,20 @@ class ImageDataViewImpl
 		BatchCallTree cmd = new TileLoader(ctx, pixelsID, pDef, proxy, tiles);
 		return cmd.exec(observer);
 	}
+
+	/**
+     * Implemented as specified by the view interface.
+     * @see ImageDataView#loadTiles(SecurityContext, long, PlaneDef,
+     * TilePipeline, Collection, Rectangle, AgentEventListener)
+     */
+	public CallHandle loadTiles(SecurityContext ctx, long pixelsID,
+		PlaneDef pDef, TilePipeline pipeline, Collection<Tile> tiles,
+		Rectangle viewport, AgentEventListener observer)
+	{
+		BatchCallTree cmd = new TileLoader(ctx, pixelsID, pDef, pipeline,
+				tiles, viewport);
+		return cmd.exec(observer);
+	}
 	
 	/**
      * Implemented as specified by the view interface.
@@ -24,24 +24,32 @@ package org.openmicroscopy.shoola.env.data.views.calls;
 
 
 //Java imports
+import java.awt.Rectangle;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 
 //Third-party libraries
 
 //Application-internal dependencies
 import omero.romio.PlaneDef;
-import omero.romio.RegionDef;
 import omero.gateway.SecurityContext;
 import org.openmicroscopy.shoola.env.data.views.BatchCall;
 import org.openmicroscopy.shoola.env.data.views.BatchCallTree;
 import org.openmicroscopy.shoola.env.rnd.RenderingControl;
+import org.openmicroscopy.shoola.env.rnd.TilePipeline;
 import org.openmicroscopy.shoola.env.rnd.data.Region;
 import org.openmicroscopy.shoola.env.rnd.data.Tile;
 import org.openmicroscopy.shoola.util.image.geom.Factory;
 
 /** 
  * Loads the tiles.
+ * When the images are compressed, the tiles are rendered via a
+ * {@link TilePipeline} which keeps several calls in flight across the
+ * rendering engines, otherwise the tiles are loaded one after the other,
+ * the ones closest to the centre of the viewport first.
  *
  * @author Jean-Marie Burel &nbsp;&nbsp;&nbsp;&nbsp;
  * <a href="mailto:j.burel@dundee.ac.uk">j.burel@dundee.ac.uk</a>
@@ -60,14 +68,29 @@ public class TileLoader
     private Object	currentTile;
     
     /** The tiles.*/
-    private Collection<Tile> tiles;
+    private List<Tile> tiles;
 
     /** The plane to render.*/
     private PlaneDef pDef;
 
-    /** The proxy to use.*/
-    private RenderingControl proxy;
-    
+    /** The pipeline used to render the tiles.*/
+    private TilePipeline pipeline;
+
+    /** The visible area or <code>null</code>.*/
+    private Rectangle viewport;
+
+    /** 
+     * Flag indicating that the tiles are rendered asynchronously by the
+     * pipeline.
+     */
+    private boolean asynchronous;
+
+    /** The tiles submitted to the pipeline.*/
+    private TilePipeline.Submission submission;
+
+    /** The tiles to load synchronously.*/
+    private Iterator<Tile> remaining;
+
     /**
      * Loads the tile.
      * 
@@ -77,23 +100,57 @@ public class TileLoader
     {
     	Region rt = tile.getRegion();
     	try {
-    		PlaneDef def = new PlaneDef();
-    		def.slice = pDef.slice;
-    		def.stride = pDef.stride;
-    		def.x = pDef.x;
-    		def.y = pDef.y;
-    		def.z = pDef.z;
-    		def.t = pDef.t;
-    		def.region = new RegionDef(rt.getX(), rt.getY(),
-    				rt.getWidth(), rt.getHeight());
-    		tile.setImage(proxy.render(def));
+    		tile.setImage(pipeline.getMaster().render(
+    				TilePipeline.createPlaneDef(pDef, tile)));
 		} catch (Exception e) {
 			tile.setImage(Factory.createDefaultImageThumbnail(rt.getWidth(), 
 					rt.getHeight()));
 		}
     	currentTile = tile;
     }
+
+    /** 
+     * Submits the tiles to the pipeline if the images are compressed,
+     * prepares the tiles to be loaded one by one otherwise.
+     */
+    private void start()
+    {
+    	asynchronous = pipeline.isAsynchronous();
+    	if (asynchronous) {
+    		submission = pipeline.submit(pDef, tiles, viewport);
+    	} else {
+    		TilePipeline.sortByDistance(tiles, viewport);
+    		remaining = tiles.iterator();
+    	}
+    	currentTile = null;
+    }
+
+    /**
+     * Retrieves the next tile. If the remaining tiles were cancelled by
+     * a later submission, there is no tile to retrieve.
+     * 
+     * @throws InterruptedException If interrupted while waiting for a tile.
+     */
+    private void nextTile()
+    	throws InterruptedException
+    {
+    	if (asynchronous) currentTile = submission.take();
+    	else loadTile(remaining.next());
+    }
     
+    /**
+     * Creates a pipeline using only the specified rendering control.
+     * 
+     * @param proxy The rendering control to use.
+     * @return See above.
+     */
+    private static TilePipeline createPipeline(RenderingControl proxy)
+    {
+    	if (proxy == null)
+			throw new IllegalArgumentException("No rendering control.");
+    	return new TilePipeline(Collections.singletonList(proxy));
+    }
+
     /**
      * Returns the lastly retrieved tile.
      * This will be packed by the framework into a feedback event and
@@ -111,21 +168,22 @@ public class TileLoader
     protected Object getResult() { return null; }
     
     /**
-     * Adds a {@link BatchCall} to the tree for each tile to retrieve.
-     * The batch call simply invokes {@link #loadTile(Tile)}.
+     * Adds a {@link BatchCall} to start the loading and a {@link BatchCall}
+     * for each tile to retrieve.
      * @see BatchCallTree#buildTree()
      */
     protected void buildTree()
     {
-    	Iterator<Tile> i = tiles.iterator();
     	String description = "Loading tiles";
-    	Tile tile;
-    	while (i.hasNext()) {
-			tile = i.next();
-			final Tile t = tile;
+    	add(new BatchCall(description) {
+    		public void doCall() { 
+    			start();
+    		}
+    	});
+    	for (int i = 0; i < tiles.size(); i++) {
 			add(new BatchCall(description) {
-        		public void doCall() { 
-        			loadTile(t);
+        		public void doCall() throws Exception { 
+        			nextTile();
         		}
         	});  
 		}
@@ -137,22 +195,40 @@ public class TileLoader
      * @param ctx The security context.
      * @param pixelsID 	The id of the pixels set.
      * @param pDef The plane to render.
+     * @param proxy The rendering control to use.
 	 * @param tiles	The tiles.
      */
     public TileLoader(SecurityContext ctx, long pixelsID, PlaneDef pDef,
     		RenderingControl proxy, Collection<Tile> tiles)
     {
-    	if (proxy == null)
+    	this(ctx, pixelsID, pDef, createPipeline(proxy), tiles, null);
+    }
+
+    /**
+     * Creates a new instance.
+     * 
+     * @param ctx The security context.
+     * @param pixelsID 	The id of the pixels set.
+     * @param pDef The plane to render.
+     * @param pipeline The pipeline used to render the tiles.
+	 * @param tiles	The tiles.
+	 * @param viewport The visible area or <code>null</code>.
+     */
+    public TileLoader(SecurityContext ctx, long pixelsID, PlaneDef pDef,
+    		TilePipeline pipeline, Collection<Tile> tiles, Rectangle viewport)
+    {
+    	if (pipeline == null)
 			throw new IllegalArgumentException("No rendering control.");
-		if (pixelsID != proxy.getPixelsID())
+		if (pixelsID != pipeline.getMaster().getPixelsID())
 			throw new IllegalArgumentException("Pixels ID not valid.");
         if (tiles == null || tiles.size() == 0)
             throw new IllegalArgumentException("No tiles to load.");
         if (pDef == null)
         	 throw new IllegalArgumentException("No plane to render.");
-        this.tiles = tiles;
+        this.tiles = new ArrayList<Tile>(tiles);
         this.pDef = pDef;
-        this.proxy = proxy;
+        this.pipeline = pipeline;
+        this.viewport = viewport;
     }
     
 }
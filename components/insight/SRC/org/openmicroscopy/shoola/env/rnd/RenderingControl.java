@@ -655,6 +655,33 @@ public interface RenderingControl
 	public BufferedImage render(PlaneDef pDef, int compression)
 		throws RenderingServiceException, DSOutOfServiceException;
 
+	/**
+	 * Starts rendering the specified {@link PlaneDef 2D-plane} as a
+	 * compressed image without waiting for the server to reply.
+	 * The passed callback is notified on an Ice thread when the image is
+	 * available and {@link #endRenderAsync(Ice.AsyncResult)} must then be
+	 * invoked to retrieve it.
+	 * 
+	 * @param pDef Information about the plane to render.
+	 * @param cb The callback notified when the call completes.
+	 * @return The handle on the pending call or <code>null</code> if the
+	 *         image is not compressed and cannot be rendered asynchronously.
+	 */
+	public Ice.AsyncResult renderAsync(PlaneDef pDef, Ice.Callback cb);
+
+	/**
+	 * Completes a call started with
+	 * {@link #renderAsync(PlaneDef, Ice.Callback)}.
+	 * 
+	 * @param result The handle returned when the call was started.
+	 * @return See above.
+	 * @throws RenderingServiceException 	If an error occurred while setting 
+     * 										the value.
+     * @throws DSOutOfServiceException  	If the connection is broken.
+	 */
+	public BufferedImage endRenderAsync(Ice.AsyncResult result)
+		throws RenderingServiceException, DSOutOfServiceException;
+
 	/**
 	 * Returns one of the compression level defined by this class.
 	 * 
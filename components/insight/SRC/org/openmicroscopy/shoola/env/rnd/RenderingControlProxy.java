@@ -1618,6 +1618,39 @@ class RenderingControlProxy
         return img;
     }
     
+    /** 
+	 * Implemented as specified by {@link RenderingControl}.
+	 * @see RenderingControl#renderAsync(PlaneDef, Ice.Callback)
+	 */
+    public Ice.AsyncResult renderAsync(PlaneDef pDef, Ice.Callback cb)
+    {
+    	if (pDef == null) 
+            throw new IllegalArgumentException("Plane def cannot be null.");
+    	if (cb == null) 
+            throw new IllegalArgumentException("No callback specified.");
+    	if (!isCompressed()) return null;
+    	return servant.begin_renderCompressed(pDef, cb);
+    }
+
+    /** 
+	 * Implemented as specified by {@link RenderingControl}.
+	 * @see RenderingControl#endRenderAsync(Ice.AsyncResult)
+	 */
+    public BufferedImage endRenderAsync(Ice.AsyncResult result)
+    	throws RenderingServiceException, DSOutOfServiceException
+    {
+    	if (result == null) 
+            throw new IllegalArgumentException("No call specified.");
+    	try {
+			byte[] values = servant.end_renderCompressed(result);
+			imageSize = values.length;
+			return WriterImage.bytesToImage(values);
+		} catch (Throwable e) {
+			handleException(e, ERROR_RENDER+"the compressed image.");
+		}
+		return null;
+    }
+
     /** 
 	 * Implemented as specified by {@link RenderingControl}.
 	 * @see RenderingControl#setCompression(int)
@@ -0,0 +1,605 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2015 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+package org.openmicroscopy.shoola.env.rnd;
+
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.LinkedList;
+import java.util.Set;
+
+import omero.romio.PlaneDef;
+import omero.romio.RegionDef;
+
+import org.openmicroscopy.shoola.env.rnd.data.Region;
+import org.openmicroscopy.shoola.env.rnd.data.Tile;
+import org.openmicroscopy.shoola.util.image.geom.Factory;
+
+/**
+ * Keeps several asynchronous <code>renderCompressed</code> calls in flight
+ * across the rendering engines (master and slaves) used to display a
+ * large image.
+ * Tiles waiting to be rendered are ordered by their distance to the centre
+ * of the viewport so the visible area is filled from the middle out.
+ * Submitting a new selection of tiles cancels the tiles that are no longer
+ * visible: queued tiles are never sent and the result of tiles already sent
+ * to the server is discarded.
+ * Each call to {@link #submit(PlaneDef, Collection, Rectangle)} returns a
+ * {@link Submission} which hands back its rendered tiles, so that several
+ * loaders can use the same pipeline concurrently. Cancelled tiles are not
+ * handed back.
+ *
+ * @since 5.1
+ */
+public class TilePipeline
+{
+
+    /** The default number of calls in flight per rendering engine. */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 3;
+
+    /** A tile to render and the plane it belongs to. */
+    private static class Request
+    {
+
+        /** The tile to render. */
+        private final Tile tile;
+
+        /** The plane to render. */
+        private final PlaneDef pDef;
+
+        /**
+         * The submissions waiting for the tile. Empty if the result is no
+         * longer required.
+         */
+        private final List<Submission> owners = new ArrayList<Submission>();
+
+        /** The index of the rendering engine used once sent. */
+        private int index = -1;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param tile The tile to render.
+         * @param pDef The plane to render.
+         */
+        Request(Tile tile, PlaneDef pDef)
+        {
+            this.tile = tile;
+            this.pDef = pDef;
+        }
+
+        /**
+         * Returns <code>true</code> if the request is for the specified
+         * tile and plane, <code>false</code> otherwise.
+         *
+         * @param t The tile to check.
+         * @param p The plane to check.
+         * @return See above.
+         */
+        boolean isFor(Tile t, PlaneDef p)
+        {
+            return tile == t && pDef.z == p.z && pDef.t == p.t &&
+                    pDef.slice == p.slice;
+        }
+
+        /** Notifies the submissions that the tile will not be handed back. */
+        void cancel()
+        {
+            Iterator<Submission> i = owners.iterator();
+            while (i.hasNext())
+                i.next().cancel();
+            owners.clear();
+        }
+
+        /** Hands back the tile to the submissions waiting for it. */
+        void deliver()
+        {
+            Iterator<Submission> i = owners.iterator();
+            while (i.hasNext())
+                i.next().deliver(tile);
+            owners.clear();
+        }
+    }
+
+    /**
+     * The tiles submitted by one call to
+     * {@link TilePipeline#submit(PlaneDef, Collection, Rectangle)}.
+     */
+    public static class Submission
+    {
+
+        /** The tiles rendered and not yet taken. */
+        private final LinkedList<Tile> done = new LinkedList<Tile>();
+
+        /** The number of tiles neither handed back nor cancelled. */
+        private int outstanding;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param outstanding The number of tiles to hand back.
+         */
+        Submission(int outstanding)
+        {
+            this.outstanding = outstanding;
+        }
+
+        /**
+         * Hands back the specified tile.
+         *
+         * @param tile The rendered tile.
+         */
+        synchronized void deliver(Tile tile)
+        {
+            done.add(tile);
+            outstanding--;
+            notifyAll();
+        }
+
+        /** Records that one of the tiles will not be handed back. */
+        synchronized void cancel()
+        {
+            outstanding--;
+            notifyAll();
+        }
+
+        /**
+         * Returns the next rendered tile, waiting if necessary, or
+         * <code>null</code> if the remaining tiles have been cancelled.
+         *
+         * @return See above.
+         * @throws InterruptedException If interrupted while waiting.
+         */
+        public synchronized Tile take()
+            throws InterruptedException
+        {
+            while (done.isEmpty() && outstanding > 0)
+                wait();
+            return done.poll();
+        }
+    }
+
+    /** Orders the tiles by distance to the centre of the viewport. */
+    private static class DistanceComparator
+        implements Comparator<Request>
+    {
+
+        /** The centre of the viewport. */
+        private final Point centre;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param centre The centre of the viewport.
+         */
+        DistanceComparator(Point centre)
+        {
+            this.centre = centre;
+        }
+
+        /**
+         * Compares the distances of the tiles to the centre.
+         * @see Comparator#compare(Object, Object)
+         */
+        public int compare(Request r1, Request r2)
+        {
+            long d1 = distance(r1.tile, centre);
+            long d2 = distance(r2.tile, centre);
+            if (d1 < d2) return -1;
+            if (d1 > d2) return 1;
+            return r1.tile.getIndex()-r2.tile.getIndex();
+        }
+    }
+
+    /** The rendering engines used to render the tiles. */
+    private final List<RenderingControl> proxies;
+
+    /** The maximum number of calls in flight per rendering engine. */
+    private final int maxInFlight;
+
+    /** The number of calls in flight for each rendering engine. */
+    private final int[] load;
+
+    /** The tiles waiting to be sent to the server. */
+    private PriorityQueue<Request> queue;
+
+    /** The tiles sent to the server. */
+    private final List<Request> inFlight;
+
+    /** The centre of the viewport. */
+    private Point centre;
+
+    /** Flag indicating that the pipeline has been shut down. */
+    private boolean discarded;
+
+    /**
+     * Returns the square of the distance between the centre of the tile
+     * and the specified point.
+     *
+     * @param tile The tile to handle.
+     * @param p The point to handle.
+     * @return See above.
+     */
+    private static long distance(Tile tile, Point p)
+    {
+        Region r = tile.getRegion();
+        if (r == null || p == null) return 0;
+        long dx = r.getX()+r.getWidth()/2-p.x;
+        long dy = r.getY()+r.getHeight()/2-p.y;
+        return dx*dx+dy*dy;
+    }
+
+    /**
+     * Returns the centre of the area covered by the specified tiles.
+     *
+     * @param tiles The tiles to handle.
+     * @return See above.
+     */
+    private static Point centreOf(Collection<Tile> tiles)
+    {
+        Rectangle bounds = null;
+        Iterator<Tile> i = tiles.iterator();
+        Region r;
+        Rectangle rect;
+        while (i.hasNext()) {
+            r = i.next().getRegion();
+            if (r == null) continue;
+            rect = new Rectangle(r.getX(), r.getY(), r.getWidth(),
+                    r.getHeight());
+            if (bounds == null) bounds = rect;
+            else bounds.add(rect);
+        }
+        if (bounds == null) return new Point(0, 0);
+        return new Point((int) bounds.getCenterX(), (int) bounds.getCenterY());
+    }
+
+    /**
+     * Sorts the specified tiles by distance to the centre of the viewport.
+     * This is used when the tiles cannot be loaded asynchronously.
+     *
+     * @param tiles The tiles to sort.
+     * @param viewport The viewport or <code>null</code> to use the area
+     *                 covered by the tiles.
+     */
+    public static void sortByDistance(List<Tile> tiles, Rectangle viewport)
+    {
+        if (tiles == null || tiles.size() < 2) return;
+        final Point p;
+        if (viewport == null) p = centreOf(tiles);
+        else p = new Point((int) viewport.getCenterX(),
+                (int) viewport.getCenterY());
+        Collections.sort(tiles, new Comparator<Tile>() {
+            public int compare(Tile t1, Tile t2) {
+                long d1 = distance(t1, p);
+                long d2 = distance(t2, p);
+                if (d1 < d2) return -1;
+                if (d1 > d2) return 1;
+                return t1.getIndex()-t2.getIndex();
+            }
+        });
+    }
+
+    /**
+     * Creates the plane definition used to render the specified tile.
+     *
+     * @param pDef The plane to render.
+     * @param tile The tile to render.
+     * @return See above.
+     */
+    public static PlaneDef createPlaneDef(PlaneDef pDef, Tile tile)
+    {
+        Region rt = tile.getRegion();
+        PlaneDef def = new PlaneDef();
+        def.slice = pDef.slice;
+        def.stride = pDef.stride;
+        def.x = pDef.x;
+        def.y = pDef.y;
+        def.z = pDef.z;
+        def.t = pDef.t;
+        def.region = new RegionDef(rt.getX(), rt.getY(), rt.getWidth(),
+                rt.getHeight());
+        return def;
+    }
+
+    /**
+     * Sends the tiles with the highest priority to the least loaded
+     * rendering engines until the maximum number of calls in flight is
+     * reached. The calls are sent without holding the lock of the pipeline
+     * so that the callbacks of the calls already sent are not blocked.
+     */
+    private void dispatch()
+    {
+        List<Request> toSend = new ArrayList<Request>();
+        synchronized (this) {
+            Request r;
+            int index;
+            while (!discarded && !queue.isEmpty()) {
+                index = -1;
+                for (int j = 0; j < load.length; j++) {
+                    if (load[j] < maxInFlight &&
+                        (index < 0 || load[j] < load[index]))
+                        index = j;
+                }
+                if (index < 0) break;
+                r = queue.poll();
+                r.index = index;
+                inFlight.add(r);
+                load[index]++;
+                toSend.add(r);
+            }
+        }
+        Iterator<Request> i = toSend.iterator();
+        Request r;
+        Ice.AsyncResult result;
+        while (i.hasNext()) {
+            r = i.next();
+            try {
+                result = proxies.get(r.index).renderAsync(
+                        createPlaneDef(r.pDef, r.tile),
+                        new TileCallback(r, r.index));
+            } catch (Exception e) {
+                result = null;
+            }
+            if (result == null) complete(r, r.index, null);
+        }
+    }
+
+    /**
+     * Records the result of a call.
+     *
+     * @param r The completed request.
+     * @param index The index of the rendering engine used.
+     * @param image The rendered image or <code>null</code> if an error
+     *              occurred.
+     */
+    private synchronized void complete(Request r, int index,
+            BufferedImage image)
+    {
+        load[index]--;
+        if (!inFlight.remove(r) || r.owners.isEmpty()) return;
+        Region rt = r.tile.getRegion();
+        if (image == null)
+            r.tile.setImage(Factory.createDefaultImageThumbnail(
+                    rt.getWidth(), rt.getHeight()));
+        else r.tile.setImage(image);
+        r.deliver();
+    }
+
+    /** Completes the asynchronous rendering of a tile. */
+    private class TileCallback
+        extends Ice.Callback
+    {
+
+        /** The request to complete. */
+        private final Request request;
+
+        /** The index of the rendering engine used. */
+        private final int index;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param request The request to complete.
+         * @param index The index of the rendering engine used.
+         */
+        TileCallback(Request request, int index)
+        {
+            this.request = request;
+            this.index = index;
+        }
+
+        /**
+         * Decodes the image and hands back the tile.
+         * @see Ice.Callback#completed(Ice.AsyncResult)
+         */
+        public void completed(Ice.AsyncResult result)
+        {
+            BufferedImage image = null;
+            try {
+                image = proxies.get(index).endRenderAsync(result);
+            } catch (Exception e) {
+                //the default image will be displayed.
+            }
+            complete(request, index, image);
+            dispatch();
+        }
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param proxies The rendering engines to use. Mustn't be
+     *                <code>null</code> or empty.
+     * @param maxInFlight The maximum number of calls in flight per rendering
+     *                    engine.
+     */
+    public TilePipeline(List<RenderingControl> proxies, int maxInFlight)
+    {
+        if (proxies == null || proxies.size() == 0)
+            throw new IllegalArgumentException("No rendering control.");
+        if (maxInFlight <= 0)
+            throw new IllegalArgumentException("Number of calls not valid.");
+        this.proxies = new ArrayList<RenderingControl>(proxies);
+        this.maxInFlight = maxInFlight;
+        load = new int[proxies.size()];
+        queue = new PriorityQueue<Request>(11, new DistanceComparator(null));
+        inFlight = new ArrayList<Request>();
+    }
+
+    /**
+     * Creates a new instance using {@link #DEFAULT_MAX_IN_FLIGHT} calls
+     * per rendering engine.
+     *
+     * @param proxies The rendering engines to use. Mustn't be
+     *                <code>null</code> or empty.
+     */
+    public TilePipeline(List<RenderingControl> proxies)
+    {
+        this(proxies, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * Returns <code>true</code> if the pipeline uses the specified
+     * rendering engines, <code>false</code> otherwise.
+     *
+     * @param controls The rendering engines to check.
+     * @return See above.
+     */
+    public boolean isFor(List<RenderingControl> controls)
+    {
+        return !discarded && proxies.equals(controls);
+    }
+
+    /**
+     * Returns <code>true</code> if the tiles can be rendered
+     * asynchronously i.e. the images are compressed, <code>false</code>
+     * otherwise.
+     *
+     * @return See above.
+     */
+    public boolean isAsynchronous()
+    {
+        Iterator<RenderingControl> i = proxies.iterator();
+        while (i.hasNext()) {
+            if (!i.next().isCompressed()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the rendering engine to use when the tiles cannot be
+     * rendered asynchronously.
+     *
+     * @return See above.
+     */
+    public RenderingControl getMaster() { return proxies.get(0); }
+
+    /**
+     * Submits the tiles currently visible.
+     * Tiles previously submitted which are not in the passed collection
+     * are cancelled. Tiles already pending for the same plane are not
+     * requested twice.
+     *
+     * @param pDef The plane to render.
+     * @param tiles The visible tiles to render.
+     * @param viewport The viewport or <code>null</code> to use the area
+     *                 covered by the tiles.
+     * @return The submission handing back the rendered tiles.
+     */
+    public Submission submit(PlaneDef pDef, Collection<Tile> tiles,
+            Rectangle viewport)
+    {
+        if (pDef == null)
+            throw new IllegalArgumentException("No plane to render.");
+        if (tiles == null) return new Submission(0);
+        Submission submission;
+        synchronized (this) {
+            if (discarded) return new Submission(0);
+            submission = new Submission(tiles.size());
+            Set<Tile> visible = new HashSet<Tile>(tiles);
+            if (viewport == null) centre = centreOf(tiles);
+            else centre = new Point((int) viewport.getCenterX(),
+                    (int) viewport.getCenterY());
+            PriorityQueue<Request> q = new PriorityQueue<Request>(
+                    Math.max(11, queue.size()+tiles.size()),
+                    new DistanceComparator(centre));
+            List<Request> pending = new ArrayList<Request>();
+            Iterator<Request> i = queue.iterator();
+            Request r;
+            while (i.hasNext()) {
+                r = i.next();
+                if (visible.contains(r.tile) && r.isFor(r.tile, pDef)) {
+                    q.add(r);
+                    pending.add(r);
+                } else r.cancel();
+            }
+            i = inFlight.iterator();
+            while (i.hasNext()) {
+                r = i.next();
+                if (visible.contains(r.tile) && r.isFor(r.tile, pDef))
+                    pending.add(r);
+                else r.cancel();
+            }
+            queue = q;
+            Iterator<Tile> k = tiles.iterator();
+            Iterator<Request> j;
+            Tile tile;
+            Request found;
+            while (k.hasNext()) {
+                tile = k.next();
+                found = null;
+                j = pending.iterator();
+                while (j.hasNext()) {
+                    r = j.next();
+                    if (r.isFor(tile, pDef)) {
+                        found = r;
+                        break;
+                    }
+                }
+                if (found == null) {
+                    found = new Request(tile, pDef);
+                    queue.add(found);
+                    pending.add(found);
+                }
+                found.owners.add(submission);
+            }
+        }
+        dispatch();
+        return submission;
+    }
+
+    /**
+     * Returns the number of tiles waiting to be sent or in flight.
+     *
+     * @return See above.
+     */
+    public synchronized int getPendingCount()
+    {
+        return queue.size()+inFlight.size();
+    }
+
+    /**
+     * Cancels all the pending tiles and shuts down the pipeline.
+     * The calls already sent to the server cannot be aborted but their
+     * results are ignored.
+     */
+    public synchronized void discard()
+    {
+        discarded = true;
+        Iterator<Request> i = queue.iterator();
+        while (i.hasNext())
+            i.next().cancel();
+        queue.clear();
+        i = inFlight.iterator();
+        while (i.hasNext())
+            i.next().cancel();
+    }
+
+}
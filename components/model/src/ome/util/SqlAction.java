@@ -283,6 +283,63 @@ public interface SqlAction {
      */
     int deleteRepoDeleteLogs(DeleteLog template);
 
+    /**
+     * Record-class which matches _file_reclaim, the queue of deleted
+     * objects whose files still have to be removed from disk. The type is
+     * the simple class name as used by
+     * {@code ome.services.delete.files.FileDeleter}.
+     */
+    static class FileReclaim implements RowMapper<FileReclaim> {
+        public String type;
+        public Long objectId;
+        public Integer attempts;
+        public String error;
+        public FileReclaim mapRow(ResultSet rs, int arg1) throws SQLException {
+            FileReclaim fr = new FileReclaim();
+            fr.type = rs.getString("type");
+            fr.objectId = rs.getLong("object_id");
+            fr.attempts = rs.getInt("attempts");
+            fr.error = rs.getString("error");
+            return fr;
+        }
+        public String toString() {
+            return "FileReclaim<" + type + ":" + objectId + ",attempts="
+                + attempts + ">";
+        }
+    }
+
+    /**
+     * Adds the given objects to the _file_reclaim queue, skipping those
+     * which are already queued.
+     *
+     * @param type simple class name of the deleted objects.
+     * @param ids non-null.
+     * @return the number of rows inserted.
+     */
+    int queueFileReclaims(String type, Collection<Long> ids);
+
+    /**
+     * Returns up to limit queued entries which have failed fewer than
+     * maxAttempts times, least attempted and oldest first.
+     */
+    List<FileReclaim> nextFileReclaims(int maxAttempts, int limit);
+
+    /**
+     * Returns all queued entries which have failed at least maxAttempts
+     * times and will therefore not be retried.
+     */
+    List<FileReclaim> failedFileReclaims(int maxAttempts);
+
+    /**
+     * Removes the given entries, whose files are gone, from the queue.
+     */
+    int deleteFileReclaims(List<FileReclaim> reclaims);
+
+    /**
+     * Increments the attempts of the given entries and stores the error.
+     */
+    int failFileReclaims(List<FileReclaim> reclaims, String error);
+
     /**
      * Find the path of the repository root.
      * @param uuid a repository UUID
@@ -340,6 +397,17 @@ public interface SqlAction {
 
     int closeNode(String uuid);
 
+    /**
+     * Stores the packed load of the given node in its {@code scale} column.
+     */
+    int setNodeScale(String uuid, int scale);
+
+    /**
+     * Returns the {@code scale} column of all nodes which are not down by
+     * their uuid, with null for nodes which have not stored one.
+     */
+    Map<String, Integer> activeNodeScales();
+
     long nodeId(String internal_uuid);
 
     int insertSession(Map<String, Object> params);
@@ -405,6 +473,19 @@ public interface SqlAction {
     List<Object[]> getEventLogPartitions(Collection<String> types,
             Collection<String> actions, long offset, long limit);
 
+    /**
+     * As {@link #getEventLogPartitions(Collection, Collection, long, long)}
+     * but only returns the rows for objects whose entity id modulo the
+     * number of shards equals the given shard. Consumers which each process
+     * one shard therefore never see the same object.
+     *
+     * @param shard The shard to query, from 0 to shards - 1
+     * @param shards The total number of shards
+     */
+    List<Object[]> getEventLogPartitions(Collection<String> types,
+            Collection<String> actions, long offset, long limit,
+            int shard, int shards);
+
     void setCurrentEventLog(long id, String key);
 
     void delCurrentEventLog(String key);
@@ -437,6 +518,31 @@ public interface SqlAction {
 
     List<Long> getShapeIds(long roiId);
 
+    /**
+     * Inserts {@link ome.model.roi.Roi} rows in a single batch. Each row
+     * holds the id, permissions, image, creation event, group, owner and
+     * update event, in that order.
+     */
+    void insertRois(List<Object[]> batchData);
+
+    /**
+     * Inserts {@link ome.model.roi.Shape} rows in a single batch. Each row
+     * holds the discriminator, id, permissions, roi, roi_index, theZ, theT,
+     * theC, x, y, width, height, cx, cy, rx, ry, x1, y1, x2, y2, points,
+     * textValue, bytes, creation event, group, owner and update event, in
+     * that order.
+     */
+    void insertShapes(List<Object[]> batchData);
+
+    /**
+     * Inserts {@link ome.model.core.PlaneInfo} rows in a single batch. Each
+     * row holds the id, permissions, pixels, theZ, theC, theT, deltaT and its
+     * unit symbol, exposureTime and its unit symbol, positionX, positionY and
+     * positionZ each followed by its unit symbol, creation event, group, owner
+     * and update event, in that order.
+     */
+    void insertPlaneInfos(List<Object[]> batchData);
+
     boolean setUserPassword(Long experimenterID, String password);
 
     String getPasswordHash(Long experimenterID);
@@ -489,6 +595,14 @@ public interface SqlAction {
 
     long setStatsInfo(Channel ch, StatsInfo si);
 
+    /**
+     * Replaces the minimum and maximum of the {@link StatsInfo} currently
+     * linked to the given {@link Channel}.
+     *
+     * @return false if the channel has no {@link StatsInfo}
+     */
+    boolean updateStatsInfo(Channel ch, StatsInfo si);
+
     // TODO this should probably return an iterator.
     List<Long> getDeletedIds(String entityType);
 
@@ -644,6 +758,31 @@ public interface SqlAction {
                     _lookup("update_node"), uuid); //$NON-NLS-1$
         }
 
+        public int setNodeScale(String uuid, int scale) {
+            return _jdbc().update(
+                    _lookup("update_node_scale"), scale, uuid); //$NON-NLS-1$
+        }
+
+        public Map<String, Integer> activeNodeScales() {
+            final List<Object[]> rows = _jdbc().query(
+                    _lookup("active_node_scales"), //$NON-NLS-1$
+                    new RowMapper<Object[]>() {
+                        @Override
+                        public Object[] mapRow(ResultSet arg0, int arg1)
+                                throws SQLException {
+                            return new Object[] {
+                                arg0.getString(1),
+                                (Integer) arg0.getObject(2)
+                            };
+                        }
+                    });
+            final Map<String, Integer> scales = new HashMap<String, Integer>();
+            for (Object[] row : rows) {
+                scales.put((String) row[0], (Integer) row[1]);
+            }
+            return scales;
+        }
+
 
         public boolean setUserPassword(Long experimenterID, String password) {
             int results = _jdbc().update(_lookup("update_password"), //$NON-NLS-1$
@@ -828,6 +967,51 @@ public interface SqlAction {
                     template.args());
         }
 
+        public int queueFileReclaims(String type, Collection<Long> ids) {
+            final List<Object[]> batch = new ArrayList<Object[]>(ids.size());
+            for (Long id : ids) {
+                batch.add(new Object[]{type, id, type, id});
+            }
+            return sum(_jdbc().batchUpdate(
+                    _lookup("queue_file_reclaim"), batch)); //$NON-NLS-1$
+        }
+
+        public List<FileReclaim> nextFileReclaims(int maxAttempts, int limit) {
+            return _jdbc().query(_lookup("next_file_reclaims"), //$NON-NLS-1$
+                    new FileReclaim(), maxAttempts, limit);
+        }
+
+        public List<FileReclaim> failedFileReclaims(int maxAttempts) {
+            return _jdbc().query(_lookup("failed_file_reclaims"), //$NON-NLS-1$
+                    new FileReclaim(), maxAttempts);
+        }
+
+        public int deleteFileReclaims(List<FileReclaim> reclaims) {
+            final List<Object[]> batch = new ArrayList<Object[]>(reclaims.size());
+            for (FileReclaim reclaim : reclaims) {
+                batch.add(new Object[]{reclaim.type, reclaim.objectId});
+            }
+            return sum(_jdbc().batchUpdate(
+                    _lookup("delete_file_reclaim"), batch)); //$NON-NLS-1$
+        }
+
+        public int failFileReclaims(List<FileReclaim> reclaims, String error) {
+            final List<Object[]> batch = new ArrayList<Object[]>(reclaims.size());
+            for (FileReclaim reclaim : reclaims) {
+                batch.add(new Object[]{error, reclaim.type, reclaim.objectId});
+            }
+            return sum(_jdbc().batchUpdate(
+                    _lookup("fail_file_reclaim"), batch)); //$NON-NLS-1$
+        }
+
+        private int sum(int[] counts) {
+            int total = 0;
+            for (int count : counts) {
+                total += count;
+            }
+            return total;
+        }
+
         public String findRepoRootPath(String uuid) {
             try {
                 return _jdbc().queryForObject(_lookup("find_repo_root_path"), //$NON-NLS-1$
@@ -1034,6 +1218,11 @@ public interface SqlAction {
             return id;
         }
 
+        public boolean updateStatsInfo(Channel ch, StatsInfo si) {
+            return _jdbc().update(_lookup("stats_info_update_on_channel"), //$NON-NLS-1$
+                    si.getGlobalMax(), si.getGlobalMin(), ch.getId()) > 0;
+        }
+
 
         //
         // CONFIGURATION
@@ -1083,7 +1272,24 @@ public interface SqlAction {
             params.put("actions", actions);
             params.put("currentid", offset);
             params.put("max", limit);
-            return _jdbc().query(query,
+            return _jdbc().query(query, EVENT_LOG_PARTITION_MAPPER, params);
+        }
+
+        public List<Object[]> getEventLogPartitions(Collection<String> types,
+                Collection<String> actions, long offset, long limit,
+                int shard, int shards) {
+            final String query = _lookup("log_loader_shard_partition"); // $NON_NLS-1$
+            final Map<String, Object> params = new HashMap<String, Object>();
+            params.put("types", types);
+            params.put("actions", actions);
+            params.put("currentid", offset);
+            params.put("max", limit);
+            params.put("shard", shard);
+            params.put("shards", shards);
+            return _jdbc().query(query, EVENT_LOG_PARTITION_MAPPER, params);
+        }
+
+        private static final RowMapper<Object[]> EVENT_LOG_PARTITION_MAPPER =
                 new RowMapper<Object[]>() {
                     @Override
                     public Object[] mapRow(ResultSet arg0, int arg1)
@@ -1095,8 +1301,7 @@ public interface SqlAction {
                             arg0.getString(4),
                             arg0.getInt(5)
                         };
-                    }}, params);
-        }
+                    }};
 
         public void setCurrentEventLog(long id, String key) {
 
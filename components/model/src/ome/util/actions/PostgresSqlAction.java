@@ -247,6 +247,18 @@ public class PostgresSqlAction extends SqlAction.Impl {
                 new IdRowMapper(), roiId);
     }
 
+    public void insertRois(List<Object[]> batchData) {
+        _jdbc().batchUpdate(_lookup("insert_rois"), batchData); //$NON-NLS-1$
+    }
+
+    public void insertShapes(List<Object[]> batchData) {
+        _jdbc().batchUpdate(_lookup("insert_shapes"), batchData); //$NON-NLS-1$
+    }
+
+    public void insertPlaneInfos(List<Object[]> batchData) {
+        _jdbc().batchUpdate(_lookup("insert_planeinfos"), batchData); //$NON-NLS-1$
+    }
+
     @Override
     public void setFileRepo(Collection<Long> ids, String repoId) {
        for (final List<Long> idsBatch : Iterables.partition(ids, 256)) {
@@ -0,0 +1,326 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+
+package ome.io.nio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import ome.system.metrics.Counter;
+import ome.system.metrics.Metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Server-wide cache of fixed-size blocks of the files read through
+ * {@link FileBuffer} instances which have been given this cache, e.g. by
+ * {@link OriginalFilesService#getFileBuffer(ome.model.core.OriginalFile, String)}.
+ * All readers of the same file share its blocks, so many small or
+ * overlapping reads of the same region, e.g. by several sessions
+ * downloading the same file, only read it from disk once.
+ *
+ * When a {@link FileBuffer} reads on from where its previous read ended,
+ * the following blocks are loaded in the background so that sequential
+ * readers rarely wait on disk.
+ *
+ * Blocks are keyed by the path and current size of the file, along with a
+ * generation which writes and truncations through a {@link FileBuffer}
+ * increment, so that the old blocks of the file are no longer found and
+ * are left to be evicted. Generations are kept for a fixed number of
+ * stripes of paths rather than for each path, so a write may also cost
+ * another file in the same stripe its cached blocks. Files which are
+ * modified in place by other processes are not detected, which is why
+ * only files which are written once, such as the files of the managed
+ * repository and of {@link OriginalFilesService}, should be read through
+ * this cache.
+ *
+ * @since 5.1
+ */
+public class FileBlockCache {
+
+    private final static Logger log = LoggerFactory.getLogger(FileBlockCache.class);
+
+    /** Number of stripes of paths which share a generation. */
+    private final static int STRIPES = 4096;
+
+    /**
+     * Identifies one block of one version of a file.
+     */
+    private static class Key {
+
+        final String path;
+
+        final long size;
+
+        final long generation;
+
+        final long index;
+
+        Key(String path, long size, long generation, long index) {
+            this.path = path;
+            this.size = size;
+            this.generation = generation;
+            this.index = index;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return index == other.index && size == other.size
+                    && generation == other.generation
+                    && path.equals(other.path);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = path.hashCode();
+            result = 31 * result + (int) (size ^ (size >>> 32));
+            result = 31 * result + (int) (generation ^ (generation >>> 32));
+            result = 31 * result + (int) (index ^ (index >>> 32));
+            return result;
+        }
+    }
+
+    private final Cache<Key, byte[]> blocks;
+
+    private final int blockSize;
+
+    private final int readahead;
+
+    /** Reads larger than this bypass the cache. */
+    private final long maxRead;
+
+    private final ExecutorService pool;
+
+    private final Counter hits, misses, readaheads;
+
+    /**
+     * Generation of each stripe of paths, incremented by
+     * {@link #invalidate(String)}. Blocks loaded before a write are cached
+     * under the previous generation so they are never read after it.
+     */
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+
+    /**
+     * @param metrics source of the hit, miss and readahead counters.
+     * @param maxBytes maximum total size of the cached blocks. 0 or less
+     *          disables caching so that all reads go to disk.
+     * @param blockSize size in bytes of each block.
+     * @param readahead number of blocks to load ahead of a sequential
+     *          reader. 0 or less disables readahead.
+     * @param threads number of threads loading blocks ahead of readers.
+     */
+    public FileBlockCache(Metrics metrics, long maxBytes, int blockSize,
+            int readahead, int threads) {
+        this.hits = metrics.counter(this, "hits");
+        this.misses = metrics.counter(this, "misses");
+        this.readaheads = metrics.counter(this, "readaheads");
+        this.blockSize = Math.max(512, blockSize);
+        this.readahead = Math.max(0, readahead);
+        this.maxRead = maxBytes / 16;
+        if (maxBytes <= 0) {
+            this.blocks = null;
+            this.pool = null;
+            log.info("FileBlockCache disabled");
+            return;
+        }
+        this.blocks = CacheBuilder.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher(new Weigher<Key, byte[]>() {
+                    public int weigh(Key key, byte[] block) {
+                        return block.length;
+                    }
+                })
+                .build();
+        if (this.readahead > 0) {
+            // Bounded so that readahead is dropped rather than queued
+            // once the disks fall behind.
+            this.pool = new ThreadPoolExecutor(Math.max(1, threads),
+                    Math.max(1, threads), 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<Runnable>(
+                            Math.max(1, threads) * this.readahead * 4),
+                    new ThreadFactoryBuilder()
+                            .setNameFormat("file-block-%d")
+                            .setDaemon(true)
+                            .build());
+        } else {
+            this.pool = null;
+        }
+    }
+
+    /**
+     * Stops loading blocks ahead of readers. Called by Spring on context
+     * close.
+     */
+    public void destroy() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Reads into the given buffer from the given position in the file,
+     * loading any missing blocks from the channel, as for
+     * {@link FileChannel#read(ByteBuffer, long)}.
+     *
+     * @param path the path of the file, identifying it across channels.
+     * @param channel an open channel of the file.
+     * @param dst the buffer to read into.
+     * @param position the position in the file to start reading from.
+     * @param sequential if the previous read of the caller ended at the
+     *          given position, in which case the following blocks are
+     *          loaded in the background.
+     * @return the number of bytes read, or -1 if the position is at or
+     *          after the end of the file.
+     */
+    public int read(final String path, final FileChannel channel,
+            ByteBuffer dst, long position, boolean sequential)
+            throws IOException {
+        if (blocks == null || dst.remaining() > maxRead) {
+            return channel.read(dst, position);
+        }
+        final long size = channel.size();
+        if (position >= size) {
+            return -1;
+        }
+        final long generation = generations.get(stripe(path));
+        int total = 0;
+        long index = position / blockSize;
+        while (dst.hasRemaining() && position < size) {
+            final byte[] block = block(new Key(path, size, generation, index),
+                    channel);
+            final int offset = (int) (position - index * blockSize);
+            final int length = Math.min(dst.remaining(), block.length - offset);
+            if (length <= 0) {
+                break;
+            }
+            dst.put(block, offset, length);
+            position += length;
+            total += length;
+            index++;
+        }
+        if (sequential) {
+            readahead(path, channel, size, generation, index);
+        }
+        return total;
+    }
+
+    /**
+     * Stops serving the cached blocks of the given file, e.g. because it has
+     * been written, leaving them to be evicted.
+     */
+    public void invalidate(String path) {
+        if (blocks != null) {
+            generations.incrementAndGet(stripe(path));
+        }
+    }
+
+    private static int stripe(String path) {
+        return (path.hashCode() & Integer.MAX_VALUE) % STRIPES;
+    }
+
+    private byte[] block(final Key key, final FileChannel channel)
+            throws IOException {
+        byte[] block = blocks.getIfPresent(key);
+        if (block != null) {
+            hits.inc();
+            return block;
+        }
+        misses.inc();
+        try {
+            return blocks.get(key, new Callable<byte[]>() {
+                public byte[] call() throws IOException {
+                    return load(channel, key.size, key.index);
+                }
+            });
+        } catch (ExecutionException ee) {
+            if (ee.getCause() instanceof IOException) {
+                throw (IOException) ee.getCause();
+            }
+            throw new IOException(ee.getCause());
+        }
+    }
+
+    private byte[] load(FileChannel channel, long size, long index)
+            throws IOException {
+        final long start = index * blockSize;
+        final int length = (int) Math.min(blockSize, size - start);
+        final ByteBuffer buf = ByteBuffer.allocate(length);
+        while (buf.hasRemaining()) {
+            if (channel.read(buf, start + buf.position()) < 0) {
+                break; // Truncated while reading.
+            }
+        }
+        if (buf.hasRemaining()) {
+            final byte[] partial = new byte[buf.position()];
+            System.arraycopy(buf.array(), 0, partial, 0, partial.length);
+            return partial;
+        }
+        return buf.array();
+    }
+
+    /**
+     * Loads the given block and the ones following it in the background
+     * unless they are already cached.
+     */
+    private void readahead(final String path, final FileChannel channel,
+            final long size, final long generation, final long first) {
+        if (pool == null) {
+            return;
+        }
+        for (long i = first; i < first + readahead; i++) {
+            if (i * blockSize >= size) {
+                return;
+            }
+            final Key key = new Key(path, size, generation, i);
+            if (blocks.getIfPresent(key) != null) {
+                continue;
+            }
+            final long index = i;
+            try {
+                pool.execute(new Runnable() {
+                    public void run() {
+                        if (blocks.getIfPresent(key) != null) {
+                            return;
+                        }
+                        try {
+                            blocks.put(key, load(channel, size, index));
+                            readaheads.inc();
+                        } catch (IOException e) {
+                            // E.g. the channel was closed. Readers will
+                            // load the block themselves if needed.
+                            log.debug("Readahead failed for " + path, e);
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException ree) {
+                return; // Queue full.
+            }
+        }
+    }
+
+}
@@ -29,6 +29,12 @@ public class FileBuffer extends AbstractBuffer {
 
     final private String mode;
 
+    /** If not null, positional reads go through this cache. */
+    private FileBlockCache blockCache;
+
+    /** Position just after the end of the last positional read. */
+    private long nextPosition = -1;
+
     /**
      * Default constructor allowing to pass in a non-"rw" file mode.
      * 
@@ -43,6 +49,14 @@ public class FileBuffer extends AbstractBuffer {
         this.mode = mode;
     }
 
+    /**
+     * Makes {@link #read(ByteBuffer, long)} use the given cache, which is
+     * shared with other buffers reading the same file.
+     */
+    public void setBlockCache(FileBlockCache blockCache) {
+        this.blockCache = blockCache;
+    }
+
     /**
      * Closes the buffer, cleaning up file state.
      * 
@@ -91,12 +105,20 @@ public class FileBuffer extends AbstractBuffer {
     }
 
     /**
-     * Delegates to {@link FileChannel}
+     * Delegates to {@link FileChannel}, or to the {@link FileBlockCache} if
+     * one has been set.
      * 
      * @see FileChannel#read(ByteBuffer, long)
      */
     public int read(ByteBuffer dst, long position) throws IOException {
-        return getFileChannel().read(dst, position);
+        if (blockCache == null) {
+            return getFileChannel().read(dst, position);
+        }
+        final boolean sequential = position == nextPosition;
+        final int read = blockCache.read(getPath(), getFileChannel(), dst,
+                position, sequential);
+        nextPosition = read > 0 ? position + read : -1;
+        return read;
     }
 
     /**
@@ -105,7 +127,11 @@ public class FileBuffer extends AbstractBuffer {
      * @see FileChannel#write(ByteBuffer, long)
      */
     public int write(ByteBuffer src, long position) throws IOException {
-        return getFileChannel().write(src, position);
+        try {
+            return getFileChannel().write(src, position);
+        } finally {
+            invalidateBlocks();
+        }
     }
 
     /**
@@ -114,7 +140,11 @@ public class FileBuffer extends AbstractBuffer {
      * @see FileChannel#write(ByteBuffer)
      */
     public int write(ByteBuffer src) throws IOException {
-        return getFileChannel().write(src);
+        try {
+            return getFileChannel().write(src);
+        } finally {
+            invalidateBlocks();
+        }
     }
 
     public long size() throws IOException {
@@ -122,7 +152,11 @@ public class FileBuffer extends AbstractBuffer {
     }
 
     public void truncate(long size) throws IOException {
-        getFileChannel().truncate(size);
+        try {
+            getFileChannel().truncate(size);
+        } finally {
+            invalidateBlocks();
+        }
     }
 
     /**
@@ -136,8 +170,18 @@ public class FileBuffer extends AbstractBuffer {
         if (fc.size() < size) {
             return false;
         } else {
-            fc.truncate(size);
+            try {
+                fc.truncate(size);
+            } finally {
+                invalidateBlocks();
+            }
             return true;
         }
     }
+
+    private void invalidateBlocks() {
+        if (blockCache != null) {
+            blockCache.invalidate(getPath());
+        }
+    }
 }
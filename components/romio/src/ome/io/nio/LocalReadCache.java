@@ -0,0 +1,341 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+
+package ome.io.nio;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.CRC32;
+
+import ome.system.metrics.Counter;
+import ome.system.metrics.Metrics;
+
+import org.apache.commons.io.FilenameUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.cache.Weigher;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * {@link ReadTier} which keeps copies of recently read files of the data
+ * directory in a local directory, usually on an SSD, so that hot pyramids
+ * are not read repeatedly from bulk network storage.
+ *
+ * The first read of a file is served from the data directory while a
+ * background thread copies it into the cache directory under the same
+ * relative path. The copy is written to a temporary file, checked against
+ * the CRC-32 of the bytes read and the size of the source, and only then
+ * renamed into place with the modification time of the source. Each later
+ * read uses the copy as long as the size and modification time of the
+ * source still match it, so a file which has been replaced in the data
+ * directory is copied again. The least recently used copies are deleted
+ * once their total size exceeds the configured maximum.
+ *
+ * Copies left from a previous run are checked in the same way on startup
+ * and either kept or deleted.
+ *
+ * @since 5.1
+ */
+public class LocalReadCache implements ReadTier {
+
+    private final static Logger log = LoggerFactory.getLogger(LocalReadCache.class);
+
+    private final static int BUFFER_SIZE = 1024 * 1024;
+
+    private final String root;
+
+    private final File cacheDir;
+
+    private final long maxBytes;
+
+    /** Size in bytes of each copy by its path relative to {@link #root}. */
+    private final Cache<String, Long> entries;
+
+    /** Relative paths which are currently being copied. */
+    private final ConcurrentMap<String, Boolean> pending =
+            new ConcurrentHashMap<String, Boolean>();
+
+    private final ExecutorService pool;
+
+    /** Time of construction, before which temporary files are stale. */
+    private final long started = System.currentTimeMillis();
+
+    private final Counter hits, misses, copies, evictions, failures;
+
+    /**
+     * @param root the data directory whose files may be cached.
+     * @param cacheDir directory to keep the copies in. Created if missing.
+     * @param maxBytes maximum total size of the copies. 0 or less disables
+     *          caching so that all files are read from the data directory.
+     * @param threads number of threads copying files into the cache.
+     * @param metrics source of the hit, miss, copy, eviction and failure
+     *          counters.
+     */
+    public LocalReadCache(String root, String cacheDir, long maxBytes,
+            int threads, Metrics metrics) {
+        this.root = new File(root).getAbsolutePath();
+        this.cacheDir = new File(cacheDir).getAbsoluteFile();
+        this.maxBytes = maxBytes;
+        this.hits = metrics.counter(this, "hits");
+        this.misses = metrics.counter(this, "misses");
+        this.copies = metrics.counter(this, "copies");
+        this.evictions = metrics.counter(this, "evictions");
+        this.failures = metrics.counter(this, "failures");
+        if (maxBytes <= 0) {
+            this.entries = null;
+            this.pool = null;
+            log.info("LocalReadCache disabled");
+            return;
+        }
+        this.entries = CacheBuilder.newBuilder()
+                .maximumWeight(Math.max(1, maxBytes >> 10))
+                .weigher(new Weigher<String, Long>() {
+                    public int weigh(String key, Long size) {
+                        return (int) Math.min(Integer.MAX_VALUE,
+                                (size >> 10) + 1);
+                    }
+                })
+                .removalListener(new RemovalListener<String, Long>() {
+                    public void onRemoval(RemovalNotification<String, Long> n) {
+                        if (n.getCause() == RemovalCause.REPLACED) {
+                            return;
+                        }
+                        if (n.wasEvicted()) {
+                            evictions.inc();
+                        }
+                        // Readers which have the copy open keep reading it.
+                        new File(LocalReadCache.this.cacheDir, n.getKey()).delete();
+                    }
+                })
+                .build();
+        this.pool = Executors.newFixedThreadPool(Math.max(1, threads),
+                new ThreadFactoryBuilder()
+                        .setNameFormat("read-cache-%d")
+                        .setDaemon(true)
+                        .build());
+        this.cacheDir.mkdirs();
+        log.info("LocalReadCache of {} bytes in {}", maxBytes, this.cacheDir);
+        submit(new Runnable() {
+            public void run() {
+                reload(LocalReadCache.this.cacheDir);
+            }
+        });
+    }
+
+    /**
+     * Stops copying files. Called by Spring on context close.
+     */
+    public void destroy() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    @Override
+    public String getReadPath(String path) {
+        if (entries == null) {
+            return path;
+        }
+        final String rel = relative(path);
+        if (rel == null) {
+            return path;
+        }
+        final File source = new File(path);
+        final File copy = new File(cacheDir, rel);
+        if (entries.getIfPresent(rel) != null) {
+            if (isCurrent(source, copy)) {
+                hits.inc();
+                return copy.getPath();
+            }
+            entries.invalidate(rel);
+        }
+        misses.inc();
+        populate(rel, source, copy);
+        return path;
+    }
+
+    @Override
+    public void invalidate(String path) {
+        if (entries == null) {
+            return;
+        }
+        final String rel = relative(path);
+        if (rel != null) {
+            entries.invalidate(rel);
+        }
+    }
+
+    /**
+     * Returns the path of the given file relative to the data directory,
+     * or null if it is not within it.
+     */
+    private String relative(String path) {
+        final String normalized = FilenameUtils.normalize(
+                new File(path).getAbsolutePath());
+        if (normalized == null
+                || !normalized.startsWith(root + File.separator)) {
+            return null;
+        }
+        return normalized.substring(root.length() + 1);
+    }
+
+    private static boolean isCurrent(File source, File copy) {
+        final long length = copy.length();
+        return length > 0 && length == source.length()
+                && copy.lastModified() == source.lastModified();
+    }
+
+    private void submit(Runnable task) {
+        try {
+            pool.execute(task);
+        } catch (RejectedExecutionException ree) {
+            log.debug("Read cache is shut down");
+        }
+    }
+
+    private void populate(final String rel, final File source,
+            final File copy) {
+        final long length = source.length();
+        if (length <= 0 || length > maxBytes) {
+            return;
+        }
+        if (pending.putIfAbsent(rel, Boolean.TRUE) != null) {
+            return;
+        }
+        try {
+            pool.execute(new Runnable() {
+                public void run() {
+                    try {
+                        copy(rel, source, copy);
+                    } finally {
+                        pending.remove(rel);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException ree) {
+            pending.remove(rel);
+        }
+    }
+
+    private void copy(String rel, File source, File copy) {
+        final long length = source.length();
+        final long modified = source.lastModified();
+        final File dir = copy.getParentFile();
+        dir.mkdirs();
+        final File tmp = new File(dir, "." + copy.getName() + ".tmp");
+        try {
+            final long written = transfer(source, tmp);
+            if (tmp.length() != length || source.length() != length
+                    || source.lastModified() != modified
+                    || checksum(tmp) != written) {
+                log.debug("Discarding changed or corrupt copy of {}", source);
+                failures.inc();
+                tmp.delete();
+                return;
+            }
+            if (!tmp.setLastModified(modified) || !tmp.renameTo(copy)) {
+                throw new IOException("Failed to move " + tmp + " to " + copy);
+            }
+            entries.put(rel, length);
+            copies.inc();
+        } catch (IOException e) {
+            log.warn("Failed to cache " + source, e);
+            failures.inc();
+            tmp.delete();
+        }
+    }
+
+    /**
+     * Copies the file and returns the CRC-32 of the bytes which were read.
+     */
+    private static long transfer(File from, File to) throws IOException {
+        final CRC32 crc = new CRC32();
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        final InputStream in = new FileInputStream(from);
+        try {
+            final OutputStream out = new FileOutputStream(to);
+            try {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    crc.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            } finally {
+                out.close();
+            }
+        } finally {
+            in.close();
+        }
+        return crc.getValue();
+    }
+
+    private static long checksum(File file) throws IOException {
+        final CRC32 crc = new CRC32();
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        final InputStream in = new BufferedInputStream(
+                new FileInputStream(file));
+        try {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+            }
+        } finally {
+            in.close();
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Keeps the copies from a previous run whose source is unchanged and
+     * deletes all others along with any older temporary files.
+     */
+    private void reload(File dir) {
+        final File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (file.isDirectory()) {
+                reload(file);
+                continue;
+            }
+            final String rel = file.getPath().substring(
+                    cacheDir.getPath().length() + 1);
+            if (file.getName().startsWith(".")) {
+                // Temporary files of an earlier run or lock files.
+                if (file.lastModified() < started) {
+                    file.delete();
+                }
+                continue;
+            }
+            if (pending.containsKey(rel)
+                    || entries.getIfPresent(rel) != null) {
+                continue;
+            }
+            if (isCurrent(new File(root, rel), file)) {
+                entries.put(rel, file.length());
+            } else {
+                file.delete();
+            }
+        }
+    }
+
+}
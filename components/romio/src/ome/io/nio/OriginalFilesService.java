@@ -31,6 +31,9 @@ public class OriginalFilesService extends AbstractFileSystemService {
 	private transient static Logger log = LoggerFactory
 			.getLogger(OriginalFilesService.class);
 
+    /* Cache of file blocks shared by the returned buffers, if any. */
+    private FileBlockCache blockCache;
+
     /**
      * Constructor
      * @param path
@@ -39,6 +42,14 @@ public class OriginalFilesService extends AbstractFileSystemService {
         super(path);
     }
 
+    /**
+     * Sets the cache through which the returned {@link FileBuffer}
+     * instances read.
+     */
+    public void setBlockCache(FileBlockCache blockCache) {
+        this.blockCache = blockCache;
+    }
+
     /**
      * Returns FileBuffer based on OriginalFile path
      * 
@@ -48,7 +59,22 @@ public class OriginalFilesService extends AbstractFileSystemService {
     public FileBuffer getFileBuffer(OriginalFile file, String mode) {
         String path = getFilesPath(file.getId());
         createSubpath(path);
-        return new FileBuffer(path, mode);
+        return withBlockCache(new FileBuffer(path, mode));
+    }
+
+    /**
+     * Makes the given buffer, e.g. for a file of a managed repository, read
+     * through the same {@link FileBlockCache} as the buffers returned by
+     * {@link #getFileBuffer(OriginalFile, String)}, if one has been set.
+     *
+     * @param buffer the buffer to set the cache on.
+     * @return the given buffer.
+     */
+    public FileBuffer withBlockCache(FileBuffer buffer) {
+        if (blockCache != null) {
+            buffer.setBlockCache(blockCache);
+        }
+        return buffer;
     }
     
     /**
@@ -67,6 +93,9 @@ public class OriginalFilesService extends AbstractFileSystemService {
 			Long id = iter.next();
 
 			String filePath = getFilesPath(id);
+			if (blockCache != null) {
+				blockCache.invalidate(filePath);
+			}
 			file = new File(filePath);
 			if (file.exists()) {
 				success = file.delete();
@@ -12,8 +12,13 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.ByteOrder;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import loci.formats.ChannelFiller;
 import loci.formats.ChannelSeparator;
@@ -21,8 +26,6 @@ import loci.formats.FormatException;
 import loci.formats.IFormatReader;
 import loci.formats.ImageReader;
 import loci.formats.Memoizer;
-import loci.formats.MinMaxCalculator;
-import loci.formats.meta.IMinMaxStore;
 import ome.api.IQuery;
 import ome.conditions.LockTimeout;
 import ome.conditions.MissingPyramidException;
@@ -65,9 +68,21 @@ public class PixelsService extends AbstractFileSystemService
 	/** Suffix for an the image pyramid of a given pixels set. */
 	public static final String PYRAMID_SUFFIX = "_pyramid";
 
+	/** Suffix for the histogram file of a given pixels set. */
+	public static final String HISTOGRAM_SUFFIX = "_histogram";
+
 	/** Null plane size constant. */
 	public static final int NULL_PLANE_SIZE = 64;
 
+	/**
+	 * Planes with more pixels than this at the lowest resolution level are
+	 * sampled tile-wise by {@link #makeApproximateStats(Pixels)}.
+	 */
+	public static final int MAX_SAMPLED_PLANE_SIZE = 1024 * 1024;
+
+	/** Number of tiles per dimension sampled from larger planes. */
+	public static final int SAMPLED_TILE_GRID = 4;
+
 	/** Default of 100 ms for {@link #memoizerWait} */
 	public static final long MEMOIZER_WAIT = 100;
 
@@ -93,9 +108,20 @@ public class PixelsService extends AbstractFileSystemService
 	private Timer tileTimes;
 
 	private Timer minmaxTimes;
-	
+
+	private Timer approximateStatsTimes;
+
 	private IQuery iQuery;
 
+	/** Number of readers used concurrently for the exact statistics. */
+	private int statsThreads = 1;
+
+	/** Shared executor running the readers of the exact statistics. */
+	private ExecutorService statsExecutor;
+
+	/** Tier from which read-only pixels and pyramid files are opened. */
+	private ReadTier readTier;
+
 	/** Null plane byte array. */
 	public static final byte[] nullPlane = new byte[] { -128, 127, -128, 127,
 			-128, 127, -128, 127, -128, 127, // 10
@@ -186,6 +212,34 @@ public class PixelsService extends AbstractFileSystemService
     public void setMetrics(Metrics metrics) {
         this.tileTimes = metrics.timer(this, "tileTimes");
         this.minmaxTimes = metrics.timer(this, "minmaxTimes");
+        this.approximateStatsTimes = metrics.timer(this, "approximateStatsTimes");
+    }
+
+    /**
+     * Sets the number of Bio-Formats readers which will be used concurrently
+     * when computing the exact statistics of Pixels sets which do not
+     * require a pyramid. Values below 1 are treated as 1.
+     */
+    public void setStatsThreads(int statsThreads) {
+        this.statsThreads = Math.max(1, statsThreads);
+    }
+
+    /**
+     * Sets the executor shared by all calculations of exact statistics. Its
+     * size bounds the number of readers open at once across all images. If
+     * not set, the planes are always read by the calling thread.
+     */
+    public void setStatsExecutor(ExecutorService statsExecutor) {
+        this.statsExecutor = statsExecutor;
+    }
+
+    /**
+     * Sets the {@link ReadTier} from which existing pyramid and ROMIO pixels
+     * files are opened when they are only to be read. If not set, they are
+     * always read from the data directory.
+     */
+    public void setReadTier(ReadTier readTier) {
+        this.readTier = readTier;
     }
 
     public long getMemoizerWait() {
@@ -229,8 +283,29 @@ public class PixelsService extends AbstractFileSystemService
      *
      * @param pixels Pixels set to retrieve a pixel buffer for.
      * @since OMERO-Beta4.3
+     * @see #makePyramid(Pixels, PixelsStats)
      */
     public StatsInfo[] makePyramid(Pixels pixels)
+    {
+        return makePyramid(pixels, null);
+    }
+
+    /**
+     * Creates a pixels pyramid for a given set of pixels, computing the exact
+     * statistics of the pixels set while the data is read. The histogram
+     * range is taken from the approximate statistics, which are computed if
+     * not passed in. The exact statistics are stored alongside the pixels
+     * (see {@link #getPixelsStats(Pixels)}). If the pyramid file already
+     * exists, then a DEBUG message is logged and this method returns.
+     *
+     * @param pixels Pixels set to retrieve a pixel buffer for.
+     * @param approximate Statistics previously returned by
+     * {@link #makeApproximateStats(Pixels)} or null.
+     * @return the exact {@link StatsInfo} per channel or null if none were
+     * computed.
+     * @since 5.1
+     */
+    public StatsInfo[] makePyramid(Pixels pixels, PixelsStats approximate)
     {
         final String pixelsFilePath = getPixelsPath(pixels.getId());
         final File pixelsFile = new File(pixelsFilePath);
@@ -247,36 +322,20 @@ public class PixelsService extends AbstractFileSystemService
             return null; // EARLY EXIT!
         }
 
+        if (approximate == null && originalFilePath != null)
+        {
+            approximate = makeApproximateStats(pixels);
+        }
+
         if (!requirePyramid)
         {
             log.debug("Creating only StatsInfo.");
-            int series = getSeries(pixels);
-            final PixelsPyramidMinMaxStore minMaxStore =
-                new PixelsPyramidMinMaxStore(pixels.getSizeC());
-            BfPixelBuffer bfPixelBuffer = createMinMaxBfPixelBuffer(
-                    originalFilePath, series, minMaxStore);
-
             try
             {
-                for (int t = 0; t < pixels.getSizeT(); t++)
-                {
-                    for (int c = 0; c < pixels.getSizeC(); c++)
-                    {
-                        for (int z = 0; z < pixels.getSizeZ(); z++)
-                        {
-                            Timer.Context ctx = minmaxTimes == null ?
-                                null : minmaxTimes.time();
-                            try {
-                                bfPixelBuffer.getPlane(z, c, t);
-                            } finally {
-                                if (ctx != null) {
-                                    ctx.stop();
-                                }
-                            }
-                        }
-                    }
-                }
-                return minMaxStore.createStatsInfo();
+                PixelsStats stats = makeExactStats(pixels, originalFilePath,
+                        approximate);
+                writePixelsStats(pixels, stats);
+                return stats.toStatsInfo();
             }
             catch (IOException e)
             {
@@ -303,12 +362,14 @@ public class PixelsService extends AbstractFileSystemService
                 return null; // EARLY EXIT! closed in finally block!
             }
 
-            PixelsPyramidMinMaxStore minMaxStore = performWrite(
+            PixelsStats stats = performWrite(
                     pixels, pixelsPyramidFile, pixelsPyramid,
-                    pixelsFile, pixelsFilePath, originalFilePath);
-            if (minMaxStore != null)
+                    pixelsFile, pixelsFilePath, originalFilePath,
+                    newAccumulators(pixels, approximate));
+            if (stats != null)
             {
-                return minMaxStore.createStatsInfo();
+                writePixelsStats(pixels, stats);
+                return stats.toStatsInfo();
             }
             return null;
         }
@@ -329,18 +390,358 @@ public class PixelsService extends AbstractFileSystemService
         }
     }
 
-    private PixelsPyramidMinMaxStore performWrite(
+    /**
+     * Quickly computes approximate statistics for the given pixels set so
+     * that it can be rendered before the full data has been read. The lowest
+     * resolution level is used if the data is already a pyramid; otherwise
+     * the middle Z-section of the first, middle and last timepoints is
+     * sampled, reading only a grid of {@link #SAMPLED_TILE_GRID} squared
+     * tiles from planes larger than {@link #MAX_SAMPLED_PLANE_SIZE}.
+     *
+     * @param pixels Pixels set to compute statistics for.
+     * @return the approximate statistics or null if no data is available.
+     * @since 5.1
+     */
+    public PixelsStats makeApproximateStats(Pixels pixels)
+    {
+        final PixelBuffer buffer = createStatsPixelBuffer(pixels);
+        if (buffer == null)
+        {
+            return null;
+        }
+        final Timer.Context ctx = approximateStatsTimes == null ?
+                null : approximateStatsTimes.time();
+        final List<List<PixelData>> samples = new ArrayList<List<PixelData>>();
+        try
+        {
+            if (buffer.getResolutionLevels() > 1)
+            {
+                buffer.setResolutionLevel(0);
+            }
+            final int sizeC = buffer.getSizeC();
+            for (int c = 0; c < sizeC; c++)
+            {
+                final List<PixelData> channel = new ArrayList<PixelData>();
+                samples.add(channel);
+                for (int t : sampledIndexes(buffer.getSizeT()))
+                {
+                    samplePlane(buffer, buffer.getSizeZ() / 2, c, t, channel);
+                }
+            }
+
+            // The histogram range is only known once all samples are read.
+            final PixelsStats.Accumulator[] accumulators =
+                new PixelsStats.Accumulator[sizeC];
+            for (int c = 0; c < sizeC; c++)
+            {
+                final PixelsStats.Accumulator range =
+                    new PixelsStats.Accumulator(0, 0);
+                for (PixelData sample : samples.get(c))
+                {
+                    range.add(sample);
+                }
+                accumulators[c] = new PixelsStats.Accumulator(
+                        range.getMin(), range.getMax());
+                for (PixelData sample : samples.get(c))
+                {
+                    accumulators[c].add(sample);
+                }
+            }
+            return new PixelsStats(true, accumulators);
+        }
+        catch (IOException e)
+        {
+            log.warn("Failed to compute approximate statistics for Pixels:"
+                    + pixels.getId(), e);
+            return null;
+        }
+        finally
+        {
+            for (List<PixelData> channel : samples)
+            {
+                for (PixelData sample : channel)
+                {
+                    sample.dispose();
+                }
+            }
+            if (ctx != null)
+            {
+                ctx.stop();
+            }
+            try
+            {
+                buffer.close();
+            }
+            catch (IOException e)
+            {
+                log.error("Error closing pixel buffer.", e);
+            }
+        }
+    }
+
+    /**
+     * Returns the statistics stored by {@link #makePyramid(Pixels, PixelsStats)}
+     * for the given pixels set or null if none are available.
+     *
+     * @since 5.1
+     */
+    public PixelsStats getPixelsStats(Pixels pixels)
+    {
+        final File file = new File(
+                getPixelsPath(pixels.getId()) + HISTOGRAM_SUFFIX);
+        if (!file.exists())
+        {
+            return null;
+        }
+        try
+        {
+            return PixelsStats.read(file);
+        }
+        catch (IOException e)
+        {
+            log.warn("Failed to read statistics: " + file, e);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the given statistics alongside the pixels, replacing any which
+     * were stored before, so that they are returned by
+     * {@link #getPixelsStats(Pixels)}.
+     *
+     * @since 5.1
+     */
+    public void writePixelsStats(Pixels pixels, PixelsStats stats)
+    {
+        final String path = getPixelsPath(pixels.getId());
+        try
+        {
+            createSubpath(path);
+            stats.write(new File(path + HISTOGRAM_SUFFIX));
+        }
+        catch (IOException e)
+        {
+            log.warn("Failed to store statistics for Pixels:"
+                    + pixels.getId(), e);
+        }
+    }
+
+    /**
+     * Returns a read-only buffer over the best available source of the
+     * pixels set: the pyramid, the original file or the ROMIO pixels file.
+     */
+    private PixelBuffer createStatsPixelBuffer(Pixels pixels)
+    {
+        final String pixelsFilePath = getPixelsPath(pixels.getId());
+        final String originalFilePath = getOriginalFilePath(pixels);
+        if (new File(pixelsFilePath + PYRAMID_SUFFIX).exists())
+        {
+            return createPyramidPixelBuffer(pixels,
+                    pixelsFilePath + PYRAMID_SUFFIX, false);
+        }
+        if (originalFilePath != null)
+        {
+            return createBfPixelBuffer(originalFilePath, getSeries(pixels));
+        }
+        if (new File(pixelsFilePath).exists())
+        {
+            return createRomioPixelBuffer(pixelsFilePath, pixels, false);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the first, middle and last index (without duplicates) of a
+     * dimension of the given size.
+     */
+    private static List<Integer> sampledIndexes(int size)
+    {
+        final List<Integer> indexes = new ArrayList<Integer>(3);
+        for (int index : new int[] { 0, size / 2, size - 1 })
+        {
+            if (index >= 0 && !indexes.contains(index))
+            {
+                indexes.add(index);
+            }
+        }
+        return indexes;
+    }
+
+    private void samplePlane(PixelBuffer buffer, int z, int c, int t,
+            List<PixelData> samples) throws IOException
+    {
+        final int sizeX = buffer.getSizeX();
+        final int sizeY = buffer.getSizeY();
+        if ((long) sizeX * sizeY <= MAX_SAMPLED_PLANE_SIZE)
+        {
+            samples.add(buffer.getPlane(z, c, t));
+            return;
+        }
+        final Dimension tileSize = buffer.getTileSize();
+        final int w = Math.min(sizeX, (int) tileSize.getWidth());
+        final int h = Math.min(sizeY, (int) tileSize.getHeight());
+        for (int gy = 0; gy < SAMPLED_TILE_GRID; gy++)
+        {
+            for (int gx = 0; gx < SAMPLED_TILE_GRID; gx++)
+            {
+                final int x = (sizeX - w) * gx / (SAMPLED_TILE_GRID - 1);
+                final int y = (sizeY - h) * gy / (SAMPLED_TILE_GRID - 1);
+                samples.add(buffer.getTile(z, c, t, x, y, w, h));
+            }
+        }
+    }
+
+    private PixelsStats.Accumulator[] newAccumulators(Pixels pixels,
+            PixelsStats approximate)
+    {
+        if (approximate != null && approximate.getSizeC() == pixels.getSizeC())
+        {
+            return approximate.newAccumulators();
+        }
+        final PixelsStats.Accumulator[] accumulators =
+            new PixelsStats.Accumulator[pixels.getSizeC()];
+        for (int c = 0; c < accumulators.length; c++)
+        {
+            accumulators[c] = new PixelsStats.Accumulator(0, 0);
+        }
+        return accumulators;
+    }
+
+    /**
+     * Reads every plane of a pixels set which does not require a pyramid,
+     * using up to {@link #statsThreads} Bio-Formats readers concurrently on
+     * the {@link #statsExecutor}, each of which handles an interleaved share
+     * of the planes.
+     */
+    private PixelsStats makeExactStats(final Pixels pixels,
+            final String originalFilePath, final PixelsStats approximate)
+        throws IOException
+    {
+        final int planes =
+            pixels.getSizeZ() * pixels.getSizeC() * pixels.getSizeT();
+        final int threads = Math.max(1, Math.min(statsThreads, planes));
+        final int series = getSeries(pixels);
+        if (threads == 1 || statsExecutor == null)
+        {
+            return new PixelsStats(false, scanPlanes(pixels, originalFilePath,
+                    series, approximate, 0, 1));
+        }
+
+        final List<Future<PixelsStats.Accumulator[]>> futures =
+            new ArrayList<Future<PixelsStats.Accumulator[]>>();
+        try
+        {
+            for (int i = 0; i < threads; i++)
+            {
+                final int offset = i;
+                futures.add(statsExecutor.submit(
+                        new Callable<PixelsStats.Accumulator[]>() {
+                    public PixelsStats.Accumulator[] call() throws IOException
+                    {
+                        return scanPlanes(pixels, originalFilePath, series,
+                                approximate, offset, threads);
+                    }
+                }));
+            }
+            PixelsStats.Accumulator[] merged = null;
+            for (Future<PixelsStats.Accumulator[]> future : futures)
+            {
+                final PixelsStats.Accumulator[] partial = future.get();
+                if (merged == null)
+                {
+                    merged = partial;
+                    continue;
+                }
+                for (int c = 0; c < merged.length; c++)
+                {
+                    merged[c].merge(partial[c]);
+                }
+            }
+            return new PixelsStats(false, merged);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while calculating min/max", e);
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause() instanceof IOException)
+            {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Failed to calculate min/max", e.getCause());
+        }
+        finally
+        {
+            // Only has an effect if one of the readers failed.
+            for (Future<PixelsStats.Accumulator[]> future : futures)
+            {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Reads every <code>stride</code>-th plane starting at
+     * <code>offset</code> in ZCT-order with its own reader.
+     */
+    private PixelsStats.Accumulator[] scanPlanes(Pixels pixels,
+            String originalFilePath, int series, PixelsStats approximate,
+            int offset, int stride) throws IOException
+    {
+        final PixelsStats.Accumulator[] accumulators =
+            newAccumulators(pixels, approximate);
+        final int sizeZ = pixels.getSizeZ();
+        final int sizeC = pixels.getSizeC();
+        final int planes = sizeZ * sizeC * pixels.getSizeT();
+        final BfPixelBuffer bfPixelBuffer =
+            createBfPixelBuffer(originalFilePath, series);
+        try
+        {
+            for (int i = offset; i < planes; i += stride)
+            {
+                final int z = i % sizeZ;
+                final int c = (i / sizeZ) % sizeC;
+                final int t = i / (sizeZ * sizeC);
+                Timer.Context ctx = minmaxTimes == null ?
+                    null : minmaxTimes.time();
+                try {
+                    PixelData plane = bfPixelBuffer.getPlane(z, c, t);
+                    accumulators[c].add(plane);
+                    plane.dispose();
+                } finally {
+                    if (ctx != null) {
+                        ctx.stop();
+                    }
+                }
+            }
+            return accumulators;
+        }
+        finally
+        {
+            bfPixelBuffer.close();
+        }
+    }
+
+    /**
+     * Writes the pyramid tile by tile. When reading from the original file,
+     * each tile is also added to the given accumulators and the resulting
+     * exact statistics are returned; otherwise null is returned.
+     */
+    private PixelsStats performWrite(
             final Pixels pixels,final File pixelsPyramidFile,
             final BfPyramidPixelBuffer pixelsPyramid, final File pixelsFile,
-            final String pixelsFilePath, final String originalFilePath) {
+            final String pixelsFilePath, final String originalFilePath,
+            final PixelsStats.Accumulator[] accumulators) {
 
         final PixelBuffer source;
         final Dimension tileSize;
-        final PixelsPyramidMinMaxStore minMaxStore;
+        final boolean computeStats;
 
         if (pixelsFile.exists())
         {
-            minMaxStore = null;
+            computeStats = false;
             source = createRomioPixelBuffer(pixelsFilePath, pixels, false);
             // FIXME: This should be configuration or service driven
             // FIXME: Also implemented in RenderingBean.getTileSize()
@@ -349,10 +750,10 @@ public class PixelsService extends AbstractFileSystemService
         }
         else
         {
-            minMaxStore = new PixelsPyramidMinMaxStore(pixels.getSizeC());
+            computeStats = true;
             int series = getSeries(pixels);
-            BfPixelBuffer bfPixelBuffer = createMinMaxBfPixelBuffer(
-                    originalFilePath, series, minMaxStore);
+            BfPixelBuffer bfPixelBuffer = createBfPixelBuffer(
+                    originalFilePath, series);
             pixelsPyramid.setByteOrder(
                     bfPixelBuffer.isLittleEndian()? ByteOrder.LITTLE_ENDIAN
                             : ByteOrder.BIG_ENDIAN);
@@ -418,6 +819,9 @@ public class PixelsService extends AbstractFileSystemService
                         PixelData tile = source.getTile(z, c, t, x, y, w, h);
                         pixelsPyramid.setTile(
                             tile.getData().array(), z, c, t, x, y, w, h);
+                        if (computeStats) {
+                            accumulators[c].add(tile);
+                        }
                         tile.dispose();
                     } finally {
                         if (ctx != null) {
@@ -461,7 +865,7 @@ public class PixelsService extends AbstractFileSystemService
                 }
             }
         }
-        return minMaxStore;
+        return computeStats ? new PixelsStats(false, accumulators) : null;
     }
 
     /**
@@ -552,6 +956,10 @@ public class PixelsService extends AbstractFileSystemService
         if (pixelsPyramidFile.exists())
         {
             log.info("Using Pyramid BfPixelBuffer: " + pixelsPyramidFilePath);
+            if (!write) {
+                return createPyramidPixelBuffer(pixels,
+                        getReadPath(pixelsPyramidFilePath), write);
+            }
             return createPyramidPixelBuffer(pixels, pixelsPyramidFilePath, write);
         }
 
@@ -588,7 +996,21 @@ public class PixelsService extends AbstractFileSystemService
 
         log.info("Pixel buffer file exists returning read-only " +
                  "ROMIO pixel buffer.");
-        return createRomioPixelBuffer(pixelsFilePath, pixels, false);
+        return createRomioPixelBuffer(getReadPath(pixelsFilePath), pixels,
+                false);
+    }
+
+    /**
+     * Returns the path from which the given existing file should be read,
+     * as provided by the {@link ReadTier} if one is set.
+     */
+    protected String getReadPath(String path)
+    {
+        if (readTier == null)
+        {
+            return path;
+        }
+        return readTier.getReadPath(path);
     }
 
     /**
@@ -731,37 +1153,6 @@ public class PixelsService extends AbstractFileSystemService
         backOff.throwMissingPyramidException(msg, pixels);
     }
 
-    /**
-     * Helper method to properly log any exceptions raised by Bio-Formats and
-     * add a min/max calculator wrapper to the reader stack.
-     * @param filePath Non-null.
-     * @param series series to use
-     * @param store Min/max store to use with the min/max calculator.
-     */
-    protected BfPixelBuffer createMinMaxBfPixelBuffer(final String filePath,
-                                                      final int series,
-                                                      final IMinMaxStore store)
-    {
-        try
-        {
-            IFormatReader reader = createBfReader();
-            MinMaxCalculator calculator = new MinMaxCalculator(reader);
-            calculator.setMinMaxStore(store);
-            BfPixelBuffer pixelBuffer = new BfPixelBuffer(filePath, calculator);
-            pixelBuffer.setSeries(series);
-            log.info(String.format("Creating BfPixelBuffer: %s Series: %d",
-                    filePath, series));
-            return pixelBuffer;
-        }
-        catch (Exception e)
-        {
-            String msg = "Error instantiating pixel buffer: " + filePath;
-            log.error(msg, e);
-            throw new ResourceError(msg);
-        }
-    }
-
-
     /**
      * Short-cut in the FS case where we know that we are dealing with a FS-lite
      * file, and want to retrieve the actual file as opposed to a pyramid or anything
@@ -874,6 +1265,10 @@ public class PixelsService extends AbstractFileSystemService
 			Long id = iter.next();
 
 			String pixelPath = getPixelsPath(id);
+			if (readTier != null) {
+			    readTier.invalidate(pixelPath);
+			    readTier.invalidate(pixelPath + PYRAMID_SUFFIX);
+			}
 			file = new File(pixelPath);
 			fileName = file.getName();
 			if (file.exists()) {
@@ -889,39 +1284,4 @@ public class PixelsService extends AbstractFileSystemService
 			}
 		}
 	}
-
-    class PixelsPyramidMinMaxStore implements IMinMaxStore
-    {
-        final double[][] channelGlobalMinMax;
-
-        final int sizeC;
-
-        public PixelsPyramidMinMaxStore(int sizeC)
-        {
-            this.sizeC = sizeC;
-            channelGlobalMinMax = new double[sizeC][2];
-        }
-
-        /* (non-Javadoc)
-         * @see loci.formats.meta.IMinMaxStore#setChannelGlobalMinMax(int, double, double, int)
-         */
-        public void setChannelGlobalMinMax(int channel, double minimum,
-                                           double maximum, int series)
-        {
-            channelGlobalMinMax[channel][0] = minimum;
-            channelGlobalMinMax[channel][1] = maximum;
-        }
-
-        public StatsInfo[] createStatsInfo()
-        {
-            StatsInfo[] statsInfo = new StatsInfo[sizeC];
-            for (int c = 0; c < sizeC; c++)
-            {
-                statsInfo[c] = new StatsInfo();
-                statsInfo[c].setGlobalMin(channelGlobalMinMax[c][0]);
-                statsInfo[c].setGlobalMax(channelGlobalMinMax[c][1]);
-            }
-            return statsInfo;
-        }
-    }
 }
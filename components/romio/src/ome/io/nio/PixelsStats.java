@@ -0,0 +1,325 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+
+package ome.io.nio;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import ome.model.stats.StatsInfo;
+import ome.util.PixelData;
+
+/**
+ * Per-channel intensity statistics of a Pixels set: the global minimum and
+ * maximum along with a histogram of {@link #BINS} bins which can be used for
+ * auto-contrast via {@link #getPercentile(int, double)}.
+ *
+ * Statistics are computed in two phases by the {@link PixelsService}. An
+ * {@link #isApproximate() approximate} instance is created from the lowest
+ * resolution level or a sample of tiles so that the Pixels set can be
+ * rendered immediately, and is later replaced by the exact statistics which
+ * are collected during the full scan of the data.
+ *
+ * @since 5.1
+ */
+public class PixelsStats {
+
+    /** Number of bins in each channel histogram. */
+    public static final int BINS = 256;
+
+    /** Version of the file format used by {@link #write(File)}. */
+    private static final int VERSION = 1;
+
+    /**
+     * Collects the minimum, the maximum and a histogram for a single channel.
+     * The histogram range is fixed on creation; values outside of the range
+     * are counted in the first or last bin. Instances are not thread-safe
+     * but may be {@link #merge(Accumulator) merged}.
+     */
+    public static class Accumulator {
+
+        private final double lower;
+
+        private final double upper;
+
+        private final double scale;
+
+        private final long[] counts = new long[BINS];
+
+        private double min = Double.POSITIVE_INFINITY;
+
+        private double max = Double.NEGATIVE_INFINITY;
+
+        /**
+         * @param lower the lowest value of the histogram range.
+         * @param upper the highest value of the histogram range.
+         */
+        public Accumulator(double lower, double upper) {
+            this.lower = lower;
+            this.upper = upper;
+            this.scale = upper > lower ? BINS / (upper - lower) : 0;
+        }
+
+        public void add(double value) {
+            if (value < min) {
+                min = value;
+            }
+            if (value > max) {
+                max = value;
+            }
+            int bin = (int) ((value - lower) * scale);
+            if (bin < 0) {
+                bin = 0;
+            } else if (bin >= BINS) {
+                bin = BINS - 1;
+            }
+            counts[bin]++;
+        }
+
+        public void add(PixelData data) {
+            final int size = data.size();
+            for (int i = 0; i < size; i++) {
+                add(data.getPixelValue(i));
+            }
+        }
+
+        /**
+         * Adds the values of an accumulator with the same range.
+         */
+        public void merge(Accumulator other) {
+            if (other.lower != lower || other.upper != upper) {
+                throw new IllegalArgumentException("Histogram ranges differ");
+            }
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+            for (int i = 0; i < BINS; i++) {
+                counts[i] += other.counts[i];
+            }
+        }
+
+        public boolean isEmpty() {
+            return min > max;
+        }
+
+        /** The lowest value added or 0 if none was added. */
+        public double getMin() {
+            return isEmpty() ? 0 : min;
+        }
+
+        /** The highest value added or 0 if none was added. */
+        public double getMax() {
+            return isEmpty() ? 0 : max;
+        }
+
+    }
+
+    private final boolean approximate;
+
+    private final double[] min;
+
+    private final double[] max;
+
+    private final double[] lower;
+
+    private final double[] upper;
+
+    private final long[][] histogram;
+
+    /**
+     * Creates an instance from one {@link Accumulator} per channel. Empty
+     * accumulators yield a minimum and maximum of 0.
+     */
+    public PixelsStats(boolean approximate, Accumulator[] channels) {
+        this(approximate, channels.length);
+        for (int c = 0; c < channels.length; c++) {
+            final Accumulator acc = channels[c];
+            min[c] = acc.getMin();
+            max[c] = acc.getMax();
+            lower[c] = acc.lower;
+            upper[c] = acc.upper;
+            histogram[c] = acc.counts.clone();
+        }
+    }
+
+    private PixelsStats(boolean approximate, int sizeC) {
+        this.approximate = approximate;
+        this.min = new double[sizeC];
+        this.max = new double[sizeC];
+        this.lower = new double[sizeC];
+        this.upper = new double[sizeC];
+        this.histogram = new long[sizeC][];
+    }
+
+    /**
+     * Creates one {@link Accumulator} per channel whose histogram ranges are
+     * taken from these statistics. Used to refine approximate statistics.
+     */
+    public Accumulator[] newAccumulators() {
+        final Accumulator[] rv = new Accumulator[getSizeC()];
+        for (int c = 0; c < rv.length; c++) {
+            rv[c] = new Accumulator(min[c], max[c]);
+        }
+        return rv;
+    }
+
+    /**
+     * Whether these statistics were computed from a subset of the data.
+     */
+    public boolean isApproximate() {
+        return approximate;
+    }
+
+    public int getSizeC() {
+        return min.length;
+    }
+
+    public double getGlobalMin(int c) {
+        return min[c];
+    }
+
+    public double getGlobalMax(int c) {
+        return max[c];
+    }
+
+    /**
+     * Returns a copy of the histogram of the given channel. Bin <i>i</i>
+     * covers the values from {@link #getHistogramMin(int)} plus <i>i</i>
+     * times the bin width.
+     */
+    public long[] getHistogram(int c) {
+        return histogram[c].clone();
+    }
+
+    public double getHistogramMin(int c) {
+        return lower[c];
+    }
+
+    public double getHistogramMax(int c) {
+        return upper[c];
+    }
+
+    /**
+     * Returns the lowest value below which the given fraction of the pixels
+     * of a channel lie, e.g. 0.005 and 0.995 for an auto-contrast window
+     * ignoring the darkest and brightest half-percent of the pixels.
+     * The value is interpolated within the matching bin and clipped to the
+     * global minimum and maximum.
+     */
+    public double getPercentile(int c, double fraction) {
+        final long[] counts = histogram[c];
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        if (total == 0) {
+            return min[c];
+        }
+        final double width = (upper[c] - lower[c]) / BINS;
+        final double target = fraction * total;
+        long seen = 0;
+        for (int i = 0; i < BINS; i++) {
+            if (counts[i] > 0 && seen + counts[i] >= target) {
+                final double within = (target - seen) / counts[i];
+                final double value = lower[c] + (i + within) * width;
+                return Math.max(min[c], Math.min(max[c], value));
+            }
+            seen += counts[i];
+        }
+        return max[c];
+    }
+
+    /**
+     * Returns one unsaved {@link StatsInfo} per channel.
+     */
+    public StatsInfo[] toStatsInfo() {
+        final StatsInfo[] statsInfo = new StatsInfo[getSizeC()];
+        for (int c = 0; c < statsInfo.length; c++) {
+            statsInfo[c] = new StatsInfo();
+            statsInfo[c].setGlobalMin(min[c]);
+            statsInfo[c].setGlobalMax(max[c]);
+        }
+        return statsInfo;
+    }
+
+    /**
+     * Writes these statistics to the given file, replacing any existing
+     * content. The file is written to a temporary file first so that
+     * readers never see a partial file.
+     */
+    public void write(File file) throws IOException {
+        final File tmp = new File(file.getParentFile(),
+                "." + file.getName() + ".tmp");
+        final DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(tmp)));
+        try {
+            out.writeInt(VERSION);
+            out.writeBoolean(approximate);
+            out.writeInt(getSizeC());
+            out.writeInt(BINS);
+            for (int c = 0; c < getSizeC(); c++) {
+                out.writeDouble(min[c]);
+                out.writeDouble(max[c]);
+                out.writeDouble(lower[c]);
+                out.writeDouble(upper[c]);
+                for (long count : histogram[c]) {
+                    out.writeLong(count);
+                }
+            }
+        } finally {
+            out.close();
+        }
+        if (!tmp.renameTo(file)) {
+            file.delete();
+            if (!tmp.renameTo(file)) {
+                tmp.delete();
+                throw new IOException("Failed to replace " + file);
+            }
+        }
+    }
+
+    /**
+     * Reads statistics written by {@link #write(File)}.
+     *
+     * @throws IOException if the file cannot be read or is of an unknown
+     *          version.
+     */
+    public static PixelsStats read(File file) throws IOException {
+        final DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)));
+        try {
+            final int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unknown version " + version + ": " + file);
+            }
+            final boolean approximate = in.readBoolean();
+            final int sizeC = in.readInt();
+            final int bins = in.readInt();
+            if (bins != BINS) {
+                throw new IOException("Unknown bin count " + bins + ": " + file);
+            }
+            final PixelsStats stats = new PixelsStats(approximate, sizeC);
+            for (int c = 0; c < sizeC; c++) {
+                stats.min[c] = in.readDouble();
+                stats.max[c] = in.readDouble();
+                stats.lower[c] = in.readDouble();
+                stats.upper[c] = in.readDouble();
+                stats.histogram[c] = new long[BINS];
+                for (int i = 0; i < BINS; i++) {
+                    stats.histogram[c][i] = in.readLong();
+                }
+            }
+            return stats;
+        } finally {
+            in.close();
+        }
+    }
+
+}
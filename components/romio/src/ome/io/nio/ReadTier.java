@@ -0,0 +1,36 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+
+package ome.io.nio;
+
+/**
+ * Storage tier from which {@link PixelsService} reads pixels and pyramid
+ * files which it will not modify. Implementations may return the path of
+ * a copy on faster storage in place of the file under the data directory,
+ * as long as the copy has the same content.
+ *
+ * @since 5.1
+ * @see LocalReadCache
+ */
+public interface ReadTier {
+
+    /**
+     * Returns the path from which the given file should be read, which is
+     * the given path itself if no copy is available.
+     *
+     * @param path absolute path of a file under the data directory.
+     * @return the path to open read-only.
+     */
+    String getReadPath(String path);
+
+    /**
+     * Drops any copy of the given file, e.g. because it is about to be
+     * rewritten or deleted.
+     *
+     * @param path absolute path of a file under the data directory.
+     */
+    void invalidate(String path);
+
+}
@@ -0,0 +1,139 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+package ome.io.nio.utests;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import ome.io.nio.FileBlockCache;
+import ome.io.nio.FileBuffer;
+import ome.system.metrics.DefaultMetrics;
+import ome.system.metrics.NullMetrics;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.AssertJUnit.*;
+
+/**
+ * Tests reading and writing {@link FileBuffer} instances through a shared
+ * {@link FileBlockCache}.
+ */
+@Test(groups = "unit")
+public class FileBlockCacheUnitTest {
+
+    File file;
+
+    FileBlockCache cache;
+
+    byte[] data;
+
+    @BeforeMethod
+    public void setup() throws IOException {
+        file = File.createTempFile("blocks", ".bin");
+        data = new byte[5000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        FileUtils.writeByteArrayToFile(file, data);
+        cache = new FileBlockCache(new NullMetrics(), 1 << 20, 512, 2, 1);
+    }
+
+    @AfterMethod
+    public void teardown() {
+        cache.destroy();
+        file.delete();
+    }
+
+    private FileBuffer buffer(String mode) {
+        FileBuffer buffer = new FileBuffer(file.getPath(), mode);
+        buffer.setBlockCache(cache);
+        return buffer;
+    }
+
+    private byte[] read(FileBuffer buffer, long position, int length)
+            throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(length);
+        buffer.read(buf, position);
+        return buf.array();
+    }
+
+    private void assertRange(byte[] actual, int position) {
+        for (int i = 0; i < actual.length; i++) {
+            assertEquals(data[position + i], actual[i]);
+        }
+    }
+
+    public void testReadsAcrossBlocks() throws IOException {
+        FileBuffer buffer = buffer("r");
+        try {
+            assertRange(read(buffer, 0, 100), 0);
+            assertRange(read(buffer, 100, 1000), 100);
+            assertRange(read(buffer, 500, 30), 500);
+            assertRange(read(buffer, 4990, 10), 4990);
+        } finally {
+            buffer.close();
+        }
+    }
+
+    public void testEndOfFile() throws IOException {
+        FileBuffer buffer = buffer("r");
+        try {
+            ByteBuffer buf = ByteBuffer.allocate(100);
+            assertEquals(50, buffer.read(buf, 4950));
+            assertEquals(-1, buffer.read(ByteBuffer.allocate(10), 5000));
+        } finally {
+            buffer.close();
+        }
+    }
+
+    public void testWriteInvalidatesOtherReaders() throws IOException {
+        FileBuffer reader = buffer("r");
+        FileBuffer writer = buffer("rw");
+        try {
+            assertRange(read(reader, 0, 10), 0);
+            writer.write(ByteBuffer.wrap(new byte[] {42}), 5);
+            assertEquals(42, read(reader, 5, 1)[0]);
+        } finally {
+            reader.close();
+            writer.close();
+        }
+    }
+
+    public void testWriteKeepsOtherFilesCached() throws IOException {
+        DefaultMetrics metrics = new DefaultMetrics();
+        cache.destroy();
+        cache = new FileBlockCache(metrics, 1 << 20, 512, 0, 1);
+        File other = File.createTempFile("blocks", ".bin");
+        FileBuffer reader = buffer("r");
+        FileBuffer writer = new FileBuffer(other.getPath(), "rw");
+        writer.setBlockCache(cache);
+        try {
+            assertRange(read(reader, 0, 10), 0);
+            writer.write(ByteBuffer.wrap(new byte[] {42}), 5);
+            assertRange(read(reader, 0, 10), 0);
+            assertEquals(1, metrics.counter(cache, "hits").getCount());
+        } finally {
+            reader.close();
+            writer.close();
+            other.delete();
+        }
+    }
+
+    public void testDisabled() throws IOException {
+        cache.destroy();
+        cache = new FileBlockCache(new NullMetrics(), 0, 512, 2, 1);
+        FileBuffer buffer = buffer("r");
+        try {
+            assertRange(read(buffer, 1000, 2000), 1000);
+        } finally {
+            buffer.close();
+        }
+    }
+
+}
@@ -0,0 +1,107 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+package ome.io.nio.utests;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import ome.io.nio.LocalReadCache;
+import ome.system.metrics.NullMetrics;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.AssertJUnit.*;
+
+/**
+ * Tests the population, validation and invalidation of {@link LocalReadCache}.
+ */
+@Test(groups = "unit")
+public class LocalReadCacheUnitTest {
+
+    File root, cacheDir, source;
+
+    LocalReadCache cache;
+
+    @BeforeMethod
+    public void setup() throws IOException {
+        root = Files.createTempDirectory("data").toFile();
+        cacheDir = Files.createTempDirectory("cache").toFile();
+        source = new File(new File(root, "Pixels"), "1_pyramid");
+        FileUtils.writeStringToFile(source, "pyramid");
+        cache = new LocalReadCache(root.getPath(), cacheDir.getPath(),
+                1 << 20, 1, new NullMetrics());
+    }
+
+    @AfterMethod
+    public void teardown() throws IOException {
+        cache.destroy();
+        FileUtils.deleteDirectory(root);
+        FileUtils.deleteDirectory(cacheDir);
+    }
+
+    /**
+     * Reads the source until the cached copy is returned.
+     */
+    private String awaitCopy() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            String path = cache.getReadPath(source.getPath());
+            if (!path.equals(source.getPath())) {
+                return path;
+            }
+            Thread.sleep(50);
+        }
+        fail("File was never cached");
+        return null;
+    }
+
+    public void testCopiedOnFirstRead() throws Exception {
+        assertEquals(source.getPath(), cache.getReadPath(source.getPath()));
+        String copy = awaitCopy();
+        assertTrue(copy.startsWith(cacheDir.getPath()));
+        assertEquals("pyramid", FileUtils.readFileToString(new File(copy)));
+    }
+
+    public void testChangedSourceIsNotUsed() throws Exception {
+        cache.getReadPath(source.getPath());
+        String copy = awaitCopy();
+        FileUtils.writeStringToFile(source, "new pyramid");
+        assertEquals(source.getPath(), cache.getReadPath(source.getPath()));
+        assertFalse(new File(copy).exists());
+        assertEquals("new pyramid",
+                FileUtils.readFileToString(new File(awaitCopy())));
+    }
+
+    public void testInvalidateDeletesCopy() throws Exception {
+        cache.getReadPath(source.getPath());
+        String copy = awaitCopy();
+        cache.invalidate(source.getPath());
+        assertFalse(new File(copy).exists());
+    }
+
+    public void testOutsideRootIsNotCached() throws Exception {
+        File other = File.createTempFile("other", "");
+        try {
+            for (int i = 0; i < 5; i++) {
+                assertEquals(other.getPath(), cache.getReadPath(other.getPath()));
+            }
+        } finally {
+            other.delete();
+        }
+    }
+
+    public void testDisabled() throws Exception {
+        cache.destroy();
+        cache = new LocalReadCache(root.getPath(), cacheDir.getPath(),
+                0, 1, new NullMetrics());
+        cache.getReadPath(source.getPath());
+        Thread.sleep(200);
+        assertEquals(source.getPath(), cache.getReadPath(source.getPath()));
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+package ome.io.nio.utests;
+
+import static org.testng.AssertJUnit.*;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+
+import ome.io.nio.PixelsStats;
+import ome.model.stats.StatsInfo;
+import ome.util.PixelData;
+
+import org.testng.annotations.Test;
+
+/**
+ * Tests the accumulation, merging and storage of {@link PixelsStats}.
+ * @since 5.1
+ */
+public class PixelsStatsUnitTest {
+
+    private PixelData uint8(int from, int to) {
+        byte[] bytes = new byte[to - from];
+        for (int i = from; i < to; i++) {
+            bytes[i - from] = (byte) i;
+        }
+        return new PixelData("uint8", ByteBuffer.wrap(bytes));
+    }
+
+    @Test
+    public void testAccumulateAndMerge() {
+        PixelsStats.Accumulator a = new PixelsStats.Accumulator(0, 256);
+        PixelsStats.Accumulator b = new PixelsStats.Accumulator(0, 256);
+        a.add(uint8(10, 100));
+        b.add(uint8(100, 200));
+        a.merge(b);
+        PixelsStats stats = new PixelsStats(false,
+                new PixelsStats.Accumulator[] { a });
+        assertFalse(stats.isApproximate());
+        assertEquals(10.0, stats.getGlobalMin(0));
+        assertEquals(199.0, stats.getGlobalMax(0));
+        long[] histogram = stats.getHistogram(0);
+        assertEquals(0, histogram[9]);
+        assertEquals(1, histogram[10]);
+        assertEquals(1, histogram[199]);
+        assertEquals(0, histogram[200]);
+        assertEquals(105.0, stats.getPercentile(0, 0.5), 1.0);
+    }
+
+    @Test
+    public void testOutOfRangeValuesAreClamped() {
+        PixelsStats.Accumulator a = new PixelsStats.Accumulator(100, 110);
+        a.add(uint8(0, 256));
+        PixelsStats stats = new PixelsStats(true,
+                new PixelsStats.Accumulator[] { a });
+        assertEquals(0.0, stats.getGlobalMin(0));
+        assertEquals(255.0, stats.getGlobalMax(0));
+        long[] histogram = stats.getHistogram(0);
+        assertEquals(101, histogram[0]);
+        assertEquals(146, histogram[PixelsStats.BINS - 1]);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testMergeDifferentRanges() {
+        new PixelsStats.Accumulator(0, 1).merge(
+                new PixelsStats.Accumulator(0, 2));
+    }
+
+    @Test
+    public void testWriteAndRead() throws Exception {
+        PixelsStats.Accumulator a = new PixelsStats.Accumulator(0, 256);
+        a.add(uint8(5, 50));
+        PixelsStats.Accumulator empty = new PixelsStats.Accumulator(0, 0);
+        PixelsStats stats = new PixelsStats(true,
+                new PixelsStats.Accumulator[] { a, empty });
+
+        File file = File.createTempFile("stats", ".bin");
+        try {
+            stats.write(file);
+            PixelsStats read = PixelsStats.read(file);
+            assertTrue(read.isApproximate());
+            assertEquals(2, read.getSizeC());
+            assertEquals(5.0, read.getGlobalMin(0));
+            assertEquals(49.0, read.getGlobalMax(0));
+            assertEquals(0.0, read.getGlobalMax(1));
+            for (int i = 0; i < PixelsStats.BINS; i++) {
+                assertEquals(stats.getHistogram(0)[i], read.getHistogram(0)[i]);
+            }
+            StatsInfo[] statsInfo = read.toStatsInfo();
+            assertEquals(5.0, statsInfo[0].getGlobalMin());
+            assertEquals(49.0, statsInfo[0].getGlobalMax());
+        } finally {
+            file.delete();
+        }
+    }
+
+}
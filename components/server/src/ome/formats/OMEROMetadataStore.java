@@ -50,6 +50,7 @@ import ome.model.experiment.Experiment;
 import ome.model.experiment.MicrobeamManipulation;
 import ome.model.fs.Fileset;
 import ome.model.fs.FilesetJobLink;
+import ome.model.internal.Details;
 import ome.model.roi.Roi;
 import ome.model.roi.Shape;
 import ome.model.screen.Plate;
@@ -59,11 +60,14 @@ import ome.model.screen.Well;
 import ome.model.screen.WellSample;
 import ome.model.screen.PlateAcquisition;
 import ome.model.stats.StatsInfo;
+import ome.model.units.Length;
+import ome.model.units.Time;
 import ome.system.ServiceFactory;
 import ome.conditions.ApiUsageException;
 import ome.conditions.ValidationException;
 import ome.util.LSID;
 import ome.util.SqlAction;
+import ome.util.Utils;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -2182,6 +2186,7 @@ public class OMEROMetadataStore
     	StopWatch s1 = new Slf4JStopWatch("omero.saveImportGraph");
     	Image[] imageArray = 
     		imageList.values().toArray(new Image[imageList.size()]);
+    	List<List<PlaneInfo>> planeInfos = detachPlaneInfos(imageArray);
     	IObject[] saved = sf.getUpdateService().saveAndReturnArray(imageArray);
     	s1.stop();
     	
@@ -2195,10 +2200,139 @@ public class OMEROMetadataStore
     		pixelsList.put(i, pixels);
     		toReturn.add(pixels);
     	}
-    	//s2.stop();
+    	StopWatch s2 = new Slf4JStopWatch("omero.saveImportGraph.planeInfo");
+    	insertPlaneInfos(toReturn, planeInfos);
+    	s2.stop();
    		return toReturn;
     }
 
+    /**
+     * Removes the {@link PlaneInfo} objects from the primary {@link Pixels} of
+     * each image so that they are not cascaded through Hibernate, which for
+     * large time series dominates both the save and the reload of the graph.
+     * Planes with annotation links are left in place since the links must be
+     * saved with them.
+     * @param images the images about to be saved.
+     * @return the detached planes of each image, in the same order.
+     */
+    private List<List<PlaneInfo>> detachPlaneInfos(Image[] images)
+    {
+        List<List<PlaneInfo>> detached =
+            new ArrayList<List<PlaneInfo>>(images.length);
+        for (Image image : images)
+        {
+            List<PlaneInfo> planes = new ArrayList<PlaneInfo>();
+            Pixels pixels = image.getPrimaryPixels();
+            if (pixels != null && pixels.sizeOfPlaneInfo() > 0)
+            {
+                List<PlaneInfo> annotated = new ArrayList<PlaneInfo>();
+                Iterator<PlaneInfo> it = pixels.iteratePlaneInfo();
+                while (it.hasNext())
+                {
+                    PlaneInfo planeInfo = it.next();
+                    if (planeInfo.sizeOfAnnotationLinks() > 0)
+                    {
+                        annotated.add(planeInfo);
+                    }
+                    else
+                    {
+                        planes.add(planeInfo);
+                    }
+                }
+                if (!planes.isEmpty())
+                {
+                    pixels.clearPlaneInfo();
+                    for (PlaneInfo planeInfo : annotated)
+                    {
+                        pixels.addPlaneInfo(planeInfo);
+                    }
+                }
+            }
+            detached.add(planes);
+        }
+        return detached;
+    }
+
+    /**
+     * Writes the planes removed by {@link #detachPlaneInfos(Image[])} with
+     * JDBC batch inserts, using the permissions and update details of the
+     * saved {@link Pixels} and allocating all ids with a single sequence
+     * call. An <code>INSERT</code> event log is written for each plane as
+     * Hibernate would have done.
+     * @param savedPixels the saved primary pixels of each image.
+     * @param planeInfos the detached planes of each image.
+     */
+    private void insertPlaneInfos(List<Pixels> savedPixels,
+            List<List<PlaneInfo>> planeInfos)
+    {
+        int total = 0;
+        for (List<PlaneInfo> planes : planeInfos)
+        {
+            total += planes.size();
+        }
+        if (total == 0)
+        {
+            return;
+        }
+
+        long planeInfoId =
+            sql.nextValue("seq_planeinfo", total) - total + 1;
+        List<Object[]> rows = new ArrayList<Object[]>(total);
+        List<Object[]> logs = new ArrayList<Object[]>(total);
+        for (int i = 0; i < planeInfos.size(); i++)
+        {
+            List<PlaneInfo> planes = planeInfos.get(i);
+            if (planes.isEmpty())
+            {
+                continue;
+            }
+            Pixels pixels = savedPixels.get(i);
+            Details details = pixels.getDetails();
+            Object perms = Utils.internalForm(details.getPermissions());
+            Long eventId = details.getCreationEvent().getId();
+            Long groupId = details.getGroup().getId();
+            Long ownerId = details.getOwner().getId();
+            Long updateId = details.getUpdateEvent().getId();
+            for (PlaneInfo planeInfo : planes)
+            {
+                Time deltaT = planeInfo.getDeltaT();
+                Time exposureTime = planeInfo.getExposureTime();
+                Length positionX = planeInfo.getPositionX();
+                Length positionY = planeInfo.getPositionY();
+                Length positionZ = planeInfo.getPositionZ();
+                rows.add(new Object[] {
+                    planeInfoId, perms, pixels.getId(),
+                    planeInfo.getTheZ(), planeInfo.getTheC(),
+                    planeInfo.getTheT(),
+                    deltaT == null ? null : deltaT.getValue(),
+                    deltaT == null ? null : deltaT.getUnit().getSymbol(),
+                    exposureTime == null ? null : exposureTime.getValue(),
+                    exposureTime == null ? null :
+                        exposureTime.getUnit().getSymbol(),
+                    positionX == null ? null : positionX.getValue(),
+                    positionX == null ? null : positionX.getUnit().getSymbol(),
+                    positionY == null ? null : positionY.getValue(),
+                    positionY == null ? null : positionY.getUnit().getSymbol(),
+                    positionZ == null ? null : positionZ.getValue(),
+                    positionZ == null ? null : positionZ.getUnit().getSymbol(),
+                    eventId, groupId, ownerId, updateId });
+                logs.add(new Object[] { planeInfoId, eventId });
+                planeInfoId++;
+            }
+        }
+        sql.insertPlaneInfos(rows);
+
+        long logId = sql.nextValue("seq_eventlog", total) - total + 1;
+        List<Object[]> logRows = new ArrayList<Object[]>(total);
+        for (Object[] entry : logs)
+        {
+            logRows.add(new Object[] { logId++, -35L, entry[0],
+                    PlaneInfo.class.getName(), "INSERT", entry[1] });
+        }
+        sql.insertLogs(logRows);
+        log.debug("Inserted {} planes with JDBC", total);
+    }
+
     /**
      * Checks if the format is a graphics format or not.
      *
@@ -25,7 +25,10 @@ import ome.model.enums.DimensionOrder;
 import ome.model.enums.PixelsType;
 import ome.model.stats.StatsInfo;
 import ome.parameters.Parameters;
+import ome.security.ACLVoter;
+import ome.services.util.PixelsDescriptionCache;
 import ome.system.EventContext;
+import ome.tools.hibernate.SessionFactory;
 import ome.util.PixelData;
 
 /**
@@ -51,6 +54,35 @@ public class PixelsImpl extends AbstractLevel2Service implements IPixels {
 		return IPixels.class;
 	}
 
+	/** Shared cache of {@link #retrievePixDescription(long)} results. */
+	private PixelsDescriptionCache descriptionCache;
+
+	/** Checks that a cached Pixels is readable by the current user. */
+	private ACLVoter aclVoter;
+
+	/** Source of the session passed to the {@link #aclVoter}. */
+	private SessionFactory sessionFactory;
+
+	/**
+	 * Sets the cache used by {@link #retrievePixDescription(long)}.
+	 * May be null to disable caching.
+	 */
+	public void setDescriptionCache(PixelsDescriptionCache descriptionCache) {
+		this.descriptionCache = descriptionCache;
+	}
+
+	/**
+	 * Sets the voter which decides whether a cached Pixels may be returned.
+	 * Without it, the cache is not used.
+	 */
+	public void setAclVoter(ACLVoter aclVoter) {
+		this.aclVoter = aclVoter;
+	}
+
+	public void setSessionFactory(SessionFactory sessionFactory) {
+		this.sessionFactory = sessionFactory;
+	}
+
 	/** Standard rendering definition HQL query prefix */
 	public static final String RENDERING_DEF_QUERY_PREFIX =
 		"select rdef from RenderingDef as rdef " + 
@@ -64,9 +96,40 @@ public class PixelsImpl extends AbstractLevel2Service implements IPixels {
 	// ~ Service methods
 	// =========================================================================
 
+	/**
+	 * Returns a copy of the cached graph if there is one, which is detached
+	 * from the Hibernate session. The ACL checks which the security filters
+	 * would apply to the query are applied to the details of the copy
+	 * instead, so a hit runs no query at all. Within a share, the database
+	 * is always queried. The methods of this class which modify the graph
+	 * load it directly.
+	 */
 	@RolesAllowed("user")
 	public Pixels retrievePixDescription(long pixId) {
-		Pixels p = iQuery.findByQuery("select p from Pixels as p "
+		if (descriptionCache != null && aclVoter != null
+				&& sessionFactory != null
+				&& sec.getEventContext().getCurrentShareId() == null) {
+			Pixels cached = descriptionCache.get(pixId);
+			if (cached != null) {
+				// The cache is shared; filtered out just like by the query.
+				return aclVoter.allowLoad(sessionFactory.getSession(),
+						Pixels.class, cached.getDetails(), pixId)
+						? cached : null;
+			}
+		}
+		Pixels p = loadPixDescription(pixId);
+		if (descriptionCache != null) {
+			descriptionCache.put(p);
+		}
+		return p;
+	}
+
+	/**
+	 * Loads the session-attached graph returned by
+	 * {@link #retrievePixDescription(long)}.
+	 */
+	private Pixels loadPixDescription(long pixId) {
+		return iQuery.findByQuery("select p from Pixels as p "
 				+ "left outer join fetch p.pixelsType as pt "
 				+ "left outer join fetch p.channels as c "
 				+ "left outer join fetch c.logicalChannel as lc "
@@ -77,7 +140,6 @@ public class PixelsImpl extends AbstractLevel2Service implements IPixels {
 				+ "left outer join fetch lc.contrastMethod "
 				+ "where p.id = :id",
 				new Parameters().addId(pixId));
-		return p;
 	}
 
     @Override
@@ -140,7 +202,7 @@ public class PixelsImpl extends AbstractLevel2Service implements IPixels {
 			Integer sizeY, Integer sizeZ, Integer sizeT, 
 			List<Integer> channelList, String methodology, boolean copyStats)
 	{
-		Pixels from = retrievePixDescription(pixelsId);
+		Pixels from = loadPixDescription(pixelsId);
 		Pixels to = new Pixels();
 
 		// Ensure we have no values out of bounds
@@ -193,7 +255,7 @@ public class PixelsImpl extends AbstractLevel2Service implements IPixels {
 			Integer sizeZ, Integer sizeT, List<Integer> channelList,
 			String methodology, boolean copyStats)
 	{
-		Pixels from = retrievePixDescription(pixelsId);
+		Pixels from = loadPixDescription(pixelsId);
 		Pixels to =
 			_copyAndResizePixels(pixelsId, sizeX, sizeY, sizeZ, sizeT,
 					channelList, methodology, copyStats);
@@ -283,7 +345,7 @@ public class PixelsImpl extends AbstractLevel2Service implements IPixels {
 	public void setChannelGlobalMinMax(long pixelsId, int channelIndex,
 			double min, double max)
 	{
-		Pixels pixels = retrievePixDescription(pixelsId);
+		Pixels pixels = loadPixDescription(pixelsId);
 		Channel channel = pixels.getChannel(channelIndex);
 		StatsInfo stats = channel.getStatsInfo();
                 if (stats == null) {
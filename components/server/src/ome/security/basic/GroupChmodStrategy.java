@@ -22,12 +22,22 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.hibernate.FlushMode;
 import org.hibernate.Session;
+import org.hibernate.Transaction;
 import org.springframework.beans.BeansException;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
@@ -50,10 +60,25 @@ import ome.tools.hibernate.SessionFactory;
 import ome.util.SqlAction;
 import ome.util.Utils;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 /**
  * {@link ChmodStrategy} which only permits modifying
  * the permissions on groups.
  *
+ * When group read is removed, every link table is scanned for links between
+ * objects of different owners in the group. Each table is scanned in ranges
+ * of {@link #setBatchSize(int) batchSize} ids, stopping at the first such
+ * link. If {@link #setThreads(int) threads} and a
+ * {@link #setSessionFactory(org.hibernate.SessionFactory) session factory}
+ * are set, the checks returned by one call to
+ * {@link #getChecks(IObject, String)} run in parallel on a bounded pool,
+ * each in its own read-only session, and all stop once one has found a link.
+ * Those sessions cannot see rows which the caller's transaction has yet to
+ * commit, so parallel checks miss any link created earlier in the same
+ * transaction. By default no threads are set and all checks run in the
+ * caller's session.
+ *
  * @author Josh Moore, josh at glencoesoftware.com
  * @since 4.4
  */
@@ -112,23 +137,33 @@ public class GroupChmodStrategy implements ChmodStrategy,
      * back in, these are responsible for checking what DB state may possible
      * disallow a chmod to be performed.
      */
-    private static class Check {
+    private static class Check implements Callable<Map<String, Long>> {
         final long groupID;
         final String perms;
         final Class<?> k;
         final String[][] lockChecks;
         final PermDrop drop;
+        final CheckSet set;
+        final int batchSize;
+        final org.hibernate.SessionFactory factory;
+
+        /** Set once the check has been submitted to the pool. */
+        Future<Map<String, Long>> future;
 
         Check(long groupID, String perms, Class<?> k, String[][] lockChecks,
-                PermDrop drop) {
+                PermDrop drop, CheckSet set, int batchSize,
+                org.hibernate.SessionFactory factory) {
             this.groupID = groupID;
             this.perms = perms;
             this.k = k;
             this.lockChecks = lockChecks;
             this.drop = drop;
+            this.set = set;
+            this.batchSize = batchSize;
+            this.factory = factory;
         }
 
-        public Map<String, Long> run(Session session, ExtendedMetadata em) {
+        String clause() {
             StringBuilder sb = new StringBuilder();
             sb.append("x.details.group.id = ");
             sb.append(groupID);
@@ -139,11 +174,88 @@ public class GroupChmodStrategy implements ChmodStrategy,
             if (drop.reduceGroup) {
                 sb.append(" and x.details.owner.id <> y.details.owner.id");
             }
+            return sb.toString();
+        }
+
+        /**
+         * Runs the check in a new session of its own. Since no filters are
+         * enabled on such a session, all groups are visible, but changes not
+         * yet committed by the caller's transaction are not.
+         */
+        public Map<String, Long> call() {
+            final Session session = factory.openSession();
+            try {
+                session.setFlushMode(FlushMode.MANUAL);
+                final Transaction tx = session.beginTransaction();
+                try {
+                    return run(session);
+                } finally {
+                    tx.rollback();
+                }
+            } finally {
+                session.close();
+            }
+        }
 
-            return em.countLocks(session, null, lockChecks, sb.toString());
+        /**
+         * Scans each of the lock checks in id ranges of {@link #batchSize},
+         * returning the id of the first offending link found per class or
+         * an empty map. Stops as soon as a link is found by this or any other
+         * check of the same {@link CheckSet}.
+         */
+        public Map<String, Long> run(Session session) {
+            final Map<String, Long> found = new LinkedHashMap<String, Long>();
+            final String clause = clause();
+            long batches = 0;
+            for (final String[] check : lockChecks) {
+                final Object[] range = (Object[]) session.createQuery(
+                        String.format("select min(x.id), max(x.id) from %s x",
+                                check[0])).uniqueResult();
+                if (range == null || range[0] == null) {
+                    continue; // Empty table
+                }
+                final long min = (Long) range[0];
+                final long max = (Long) range[1];
+                final org.hibernate.Query q = session.createQuery(String.format(
+                        "select x.id from %s x join x.%s y "
+                        + "where x.id between :lo and :hi and %s",
+                        check[0], check[1], clause));
+                q.setMaxResults(1);
+                for (long lo = min; lo <= max; lo += batchSize) {
+                    if (set.stopped.get()) {
+                        return found;
+                    }
+                    q.setLong("lo", lo);
+                    q.setLong("hi", Math.min(max, lo + batchSize - 1));
+                    batches++;
+                    final Long id = (Long) q.uniqueResult();
+                    if (id != null) {
+                        found.put(check[0], id);
+                        set.stopped.set(true);
+                        return found;
+                    }
+                    if (lo > max - batchSize) {
+                        break; // Avoid overflow
+                    }
+                }
+            }
+            log.debug("Checked {} for group {} in {} batch(es)",
+                    k.getName(), groupID, batches);
+            return found;
         }
     }
 
+    /**
+     * The checks returned by one call to
+     * {@link GroupChmodStrategy#getChecks(IObject, String)}, which are all
+     * submitted to the pool when the first of them is checked.
+     */
+    private static class CheckSet {
+        final List<Check> checks = new ArrayList<Check>();
+        final AtomicBoolean stopped = new AtomicBoolean();
+        boolean submitted = false;
+    }
+
     private final static Logger log = LoggerFactory.getLogger(GroupChmodStrategy.class);
 
     private final BasicACLVoter voter;
@@ -156,6 +268,15 @@ public class GroupChmodStrategy implements ChmodStrategy,
 
     private/* final */OmeroContext ctx;
 
+    private/* final */org.hibernate.SessionFactory factory;
+
+    private int threads = 0;
+
+    private int batchSize = 100000;
+
+    /** Null unless checks are run in parallel. */
+    private volatile ExecutorService pool;
+
     public GroupChmodStrategy(BasicACLVoter voter, SessionFactory osf,
             SqlAction sql, ExtendedMetadata em) {
         this.voter = voter;
@@ -169,6 +290,56 @@ public class GroupChmodStrategy implements ChmodStrategy,
         this.ctx = (OmeroContext) ctx;
     }
 
+    /**
+     * Sets the factory used to open a session for each check run in
+     * parallel. If null, all checks run one after the other in the session
+     * of the caller.
+     */
+    public void setSessionFactory(org.hibernate.SessionFactory factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Sets the number of checks which may run in parallel, each holding a
+     * database connection. 0 or less, the default, runs them in the session
+     * of the caller, which is the only way for the checks to see links
+     * created earlier in the caller's transaction. Takes effect on
+     * {@link #start()}.
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Sets the number of ids of a link table scanned by a single query.
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new ApiUsageException("batchSize must be positive");
+        }
+        this.batchSize = batchSize;
+    }
+
+    public synchronized void start() {
+        stop();
+        if (threads < 1 || factory == null) {
+            return;
+        }
+        pool = Executors.newFixedThreadPool(threads,
+                new ThreadFactoryBuilder()
+                        .setNameFormat("chmod-check-%d")
+                        .setDaemon(true)
+                        .build());
+    }
+
+    public synchronized void stop() {
+        final ExecutorService old = pool;
+        if (old != null) {
+            pool = null;
+            old.shutdownNow();
+        }
+    }
+
     @SuppressWarnings({ "unchecked", "rawtypes" })
     public Object[] getChecks(IObject obj, String permissions) {
 
@@ -182,7 +353,7 @@ public class GroupChmodStrategy implements ChmodStrategy,
             return new Object[0]; // none needed.
         }
 
-        List<Object> checks = new ArrayList<Object>();
+        CheckSet set = new CheckSet();
         Collection<String> classeNames = em.getClasses();
         for (String className : classeNames) {
             Class k = em.getHibernateClass(className);
@@ -190,11 +361,11 @@ public class GroupChmodStrategy implements ChmodStrategy,
                 continue; // Skip experimenters, etc.
             }
             String[][] lockChecks = em.getLockChecks(k);
-            checks.add(new Check(trusted.getId(), permissions, k, lockChecks,
-                    drop));
+            set.checks.add(new Check(trusted.getId(), permissions, k,
+                    lockChecks, drop, set, batchSize, factory));
         }
 
-        return checks.toArray(new Object[checks.size()]);
+        return set.checks.toArray(new Object[set.checks.size()]);
 
     }
 
@@ -213,26 +384,36 @@ public class GroupChmodStrategy implements ChmodStrategy,
             throw new InternalException("Bad check:" + check);
         }
         Check c = ((Check) check);
-        Map<String, Long> counts = performRun(c);
+        Map<String, Long> found;
+        try {
+            found = performRun(c);
+        } catch (RuntimeException rt) {
+            c.set.stopped.set(true);
+            throw rt;
+        }
 
-        long total = counts.get("*");
-        if (total > 0) {
+        if (!found.isEmpty()) {
             throw new SecurityViolation(String.format(
                     "Cannot change permissions on %s to %s due to locks:\n%s",
-                    obj, c.perms, counts));
+                    obj, c.perms, found));
         }
     }
 
     private Map<String, Long> performRun(Check c) {
+        final Future<Map<String, Long>> future = submit(c);
+        if (future != null) {
+            return await(c, future);
+        }
+
         // Perform the operation across all groups.
-        Map<String, Long> counts = null;
+        Map<String, Long> found = null;
         Map<String, String> grpCtx = new HashMap<String, String>();
         grpCtx.put("omero.group", "-1");
 
         try {
             ctx.publishMessage(new ContextMessage.Push(this, grpCtx));
             try {
-                counts = c.run(osf.getSession(), em);
+                found = c.run(osf.getSession());
             } finally {
                 ctx.publishMessage(new ContextMessage.Pop(this, grpCtx));
             }
@@ -241,7 +422,43 @@ public class GroupChmodStrategy implements ChmodStrategy,
             throw new InternalException("Could not perform check! See server logs");
         }
 
-        return counts;
+        return found;
+    }
+
+    /**
+     * On the first call for a {@link CheckSet}, submits all of its checks to
+     * the pool. Returns the future of the given check, or null if it must
+     * be run in the current session.
+     */
+    private Future<Map<String, Long>> submit(Check c) {
+        final ExecutorService current = pool;
+        synchronized (c.set) {
+            if (!c.set.submitted && current != null && c.factory != null) {
+                c.set.submitted = true;
+                log.info("Checking {} classes for group {} with {} thread(s)",
+                        c.set.checks.size(), c.groupID, threads);
+                try {
+                    for (Check other : c.set.checks) {
+                        other.future = current.submit(other);
+                    }
+                } catch (RejectedExecutionException ree) {
+                    // Shutting down. The rest run in the current session.
+                }
+            }
+            return c.future;
+        }
+    }
+
+    private Map<String, Long> await(Check c, Future<Map<String, Long>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new InternalException("Interrupted while checking " + c.k);
+        } catch (ExecutionException ee) {
+            log.error("Could not perform check!", ee.getCause());
+            throw new InternalException("Could not perform check! See server logs");
+        }
     }
 
     // Helpers
@@ -374,7 +374,7 @@ public class RawFileBean extends AbstractStatefulBean implements RawFileStore {
 
                 this.buffer = ioService.getFileBuffer(file, mode);
             } else {
-                this.buffer = buffer;
+                this.buffer = ioService.withBlockCache(buffer);
             }
         }
     }
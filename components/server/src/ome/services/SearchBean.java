@@ -66,6 +66,8 @@ public class SearchBean extends AbstractStatefulBean implements Search {
 
     private/* final */transient Integer maxClauseCount;
 
+    private/* final */transient boolean securityFilter = false;
+
     public SearchBean(Executor executor, Class<? extends Analyzer> analyzer) {
         this.executor = executor;
         this.analyzer = analyzer;
@@ -105,6 +107,14 @@ public class SearchBean extends AbstractStatefulBean implements Search {
         this.maxClauseCount = maxClauseCount;
     }
 
+    /**
+     * Injector used by Spring. Whether {@link FullText} searches should
+     * apply the group and owner restrictions within Lucene.
+     */
+    public void setSecurityFilter(boolean securityFilter) {
+        this.securityFilter = securityFilter;
+    }
+
     // Lifecycle methods
     // ===================================================
 
@@ -269,8 +279,19 @@ public class SearchBean extends AbstractStatefulBean implements Search {
             return false;
         }
         SearchAction action = actions.popFirst();
+        FullText fullText = null;
+        if (action instanceof FullText) {
+            // Only top-level full text searches are paged, since
+            // the combining actions need all of their results.
+            fullText = (FullText) action;
+            fullText.setPageSize(values.batchSize);
+            fullText.setSecurityFilter(securityFilter);
+        }
         List<IObject> list = (List<IObject>) executor.execute(null, action);
         results.add(list);
+        if (fullText != null && fullText.hasMore()) {
+            actions.pushFirst(fullText);
+        }
         return hasNext(); // recursive call
     }
 
@@ -748,6 +769,10 @@ public class SearchBean extends AbstractStatefulBean implements Search {
             actions.clear();
         }
 
+        synchronized void pushFirst(SearchAction a) {
+            actions.add(0, a);
+        }
+
         synchronized SearchAction popFirst() {
             assertNonZero();
             return actions.remove(0);
@@ -19,8 +19,10 @@ package ome.services.delete;
 
 import ome.io.nio.AbstractFileSystemService;
 import ome.services.delete.files.FileDeleter;
+import ome.services.delete.files.FileReclaimer;
 import ome.system.OmeroContext;
 import ome.tools.hibernate.ExtendedMetadata;
+import ome.util.SqlAction;
 
 import org.perf4j.StopWatch;
 import org.perf4j.slf4j.Slf4JStopWatch;
@@ -63,9 +65,17 @@ public class Deletion {
 
         protected ExtendedMetadata em;
 
+        protected FileReclaimer reclaimer;
+
         public Builder(AbstractFileSystemService afs, ExtendedMetadata em) {
+            this(afs, em, null);
+        }
+
+        public Builder(AbstractFileSystemService afs, ExtendedMetadata em,
+                FileReclaimer reclaimer) {
             this.afs = afs;
             this.em = em;
+            this.reclaimer = reclaimer;
         }
 
         @Override
@@ -77,7 +87,7 @@ public class Deletion {
         @Override
         protected Deletion createInstance()
             throws Exception {
-            return new Deletion(afs, ctx);
+            return new Deletion(afs, ctx, reclaimer);
         }
 
         @Override
@@ -97,11 +107,44 @@ public class Deletion {
 
     private final AbstractFileSystemService afs;
 
+    private final FileReclaimer reclaimer;
+
     public Deletion(AbstractFileSystemService afs, OmeroContext ctx) {
+        this(afs, ctx, null);
+    }
+
+    /**
+     * @param reclaimer if enabled, files are only queued for removal in
+     *          the background by {@link #queueFiles(SqlAction, SetMultimap)}.
+     */
+    public Deletion(AbstractFileSystemService afs, OmeroContext ctx,
+            FileReclaimer reclaimer) {
 
         this.afs = afs;
         this.ctx = ctx;
+        this.reclaimer = reclaimer;
+
+    }
 
+    /**
+     * If a {@link FileReclaimer} is enabled, records the given deleted
+     * objects so that their files are removed in the background. Must be
+     * called within the transaction which deletes the objects, which then
+     * need not be passed to {@link #deleteFiles(SetMultimap)}. Files which
+     * then fail to be removed are reported by
+     * {@link FileReclaimer#getLeftovers()} rather than to the caller.
+     *
+     * @param sql the SQL access of the deleting transaction.
+     * @param deleteTargets ids of deleted objects by their simple class name.
+     * @return if the objects were queued.
+     */
+    public boolean queueFiles(SqlAction sql,
+            SetMultimap<String, Long> deleteTargets) {
+        if (reclaimer == null || !reclaimer.isEnabled()) {
+            return false;
+        }
+        reclaimer.queue(sql, deleteTargets);
+        return true;
     }
 
     /**
@@ -92,6 +92,22 @@ public abstract class AbstractFileDeletions {
         return failedFiles.size();
     }
 
+    /**
+     * As {@link #deleteLocal()} but removes the files through the given
+     * {@link FileReclaimer}, which works on several files at once.
+     *
+     * @param reclaimer if null, {@link #deleteLocal()} is called instead.
+     */
+    public int deleteLocal(FileReclaimer reclaimer) {
+        if (reclaimer == null) {
+            return deleteLocal();
+        }
+        for (File file : reclaimer.remove(localFiles.keySet())) {
+            fail(file, localFiles.get(file), file.length());
+        }
+        return failedFiles.size();
+    }
+
     public long getBytesFailed() {
         return bytesFailed;
     }
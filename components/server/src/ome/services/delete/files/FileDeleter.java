@@ -59,6 +59,9 @@ public class FileDeleter {
 
     private PixelsFileDeletions pixelsFD;
 
+    /** Removes the files in parallel if not null. */
+    private final FileReclaimer reclaimer;
+
     private HashMap<String, long[]> undeletedFiles;
 
     private int filesFailed = 0;
@@ -66,22 +69,32 @@ public class FileDeleter {
     private long bytesFailed = 0;
 
 	public FileDeleter(OmeroContext ctx, AbstractFileSystemService afs, SetMultimap<String, Long> deleteTargets) {
+        this(ctx, afs, deleteTargets, null);
+    }
+
+    /**
+     * @param reclaimer if not null, used to remove the local files in
+     *          parallel rather than one after the other.
+     */
+    public FileDeleter(OmeroContext ctx, AbstractFileSystemService afs,
+            SetMultimap<String, Long> deleteTargets, FileReclaimer reclaimer) {
         this.ctx = ctx;
         this.afs = afs;
         this.deleteTargets = deleteTargets;
+        this.reclaimer = reclaimer;
     }
 
     public void run() {
         originalFD = new OriginalFileDeletions(afs, load(Type.OriginalFile), ctx);
-        filesFailed += originalFD.deleteLocal();
+        filesFailed += originalFD.deleteLocal(reclaimer);
         bytesFailed += originalFD.getBytesFailed();
 
         thumbFD = new ThumbnailFileDeletions(afs, load(Type.Thumbnail));
-        filesFailed += thumbFD.deleteLocal();
+        filesFailed += thumbFD.deleteLocal(reclaimer);
         bytesFailed += thumbFD.getBytesFailed();
 
         pixelsFD = new PixelsFileDeletions(afs, load(Type.Pixels));
-        filesFailed += pixelsFD.deleteLocal();
+        filesFailed += pixelsFD.deleteLocal(reclaimer);
         bytesFailed += pixelsFD.getBytesFailed();
 
         undeletedFiles = new HashMap<String, long[]>();
@@ -0,0 +1,373 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+
+package ome.services.delete.files;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import ome.io.nio.AbstractFileSystemService;
+import ome.services.util.Executor;
+import ome.system.OmeroContext;
+import ome.system.metrics.Counter;
+import ome.system.metrics.Histogram;
+import ome.system.metrics.Metrics;
+import ome.system.metrics.Timer;
+import ome.util.SqlAction;
+import ome.util.SqlAction.FileReclaim;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.SetMultimap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Removes the files of deleted objects from disk in the background.
+ * Instead of unlinking every file before a delete request can report
+ * success, {@link ome.services.delete.Deletion} only records the deleted
+ * {@link FileDeleter.Type} objects in the {@code _file_reclaim} table via
+ * {@link #queue(SqlAction, SetMultimap)}, within the transaction which
+ * deletes them, as for {@code _fs_deletelog}. Each {@link #run()}, triggered by cron, then
+ * loads batches of queued objects, finds their files as {@link FileDeleter}
+ * does and removes them in parallel. Files are grouped by the
+ * {@link java.nio.file.FileStore} which holds them so that no more than
+ * {@link #perVolume} removals hit the same volume at once.
+ *
+ * Objects whose files could not all be removed stay queued and are retried
+ * on later runs until they have failed {@link #maxAttempts} times, after
+ * which they are reported by {@link #getLeftovers()} for an administrator
+ * to clean up.
+ *
+ * @since 5.1
+ */
+public class FileReclaimer implements ApplicationContextAware {
+
+    private final static Logger log = LoggerFactory.getLogger(FileReclaimer.class);
+
+    private final Executor executor;
+
+    private final AbstractFileSystemService afs;
+
+    /** Maximum number of files removed concurrently from one volume. */
+    private final int perVolume;
+
+    /** Number of queued objects handled per batch. */
+    private final int batchSize;
+
+    /** Number of failed runs after which an object is no longer retried. */
+    private final int maxAttempts;
+
+    /** Null if background reclamation is disabled. */
+    private final ExecutorService pool;
+
+    private final Timer batchTimer;
+
+    /** Number of objects queued per delete. */
+    private final Histogram queued;
+
+    private final Counter reclaimedCount, failureCount;
+
+    private OmeroContext ctx;
+
+    /**
+     * @param threads total number of threads removing files. 0 or less
+     *          disables background reclamation so that files are removed
+     *          during the delete request as before.
+     * @param perVolume maximum number of those threads working on the same
+     *          volume.
+     * @param batchSize number of queued objects handled at a time.
+     * @param maxAttempts number of failed attempts after which an object
+     *          is left in the queue for an administrator.
+     */
+    public FileReclaimer(Executor executor, AbstractFileSystemService afs,
+            Metrics metrics, int threads, int perVolume, int batchSize,
+            int maxAttempts) {
+        this.executor = executor;
+        this.afs = afs;
+        this.perVolume = Math.max(1, perVolume);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.batchTimer = metrics.timer(this, "batch");
+        this.queued = metrics.histogram(this, "queued");
+        this.reclaimedCount = metrics.counter(this, "reclaimedCount");
+        this.failureCount = metrics.counter(this, "failureCount");
+        if (threads > 0) {
+            this.pool = Executors.newFixedThreadPool(threads,
+                    new ThreadFactoryBuilder()
+                            .setNameFormat("file-reclaimer-%d")
+                            .setDaemon(true)
+                            .build());
+            log.info(String.format("Initializing FileReclaimer " +
+                    "(threads=%s, per volume=%s, batch=%s)", threads,
+                    this.perVolume, this.batchSize));
+        } else {
+            this.pool = null;
+            log.info("FileReclaimer disabled");
+        }
+    }
+
+    @Override
+    public void setApplicationContext(ApplicationContext ctx)
+        throws BeansException {
+        this.ctx = (OmeroContext) ctx;
+    }
+
+    /**
+     * Stops removing files. Called by Spring on context close.
+     */
+    public void destroy() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns false if files should be removed synchronously instead of
+     * being passed to {@link #queue(SqlAction, SetMultimap)}.
+     */
+    public boolean isEnabled() {
+        return pool != null;
+    }
+
+    /**
+     * Records the given deleted objects so that their files are removed by
+     * a later {@link #run()}. Must be called within the transaction which
+     * deletes the objects so that the record commits or rolls back along
+     * with the deletion.
+     *
+     * @param sql the SQL access of the deleting transaction.
+     * @param deleteTargets ids of deleted objects by their simple class name
+     *          as used by {@link FileDeleter}.
+     */
+    public void queue(SqlAction sql, SetMultimap<String, Long> deleteTargets) {
+        int count = 0;
+        for (FileDeleter.Type type : FileDeleter.Type.values()) {
+            final Set<Long> ids = deleteTargets.get(type.toString());
+            if (!ids.isEmpty()) {
+                count += sql.queueFileReclaims(type.toString(), ids);
+            }
+        }
+        queued.update(count);
+    }
+
+    /**
+     * Returns the queued objects which have failed {@link #maxAttempts}
+     * times along with the last error. Their files have to be removed by
+     * hand before the entries are removed from {@code _file_reclaim}.
+     */
+    @SuppressWarnings("unchecked")
+    public List<FileReclaim> getLeftovers() {
+        return (List<FileReclaim>) executor.executeSql(
+                new Executor.SimpleSqlWork(this, "getLeftovers") {
+            @Transactional(readOnly = true)
+            public Object doWork(SqlAction sql) {
+                return sql.failedFileReclaims(maxAttempts);
+            }
+        });
+    }
+
+    /**
+     * Handles queued objects batch by batch until the queue is empty or a
+     * batch has failures, which are then retried on the next run.
+     */
+    public void run() {
+        if (pool == null) {
+            return;
+        }
+        boolean more = true;
+        while (more) {
+            final List<FileReclaim> batch = next();
+            if (batch.isEmpty()) {
+                return;
+            }
+            final Timer.Context timer = batchTimer.time();
+            try {
+                more = reclaim(batch) && batch.size() == batchSize;
+            } finally {
+                timer.stop();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<FileReclaim> next() {
+        return (List<FileReclaim>) executor.executeSql(
+                new Executor.SimpleSqlWork(this, "next") {
+            @Transactional(readOnly = true)
+            public Object doWork(SqlAction sql) {
+                return sql.nextFileReclaims(maxAttempts, batchSize);
+            }
+        });
+    }
+
+    /**
+     * Removes the files of the given queued objects and updates the queue.
+     *
+     * @return true if all files were removed.
+     */
+    private boolean reclaim(List<FileReclaim> batch) {
+        final SetMultimap<String, Long> targets = HashMultimap.create();
+        for (FileReclaim reclaim : batch) {
+            targets.put(reclaim.type, reclaim.objectId);
+        }
+        final FileDeleter deleter = new FileDeleter(ctx, afs, targets, this);
+        deleter.run();
+
+        final SetMultimap<String, Long> undeleted = HashMultimap.create();
+        for (Map.Entry<String, long[]> entry
+                : deleter.getUndeletedFiles().entrySet()) {
+            for (long id : entry.getValue()) {
+                undeleted.put(entry.getKey(), id);
+            }
+        }
+        final List<FileReclaim> done = new ArrayList<FileReclaim>();
+        final List<FileReclaim> failed = new ArrayList<FileReclaim>();
+        for (FileReclaim reclaim : batch) {
+            if (undeleted.containsEntry(reclaim.type, reclaim.objectId)) {
+                failed.add(reclaim);
+                if (reclaim.attempts + 1 >= maxAttempts) {
+                    log.warn("Giving up on removing files of " + reclaim);
+                }
+            } else {
+                done.add(reclaim);
+            }
+        }
+        final String error = failed.isEmpty() ? null : deleter.getWarning();
+        executor.executeSql(new Executor.SimpleSqlWork(this, "reclaim") {
+            @Transactional(readOnly = false)
+            public Object doWork(SqlAction sql) {
+                if (!done.isEmpty()) {
+                    sql.deleteFileReclaims(done);
+                }
+                if (!failed.isEmpty()) {
+                    sql.failFileReclaims(failed, error);
+                }
+                return null;
+            }
+        });
+        if (!failed.isEmpty()) {
+            log.warn(error);
+        }
+        return failed.isEmpty();
+    }
+
+    /**
+     * Removes the given files, at most {@link #perVolume} at a time from
+     * any one volume.
+     *
+     * @return the files which exist but could not be removed.
+     */
+    Set<File> remove(Collection<File> files) {
+        final Map<File, String> volumes = new HashMap<File, String>();
+        final Map<String, List<File>> byVolume = new HashMap<String, List<File>>();
+        for (File file : files) {
+            final String volume = volumeOf(file.getParentFile(), volumes);
+            List<File> onVolume = byVolume.get(volume);
+            if (onVolume == null) {
+                onVolume = new ArrayList<File>();
+                byVolume.put(volume, onVolume);
+            }
+            onVolume.add(file);
+        }
+
+        final List<List<File>> stripes = new ArrayList<List<File>>();
+        final List<Future<List<File>>> futures = new ArrayList<Future<List<File>>>();
+        for (List<File> onVolume : byVolume.values()) {
+            final int count = Math.min(perVolume, onVolume.size());
+            for (int i = 0; i < count; i++) {
+                final List<File> stripe = new ArrayList<File>();
+                for (int j = i; j < onVolume.size(); j += count) {
+                    stripe.add(onVolume.get(j));
+                }
+                stripes.add(stripe);
+                futures.add(pool.submit(new Callable<List<File>>() {
+                    public List<File> call() {
+                        return removeAll(stripe);
+                    }
+                }));
+            }
+        }
+
+        final Set<File> failed = new HashSet<File>();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                failed.addAll(futures.get(i).get());
+            } catch (ExecutionException ee) {
+                log.warn("Failed to remove files", ee.getCause());
+                failed.addAll(stripes.get(i));
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                for (int j = i; j < futures.size(); j++) {
+                    futures.get(j).cancel(true);
+                    failed.addAll(stripes.get(j));
+                }
+                break;
+            }
+        }
+        return failed;
+    }
+
+    private List<File> removeAll(List<File> files) {
+        List<File> failed = Collections.emptyList();
+        for (File file : files) {
+            if (!file.exists()) {
+                log.debug("File " + file.getAbsolutePath() + " does not exist.");
+            } else if (file.delete()) {
+                log.debug("DELETED: " + file.getAbsolutePath());
+                reclaimedCount.inc();
+            } else {
+                log.debug("Failed to delete " + file.getAbsolutePath());
+                failureCount.inc();
+                if (failed.isEmpty()) {
+                    failed = new ArrayList<File>();
+                }
+                failed.add(file);
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Returns the name of the file store holding the given directory, or
+     * the empty string if it cannot be found, e.g. because the directory
+     * is already gone.
+     */
+    private static String volumeOf(File dir, Map<File, String> cache) {
+        if (dir == null) {
+            return "";
+        }
+        String volume = cache.get(dir);
+        if (volume == null) {
+            try {
+                volume = Files.getFileStore(dir.toPath()).name();
+            } catch (IOException e) {
+                volume = "";
+            }
+            cache.put(dir, volume);
+        }
+        return volume;
+    }
+
+}
@@ -35,6 +35,7 @@ import ome.model.meta.EventLog;
 import ome.model.screen.Plate;
 import ome.model.screen.Screen;
 import ome.system.metrics.Counter;
+import ome.system.metrics.Histogram;
 import ome.system.metrics.Metrics;
 import ome.system.metrics.NullMetrics;
 import ome.system.metrics.Timer;
@@ -43,6 +44,7 @@ import ome.util.SqlAction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationEvent;
+import org.springframework.dao.EmptyResultDataAccessException;
 
 /**
  * {@link PersistentEventLogLoader} implementation which loads many rows at the
@@ -379,6 +381,27 @@ public class EventLogQueue extends PersistentEventLogLoader {
 
     final private Counter nextCount;
 
+    final private Metrics metrics;
+
+    /**
+     * Number of event logs between the current id and the newest event log,
+     * measured on each lookup.
+     */
+    private Histogram lag;
+
+    /**
+     * Newest event log id as set by {@link #setNewestId(Long)}, or null.
+     */
+    private volatile Long newestId;
+
+    /**
+     * Which of the {@link #shards} this queue loads. Only used if
+     * {@link #shards} is greater than 1.
+     */
+    private int shard = 0;
+
+    private int shards = 1;
+
     private int batchCount;
 
     /**
@@ -406,6 +429,8 @@ public class EventLogQueue extends PersistentEventLogLoader {
         this.priorityCount = metrics.counter(this, "priorityCount");
         this.regularCount = metrics.counter(this, "regularCount");
         this.failureCount = metrics.counter(this, "failureCount");
+        this.lag = metrics.histogram(this, "lag");
+        this.metrics = metrics;
 
         // Rough testing shows each entry in the queue to take up about
         // 100 bytes of storage. If the max would use "too much memory",
@@ -426,6 +451,44 @@ public class EventLogQueue extends PersistentEventLogLoader {
                 this.types);
     }
 
+    /**
+     * Restricts this queue to the objects whose id modulo {@code shards} is
+     * {@code shard} so that several queues can process the event log
+     * independently. Each shard stores its current id under its own
+     * {@link #getKey() key}.
+     *
+     * @see ShardedEventLogLoader
+     */
+    public void setShard(int shard, int shards) {
+        if (shards < 1 || shard < 0 || shard >= shards) {
+            throw new IllegalArgumentException(
+                    "Invalid shard " + shard + " of " + shards);
+        }
+        this.shard = shard;
+        this.shards = shards;
+        this.lag = metrics.histogram(this, "lag.shard" + shard);
+    }
+
+    public int getShard() {
+        return shard;
+    }
+
+    public int getShards() {
+        return shards;
+    }
+
+    /**
+     * Returns the configured key, suffixed with the shard if this queue only
+     * processes one of several shards.
+     */
+    @Override
+    public String getKey() {
+        if (shards > 1) {
+            return key + ".shard" + shard + "of" + shards;
+        }
+        return key;
+    }
+
     //
     // HELPERS
     //
@@ -434,17 +497,45 @@ public class EventLogQueue extends PersistentEventLogLoader {
         final Timer.Context ctx = lookupTime.time();
         try {
             final long current = getCurrentId();
-            List<Object[]> rv = sql.getEventLogPartitions(types, actions,
+            List<Object[]> rv;
+            if (shards > 1) {
+                rv = sql.getEventLogPartitions(types, actions,
+                    current, max, shard, shards);
+            } else {
+                rv = sql.getEventLogPartitions(types, actions,
                     current, max);
+            }
             log.debug(String.format("objects found searching " +
-                    "from %s (max: %s): %s",
-                    current, max, rv.size()));
+                    "from %s (max: %s, shard: %s/%s): %s",
+                    current, max, shard, shards, rv.size()));
+            updateLag(current);
             return rv;
         } finally {
             ctx.stop();
         }
     }
 
+    /**
+     * Sets the id of the newest event log for the lag of the following
+     * lookups, so that a {@link ShardedEventLogLoader} queries it once per
+     * batch rather than once per shard. If null, each lookup queries it.
+     */
+    void setNewestId(Long newestId) {
+        this.newestId = newestId;
+    }
+
+    private void updateLag(long current) {
+        Long newest = newestId;
+        if (newest == null) {
+            final EventLog last = lastEventLog();
+            newest = last == null ? null : last.getId();
+        }
+        if (newest != null) {
+            final long behind = Math.max(0, newest - current);
+            lag.update((int) Math.min(Integer.MAX_VALUE, behind));
+        }
+    }
+
     protected int load(List<Object[]> rows) {
         int loaded = 0;
         for (Object[] row : rows) {
@@ -581,11 +672,19 @@ public class EventLogQueue extends PersistentEventLogLoader {
     }
 
     /**
-     * Do nothing.
+     * Starts a new shard from the current id of the unsharded key, if there
+     * is one, since all event logs before it have already been processed.
+     * Otherwise, does nothing.
      */
     @Override
     public void initialize() {
-        // no-op
+        if (shards > 1) {
+            try {
+                setCurrentId(sql.selectCurrentEventLog(key));
+            } catch (EmptyResultDataAccessException erdae) {
+                // Never run unsharded. Start from the beginning.
+            }
+        }
     }
 
     /**
@@ -75,12 +75,13 @@ public abstract class PersistentEventLogLoader extends EventLogLoader {
     public long getCurrentId() {
         long current_id;
         try {
-            current_id = sql.selectCurrentEventLog(key);
+            current_id = sql.selectCurrentEventLog(getKey());
         } catch (EmptyResultDataAccessException erdae) {
             // This event log loader has never been run. Initialize
-            current_id = -1;
             setCurrentId(-1);
             initialize();
+            // initialize() may have chosen a later starting point
+            current_id = sql.selectCurrentEventLog(getKey());
         } catch (DataAccessException dae) {
             // Most likely there's no configuration table.
             throw new InternalException(
@@ -92,11 +93,11 @@ public abstract class PersistentEventLogLoader extends EventLogLoader {
     }
 
     public void setCurrentId(long id) {
-        sql.setCurrentEventLog(id, key);
+        sql.setCurrentEventLog(id, getKey());
     }
 
     public void deleteCurrentId() {
-        sql.delCurrentEventLog(key);
+        sql.delCurrentEventLog(getKey());
     }
 
     @Override
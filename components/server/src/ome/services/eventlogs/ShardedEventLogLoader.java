@@ -0,0 +1,287 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+
+package ome.services.eventlogs;
+
+import java.util.NoSuchElementException;
+
+import ome.api.IQuery;
+import ome.api.ITypes;
+import ome.model.IObject;
+import ome.model.meta.EventLog;
+import ome.system.metrics.Metrics;
+import ome.util.SqlAction;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * {@link EventLogLoader} which splits the event log into several
+ * {@link EventLogQueue} shards by object id and returns their entries in
+ * turn. Each shard keeps its own current id, see
+ * {@link EventLogQueue#getKey()}, and its own lag histogram so that a
+ * shard which falls behind, e.g. because of a burst of changes to some
+ * objects, neither holds back the others nor hides how far behind it is.
+ * All the event logs of one object are handled by the same shard so it is
+ * never processed concurrently with itself.
+ *
+ * The shards are polled round-robin, skipping any shard which has nothing
+ * left to load within the current batch, so consumers such as the
+ * {@link ome.services.pixeldata.PixelDataThread} which process a batch in
+ * parallel receive work from all shards at once. A new shard starts from
+ * the current id of the unsharded {@link EventLogQueue} with the same key,
+ * if any, so switching to this loader does not restart processing.
+ *
+ * @since 5.1
+ */
+public class ShardedEventLogLoader extends EventLogLoader {
+
+    private final EventLogQueue[] shards;
+
+    /**
+     * Shard which returned true from {@link EventLogQueue#hasNext()} and
+     * whose entry has not yet been returned by {@link #next()}.
+     */
+    private EventLogQueue ready;
+
+    /**
+     * Shard whose entry was last returned by {@link #next()} and which
+     * receives any {@link EventLogFailure} for it.
+     */
+    private EventLogQueue lastShard;
+
+    /**
+     * Shards which have run out of entries during the current batch.
+     */
+    private final boolean[] exhausted;
+
+    /** Index of the shard to poll first on the next {@link #hasNext()}. */
+    private int position = 0;
+
+    private int batchCount = 0;
+
+    /**
+     * @param metrics passed to each shard.
+     * @param max maximum number of rows loaded at once across all shards.
+     * @param types entity types to process.
+     * @param actions event log actions to process.
+     * @param shards number of shards. 1 or less uses a single shard.
+     */
+    public ShardedEventLogLoader(Metrics metrics, int max,
+            String[] types, String[] actions, int shards) {
+        final int count = Math.max(1, shards);
+        this.shards = new EventLogQueue[count];
+        this.exhausted = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            this.shards[i] = newShard(metrics,
+                    Math.max(1, max / count), types, actions);
+            this.shards[i].setShard(i, count);
+            // The batch is limited here rather than per shard.
+            this.shards[i].setBatchSize(Integer.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Creates one of the shards. {@link EventLogQueue#setShard(int, int)} is
+     * called on the returned queue.
+     */
+    protected EventLogQueue newShard(Metrics metrics, int max,
+            String[] types, String[] actions) {
+        return new EventLogQueue(metrics, max, types, actions);
+    }
+
+    //
+    // Configuration, passed on to each shard.
+    //
+
+    @Override
+    public void setQueryService(IQuery queryService) {
+        super.setQueryService(queryService);
+        for (EventLogQueue shard : shards) {
+            shard.setQueryService(queryService);
+        }
+    }
+
+    @Override
+    public void setExcludes(String[] excludes) {
+        super.setExcludes(excludes);
+        for (EventLogQueue shard : shards) {
+            shard.setExcludes(excludes);
+        }
+    }
+
+    public void setSqlAction(SqlAction sql) {
+        for (EventLogQueue shard : shards) {
+            shard.setSqlAction(sql);
+        }
+    }
+
+    public void setKey(String key) {
+        for (EventLogQueue shard : shards) {
+            shard.setKey(key);
+        }
+    }
+
+    public void setTypes(ITypes types) {
+        for (EventLogQueue shard : shards) {
+            shard.setTypes(types);
+        }
+    }
+
+    @Override
+    public void setStop(boolean stop) {
+        super.setStop(stop);
+        for (EventLogQueue shard : shards) {
+            shard.setStop(stop);
+        }
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * @return the lowest current id of the shards, i.e. the id up to which
+     *          every shard has processed the event log.
+     */
+    public long getCurrentId() {
+        long current = Long.MAX_VALUE;
+        for (EventLogQueue shard : shards) {
+            current = Math.min(current, shard.getCurrentId());
+        }
+        return current;
+    }
+
+    /**
+     * @return the keys under which the shards store their current ids.
+     */
+    public String[] getKeys() {
+        final String[] keys = new String[shards.length];
+        for (int i = 0; i < shards.length; i++) {
+            keys[i] = shards[i].getKey();
+        }
+        return keys;
+    }
+
+    //
+    // Iterator
+    //
+
+    /**
+     * Checks the shards in turn, starting after the one which last had an
+     * entry, for one which has an entry available or can load some. Returns
+     * false once the batch size has been met or when no shard has anything
+     * left to process, after which all shards are polled again.
+     */
+    @Override
+    public boolean hasNext() {
+        if (ready != null) {
+            return true;
+        }
+        if (isStopSet()) {
+            return false;
+        }
+        batchCount++;
+        if (batchCount > batchSize) {
+            endBatch();
+            return false;
+        }
+        if (batchCount == 1) {
+            // Look up the newest event log once for all the shards' lag.
+            final EventLog last = lastEventLog();
+            final Long newestId = last == null ? null : last.getId();
+            for (EventLogQueue shard : shards) {
+                shard.setNewestId(newestId);
+            }
+        }
+        for (int i = 0; i < shards.length; i++) {
+            final int idx = (position + i) % shards.length;
+            if (exhausted[idx]) {
+                continue;
+            }
+            if (shards[idx].hasNext()) {
+                ready = shards[idx];
+                position = (idx + 1) % shards.length;
+                return true;
+            }
+            exhausted[idx] = true;
+        }
+        endBatch();
+        return false;
+    }
+
+    /**
+     * Returns the next entry of the shard found by {@link #hasNext()}. As
+     * with {@link EventLogQueue#next()}, this may be null.
+     */
+    @Override
+    public EventLog next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        lastShard = ready;
+        ready = null;
+        return lastShard.next();
+    }
+
+    private void endBatch() {
+        batchCount = 0;
+        for (int i = 0; i < exhausted.length; i++) {
+            exhausted[i] = false;
+        }
+    }
+
+    private EventLogQueue shardFor(long id) {
+        return shards[(int) (Math.abs(id) % shards.length)];
+    }
+
+    //
+    // EventLogLoader overrides
+    //
+
+    @Override
+    protected EventLog query() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * As with {@link EventLogQueue}, batches are expected to be large enough
+     * that further loops should not be attempted.
+     */
+    @Override
+    public long more() {
+        return 0;
+    }
+
+    @Override
+    public void rollback(EventLog el) {
+        shardFor(el.getEntityId()).rollback(el);
+    }
+
+    /**
+     * Adds the backlog entry to the shard which processes the given object.
+     */
+    @Override
+    public boolean addEventLog(Class<? extends IObject> cls, long id) {
+        return shardFor(id).addEventLog(cls, id);
+    }
+
+    /**
+     * Passes any {@link EventLogFailure} for the last returned entry on to
+     * the shard which returned it.
+     */
+    @Override
+    public void onApplicationEvent(ApplicationEvent arg0) {
+        if (arg0 instanceof EventLogFailure) {
+            final EventLogFailure failure = (EventLogFailure) arg0;
+            if (failure.wasSource(this) && lastShard != null) {
+                lastShard.onApplicationEvent(new EventLogFailure(
+                        lastShard, failure.log, failure.throwable));
+            }
+        } else {
+            super.onApplicationEvent(arg0);
+        }
+    }
+
+}
@@ -249,12 +249,20 @@ public class FullTextBridge extends BridgeHelper {
                 add(document, "details.owner.firstName", firstName, opts);
                 add(document, "details.owner.lastName", lastName, opts);
             }
+            if (e != null && e.getId() != null) {
+                add(document, "details.owner.id", e.getId().toString(),
+                        storedNotAnalyzed);
+            }
 
             ExperimenterGroup g = details.getGroup();
             if (g != null && g.isLoaded()) {
                 String groupName = g.getName();
                 add(document, "details.group.name", groupName, stored);
             }
+            if (g != null && g.getId() != null) {
+                add(document, "details.group.id", g.getId().toString(),
+                        storedNotAnalyzed);
+            }
 
             Event creationEvent = details.getCreationEvent();
             if (creationEvent != null) {
@@ -28,6 +28,7 @@ import ome.model.meta.EventLog;
 import ome.services.eventlogs.EventLogFailure;
 import ome.services.eventlogs.EventLogLoader;
 import ome.services.eventlogs.PersistentEventLogLoader;
+import ome.services.eventlogs.ShardedEventLogLoader;
 import ome.services.util.Executor.SimpleWork;
 import ome.system.OmeroContext;
 import ome.system.ServiceFactory;
@@ -225,15 +226,31 @@ public class FullTextIndexer extends SimpleWork implements ApplicationContextAwa
             log.debug("No objects indexed");
         } else {
             final long elapsed = (System.currentTimeMillis() - start);
+            final long currId;
+            final String[] keys;
             if (loader instanceof PersistentEventLogLoader) {
-                long currId = ((PersistentEventLogLoader) loader).getCurrentId();
+                currId = ((PersistentEventLogLoader) loader).getCurrentId();
+                keys = new String[] {
+                        ((PersistentEventLogLoader) loader).getKey() };
+            } else if (loader instanceof ShardedEventLogLoader) {
+                currId = ((ShardedEventLogLoader) loader).getCurrentId();
+                keys = ((ShardedEventLogLoader) loader).getKeys();
+            } else {
+                currId = -1;
+                keys = null;
+            }
+            if (keys != null) {
                 long lastId = loader.lastEventLog().getId();
                 String which = "~";
                 double perc = 0.0f;
                 if (batchTimer.getCount() % reportingLoops == 0) {
                     which = "";
-                    perc = getSqlAction().getEventLogPercent(
-                        ((PersistentEventLogLoader) loader).getKey());
+                    // A sharded loader is as far along as its slowest shard.
+                    perc = 100.0;
+                    for (String key : keys) {
+                        perc = Math.min(perc,
+                                getSqlAction().getEventLogPercent(key));
+                    }
                     completeSlow.update((int) perc);
                 } else {
                     perc = 100.0 * ((float) currId) / ((float) lastId);
@@ -12,10 +12,11 @@ import ome.util.messages.InternalMessage;
 /**
  * {@link InternalMessage} implementations which carry relate to some
  * {@link ome.model.meta.Session} bound event.
- * These messages are <em>not</em> thread-safe
+ * These messages are <em>not</em> thread-safe by default
  * and so will be called within the same {@link Thread} as the publisher. This
  * means {@link ApplicationListener listeners} have a chance to throw an
- * exception and cancel the related event.
+ * exception and cancel the related event. Subclasses which announce an event
+ * that cannot be cancelled may override {@link #isThreadSafe()}.
  * 
  * @see ome.services.sessions.SessionManager
  */
@@ -33,7 +34,7 @@ public abstract class AbstractSessionMessage extends InternalMessage {
     }
 
     @Override
-    public final boolean isThreadSafe() {
+    public boolean isThreadSafe() {
         return false;
     }
 
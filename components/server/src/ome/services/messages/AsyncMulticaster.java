@@ -0,0 +1,364 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+
+package ome.services.messages;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import ome.system.metrics.Counter;
+import ome.system.metrics.Metrics;
+import ome.system.metrics.NullMetrics;
+import ome.system.metrics.Timer;
+import ome.util.messages.InternalMessage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.SimpleApplicationEventMulticaster;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * {@link SimpleApplicationEventMulticaster} which times every listener and
+ * can deliver messages to {@link Asynchronous} listeners in the background.
+ * Each such listener has its own queue which is drained in order by one
+ * thread at a time from a shared pool, so a slow listener only delays its
+ * own messages. A {@link CoalescingMessage} is merged into the message
+ * queued before it for the same listener if possible, so that bursts of
+ * e.g. {@link EventLogsMessage} are delivered as a single message.
+ *
+ * Only {@link InternalMessage#isThreadSafe() thread-safe} messages of the
+ * types listed by {@link Asynchronous#value()} are queued, and only once
+ * {@link #startAsync(int, int)} has been called.
+ * Everything else, and every message for a listener whose queue is full,
+ * is delivered in the publishing thread as by the superclass. Messages
+ * published within a transaction are only queued once it completes, so
+ * that a listener never sees e.g. the event logs of changes which other
+ * threads cannot see yet.
+ *
+ * @since 5.1
+ * @see GlobalMulticaster
+ */
+public class AsyncMulticaster extends SimpleApplicationEventMulticaster {
+
+    private final static Logger log = LoggerFactory.getLogger(AsyncMulticaster.class);
+
+    /** Messages delivered by a queue before it yields its thread. */
+    private final static int BATCH = 100;
+
+    private final ConcurrentMap<ApplicationListener, Timer> timers =
+            new ConcurrentHashMap<ApplicationListener, Timer>();
+
+    private final ConcurrentMap<ApplicationListener, ListenerQueue> queues =
+            new ConcurrentHashMap<ApplicationListener, ListenerQueue>();
+
+    /**
+     * The {@link Asynchronous#value()} of each listener, empty if it is not
+     * annotated, so that the target class is only looked up once.
+     */
+    private final ConcurrentMap<ApplicationListener, Class<?>[]> asyncTypes =
+            new ConcurrentHashMap<ApplicationListener, Class<?>[]>();
+
+    private final static Class<?>[] NONE = new Class<?>[0];
+
+    private volatile Metrics metrics = new NullMetrics();
+
+    private volatile Counter queuedCount, coalescedCount, overflowCount,
+            failureCount;
+
+    /** Null while delivery is synchronous. */
+    private volatile ExecutorService pool;
+
+    private volatile int queueSize;
+
+    public AsyncMulticaster() {
+        setMetrics(null);
+    }
+
+    /**
+     * Replaces the {@link Metrics} used for the listener timers and queue
+     * counters.
+     *
+     * @param metrics if null, a {@link NullMetrics} is used.
+     */
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics == null ? new NullMetrics() : metrics;
+        this.queuedCount = this.metrics.counter(this, "queued");
+        this.coalescedCount = this.metrics.counter(this, "coalesced");
+        this.overflowCount = this.metrics.counter(this, "overflow");
+        this.failureCount = this.metrics.counter(this, "failures");
+        timers.clear();
+    }
+
+    /**
+     * Starts delivering to {@link Asynchronous} listeners in the background.
+     *
+     * @param threads number of threads shared by all listener queues. 0 or
+     *          less keeps all delivery synchronous.
+     * @param queueSize maximum number of messages queued for one listener.
+     */
+    public synchronized void startAsync(int threads, int queueSize) {
+        stopAsync();
+        if (threads < 1) {
+            return;
+        }
+        this.queueSize = Math.max(1, queueSize);
+        this.pool = Executors.newFixedThreadPool(threads,
+                new ThreadFactoryBuilder()
+                        .setNameFormat("async-listener-%d")
+                        .setDaemon(true)
+                        .build());
+        log.info("Delivering to asynchronous listeners with {} thread(s)",
+                threads);
+    }
+
+    /**
+     * Returns to synchronous delivery after giving the queued messages a
+     * few seconds to be delivered.
+     */
+    public synchronized void stopAsync() {
+        final ExecutorService old = pool;
+        if (old == null) {
+            return;
+        }
+        pool = null;
+        old.shutdown();
+        try {
+            if (!old.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("Dropping undelivered asynchronous messages");
+                old.shutdownNow();
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            old.shutdownNow();
+        }
+        queues.clear();
+    }
+
+    @Override
+    public void removeApplicationListener(ApplicationListener listener) {
+        super.removeApplicationListener(listener);
+        timers.remove(listener);
+        queues.remove(listener);
+        asyncTypes.remove(listener);
+    }
+
+    @Override
+    public void removeAllListeners() {
+        super.removeAllListeners();
+        timers.clear();
+        queues.clear();
+        asyncTypes.clear();
+    }
+
+    @Override
+    public void multicastEvent(final ApplicationEvent event) {
+        List<ApplicationListener> afterCompletion = null;
+        for (ApplicationListener listener : getApplicationListeners(event)) {
+            if (!isAsync(listener, event)) {
+                invoke(listener, event);
+            } else if (TransactionSynchronizationManager
+                    .isSynchronizationActive()) {
+                if (afterCompletion == null) {
+                    afterCompletion = new ArrayList<ApplicationListener>();
+                }
+                afterCompletion.add(listener);
+            } else {
+                offer(listener, event);
+            }
+        }
+        if (afterCompletion != null) {
+            final List<ApplicationListener> listeners = afterCompletion;
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronizationAdapter() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            for (ApplicationListener listener : listeners) {
+                                offer(listener, event);
+                            }
+                        }
+                    });
+        }
+    }
+
+    /**
+     * Queues the message for the listener, or delivers it in the current
+     * thread if the queue is full.
+     */
+    private void offer(ApplicationListener listener, ApplicationEvent event) {
+        if (!queueFor(listener).offer(event)) {
+            invoke(listener, event);
+        }
+    }
+
+    private boolean isAsync(ApplicationListener listener,
+            ApplicationEvent event) {
+        if (pool == null
+                || !(event instanceof InternalMessage)
+                || !((InternalMessage) event).isThreadSafe()) {
+            return false;
+        }
+        for (Class<?> type : asyncTypesFor(listener)) {
+            if (type.isInstance(event)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Class<?>[] asyncTypesFor(ApplicationListener listener) {
+        Class<?>[] types = asyncTypes.get(listener);
+        if (types == null) {
+            final Asynchronous async = AopUtils.getTargetClass(listener)
+                    .getAnnotation(Asynchronous.class);
+            types = async == null ? NONE : async.value();
+            asyncTypes.put(listener, types);
+        }
+        return types;
+    }
+
+    private ListenerQueue queueFor(ApplicationListener listener) {
+        ListenerQueue queue = queues.get(listener);
+        if (queue == null) {
+            queue = new ListenerQueue(listener);
+            final ListenerQueue old = queues.putIfAbsent(listener, queue);
+            if (old != null) {
+                queue = old;
+            }
+        }
+        return queue;
+    }
+
+    private Timer timerFor(ApplicationListener listener) {
+        Timer timer = timers.get(listener);
+        if (timer == null) {
+            timer = metrics.timer(listener, "onApplicationEvent");
+            timers.put(listener, timer);
+        }
+        return timer;
+    }
+
+    /**
+     * Calls the listener in the current thread. Exceptions are passed to the
+     * publisher, e.g. so that {@link ome.util.messages.MessageException}s can be
+     * handled by {@link ome.system.OmeroContext#publishMessage(InternalMessage)}.
+     */
+    @SuppressWarnings("unchecked")
+    private void invoke(ApplicationListener listener, ApplicationEvent event) {
+        final Timer.Context timer = timerFor(listener).time();
+        try {
+            listener.onApplicationEvent(event);
+        } finally {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Messages waiting for one {@link Asynchronous} listener.
+     */
+    private class ListenerQueue implements Runnable {
+
+        private final ApplicationListener listener;
+
+        private final LinkedList<ApplicationEvent> events =
+                new LinkedList<ApplicationEvent>();
+
+        /** Whether a thread is draining or about to drain this queue. */
+        private boolean scheduled = false;
+
+        ListenerQueue(ApplicationListener listener) {
+            this.listener = listener;
+        }
+
+        /**
+         * Queues the event, coalescing it with the last queued one if
+         * possible.
+         *
+         * @return false if the event must be delivered synchronously.
+         */
+        synchronized boolean offer(ApplicationEvent event) {
+            final ApplicationEvent last = events.peekLast();
+            if (last instanceof CoalescingMessage) {
+                final InternalMessage merged = ((CoalescingMessage) last)
+                        .coalesce((InternalMessage) event);
+                if (merged != null) {
+                    events.set(events.size() - 1, merged);
+                    coalescedCount.inc();
+                    return true;
+                }
+            }
+            if (events.size() >= queueSize) {
+                overflowCount.inc();
+                return false;
+            }
+            if (!scheduled && !schedule()) {
+                return false;
+            }
+            events.add(event);
+            queuedCount.inc();
+            return true;
+        }
+
+        private boolean schedule() {
+            final ExecutorService current = pool;
+            if (current == null) {
+                return false;
+            }
+            try {
+                current.execute(this);
+                scheduled = true;
+                return true;
+            } catch (RejectedExecutionException ree) {
+                return false; // Shutting down
+            }
+        }
+
+        public void run() {
+            for (int i = 0; i < BATCH; i++) {
+                final ApplicationEvent event;
+                synchronized (this) {
+                    event = events.poll();
+                    if (event == null) {
+                        scheduled = false;
+                        return;
+                    }
+                }
+                queuedCount.dec();
+                try {
+                    invoke(listener, event);
+                } catch (Throwable t) {
+                    failureCount.inc();
+                    log.warn("Asynchronous listener " + listener
+                            + " failed on " + event, t);
+                }
+            }
+            synchronized (this) {
+                // Let the other queues have a turn.
+                scheduled = false;
+                if (!events.isEmpty() && !schedule()) {
+                    log.warn("Dropping {} undelivered message(s) for {}",
+                            events.size(), listener);
+                    for (int i = 0; i < events.size(); i++) {
+                        queuedCount.dec();
+                    }
+                    events.clear();
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,43 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+
+package ome.services.messages;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import ome.util.messages.InternalMessage;
+
+/**
+ * Marks an {@link org.springframework.context.ApplicationListener} which
+ * does not need to be called in the publishing thread for the message
+ * types listed in {@link #value()}. Such listeners receive the
+ * {@link InternalMessage messages} of those types which are
+ * {@link InternalMessage#isThreadSafe() thread-safe} from their own queue
+ * in the background, so that they do not add to the latency of the
+ * publisher. Messages published within a transaction are queued once it
+ * has completed, whether or not it committed. All other messages,
+ * including all which must take part in the publisher's transaction or
+ * return a value to it, are still delivered synchronously, and are not
+ * copied or queued.
+ *
+ * @since 5.1
+ * @see AsyncMulticaster
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Asynchronous {
+
+    /**
+     * The message types, including their subclasses, which the listener
+     * receives in the background.
+     */
+    Class<? extends InternalMessage>[] value();
+
+}
@@ -0,0 +1,25 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+
+package ome.services.messages;
+
+import ome.util.messages.InternalMessage;
+
+/**
+ * {@link InternalMessage} of which several queued for the same
+ * {@link Asynchronous} listener can be delivered as one.
+ *
+ * @since 5.1
+ * @see AsyncMulticaster
+ */
+public interface CoalescingMessage {
+
+    /**
+     * Returns a single message equivalent to this message followed by the
+     * given one, or null if the two cannot be combined.
+     */
+    InternalMessage coalesce(InternalMessage later);
+
+}
@@ -19,4 +19,13 @@ public class DestroySessionMessage extends AbstractSessionMessage {
         super(source, sessionId);
     }
 
+    /**
+     * The session is already being removed when this is published, so
+     * {@link Asynchronous} listeners may clean up after it in the background.
+     */
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
 }
\ No newline at end of file
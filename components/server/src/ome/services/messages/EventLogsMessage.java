@@ -12,13 +12,16 @@ import java.util.List;
 import ome.model.meta.EventLog;
 import ome.util.messages.InternalMessage;
 
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
 
 /**
  * Published with the final collection of {@link EventLog} instances which
- * <em>will</em> be saved.
+ * <em>will</em> be saved. Thread-safe, and consecutive messages queued for
+ * an {@link Asynchronous} listener are combined into one.
  */
-public class EventLogsMessage extends InternalMessage {
+public class EventLogsMessage extends InternalMessage
+    implements CoalescingMessage {
 
     private static final long serialVersionUID = 7132548299119420025L;
 
@@ -27,6 +30,23 @@ public class EventLogsMessage extends InternalMessage {
     public EventLogsMessage(Object source, Multimap<String, EventLog> logs) {
         super(source);
         this.logs = logs;
+        this.threadSafe = true;
+    }
+
+    public InternalMessage coalesce(InternalMessage later) {
+        if (!(later instanceof EventLogsMessage)) {
+            return null;
+        }
+        final Multimap<String, EventLog> both = ArrayListMultimap.create(logs);
+        both.putAll(((EventLogsMessage) later).logs);
+        return new EventLogsMessage(getSource(), both);
+    }
+
+    /**
+     * Returns the event logs of every type and action.
+     */
+    public Collection<EventLog> all() {
+        return logs.values();
     }
 
     public Collection<EventLog> matches(String klass, String action) {
@@ -8,6 +8,7 @@
 package ome.services.messages;
 
 import ome.system.OmeroContext;
+import ome.system.metrics.Metrics;
 
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanFactory;
@@ -22,13 +23,22 @@ import org.springframework.context.event.SimpleApplicationEventMulticaster;
  * parent and child {@link OmeroContext} instances. A singleton, this instance
  * will delegate all method calls to a single static {@link SimpleApplicationEventMulticaster}.
  * 
+ * The static instance is an {@link AsyncMulticaster}. An additional instance
+ * defined in the server's startup context configures its metrics and starts
+ * the background delivery to {@link Asynchronous} listeners via
+ * {@link #start()}; without it all messages are delivered synchronously.
+ * 
  * @see ome.system.OmeroContext
  * @see ome.system.OmeroContext#publishEvent(ApplicationEvent)
  * @see ome.system.OmeroContext#onRefresh()
  */
 public class GlobalMulticaster implements ApplicationEventMulticaster, BeanFactoryAware {
 
-    private final static SimpleApplicationEventMulticaster _em = new SimpleApplicationEventMulticaster();
+    private final static AsyncMulticaster _em = new AsyncMulticaster();
+
+    private int asyncThreads = 0;
+
+    private int asyncQueueSize = 10000;
 
     /**
      * Keeps track of which instance this is. Only the first instance will
@@ -40,6 +50,41 @@ public class GlobalMulticaster implements ApplicationEventMulticaster, BeanFacto
     }
 
 
+    public void setMetrics(Metrics metrics) {
+        _em.setMetrics(metrics);
+    }
+
+    /**
+     * Number of threads delivering to {@link Asynchronous} listeners once
+     * {@link #start()} is called. 0 or less disables background delivery.
+     */
+    public void setAsyncThreads(int asyncThreads) {
+        this.asyncThreads = asyncThreads;
+    }
+
+    /**
+     * Maximum number of messages queued for each {@link Asynchronous}
+     * listener before further messages are delivered synchronously.
+     */
+    public void setAsyncQueueSize(int asyncQueueSize) {
+        this.asyncQueueSize = asyncQueueSize;
+    }
+
+    /**
+     * Starts the background delivery to {@link Asynchronous} listeners.
+     */
+    public void start() {
+        _em.startAsync(asyncThreads, asyncQueueSize);
+    }
+
+    /**
+     * Delivers the remaining queued messages and returns to synchronous
+     * delivery.
+     */
+    public void stop() {
+        _em.stopAsync();
+    }
+
     public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
         _em.setBeanFactory(beanFactory);
     }
@@ -12,6 +12,7 @@ import java.util.NoSuchElementException;
 import ome.api.IQuery;
 import ome.conditions.LockTimeout;
 import ome.io.nio.PixelsService;
+import ome.io.nio.PixelsStats;
 import ome.model.core.Channel;
 import ome.model.core.Pixels;
 import ome.model.meta.Event;
@@ -107,8 +108,22 @@ public class PixelDataHandler extends SimpleWork {
      * @see <a href="http://trac.openmicroscopy.org/ome/ticket/5814">ticket:5814</a>
      */
     public void handleEventLog(EventLog eventLog, Session session, ServiceFactory sf) {
+        handleEventLog(eventLog, null, session, sf);
+    }
+
+    /**
+     * Second phase of the statistics calculation: creates the pyramid if
+     * necessary and replaces the approximate statistics stored by
+     * {@link #handleApproximateStats(EventLog, Session, ServiceFactory)}
+     * with the exact values.
+     *
+     * @param approximate the return value of the first phase. May be null.
+     */
+    public void handleEventLog(EventLog eventLog, PixelsStats approximate,
+            Session session, ServiceFactory sf) {
         final long start = System.currentTimeMillis();
-        final boolean handled = process(eventLog.getEntityId(), sf, session);
+        final boolean handled = process(eventLog.getEntityId(), approximate,
+                sf, session);
         final String msg = String.format("EventLog:%s(entityId=%s) [%s ms.]",
                 eventLog.getId(), eventLog.getEntityId(),
                 (System.currentTimeMillis() - start));
@@ -131,6 +146,15 @@ public class PixelDataHandler extends SimpleWork {
      * @return See above.
      */
     public boolean process(Long id, ServiceFactory sf, Session s) {
+        return process(id, null, sf, s);
+    }
+
+    /**
+     * As {@link #process(Long, ServiceFactory, Session)} but uses the
+     * approximate statistics for the histogram range of the exact ones.
+     */
+    public boolean process(Long id, PixelsStats approximate, ServiceFactory sf,
+            Session s) {
 
         final Pixels pixels = getPixels(id, sf);
 
@@ -141,7 +165,8 @@ public class PixelDataHandler extends SimpleWork {
 
         try
         {
-            StatsInfo[] statsInfo = pixelsService.makePyramid(pixels);
+            StatsInfo[] statsInfo = pixelsService.makePyramid(pixels,
+                    approximate);
             if(statsInfo == null) {
                 // Either exists or failed to be created, but that's
                 // the PixelsService's business. It should throw an exception
@@ -153,6 +178,12 @@ public class PixelDataHandler extends SimpleWork {
             for(int c=0;c<statsInfo.length;c++) {
                 final StatsInfo si = statsInfo[c];
                 final Channel ch = pixels.getChannel(c);
+                if (ch.getStatsInfo() != null
+                        && getSqlAction().updateStatsInfo(ch, si)) {
+                    log.info(String.format("Updated StatsInfo for %s - C:%s Max:%s Min:%s",
+                            ch, c, si.getGlobalMax(), si.getGlobalMin()));
+                    continue;
+                }
                 long siId = getSqlAction().setStatsInfo(ch, si);
                 log.info(String.format("Added StatsInfo:%s for %s - C:%s Max:%s Min:%s",
                         siId, ch, c, si.getGlobalMax(), si.getGlobalMin()));
@@ -168,6 +199,50 @@ public class PixelDataHandler extends SimpleWork {
         return true;
     }
 
+    /**
+     * First phase of the statistics calculation. If none of the channels of
+     * the Pixels have a {@link StatsInfo}, approximate statistics are computed
+     * from a sample of the data and stored, along with their histogram, so
+     * that the image can be rendered while the exact statistics are computed. Must be run in its own
+     * transaction so that the values are visible immediately.
+     *
+     * @return the approximate statistics or null if none were stored.
+     */
+    public PixelsStats handleApproximateStats(EventLog eventLog,
+            Session session, ServiceFactory sf) {
+        final Long id = eventLog.getEntityId();
+        final Pixels pixels = getPixels(id, sf);
+        if (pixels == null) {
+            return null;
+        }
+        for (int c = 0; c < pixels.sizeOfChannels(); c++) {
+            if (pixels.getChannel(c).getStatsInfo() != null) {
+                return null;
+            }
+        }
+
+        final long start = System.currentTimeMillis();
+        final PixelsStats stats;
+        try {
+            stats = pixelsService.makeApproximateStats(pixels);
+        } catch (Exception e) {
+            log.warn("Failed to compute approximate statistics for pixels " + id, e);
+            return null;
+        }
+        if (stats == null || stats.getSizeC() != pixels.sizeOfChannels()) {
+            return null;
+        }
+        final StatsInfo[] statsInfo = stats.toStatsInfo();
+        for (int c = 0; c < statsInfo.length; c++) {
+            getSqlAction().setStatsInfo(pixels.getChannel(c), statsInfo[c]);
+        }
+        // Replaced by the exact histogram once makePyramid completes.
+        pixelsService.writePixelsStats(pixels, stats);
+        log.info(String.format("Added approximate StatsInfo for pixels %s [%s ms.]",
+                id, System.currentTimeMillis() - start));
+        return stats;
+    }
+
     protected Pixels getPixels(Long id, ServiceFactory sf)
     {
         final IQuery iQuery = sf.getQueryService();
@@ -21,6 +21,7 @@ import java.util.concurrent.TimeUnit;
 
 import ome.conditions.InternalException;
 import ome.io.messages.MissingPyramidMessage;
+import ome.io.nio.PixelsStats;
 import ome.model.core.Pixels;
 import ome.model.enums.EventType;
 import ome.model.meta.Event;
@@ -233,28 +234,63 @@ public class PixelDataThread extends ExecutionThread implements ApplicationListe
 
         private final EventLog log;
 
-        HandleEventLog(EventLog log, PixelDataHandler handler,
-                Object self, String description, Object...args) {
+        private final PixelsStats approximate;
+
+        HandleEventLog(EventLog log, PixelsStats approximate,
+                PixelDataHandler handler, Object self, String description,
+                Object...args) {
             super(self, description, args);
             this.handler = handler;
             this.log = log;
+            this.approximate = approximate;
         }
 
         @Transactional(readOnly=false)
         @Override
         public Object doWork(Session session, ServiceFactory sf) {
-            this.handler.handleEventLog(log, session, sf);
+            this.handler.handleEventLog(log, approximate, session, sf);
             return null;
         }
 
     }
 
+    /**
+     * {@link Executor.Work} implementation which stores approximate
+     * statistics in a separate transaction before {@link HandleEventLog}
+     * so that the image can be viewed while the pyramid is generated.
+     */
+    private static class HandleApproximateStats extends Executor.SimpleWork {
+
+        private final PixelDataHandler handler;
+
+        private final EventLog log;
+
+        HandleApproximateStats(EventLog log, PixelDataHandler handler,
+                Object self, String description, Object...args) {
+            super(self, description, args);
+            this.handler = handler;
+            this.log = log;
+        }
+
+        @Transactional(readOnly=false)
+        @Override
+        public Object doWork(Session session, ServiceFactory sf) {
+            return this.handler.handleApproximateStats(log, session, sf);
+        }
+
+    }
+
     private Object go(EventLog log) {
         final Timer.Context timer = batchTimer.time();
         try {
+             final PixelsStats approximate = (PixelsStats)
+                     executor.execute(getPrincipal(),
+                             new HandleApproximateStats(log,
+                                     (PixelDataHandler) work, this,
+                                     "handleApproximateStats"));
              executor.execute(getPrincipal(),
-                     new HandleEventLog(log, (PixelDataHandler) work,
-                             this, "handleEventLog"));
+                     new HandleEventLog(log, approximate,
+                             (PixelDataHandler) work, this, "handleEventLog"));
              return log;
         } finally {
             timer.stop();
@@ -7,20 +7,44 @@
 
 package ome.services.scheduler;
 
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
+import ome.system.metrics.Counter;
+import ome.system.metrics.Metrics;
+import ome.system.metrics.NullMetrics;
+import ome.system.metrics.Timer;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.quartz.Scheduler;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 /**
  * Produces a <a href="http://www.opensymphony.com/quartz/Quartz</a>
  * {@link Scheduler} which automatically loads all the triggers it can find.
  *
+ * Each pool serves one class of work, e.g. interactive calls, background
+ * processing or system tasks, and is bounded both in its number of threads
+ * and in the number of tasks which may wait for a thread. Threads are
+ * started up to the maximum before tasks are queued. Once the queue is
+ * full, further tasks are either rejected immediately with a
+ * {@link RejectedExecutionException} ({@link #ABORT}), or the submitting
+ * thread waits for space in the queue for up to the block timeout before
+ * being rejected ({@link #BLOCK}), which slows down producers of
+ * background work rather than failing them.
+ *
+ * The number of active, queued and rejected tasks as well as the time
+ * tasks wait in the queue and take to run are published as metrics
+ * prefixed with the name of the pool.
+ *
  * @author Josh Moore, josh at glencoesoftware.com
  * @since Beta4.2.1
  */
@@ -28,17 +52,103 @@ public class ThreadPool {
 
     private final static Logger log = LoggerFactory.getLogger(ThreadPool.class);
 
-    private final LinkedBlockingQueue<Runnable> queue;
+    /** Rejection policy which fails a task as soon as the queue is full. */
+    public final static String ABORT = "abort";
+
+    /** Rejection policy which waits for space in the queue. */
+    public final static String BLOCK = "block";
+
+    private final BlockingQueue<Runnable> queue;
 
     private final ThreadFactory factory;
 
     private final ExecutorService executor;
 
+    private final Counter active, queued, rejected;
+
+    private final Timer wait, latency;
+
+    /**
+     * Creates an unnamed pool with an unbounded queue, i.e. one which never
+     * runs more than {@code minThreads} threads.
+     */
     public ThreadPool(int minThreads, int maxThreads, long msTimeout) {
-        queue = new LinkedBlockingQueue<Runnable>();
-        factory = null;
-        executor = new ThreadPoolExecutor(minThreads, maxThreads, msTimeout,
-                TimeUnit.MILLISECONDS, queue); // factory
+        this("pool", minThreads, maxThreads, msTimeout, 0, ABORT, 0,
+                new NullMetrics());
+    }
+
+    /**
+     * @param name used for the thread names and as the prefix of the
+     *          metrics, e.g. "interactive".
+     * @param minThreads number of threads started immediately.
+     * @param maxThreads maximum number of threads.
+     * @param msTimeout milliseconds after which idle threads stop.
+     * @param queueSize maximum number of tasks waiting for a thread. 0 or
+     *          less leaves the queue unbounded, in which case no more than
+     *          {@code minThreads} threads are ever started.
+     * @param rejection either {@link #ABORT} or {@link #BLOCK}.
+     * @param msBlock milliseconds which {@link #BLOCK} waits for space in
+     *          the queue before rejecting the task.
+     * @param metrics source of the counters and timers of this pool.
+     */
+    public ThreadPool(String name, int minThreads, int maxThreads,
+            long msTimeout, int queueSize, String rejection, long msBlock,
+            Metrics metrics) {
+        this.active = metrics.counter(this, name + ".active");
+        this.queued = metrics.counter(this, name + ".queued");
+        this.rejected = metrics.counter(this, name + ".rejected");
+        this.wait = metrics.timer(this, name + ".wait");
+        this.latency = metrics.timer(this, name + ".latency");
+        this.factory = new ThreadFactoryBuilder()
+                .setNameFormat(name + "-%d")
+                .build();
+        minThreads = Math.max(1, minThreads);
+        maxThreads = Math.max(minThreads, maxThreads);
+        final ThreadPoolExecutor tpe;
+        if (queueSize <= 0) {
+            queue = new LinkedBlockingQueue<Runnable>();
+            tpe = new InstrumentedExecutor(minThreads, maxThreads, msTimeout,
+                    queue, factory, handler(ABORT, 0));
+        } else {
+            // A pool only grows beyond its core size once the queue is
+            // full, so all threads are core threads which may time out.
+            queue = new LinkedBlockingQueue<Runnable>(queueSize);
+            tpe = new InstrumentedExecutor(maxThreads, maxThreads, msTimeout,
+                    queue, factory, handler(rejection, msBlock));
+            tpe.allowCoreThreadTimeOut(true);
+            for (int i = 0; i < minThreads; i++) {
+                tpe.prestartCoreThread();
+            }
+        }
+        executor = tpe;
+        log.info("Thread pool {}: threads={}-{} queue={} rejection={}", name,
+                minThreads, maxThreads,
+                queueSize <= 0 ? "unbounded" : queueSize, rejection);
+    }
+
+    private RejectedExecutionHandler handler(String rejection,
+            final long msBlock) {
+        if (BLOCK.equals(rejection)) {
+            return new RejectedExecutionHandler() {
+                public void rejectedExecution(Runnable r, ThreadPoolExecutor e) {
+                    if (!e.isShutdown()) {
+                        try {
+                            if (e.getQueue().offer(r, msBlock,
+                                    TimeUnit.MILLISECONDS)) {
+                                return;
+                            }
+                        } catch (InterruptedException ie) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    throw new RejectedExecutionException("Queue full");
+                }
+            };
+        } else if (ABORT.equals(rejection)) {
+            return new ThreadPoolExecutor.AbortPolicy();
+        }
+        throw new IllegalArgumentException("Unknown rejection policy: "
+                + rejection);
     }
 
     public ExecutorService getExecutor() {
@@ -49,4 +159,60 @@ public class ThreadPool {
         return queue.size();
     }
 
+    /**
+     * Stops all threads. Called by Spring on context close.
+     */
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Task which records its time in the queue and running.
+     */
+    private class Task implements Runnable {
+
+        private final Runnable delegate;
+
+        private final Timer.Context waiting = wait.time();
+
+        Task(Runnable delegate) {
+            this.delegate = delegate;
+        }
+
+        public void run() {
+            waiting.stop();
+            queued.dec();
+            active.inc();
+            final Timer.Context running = latency.time();
+            try {
+                delegate.run();
+            } finally {
+                running.stop();
+                active.dec();
+            }
+        }
+    }
+
+    private class InstrumentedExecutor extends ThreadPoolExecutor {
+
+        InstrumentedExecutor(int core, int max, long msTimeout,
+                BlockingQueue<Runnable> queue, ThreadFactory factory,
+                RejectedExecutionHandler handler) {
+            super(core, max, msTimeout, TimeUnit.MILLISECONDS, queue,
+                    factory, handler);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            queued.inc();
+            try {
+                super.execute(new Task(command));
+            } catch (RejectedExecutionException ree) {
+                queued.dec();
+                rejected.inc();
+                throw ree;
+            }
+        }
+    }
+
 }
@@ -22,6 +22,8 @@ import ome.conditions.ApiUsageException;
 import ome.model.IAnnotated;
 import ome.model.IObject;
 import ome.model.core.Image;
+import ome.model.internal.Details;
+import ome.system.EventContext;
 import ome.system.ServiceFactory;
 import ome.util.search.InvalidQueryException;
 import ome.util.search.LuceneQueryBuilder;
@@ -29,9 +31,13 @@ import ome.util.search.LuceneQueryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.index.Term;
 import org.apache.lucene.queryParser.ParseException;
 import org.apache.lucene.queryParser.QueryParser;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
 import org.hibernate.Criteria;
 import org.hibernate.Session;
 import org.hibernate.criterion.Order;
@@ -70,6 +76,26 @@ public class FullText extends SearchAction {
 
     private final Class<? extends Analyzer> analyzer;
 
+    /**
+     * Number of objects returned per call to
+     * {@link #doWork(Session, ServiceFactory)}. If 0, all hits are returned
+     * at once.
+     */
+    private int pageSize = 0;
+
+    /**
+     * Whether the group and owner restrictions should be applied to the
+     * Lucene query. Requires an index built with the "details.group.id" and
+     * "details.owner.id" fields.
+     */
+    private boolean securityFilter = false;
+
+    /** Number of Lucene hits consumed by previous pages. */
+    private int offset = 0;
+
+    /** Set once all Lucene hits have been consumed. */
+    private boolean exhausted = false;
+
     /**
      * Constructs a new instance; Builds a Lucence query with the provided
      * arguments and passes it on the Lucene parser
@@ -289,6 +315,39 @@ public class FullText extends SearchAction {
         return criteria;
     }
 
+    /**
+     * Switches this instance to returning at most <code>pageSize</code>
+     * objects per call to {@link #doWork(Session, ServiceFactory)} if
+     * the results are ordered by score. Only the Lucene hits for the
+     * current page are loaded from the database; the position of the
+     * last hit is kept so that the next call continues from there.
+     * {@link #hasMore()} should be checked before calling again.
+     */
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * If true, restricts the Lucene query to objects in the groups
+     * readable by the current user (and to {@link SearchValues#ownedBy})
+     * so that hits which would be removed by the security filters are
+     * never loaded.
+     */
+    public void setSecurityFilter(boolean securityFilter) {
+        this.securityFilter = securityFilter;
+    }
+
+    /**
+     * Returns true if paging was used and further Lucene hits remain.
+     */
+    public boolean hasMore() {
+        return isPaged() && !exhausted;
+    }
+
+    private boolean isPaged() {
+        return pageSize > 0 && values.orderBy.isEmpty();
+    }
+
     /**
      * Allows settings offset and limit on the query. The default implementation
      * calls setProjection with SCORE and ID, which MUST BE the first two
@@ -311,21 +370,18 @@ public class FullText extends SearchAction {
         }
 
         final Class<?> cls = values.onlyTypes.get(0);
-        FullTextSession session = Search.createFullTextSession(s);
-        Criteria criteria = criteria(session);
-        if (criteria == null) {
+        FullTextSession session = fullTextSession(s);
+        if (criteria(session) == null) {
             return null; // EARLY EXIT. See criteria method.
         }
 
-        final String ticket975 = "ticket:975 - Wrong return type: %s instead of %s\n"
-                + "Under some circumstances, byFullText and related methods \n"
-                + "like bySomeMustNone can return instances of the wrong \n"
-                + "types. One known case is the use of onlyAnnotatedWith(). \n"
-                + "If you are recieving this error, please try using the \n"
-                + "intersection/union methods to achieve the same results.";
+        if (isPaged()) {
+            return page(session, sf, cls);
+        }
 
         // Main query
-        FullTextQuery ftQuery = session.createFullTextQuery(this.q, cls);
+        FullTextQuery ftQuery = session.createFullTextQuery(
+                securityFiltered(sf), cls);
         initializeQuery(ftQuery);
         List<?> result = ftQuery.list();
         int totalSize = ftQuery.getResultSize();
@@ -335,6 +391,110 @@ public class FullText extends SearchAction {
             return result; // of wrong type but with generics it doesn't matter
         }
 
+        return load(session, cls, result, totalSize);
+    }
+
+    /**
+     * Wraps the given Hibernate session for the Lucene and database queries
+     * of {@link #doWork(Session, ServiceFactory)}.
+     */
+    protected FullTextSession fullTextSession(Session s) {
+        return Search.createFullTextSession(s);
+    }
+
+    /**
+     * Loads hits until {@link #pageSize} objects are found or the hits are
+     * exhausted. Lucene only collects the top {@link #offset} plus
+     * {@link #pageSize} hits, and only those of the current page are
+     * loaded from the database.
+     */
+    private List<IObject> page(FullTextSession session, ServiceFactory sf,
+            Class<?> cls) {
+        final Query query = securityFiltered(sf);
+        final List<IObject> page = new ArrayList<IObject>();
+        while (page.size() < pageSize && !exhausted) {
+            final int wanted = pageSize - page.size();
+            final FullTextQuery ftQuery = session.createFullTextQuery(query,
+                    cls);
+            initializeQuery(ftQuery);
+            ftQuery.setFirstResult(offset);
+            ftQuery.setMaxResults(wanted);
+            final List<?> result = ftQuery.list();
+            final int totalSize = ftQuery.getResultSize();
+            offset += result.size();
+            exhausted = result.size() < wanted || offset >= totalSize;
+            if (!result.isEmpty()) {
+                // Hits removed by the database filters are replaced by
+                // the next ones on the following loop.
+                page.addAll(load(session, cls, result, totalSize));
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Returns {@link #q}, restricted to the current group(s) and the owner
+     * requested via {@link SearchValues#ownedBy} if {@link #securityFilter}
+     * is enabled. The database query will still apply all other
+     * restrictions.
+     */
+    private Query securityFiltered(ServiceFactory sf) {
+        if (!securityFilter) {
+            return q;
+        }
+        final BooleanQuery filtered = new BooleanQuery();
+        filtered.add(q, Occur.MUST);
+
+        final EventContext ec = sf.getAdminService().getEventContext();
+        final Long groupId = ec.getCurrentGroupId();
+        final List<Long> groupIds;
+        if (groupId != null && groupId >= 0) {
+            groupIds = Collections.singletonList(groupId);
+        } else if (ec.isCurrentUserAdmin()) {
+            groupIds = null; // All groups are readable
+        } else {
+            groupIds = ec.getMemberOfGroupsList();
+        }
+        if (groupIds != null) {
+            final BooleanQuery groups = new BooleanQuery();
+            for (Long id : groupIds) {
+                groups.add(new TermQuery(new Term("details.group.id",
+                        id.toString())), Occur.SHOULD);
+            }
+            filtered.add(groups, Occur.MUST);
+        }
+
+        final Details ownedBy = values.ownedBy;
+        if (ownedBy != null) {
+            if (ownedBy.getOwner() != null
+                    && ownedBy.getOwner().getId() != null) {
+                filtered.add(new TermQuery(new Term("details.owner.id",
+                        ownedBy.getOwner().getId().toString())), Occur.MUST);
+            }
+            if (ownedBy.getGroup() != null
+                    && ownedBy.getGroup().getId() != null) {
+                filtered.add(new TermQuery(new Term("details.group.id",
+                        ownedBy.getGroup().getId().toString())), Occur.MUST);
+            }
+        }
+        return filtered;
+    }
+
+    /**
+     * Loads the objects for the given projections in pages of 1000 ids,
+     * applying the {@link #criteria(FullTextSession) criteria} and the
+     * security filters, and returns them in the order of the hits.
+     */
+    private List<IObject> load(FullTextSession session, Class<?> cls,
+            List<?> result, int totalSize) {
+
+        final String ticket975 = "ticket:975 - Wrong return type: %s instead of %s\n"
+                + "Under some circumstances, byFullText and related methods \n"
+                + "like bySomeMustNone can return instances of the wrong \n"
+                + "types. One known case is the use of onlyAnnotatedWith(). \n"
+                + "If you are recieving this error, please try using the \n"
+                + "intersection/union methods to achieve the same results.";
+
         final Map<Long, Integer> order = new HashMap<Long, Integer>();
         final Map<Long, Float> scores = new HashMap<Long, Float>();
         final Map<Long, Object[]> projections = new HashMap<Long, Object[]>();
@@ -355,12 +515,9 @@ public class FullText extends SearchAction {
             for (int i = 0; i < 1000 && ids.size() > 0; i++) {
                 page.add(ids.removeFirst());
             }
-            if (criteria == null) {
-                criteria = criteria(session);
-            }
+            final Criteria criteria = criteria(session);
             criteria.add(Restrictions.in("id", page));
             check975.addAll(criteria.list());
-            criteria = null;
         }
 
         for (IObject object : check975) {
@@ -41,6 +41,7 @@ import ome.model.meta.Share;
 import ome.parameters.Filter;
 import ome.parameters.Parameters;
 import ome.security.basic.PrincipalHolder;
+import ome.services.messages.Asynchronous;
 import ome.services.messages.CreateSessionMessage;
 import ome.services.messages.DestroySessionMessage;
 import ome.services.sessions.events.ChangeSecurityContextEvent;
@@ -82,11 +83,13 @@ import com.google.common.collect.MapMaker;
  * user names to prevent this. (Strictly alphanumeric)
  *
  * Receives notifications as an {@link ApplicationListener}, which should be
- * used to keep the {@link Session} instances up-to-date.
+ * used to keep the {@link Session} instances up-to-date. Closing destroyed
+ * sessions in the database happens in the background.
  *
  * @author Josh Moore, josh at glencoesoftware.com
  * @since 3.0-Beta3
  */
+@Asynchronous(DestroySessionMessage.class)
 public class SessionManagerImpl implements SessionManager, SessionCache.StaleCacheListener,
         ApplicationContextAware, ApplicationListener<ApplicationEvent> {
 
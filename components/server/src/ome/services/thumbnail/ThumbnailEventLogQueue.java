@@ -0,0 +1,34 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+
+package ome.services.thumbnail;
+
+import ome.model.meta.EventLog;
+import ome.services.eventlogs.EventLogQueue;
+import ome.system.metrics.Metrics;
+
+/**
+ * {@link EventLogQueue} for {@link ome.model.display.RenderingDef} changes
+ * which, unlike the indexing and pixeldata queues, starts from the newest
+ * {@link EventLog} the first time it is used. Thumbnails for older settings
+ * will still be generated lazily by the ThumbnailBean, so there is no need
+ * to replay the whole history of the server.
+ *
+ * @since 5.1
+ */
+public class ThumbnailEventLogQueue extends EventLogQueue {
+
+    public ThumbnailEventLogQueue(Metrics metrics, int max, String[] types,
+            String[] actions) {
+        super(metrics, max, types, actions);
+    }
+
+    @Override
+    public void initialize() {
+        final EventLog last = lastEventLog();
+        setCurrentId(last == null ? -1 : last.getId());
+    }
+
+}
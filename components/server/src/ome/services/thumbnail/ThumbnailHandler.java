@@ -0,0 +1,133 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+
+package ome.services.thumbnail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ome.model.meta.EventLog;
+import ome.services.eventlogs.EventLogLoader;
+import ome.services.util.Executor.SimpleWork;
+import ome.system.ServiceFactory;
+import ome.util.SqlAction;
+
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * First phase of the background thumbnail generation. Reads
+ * {@link ome.model.display.RenderingDef} event logs from the
+ * {@link EventLogLoader} and resolves each to the Pixels and the owner for
+ * which the thumbnails must be regenerated. The {@link ThumbnailThread}
+ * then handles each {@link Stale} instance in its own transaction.
+ *
+ * @since 5.1
+ */
+public class ThumbnailHandler extends SimpleWork {
+
+    private final static Logger log = LoggerFactory.getLogger(ThumbnailHandler.class);
+
+    /**
+     * Rendering settings whose thumbnails are to be regenerated, along with
+     * the user and group the generation should run as.
+     */
+    public static class Stale {
+
+        public final long renderingDefId;
+
+        public final long pixelsId;
+
+        public final String owner;
+
+        public final String group;
+
+        public Stale(long renderingDefId, long pixelsId, String owner,
+                String group) {
+            this.renderingDefId = renderingDefId;
+            this.pixelsId = pixelsId;
+            this.owner = owner;
+            this.group = group;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("RenderingDef:%s(pixels=%s, owner=%s, group=%s)",
+                    renderingDefId, pixelsId, owner, group);
+        }
+    }
+
+    final protected EventLogLoader loader;
+
+    protected int reps = 50;
+
+    public ThumbnailHandler(EventLogLoader loader) {
+        super("ThumbnailHandler", "process");
+        this.loader = loader;
+    }
+
+    /**
+     * Spring injector. Sets the maximum number of rendering settings which
+     * will be returned by a single call to {@link #doWork(Session, ServiceFactory)}.
+     */
+    public void setRepetitions(int reps) {
+        this.reps = reps;
+    }
+
+    /**
+     * Since these instances are used repeatedly, we need to check for
+     * already set SqlAction
+     */
+    @Override
+    public synchronized void setSqlAction(SqlAction sql) {
+        if (getSqlAction() == null) {
+            super.setSqlAction(sql);
+        }
+    }
+
+    /**
+     * Loads up to {@link #reps} {@link EventLog} instances and returns the
+     * matching {@link Stale} instances. Settings which have been deleted in
+     * the meantime are skipped. Must be called with "omero.group" set to -1.
+     */
+    @Transactional(readOnly = false)
+    public Object doWork(Session session, ServiceFactory sf) {
+        final List<Stale> stale = new ArrayList<Stale>();
+        while (stale.size() < reps && loader.hasNext()) {
+            final EventLog el = loader.next();
+            if (el == null) {
+                continue;
+            }
+            final Stale s = getStale(el.getEntityId(), session);
+            if (s == null) {
+                log.debug("Skipping missing RenderingDef:" + el.getEntityId());
+                continue;
+            }
+            stale.add(s);
+        }
+        return stale;
+    }
+
+    /**
+     * Resolves the rendering settings to the Pixels they belong to and to
+     * the names of their owner and group, or returns null if the settings no
+     * longer exist.
+     */
+    protected Stale getStale(Long id, Session session) {
+        final Object[] row = (Object[]) session.createQuery(
+                "select r.pixels.id, o.omeName, g.name " +
+                "from RenderingDef r join r.details.owner o " +
+                "join r.details.group g where r.id = :id")
+                .setParameter("id", id)
+                .uniqueResult();
+        if (row == null) {
+            return null;
+        }
+        return new Stale(id, (Long) row[0], (String) row[1], (String) row[2]);
+    }
+
+}
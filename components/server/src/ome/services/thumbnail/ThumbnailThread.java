@@ -0,0 +1,278 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+
+package ome.services.thumbnail;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+
+import ome.api.ThumbnailStore;
+import ome.conditions.SessionException;
+import ome.services.sessions.SessionManager;
+import ome.services.thumbnail.ThumbnailHandler.Stale;
+import ome.services.util.ExecutionThread;
+import ome.services.util.Executor;
+import ome.system.Principal;
+import ome.system.ServiceFactory;
+import ome.system.metrics.Counter;
+import ome.system.metrics.Metrics;
+import ome.system.metrics.NullMetrics;
+import ome.system.metrics.Timer;
+
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Regenerates the thumbnails of changed rendering settings in the
+ * background, so that the first view of a plate or dataset after an import
+ * or a bulk settings change does not have to create them synchronously.
+ * Modeled on {@link ome.services.pixeldata.PixelDataThread}: each run loads a
+ * batch of {@link Stale} settings via the {@link ThumbnailHandler} and then
+ * regenerates them with at most {@link #numThreads} running at a time. Each
+ * regeneration runs as the owner of the settings so that the same
+ * {@link ome.model.display.Thumbnail} objects are updated as when the owner
+ * requests them.
+ *
+ * @since 5.1
+ */
+public class ThumbnailThread extends ExecutionThread {
+
+    private final static Logger log = LoggerFactory.getLogger(ThumbnailThread.class);
+
+    private final static Principal DEFAULT_PRINCIPAL = new Principal("root",
+            "system", "Task");
+
+    /** The longest sides generated when none are configured. */
+    private final static int[] DEFAULT_SIZES = new int[] { 96, 128, 256 };
+
+    /** Loads the settings from all groups. */
+    private final static Map<String, String> ALL_GROUPS =
+            Collections.singletonMap("omero.group", "-1");
+
+    /** Number of thumbnails generated concurrently. 0 disables processing. */
+    private final int numThreads;
+
+    /** Longest sides of the thumbnails generated for each settings. */
+    private final int[] sizes;
+
+    /** Sessions of the settings owners keyed by "user/group". */
+    private final Map<String, Principal> owners =
+            new ConcurrentHashMap<String, Principal>();
+
+    private final Timer batchTimer;
+
+    private final Timer regenerateTimer;
+
+    private final Counter regeneratedCount, failureCount;
+
+    /**
+     * Uses the default sizes and a {@link NullMetrics} instance.
+     */
+    public ThumbnailThread(SessionManager manager, Executor executor,
+            ThumbnailHandler handler, int numThreads) {
+        this(manager, executor, handler, numThreads, DEFAULT_SIZES,
+                new NullMetrics());
+    }
+
+    /**
+     * Uses the default {@link Principal} for loading the settings.
+     */
+    public ThumbnailThread(SessionManager manager, Executor executor,
+            ThumbnailHandler handler, int numThreads, int[] sizes,
+            Metrics metrics) {
+        this(manager, executor, handler, DEFAULT_PRINCIPAL, numThreads, sizes,
+                metrics);
+    }
+
+    /**
+     * Main constructor. No arguments can be null.
+     */
+    public ThumbnailThread(SessionManager manager, Executor executor,
+            ThumbnailHandler handler, Principal principal, int numThreads,
+            int[] sizes, Metrics metrics) {
+        super(manager, executor, handler, principal);
+        this.numThreads = numThreads;
+        this.sizes = sizes == null || sizes.length == 0 ? DEFAULT_SIZES
+                : sizes.clone();
+        this.batchTimer = metrics.timer(this, "batch");
+        this.regenerateTimer = metrics.timer(this, "regenerate");
+        this.regeneratedCount = metrics.counter(this, "regeneratedCount");
+        this.failureCount = metrics.counter(this, "failureCount");
+    }
+
+    /**
+     * Called by Spring on creation. Only logs the configuration.
+     */
+    public void start() {
+        if (numThreads > 0) {
+            log.info(String.format("Initializing ThumbnailThread " +
+                    "(threads=%s, sizes=%s)", numThreads,
+                    Arrays.toString(sizes)));
+        } else {
+            log.info("ThumbnailThread disabled");
+        }
+    }
+
+    /**
+     * Loads a batch of {@link Stale} settings and regenerates them in the
+     * background, never submitting more than {@link #numThreads} at a time
+     * so that the server's shared thread pool is not flooded after a bulk
+     * change.
+     */
+    @Override
+    public void doRun() {
+        if (numThreads < 1) {
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        final List<Stale> stale = (List<Stale>)
+                executor.execute(ALL_GROUPS, getPrincipal(), work);
+        if (stale.isEmpty()) {
+            return;
+        }
+
+        final Timer.Context timer = batchTimer.time();
+        try {
+            final ExecutorCompletionService<Stale> ecs =
+                    new ExecutorCompletionService<Stale>(executor.getService());
+            final Iterator<Stale> it = stale.iterator();
+            int running = 0;
+            while (running < numThreads && it.hasNext()) {
+                submit(ecs, it.next());
+                running++;
+            }
+            while (running > 0) {
+                try {
+                    final Future<Stale> future = ecs.take();
+                    running--;
+                    future.get();
+                } catch (ExecutionException ee) {
+                    onExecutionException(ee);
+                } catch (InterruptedException ie) {
+                    log.debug("Interrupted; looping", ie);
+                    continue;
+                }
+                if (it.hasNext()) {
+                    submit(ecs, it.next());
+                    running++;
+                }
+            }
+        } finally {
+            timer.stop();
+        }
+    }
+
+    private void submit(ExecutorCompletionService<Stale> ecs, final Stale s) {
+        ecs.submit(new Callable<Stale>() {
+            @Override
+            public Stale call() throws Exception {
+                return go(s);
+            }
+        });
+    }
+
+    private Stale go(Stale s) {
+        final Timer.Context timer = regenerateTimer.time();
+        try {
+            regenerate(s);
+            regeneratedCount.inc();
+            return s;
+        } catch (RuntimeException rt) {
+            failureCount.inc();
+            throw rt;
+        } finally {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Regenerates the thumbnails for the given settings at each of the
+     * configured {@link #sizes}. Thumbnails which are up to date are left
+     * untouched by the {@link ThumbnailStore}.
+     */
+    protected void regenerate(final Stale s) {
+        executor.execute(ownerPrincipal(s), new Executor.SimpleWork(this,
+                "regenerate", s.renderingDefId) {
+            @Transactional(readOnly = false)
+            public Object doWork(Session session, ServiceFactory sf) {
+                final ThumbnailStore store = sf.createThumbnailService();
+                try {
+                    if (!store.setPixelsId(s.pixelsId)) {
+                        log.debug("No settings for " + s);
+                        return null;
+                    }
+                    store.setRenderingDefId(s.renderingDefId);
+                    for (int size : sizes) {
+                        store.getThumbnailByLongestSide(size);
+                    }
+                    log.debug("Regenerated " + s);
+                    return null;
+                } finally {
+                    store.close();
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns a session {@link Principal} for the owner of the settings,
+     * creating a new session if none is cached or the cached one has been
+     * closed.
+     */
+    private Principal ownerPrincipal(Stale s) {
+        final String key = s.owner + "/" + s.group;
+        Principal p = owners.get(key);
+        if (p != null) {
+            try {
+                manager.getEventContext(p);
+                return p;
+            } catch (SessionException e) {
+                owners.remove(key);
+            }
+        }
+        final ome.model.meta.Session session = manager.createWithAgent(
+                new Principal(s.owner, s.group, "Task"), "ThumbnailThread",
+                null);
+        p = new Principal(session.getUuid(), s.group, "Task");
+        owners.put(key, p);
+        return p;
+    }
+
+    /**
+     * Basic handling just logs at ERROR level. Subclasses (especially for
+     * testing) can do more.
+     */
+    protected void onExecutionException(ExecutionException ee) {
+        log.error("Failed to regenerate thumbnails", ee.getCause());
+    }
+
+    /**
+     * Called by Spring on destruction.
+     */
+    public void stop() {
+        log.info("Shutting down ThumbnailThread");
+        ((ThumbnailHandler) this.work).loader.setStop(true);
+        for (Principal p : owners.values()) {
+            try {
+                manager.close(p.getName());
+            } catch (Exception e) {
+                log.debug("Failed to close session " + p.getName(), e);
+            }
+        }
+        owners.clear();
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+
+package ome.services.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import ome.model.meta.EventLog;
+import ome.services.messages.EventLogsMessage;
+import ome.system.metrics.Counter;
+import ome.system.metrics.Metrics;
+
+import org.springframework.context.ApplicationListener;
+
+/**
+ * Base class of the server-wide caches which are kept current from the
+ * {@link EventLogsMessage} published for each transaction. The UPDATE and
+ * DELETE event logs of the watched types are turned into "Class:id" keys,
+ * as returned by {@link #key(Class, Long)}, and passed to
+ * {@link #invalidate(Set)}. Also provides the hit, miss and invalidation
+ * counters of the subclass.
+ *
+ * @since 5.1
+ */
+public abstract class EventLogInvalidatedCache implements
+        ApplicationListener<EventLogsMessage> {
+
+    private final static String[] ACTIONS = new String[] { "UPDATE", "DELETE" };
+
+    /** Types whose UPDATE and DELETE event logs invalidate entries. */
+    private final List<Class<?>> types;
+
+    protected final Counter hits, misses, invalidations;
+
+    /**
+     * @param metrics source of the hit, miss and invalidation counters.
+     * @param types the types whose event logs invalidate entries.
+     */
+    protected EventLogInvalidatedCache(Metrics metrics, Class<?>... types) {
+        this.hits = metrics.counter(this, "hits");
+        this.misses = metrics.counter(this, "misses");
+        this.invalidations = metrics.counter(this, "invalidations");
+        this.types = Collections.unmodifiableList(Arrays.asList(types));
+    }
+
+    /**
+     * @return the key of the given object in the invalidated key sets.
+     */
+    public static String key(Class<?> type, Long id) {
+        return type.getSimpleName() + ":" + id;
+    }
+
+    /**
+     * @return if nothing is cached, so that the message need not be read.
+     */
+    protected abstract boolean isEmpty();
+
+    /**
+     * Drops the entries containing any of the given objects.
+     *
+     * @param keys the "Class:id" keys of the updated or deleted objects.
+     */
+    protected abstract void invalidate(Set<String> keys);
+
+    /**
+     * Invalidates the entries containing any object of the watched types
+     * with an UPDATE or DELETE event log.
+     */
+    @Override
+    public void onApplicationEvent(EventLogsMessage elm) {
+        if (isEmpty()) {
+            return;
+        }
+        final Set<String> keys = new HashSet<String>();
+        for (final Class<?> type : types) {
+            for (final String action : ACTIONS) {
+                for (final EventLog el : elm.matches(type.getName(), action)) {
+                    keys.add(key(type, el.getEntityId()));
+                }
+            }
+        }
+        if (!keys.isEmpty()) {
+            invalidate(keys);
+        }
+    }
+
+}
@@ -14,8 +14,10 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 
 import ome.conditions.InternalException;
+import ome.conditions.OverUsageException;
 import ome.security.SecuritySystem;
 import ome.security.basic.CurrentDetails;
 import ome.system.EventContext;
@@ -59,10 +61,18 @@ public interface Executor extends ApplicationContextAware {
     public enum Priority {
 
         /**
-         * Uses a non-limited thread pool.
+         * Uses the thread pool for server-internal tasks configured via
+         * etc/omero.properties with omero.threads.system.*
          */
         SYSTEM,
 
+        /**
+         * Uses the thread pool for long-running work on behalf of users,
+         * such as omero.cmd requests, configured via etc/omero.properties
+         * with omero.threads.background.*
+         */
+        BACKGROUND,
+
         /**
          * Uses the limited thread pool configured via etc/omero.properties
          * with omero.threads.max_threads, etc.
@@ -153,6 +163,7 @@ public interface Executor extends ApplicationContextAware {
      * @param callContext Possibly null. See {@link CurrentDetails#setContext(Map)}
      * @param callable Not null. Action to be taken.
      * @return See above.
+     * @throws OverUsageException if the pool for the priority is full
      */
     public <T> Future<T> submit(Priority prio,
             final Map<String, String> callContext,
@@ -336,6 +347,7 @@ public interface Executor extends ApplicationContextAware {
         final protected SessionFactory factory;
         final protected SqlAction sqlAction;
         final protected ExecutorService service;
+        final protected ExecutorService backgroundService;
         final protected ExecutorService systemService;
 
         public Impl(CurrentDetails principalHolder, SessionFactory factory,
@@ -347,13 +359,29 @@ public interface Executor extends ApplicationContextAware {
         public Impl(CurrentDetails principalHolder, SessionFactory factory,
                 SqlAction sqlAction, String[] proxyNames,
                 ExecutorService service) {
+            // Allowed to create more threads.
+            this(principalHolder, factory, sqlAction, proxyNames, service,
+                    service, Executors.newCachedThreadPool());
+        }
+
+        /**
+         * Creates an executor with a separate pool for each {@link Priority}.
+         *
+         * @param service pool for {@link Priority#USER}
+         * @param backgroundService pool for {@link Priority#BACKGROUND}
+         * @param systemService pool for {@link Priority#SYSTEM}
+         */
+        public Impl(CurrentDetails principalHolder, SessionFactory factory,
+                SqlAction sqlAction, String[] proxyNames,
+                ExecutorService service, ExecutorService backgroundService,
+                ExecutorService systemService) {
             this.sqlAction = sqlAction;
             this.factory = factory;
             this.principalHolder = principalHolder;
             this.proxyNames = proxyNames;
             this.service = service;
-            // Allowed to create more threads.
-            this.systemService = Executors.newCachedThreadPool();
+            this.backgroundService = backgroundService;
+            this.systemService = systemService;
         }
 
         public void setApplicationContext(ApplicationContext applicationContext)
@@ -489,13 +517,24 @@ public interface Executor extends ApplicationContextAware {
                 };
             }
 
+            final ExecutorService pool;
             if (prio == null || prio == Priority.USER) {
-                return service.submit(wrapper);
+                pool = service;
+            } else if (prio == Priority.BACKGROUND) {
+                pool = backgroundService;
             } else if (prio == Priority.SYSTEM) {
-                return systemService.submit(wrapper);
+                pool = systemService;
             } else {
                 throw new InternalException("Unknown priority: " + prio);
             }
+
+            try {
+                return pool.submit(wrapper);
+            } catch (RejectedExecutionException ree) {
+                throw new OverUsageException("Server is too busy to accept "
+                        + "more " + (prio == null ? Priority.USER : prio)
+                        + " tasks. Try again later.");
+            }
         }
 
         public <T> T get(final Future<T> future) {
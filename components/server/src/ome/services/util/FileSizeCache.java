@@ -0,0 +1,268 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+
+package ome.services.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import ome.conditions.InternalException;
+import ome.model.core.Pixels;
+import ome.model.display.Thumbnail;
+import ome.system.metrics.Counter;
+import ome.system.metrics.Metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Server-wide cache of the sizes of the files which the server keeps for
+ * model objects outside of the managed repository, e.g. the pixels and
+ * pyramid files of a {@link Pixels} or the file of a {@link Thumbnail}.
+ * These sizes are not stored in the database so computing disk usage
+ * requires a stat of each file, which over networked storage dominates
+ * the time taken.
+ *
+ * Sizes are looked up by the "Class:id" key of the owning object. Files
+ * whose sizes are not cached are stat'd in parallel, with at most
+ * {@code threadsPerVolume} concurrent stats against each file store.
+ * Entries are invalidated by the UPDATE or DELETE event logs of their
+ * object, while files which change without a database update, e.g. a
+ * pyramid which has been generated in the background, are picked up
+ * once the entry expires.
+ *
+ * @since 5.1
+ */
+public class FileSizeCache extends EventLogInvalidatedCache {
+
+    private final static Logger log = LoggerFactory.getLogger(FileSizeCache.class);
+
+    private final Cache<String, long[]> cache;
+
+    private final ExecutorService pool;
+
+    private final int threadsPerVolume;
+
+    /** Permits for stats against each file store. */
+    private final ConcurrentMap<Object, Semaphore> volumes =
+            new ConcurrentHashMap<Object, Semaphore>();
+
+    /** File store of each directory, as looked up by {@link #volume(File)}. */
+    private final ConcurrentMap<String, Object> volumeByDir =
+            new ConcurrentHashMap<String, Object>();
+
+    private final Counter stats;
+
+    /**
+     * @param metrics source of the hit, miss, invalidation and stat counters.
+     * @param threads number of threads to stat files with. 1 or less stats
+     *          files on the calling thread.
+     * @param threadsPerVolume maximum number of concurrent stats against a
+     *          single file store.
+     * @param maxEntries maximum number of objects whose sizes are cached.
+     *          0 or less disables caching.
+     * @param expirySeconds time after which the files are stat'd again even
+     *          if no change has been seen, or 0 or less to never expire.
+     */
+    public FileSizeCache(Metrics metrics, int threads, int threadsPerVolume,
+            long maxEntries, long expirySeconds) {
+        super(metrics, Pixels.class, Thumbnail.class);
+        this.stats = metrics.counter(this, "stats");
+        this.threadsPerVolume = Math.max(1, threadsPerVolume);
+        if (threads > 1) {
+            this.pool = Executors.newFixedThreadPool(threads,
+                    new ThreadFactoryBuilder()
+                            .setNameFormat("file-size-%d")
+                            .setDaemon(true)
+                            .build());
+        } else {
+            this.pool = null;
+        }
+        if (maxEntries <= 0) {
+            this.cache = null;
+            log.info("FileSizeCache disabled");
+            return;
+        }
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder()
+                .maximumSize(maxEntries);
+        if (expirySeconds > 0) {
+            builder.expireAfterWrite(expirySeconds, TimeUnit.SECONDS);
+        }
+        this.cache = builder.build();
+    }
+
+    /**
+     * Shuts down the stat threads. Called by Spring on context close.
+     */
+    public void destroy() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the sizes of the given files, in the same order, for each of
+     * the given keys. Missing files have a size of 0.
+     *
+     * @param pathsByKey the files of each object by its "Class:id" key, as
+     *          returned by {@link #key(Class, Long)}.
+     * @return the sizes of the files of each object.
+     */
+    public Map<String, long[]> getSizes(Map<String, String[]> pathsByKey) {
+        final Map<String, long[]> sizes = new HashMap<String, long[]>();
+        final Map<String, long[]> computed = new HashMap<String, long[]>();
+        final Map<String, Future<long[]>> pending =
+                new HashMap<String, Future<long[]>>();
+        for (final Map.Entry<String, String[]> entry : pathsByKey.entrySet()) {
+            final String key = entry.getKey();
+            final long[] cached = cache == null ? null : cache.getIfPresent(key);
+            if (cached != null) {
+                hits.inc();
+                sizes.put(key, cached);
+                continue;
+            }
+            misses.inc();
+            final Callable<long[]> task = stat(entry.getValue());
+            if (pool == null) {
+                computed.put(key, call(task));
+            } else {
+                pending.put(key, pool.submit(task));
+            }
+        }
+        try {
+            for (final Map.Entry<String, Future<long[]>> entry : pending.entrySet()) {
+                computed.put(entry.getKey(), entry.getValue().get());
+            }
+        } catch (InterruptedException ie) {
+            for (final Future<long[]> future : pending.values()) {
+                future.cancel(true);
+            }
+            Thread.currentThread().interrupt();
+            throw new InternalException(
+                    "Interrupted while sizing files");
+        } catch (ExecutionException ee) {
+            throw new InternalException(
+                    "Failed to size files: " + ee.getCause());
+        }
+        if (cache != null) {
+            cache.putAll(computed);
+        }
+        sizes.putAll(computed);
+        return sizes;
+    }
+
+    /**
+     * Removes the cached sizes of the given object if any.
+     */
+    public void invalidate(String key) {
+        if (cache != null && cache.getIfPresent(key) != null) {
+            cache.invalidate(key);
+            invalidations.inc();
+        }
+    }
+
+    @Override
+    protected boolean isEmpty() {
+        return cache == null || cache.size() == 0;
+    }
+
+    /**
+     * Invalidates the sizes of the given Pixels and Thumbnails.
+     */
+    @Override
+    protected void invalidate(Set<String> keys) {
+        for (final String key : keys) {
+            invalidate(key);
+        }
+    }
+
+    private Callable<long[]> stat(final String[] paths) {
+        return new Callable<long[]>() {
+            @Override
+            public long[] call() throws InterruptedException {
+                final long[] sizes = new long[paths.length];
+                for (int i = 0; i < paths.length; i++) {
+                    final File file = new File(paths[i]);
+                    final Semaphore permits = permits(file);
+                    permits.acquire();
+                    try {
+                        sizes[i] = file.exists() ? file.length() : 0;
+                    } finally {
+                        permits.release();
+                    }
+                    stats.inc();
+                }
+                return sizes;
+            }
+        };
+    }
+
+    private long[] call(Callable<long[]> task) {
+        try {
+            return task.call();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new InternalException(
+                    "Interrupted while sizing files");
+        } catch (Exception e) {
+            throw new InternalException(
+                    "Failed to size files: " + e);
+        }
+    }
+
+    private Semaphore permits(File file) {
+        final Object volume = volume(file);
+        Semaphore permits = volumes.get(volume);
+        if (permits == null) {
+            permits = new Semaphore(threadsPerVolume);
+            final Semaphore existing = volumes.putIfAbsent(volume, permits);
+            if (existing != null) {
+                permits = existing;
+            }
+        }
+        return permits;
+    }
+
+    /**
+     * Returns the {@link FileStore} holding the given file or, if it cannot
+     * be determined, e.g. because the directory does not exist, the
+     * directory's path. Looked up once per directory.
+     */
+    private Object volume(File file) {
+        final File dir = file.getAbsoluteFile().getParentFile();
+        final String path = dir == null ? "" : dir.getPath();
+        Object volume = volumeByDir.get(path);
+        if (volume == null) {
+            try {
+                volume = Files.getFileStore(dir.toPath());
+            } catch (IOException e) {
+                volume = path;
+            } catch (RuntimeException e) {
+                volume = path;
+            }
+            volumeByDir.putIfAbsent(path, volume);
+        }
+        return volume;
+    }
+
+}
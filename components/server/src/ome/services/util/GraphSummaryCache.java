@@ -0,0 +1,332 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+
+package ome.services.util;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import ome.model.meta.EventLog;
+import ome.services.messages.Asynchronous;
+import ome.services.messages.EventLogsMessage;
+import ome.system.metrics.Counter;
+import ome.system.metrics.Metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationListener;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.SetMultimap;
+
+/**
+ * Server-wide cache of summaries computed by traversing the model object
+ * graph, e.g. the disk usage of a set of objects. Along with each summary
+ * is stored its footprint: the "Class:id" keys of the objects which were
+ * traversed, and the simple names of the types whose rows were followed to
+ * reach them, e.g. DatasetImageLink.
+ *
+ * A summary is dropped once the {@link EventLogsMessage} of a transaction
+ * shows an UPDATE or DELETE of an object in its footprint, or any change
+ * to an object of one of its types, e.g. an image being added to some
+ * dataset. Summaries are not patched: the next request for an invalidated
+ * summary traverses the graph again. Footprints of more than
+ * {@code maxObjects} objects are kept as the types of those objects
+ * instead, so large summaries are invalidated more often but take no more
+ * memory. Changes which are not logged, such as pyramids generated in the
+ * background, are picked up once the summary expires.
+ *
+ * Since summaries take a while to compute, a computation is started with
+ * {@link #begin()} and the changes seen until {@link #put} are checked
+ * against its footprint, so that a summary computed from data which was
+ * changed meanwhile is never cached.
+ *
+ * The {@link EventLogsMessage} is received in the background once the
+ * transaction has completed, so that invalidation adds nothing to the
+ * latency of writes, at the cost of serving a summary for a moment after
+ * a change. Summaries are shared between callers who must not modify them.
+ *
+ * @since 5.1
+ */
+@Asynchronous(EventLogsMessage.class)
+public class GraphSummaryCache<V> implements
+        ApplicationListener<EventLogsMessage> {
+
+    private final static Logger log = LoggerFactory.getLogger(GraphSummaryCache.class);
+
+    private final static String TYPE_PREFIX = "type:";
+
+    /**
+     * A summary along with the keys under which it is indexed in
+     * {@link GraphSummaryCache#dependents}.
+     */
+    private static class Entry<V> {
+
+        final V summary;
+
+        final Set<String> keys;
+
+        Entry(V summary, Set<String> keys) {
+            this.summary = summary;
+            this.keys = keys;
+        }
+    }
+
+    /**
+     * A computation started by {@link GraphSummaryCache#begin()} with the
+     * changes seen since, each in the form of a dependency key.
+     */
+    public static class Computation {
+
+        private final Set<String> changes = new HashSet<String>();
+
+        private boolean overflowed = false;
+    }
+
+    private final Cache<String, Entry<V>> cache;
+
+    private final long maxObjects;
+
+    /**
+     * Maps each "Class:id" or "type:Class" dependency to the keys of the
+     * summaries which depend on it. Guarded by {@code this}.
+     */
+    private final SetMultimap<String, String> dependents = HashMultimap.create();
+
+    /** Computations in progress. Guarded by {@code this}. */
+    private final Set<Computation> computations = new HashSet<Computation>();
+
+    /** Simple names of each logged class and of its superclasses. */
+    private final SetMultimap<String, String> typeNames = HashMultimap.create();
+
+    private final Counter hits, misses, invalidations;
+
+    /**
+     * @param metrics source of the hit, miss and invalidation counters.
+     * @param maxEntries maximum number of summaries cached. 0 or less
+     *          disables caching.
+     * @param maxObjects maximum number of objects noted in the footprint of
+     *          a summary before it is kept by type.
+     * @param expirySeconds time after which a summary is computed again
+     *          even if no change has been seen, or 0 or less to never expire.
+     */
+    public GraphSummaryCache(Metrics metrics, long maxEntries,
+            long maxObjects, long expirySeconds) {
+        this.hits = metrics.counter(this, "hits");
+        this.misses = metrics.counter(this, "misses");
+        this.invalidations = metrics.counter(this, "invalidations");
+        this.maxObjects = maxObjects;
+        if (maxEntries <= 0) {
+            this.cache = null;
+            log.info("GraphSummaryCache disabled");
+            return;
+        }
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder()
+                .maximumSize(maxEntries);
+        if (expirySeconds > 0) {
+            builder.expireAfterWrite(expirySeconds, TimeUnit.SECONDS);
+        }
+        this.cache = builder
+                .removalListener(new RemovalListener<String, Entry<V>>() {
+                    public void onRemoval(
+                            RemovalNotification<String, Entry<V>> n) {
+                        unindex(n.getKey(), n.getValue());
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * @return the key of the given object in a footprint.
+     */
+    public static String key(String simpleName, Long id) {
+        return simpleName + ":" + id;
+    }
+
+    /**
+     * Returns the cached summary or null if none is cached.
+     */
+    public V get(String key) {
+        if (cache == null) {
+            return null;
+        }
+        final Entry<V> entry = cache.getIfPresent(key);
+        if (entry == null) {
+            misses.inc();
+            return null;
+        }
+        hits.inc();
+        return entry.summary;
+    }
+
+    /**
+     * Starts noting the changes against which the summary to be passed to
+     * {@link #put} must be checked. Must be followed by {@link #end}.
+     */
+    public synchronized Computation begin() {
+        final Computation computation = new Computation();
+        if (cache != null) {
+            computations.add(computation);
+        }
+        return computation;
+    }
+
+    /**
+     * Stops noting changes for the given computation.
+     */
+    public synchronized void end(Computation computation) {
+        computations.remove(computation);
+    }
+
+    /**
+     * Caches the given summary unless any object or type in its footprint
+     * changed since the computation began.
+     *
+     * @param computation as returned by {@link #begin()}.
+     * @param key the key of the summary.
+     * @param summary the summary.
+     * @param objects the "Class:id" keys of the objects traversed, as
+     *          returned by {@link #key(String, Long)}.
+     * @param types the simple names of the types whose rows were queried
+     *          to find the objects, or whose changes otherwise affect the
+     *          summary.
+     */
+    public synchronized void put(Computation computation, String key,
+            V summary, Collection<String> objects, Collection<String> types) {
+        if (cache == null || !computations.contains(computation)) {
+            return;
+        }
+        final Set<String> keys = new HashSet<String>();
+        for (final String type : types) {
+            keys.add(TYPE_PREFIX + type);
+        }
+        if (objects.size() > maxObjects) {
+            for (final String object : objects) {
+                keys.add(TYPE_PREFIX
+                        + object.substring(0, object.lastIndexOf(':')));
+            }
+        } else {
+            keys.addAll(objects);
+        }
+        if (computation.overflowed) {
+            return;
+        }
+        for (final String change : computation.changes) {
+            if (keys.contains(change)) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Not caching " + key + " after change to "
+                            + change);
+                }
+                return;
+            }
+        }
+        cache.invalidate(key); // Unindexes the previous summary.
+        for (final String dependency : keys) {
+            dependents.put(dependency, key);
+        }
+        cache.put(key, new Entry<V>(summary, keys));
+    }
+
+    private synchronized void unindex(String key, Entry<V> entry) {
+        for (final String dependency : entry.keys) {
+            dependents.remove(dependency, key);
+        }
+    }
+
+    /**
+     * @return the simple names of the given class and its superclasses.
+     */
+    private Set<String> typeNames(String className) {
+        Set<String> names = typeNames.get(className);
+        if (names.isEmpty()) {
+            try {
+                for (Class<?> c = Class.forName(className);
+                        c != null && c != Object.class; c = c.getSuperclass()) {
+                    names.add(c.getSimpleName());
+                }
+            } catch (ClassNotFoundException e) {
+                names.add(className.substring(className.lastIndexOf('.') + 1));
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Drops the summaries which depend on any object or type changed by the
+     * given transaction. If the {@link EventLogsMessage} is delivered before
+     * the transaction commits, e.g. because the background queue is full,
+     * they are dropped a second time once it completes.
+     */
+    @Override
+    public void onApplicationEvent(EventLogsMessage elm) {
+        if (cache == null) {
+            return;
+        }
+        final Set<String> changes;
+        synchronized (this) {
+            if (dependents.isEmpty() && computations.isEmpty()) {
+                return;
+            }
+            changes = new HashSet<String>();
+            for (final EventLog el : elm.all()) {
+                for (final String name : typeNames(el.getEntityType())) {
+                    changes.add(TYPE_PREFIX + name);
+                    if (!"INSERT".equals(el.getAction())) {
+                        changes.add(key(name, el.getEntityId()));
+                    }
+                }
+            }
+        }
+        invalidate(changes);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronizationAdapter() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            invalidate(changes);
+                        }
+                    });
+        }
+    }
+
+    /**
+     * Drops the summaries which depend on any of the given changes and
+     * notes the changes against the computations in progress.
+     */
+    private void invalidate(Set<String> changes) {
+        final Set<String> keys = new HashSet<String>();
+        synchronized (this) {
+            for (final Computation computation : computations) {
+                if (computation.changes.size() + changes.size() > maxObjects) {
+                    computation.overflowed = true;
+                    computation.changes.clear();
+                } else if (!computation.overflowed) {
+                    computation.changes.addAll(changes);
+                }
+            }
+            for (final String change : changes) {
+                keys.addAll(dependents.get(change));
+            }
+        }
+        if (!keys.isEmpty()) {
+            cache.invalidateAll(keys);
+            for (int i = 0; i < keys.size(); i++) {
+                invalidations.inc();
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Invalidated " + keys);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,329 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+
+package ome.services.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import ome.io.nio.PixelsService;
+import ome.io.nio.PixelsStats;
+import ome.model.core.Channel;
+import ome.model.core.LogicalChannel;
+import ome.model.core.Pixels;
+import ome.model.stats.StatsInfo;
+import ome.services.messages.EventLogsMessage;
+import ome.system.metrics.Metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.cache.Weigher;
+
+/**
+ * Server-wide cache of the {@link Pixels} graphs returned by
+ * {@link ome.api.IPixels#retrievePixDescription(long)}: the Pixels with its
+ * type, channels, logical channels and {@link StatsInfo}, along with whether
+ * the pixel data is served from a pyramid. The graphs are
+ * stored serialized so that each caller receives its own copy which it may
+ * modify freely, and so that the cache can be bounded by its size in bytes.
+ *
+ * Entries are invalidated from the {@link EventLogsMessage} published for
+ * each UPDATE or DELETE of one of the cached objects, both immediately and
+ * once the transaction has completed so that no concurrent reader can
+ * re-cache the old state. Changes made by other processes or by direct SQL
+ * are picked up once the entry expires. Pixels are only cached once the
+ * {@link StatsInfo} of every channel holds the exact statistics written by
+ * the pixel data process, since it replaces the approximate statistics
+ * stored first without any event log reaching this process.
+ *
+ * The cache does not check permissions. Callers must ensure that the
+ * current user can read the Pixels before returning a cached copy.
+ *
+ * @since 5.1
+ */
+public class PixelsDescriptionCache extends EventLogInvalidatedCache {
+
+    private final static Logger log = LoggerFactory.getLogger(PixelsDescriptionCache.class);
+
+    /**
+     * Serialized graph along with the keys of the contained objects in
+     * {@link PixelsDescriptionCache#owners}.
+     */
+    private static class Entry {
+
+        final byte[] data;
+
+        final List<String> keys;
+
+        final boolean pyramid;
+
+        Entry(byte[] data, List<String> keys, boolean pyramid) {
+            this.data = data;
+            this.keys = keys;
+            this.pyramid = pyramid;
+        }
+    }
+
+    private final Cache<Long, Entry> cache;
+
+    /**
+     * Maps "Class:id" of each cached object, e.g. a {@link Channel} or the
+     * {@link Pixels} itself, to the id of the {@link Pixels} whose entry
+     * contains it.
+     */
+    private final ConcurrentMap<String, Long> owners =
+            new ConcurrentHashMap<String, Long>();
+
+    private/* final */PixelsService pixelsService;
+
+    /**
+     * @param metrics source of the hit, miss and invalidation counters.
+     * @param maxBytes maximum total size of the serialized graphs. 0 or less
+     *          disables caching.
+     * @param expirySeconds time after which an entry is reloaded even if no
+     *          change has been seen, or 0 or less to never expire entries.
+     */
+    public PixelsDescriptionCache(Metrics metrics, long maxBytes,
+            long expirySeconds) {
+        super(metrics, Pixels.class, Channel.class, LogicalChannel.class,
+                StatsInfo.class);
+        if (maxBytes <= 0) {
+            this.cache = null;
+            log.info("PixelsDescriptionCache disabled");
+            return;
+        }
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder()
+                .maximumWeight(maxBytes)
+                .recordStats();
+        if (expirySeconds > 0) {
+            builder.expireAfterWrite(expirySeconds, TimeUnit.SECONDS);
+        }
+        this.cache = builder
+                .weigher(new Weigher<Long, Entry>() {
+                    public int weigh(Long key, Entry entry) {
+                        return entry.data.length;
+                    }
+                })
+                .removalListener(new RemovalListener<Long, Entry>() {
+                    public void onRemoval(RemovalNotification<Long, Entry> n) {
+                        if (n.getCause() == RemovalCause.REPLACED) {
+                            return; // The new entry holds the same keys.
+                        }
+                        for (String key : n.getValue().keys) {
+                            owners.remove(key, n.getKey());
+                        }
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Sets the service used to read the statistics files written by the
+     * pixel data process. Without it, nothing is cached.
+     */
+    public void setPixelsService(PixelsService pixelsService) {
+        this.pixelsService = pixelsService;
+    }
+
+    /**
+     * Returns a new copy of the cached graph or null if none is cached.
+     */
+    public Pixels get(long pixelsId) {
+        if (cache == null) {
+            return null;
+        }
+        final Entry entry = cache.getIfPresent(pixelsId);
+        if (entry != null) {
+            try {
+                final ObjectInputStream in = new ObjectInputStream(
+                        new ByteArrayInputStream(entry.data));
+                try {
+                    final Pixels pixels = (Pixels) in.readObject();
+                    hits.inc();
+                    return pixels;
+                } finally {
+                    in.close();
+                }
+            } catch (Exception e) {
+                log.warn("Failed to read cached Pixels:" + pixelsId, e);
+                cache.invalidate(pixelsId);
+            }
+        }
+        misses.inc();
+        return null;
+    }
+
+    /**
+     * Returns whether the cached {@link Pixels} is served from a pyramid, or
+     * null if it is not cached.
+     */
+    public Boolean isPyramid(long pixelsId) {
+        if (cache == null) {
+            return null;
+        }
+        final Entry entry = cache.getIfPresent(pixelsId);
+        return entry == null ? null : entry.pyramid;
+    }
+
+    /**
+     * Returns the exact statistics written for the given {@link Pixels} by
+     * the pixel data process, or null if only approximate ones, or none,
+     * are available yet.
+     */
+    protected PixelsStats getExactStats(Pixels pixels) {
+        if (pixelsService == null) {
+            return null;
+        }
+        final PixelsStats stats = pixelsService.getPixelsStats(pixels);
+        return stats == null || stats.isApproximate() ? null : stats;
+    }
+
+    /**
+     * Returns whether the pixel data of the given {@link Pixels} is served
+     * from a pyramid.
+     */
+    protected boolean usesPyramid(Pixels pixels) {
+        return pixelsService != null && pixels.getPixelsType() != null
+                && pixelsService.requiresPixelsPyramid(pixels);
+    }
+
+    /**
+     * Caches the fully loaded graph of the given {@link Pixels} unless its
+     * pixel data has not been processed yet, or the {@link StatsInfo} still
+     * holds the approximate statistics. Graphs which cannot be serialized
+     * are skipped.
+     */
+    public void put(Pixels pixels) {
+        if (cache == null || pixels == null || pixels.getId() == null) {
+            return;
+        }
+        final PixelsStats exact = getExactStats(pixels);
+        if (exact == null || exact.getSizeC() != pixels.sizeOfChannels()) {
+            return; // Pixel data not yet processed.
+        }
+        final List<String> keys = new ArrayList<String>();
+        keys.add(key(Pixels.class, pixels.getId()));
+        for (int c = 0; c < pixels.sizeOfChannels(); c++) {
+            final Channel channel = pixels.getChannel(c);
+            if (channel == null) {
+                continue;
+            }
+            final StatsInfo si = channel.getStatsInfo();
+            if (si == null || !same(si.getGlobalMin(), exact.getGlobalMin(c))
+                    || !same(si.getGlobalMax(), exact.getGlobalMax(c))) {
+                return; // Exact statistics not yet stored.
+            }
+            keys.add(key(Channel.class, channel.getId()));
+            keys.add(key(StatsInfo.class, channel.getStatsInfo().getId()));
+            if (channel.getLogicalChannel() != null) {
+                keys.add(key(LogicalChannel.class,
+                        channel.getLogicalChannel().getId()));
+            }
+        }
+        final byte[] data;
+        try {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final ObjectOutputStream out = new ObjectOutputStream(bytes);
+            try {
+                out.writeObject(pixels);
+            } finally {
+                out.close();
+            }
+            data = bytes.toByteArray();
+        } catch (IOException e) {
+            log.debug("Not caching Pixels:" + pixels.getId(), e);
+            return;
+        }
+        final Long id = pixels.getId();
+        for (String key : keys) {
+            owners.put(key, id);
+        }
+        cache.put(id, new Entry(data, keys, usesPyramid(pixels)));
+    }
+
+    private static boolean same(Double stored, double exact) {
+        return stored != null && Double.compare(stored, exact) == 0;
+    }
+
+    /**
+     * Removes the entry for the given {@link Pixels} if any.
+     */
+    public void invalidate(long pixelsId) {
+        if (cache != null && cache.getIfPresent(pixelsId) != null) {
+            cache.invalidate(pixelsId);
+            invalidations.inc();
+        }
+    }
+
+    /**
+     * Fraction of the lookups which were answered from the cache.
+     */
+    public double getHitRate() {
+        return cache == null ? 0.0 : cache.stats().hitRate();
+    }
+
+    @Override
+    protected boolean isEmpty() {
+        return cache == null || cache.size() == 0;
+    }
+
+    /**
+     * Invalidates the entries containing any of the given objects. Since the
+     * {@link EventLogsMessage} is published before the transaction commits,
+     * the entries are invalidated a second time once it completes.
+     */
+    @Override
+    protected void invalidate(Set<String> keys) {
+        final Set<Long> pixelsIds = new HashSet<Long>();
+        for (String key : keys) {
+            final Long id = owners.get(key);
+            if (id != null) {
+                pixelsIds.add(id);
+            }
+        }
+        if (pixelsIds.isEmpty()) {
+            return;
+        }
+        invalidateAll(pixelsIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronizationAdapter() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            invalidateAll(pixelsIds);
+                        }
+                    });
+        }
+    }
+
+    private void invalidateAll(Set<Long> pixelsIds) {
+        for (Long id : pixelsIds) {
+            invalidate(id);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Invalidated %s; hit rate %.2f",
+                    pixelsIds, getHitRate()));
+        }
+    }
+
+}
@@ -0,0 +1,243 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+
+package ome.server.utests;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import ome.model.meta.EventLog;
+import ome.services.messages.AsyncMulticaster;
+import ome.services.messages.Asynchronous;
+import ome.services.messages.EventLogsMessage;
+import ome.system.metrics.NullMetrics;
+import ome.util.messages.InternalMessage;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Multimap;
+
+import static org.testng.AssertJUnit.*;
+
+/**
+ * Tests the delivery of messages to {@link Asynchronous} listeners by
+ * {@link AsyncMulticaster}.
+ */
+@Test(groups = "unit")
+public class AsyncMulticasterTest {
+
+    AsyncMulticaster multicaster;
+
+    static class Message extends InternalMessage {
+        private static final long serialVersionUID = 1L;
+        Message(Object source, boolean threadSafe) {
+            super(source);
+            this.threadSafe = threadSafe;
+        }
+    }
+
+    static class Listener implements ApplicationListener<ApplicationEvent> {
+
+        final List<ApplicationEvent> events =
+                new CopyOnWriteArrayList<ApplicationEvent>();
+
+        final List<Thread> threads = new CopyOnWriteArrayList<Thread>();
+
+        volatile CountDownLatch block;
+
+        volatile CountDownLatch received = new CountDownLatch(1);
+
+        public void onApplicationEvent(ApplicationEvent event) {
+            threads.add(Thread.currentThread());
+            events.add(event);
+            received.countDown();
+            final CountDownLatch latch = block;
+            if (latch != null) {
+                try {
+                    latch.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    @Asynchronous({ Message.class, EventLogsMessage.class })
+    static class AsyncListener extends Listener {
+    }
+
+    @Asynchronous(Message.class)
+    static class MessageOnlyListener extends Listener {
+    }
+
+    @BeforeMethod
+    public void setup() {
+        multicaster = new AsyncMulticaster();
+        multicaster.setMetrics(new NullMetrics());
+        multicaster.startAsync(2, 3);
+    }
+
+    @AfterMethod
+    public void teardown() {
+        multicaster.stopAsync();
+    }
+
+    EventLogsMessage logs(String type, int count) {
+        final Multimap<String, EventLog> map = ArrayListMultimap.create();
+        for (int i = 0; i < count; i++) {
+            final EventLog el = new EventLog();
+            el.setAction("UPDATE");
+            map.put(type, el);
+        }
+        return new EventLogsMessage(this, map);
+    }
+
+    public void testUnannotatedListenerIsSynchronous() {
+        Listener l = new Listener();
+        multicaster.addApplicationListener(l);
+        multicaster.multicastEvent(new Message(this, true));
+        assertEquals(1, l.events.size());
+        assertEquals(Thread.currentThread(), l.threads.get(0));
+    }
+
+    public void testUnsafeMessageIsSynchronous() {
+        AsyncListener l = new AsyncListener();
+        multicaster.addApplicationListener(l);
+        multicaster.multicastEvent(new Message(this, false));
+        assertEquals(1, l.events.size());
+        assertEquals(Thread.currentThread(), l.threads.get(0));
+    }
+
+    public void testUndeclaredTypeIsSynchronous() {
+        MessageOnlyListener l = new MessageOnlyListener();
+        multicaster.addApplicationListener(l);
+        multicaster.multicastEvent(logs("Image", 1));
+        assertEquals(1, l.events.size());
+        assertEquals(Thread.currentThread(), l.threads.get(0));
+    }
+
+    public void testDeclaredSubtypeIsAsynchronous() throws Exception {
+        MessageOnlyListener l = new MessageOnlyListener();
+        multicaster.addApplicationListener(l);
+        multicaster.multicastEvent(new Message(this, true) {
+            private static final long serialVersionUID = 1L;
+        });
+        assertTrue(l.received.await(10, TimeUnit.SECONDS));
+        assertFalse(Thread.currentThread().equals(l.threads.get(0)));
+    }
+
+    public void testSynchronousExceptionsArePropagated() {
+        multicaster.addApplicationListener(new Listener() {
+            @Override
+            public void onApplicationEvent(ApplicationEvent event) {
+                throw new IllegalStateException("cancel");
+            }
+        });
+        try {
+            multicaster.multicastEvent(new Message(this, false));
+            fail("should have thrown");
+        } catch (IllegalStateException ise) {
+            // good
+        }
+    }
+
+    public void testSafeMessageIsAsynchronous() throws Exception {
+        AsyncListener l = new AsyncListener();
+        multicaster.addApplicationListener(l);
+        multicaster.multicastEvent(new Message(this, true));
+        assertTrue(l.received.await(10, TimeUnit.SECONDS));
+        assertFalse(Thread.currentThread().equals(l.threads.get(0)));
+    }
+
+    public void testMessageInTransactionIsQueuedOnCompletion()
+            throws Exception {
+        AsyncListener l = new AsyncListener();
+        Listener sync = new Listener();
+        multicaster.addApplicationListener(l);
+        multicaster.addApplicationListener(sync);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            multicaster.multicastEvent(logs("Image", 1));
+            assertEquals(1, sync.events.size());
+            assertFalse(l.received.await(100, TimeUnit.MILLISECONDS));
+            for (TransactionSynchronization ts : TransactionSynchronizationManager
+                    .getSynchronizations()) {
+                ts.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertTrue(l.received.await(10, TimeUnit.SECONDS));
+        assertFalse(Thread.currentThread().equals(l.threads.get(0)));
+    }
+
+    public void testEventLogsAreCoalesced() throws Exception {
+        AsyncListener l = new AsyncListener();
+        l.block = new CountDownLatch(1);
+        multicaster.addApplicationListener(l);
+
+        multicaster.multicastEvent(logs("Image", 1));
+        assertTrue(l.received.await(10, TimeUnit.SECONDS));
+        // The listener is now blocked, so these are all queued as one.
+        l.received = new CountDownLatch(1);
+        for (int i = 0; i < 5; i++) {
+            multicaster.multicastEvent(logs("Image", 2));
+        }
+        multicaster.multicastEvent(logs("Dataset", 1));
+        l.block.countDown();
+
+        assertTrue(l.received.await(10, TimeUnit.SECONDS));
+        multicaster.stopAsync();
+        assertEquals(2, l.events.size());
+        final EventLogsMessage merged = (EventLogsMessage) l.events.get(1);
+        assertEquals(10, merged.matches("Image", "UPDATE").size());
+        assertEquals(1, merged.matches("Dataset", "UPDATE").size());
+    }
+
+    public void testFullQueueIsDeliveredSynchronously() throws Exception {
+        final CountDownLatch block = new CountDownLatch(1);
+        AsyncListener l = new AsyncListener();
+        l.block = block;
+        multicaster.addApplicationListener(l);
+
+        multicaster.multicastEvent(new Message(this, true));
+        assertTrue(l.received.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < 3; i++) {
+            multicaster.multicastEvent(new Message(this, true));
+        }
+        l.block = null; // Only the first delivery stays blocked
+        multicaster.multicastEvent(new Message(this, true));
+        assertEquals(2, l.events.size());
+        assertEquals(Thread.currentThread(), l.threads.get(1));
+        block.countDown();
+        multicaster.stopAsync();
+        assertEquals(5, l.events.size());
+    }
+
+    public void testStopDeliversQueuedMessages() {
+        AsyncListener l = new AsyncListener();
+        multicaster.addApplicationListener(l);
+        for (int i = 0; i < 3; i++) {
+            multicaster.multicastEvent(new Message(this, true));
+        }
+        multicaster.stopAsync();
+        assertEquals(3, l.events.size());
+
+        // And afterwards everything is synchronous.
+        multicaster.multicastEvent(new Message(this, true));
+        assertEquals(4, l.events.size());
+        assertEquals(Thread.currentThread(), l.threads.get(3));
+    }
+
+}
@@ -0,0 +1,35 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+package ome.server.utests;
+
+import ome.model.meta.EventLog;
+import ome.services.messages.EventLogsMessage;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Multimap;
+
+/**
+ * Builds the {@link EventLogsMessage} which would be published for a single
+ * change, for testing the caches which listen for them.
+ *
+ * @since 5.1
+ */
+public class EventLogsMessages {
+
+    private EventLogsMessages() {
+    }
+
+    public static EventLogsMessage message(Object source, Class<?> type,
+            long id, String action) {
+        EventLog el = new EventLog();
+        el.setEntityType(type.getName());
+        el.setEntityId(id);
+        el.setAction(action);
+        Multimap<String, EventLog> logs = ArrayListMultimap.create();
+        logs.put(type.getName(), el);
+        return new EventLogsMessage(source, logs);
+    }
+
+}
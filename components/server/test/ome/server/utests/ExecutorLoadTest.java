@@ -0,0 +1,182 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+package ome.server.utests;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import ome.conditions.OverUsageException;
+import ome.services.scheduler.ThreadPool;
+import ome.services.util.Executor;
+import ome.services.util.Executor.Priority;
+import ome.system.metrics.NullMetrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.AssertJUnit.*;
+
+/**
+ * Load-test harness which drives {@link Executor.Impl} directly from many
+ * producer threads and checks that its bounded {@link ThreadPool} instances
+ * limit the number of threads, reject or slow down producers once full,
+ * and run every accepted task.
+ *
+ * The size of the load can be raised for manual runs via the system
+ * properties {@code executor.load.producers}, {@code executor.load.tasks}
+ * (per producer) and {@code executor.load.task_ms}.
+ */
+@Test(groups = "unit")
+public class ExecutorLoadTest {
+
+    private static Logger log = LoggerFactory.getLogger(ExecutorLoadTest.class);
+
+    final int producers = Integer.getInteger("executor.load.producers", 8);
+
+    final int tasks = Integer.getInteger("executor.load.tasks", 50);
+
+    final long taskMs = Long.getLong("executor.load.task_ms", 1);
+
+    final List<ThreadPool> pools = new ArrayList<ThreadPool>();
+
+    /**
+     * Outcome of one run of {@link ExecutorLoadTest#load}.
+     */
+    static class Result {
+        final AtomicInteger accepted = new AtomicInteger();
+        final AtomicInteger rejected = new AtomicInteger();
+        final AtomicInteger completed = new AtomicInteger();
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger peak = new AtomicInteger();
+        long elapsed;
+    }
+
+    @AfterMethod
+    public void teardown() {
+        for (ThreadPool pool : pools) {
+            pool.destroy();
+        }
+        pools.clear();
+    }
+
+    private ThreadPool pool(int maxThreads, int queueSize, String rejection) {
+        ThreadPool pool = new ThreadPool("load", 1, maxThreads, 1000,
+                queueSize, rejection, 60000, new NullMetrics());
+        pools.add(pool);
+        return pool;
+    }
+
+    private Executor executor(ThreadPool interactive, ThreadPool background) {
+        return new Executor.Impl(null, null, null, new String[0],
+                interactive.getExecutor(), background.getExecutor(),
+                pool(1, 1, ThreadPool.ABORT).getExecutor());
+    }
+
+    /**
+     * Submits {@link #tasks} tasks from each of {@link #producers} threads
+     * and waits for all accepted tasks to finish. Each task waits for the
+     * gate to open and then sleeps for {@link #taskMs}.
+     */
+    private Result load(final Executor executor, final Priority prio,
+            final CountDownLatch gate) throws Exception {
+        final Result result = new Result();
+        final List<Future<Object>> futures = new ArrayList<Future<Object>>();
+        final Callable<Object> task = new Callable<Object>() {
+            public Object call() throws Exception {
+                final int now = result.running.incrementAndGet();
+                int peak;
+                while ((peak = result.peak.get()) < now
+                        && !result.peak.compareAndSet(peak, now)) {
+                    // retry
+                }
+                try {
+                    gate.await();
+                    Thread.sleep(taskMs);
+                    result.completed.incrementAndGet();
+                    return null;
+                } finally {
+                    result.running.decrementAndGet();
+                }
+            }
+        };
+        final List<Thread> threads = new ArrayList<Thread>();
+        final long start = System.currentTimeMillis();
+        for (int p = 0; p < producers; p++) {
+            threads.add(new Thread() {
+                public void run() {
+                    for (int t = 0; t < tasks; t++) {
+                        try {
+                            Future<Object> f = executor.submit(prio, task);
+                            synchronized (futures) {
+                                futures.add(f);
+                            }
+                            result.accepted.incrementAndGet();
+                        } catch (OverUsageException oue) {
+                            result.rejected.incrementAndGet();
+                        }
+                    }
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        gate.countDown();
+        for (Future<Object> f : futures) {
+            f.get();
+        }
+        result.elapsed = System.currentTimeMillis() - start;
+        log.info(String.format("%s: accepted=%s rejected=%s peak=%s "
+                + "in %s ms", prio, result.accepted, result.rejected,
+                result.peak, result.elapsed));
+        return result;
+    }
+
+    public void testAbortBoundsThreadsAndQueue() throws Exception {
+        ThreadPool interactive = pool(4, 10, ThreadPool.ABORT);
+        Executor executor = executor(interactive, pool(1, 1, ThreadPool.ABORT));
+        // Tasks block until all have been submitted, so at most the
+        // threads and the queue can be filled. Idle threads may not have
+        // taken their task from the queue before it fills up.
+        Result result = load(executor, Priority.USER, new CountDownLatch(1));
+        assertTrue(result.accepted.get() >= 10);
+        assertTrue(result.accepted.get() <= 14);
+        assertEquals(producers * tasks - result.accepted.get(),
+                result.rejected.get());
+        assertEquals(result.accepted.get(), result.completed.get());
+        assertTrue(result.peak.get() <= 4);
+    }
+
+    public void testBlockSlowsDownProducers() throws Exception {
+        ThreadPool background = pool(4, 10, ThreadPool.BLOCK);
+        Executor executor = executor(pool(1, 1, ThreadPool.ABORT), background);
+        Result result = load(executor, Priority.BACKGROUND,
+                new CountDownLatch(0));
+        assertEquals(producers * tasks, result.accepted.get());
+        assertEquals(0, result.rejected.get());
+        assertEquals(producers * tasks, result.completed.get());
+        assertTrue(result.peak.get() <= 4);
+    }
+
+    public void testUnboundedQueueUsesMinThreads() throws Exception {
+        ThreadPool pool = new ThreadPool(2, 10, 1000);
+        pools.add(pool);
+        Executor executor = executor(pool, pool(1, 1, ThreadPool.ABORT));
+        Result result = load(executor, Priority.USER, new CountDownLatch(0));
+        assertEquals(0, result.rejected.get());
+        assertEquals(producers * tasks, result.completed.get());
+        assertTrue(result.peak.get() <= 2);
+    }
+
+}
@@ -0,0 +1,212 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+
+package ome.server.utests;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import ome.io.nio.AbstractFileSystemService;
+import ome.services.delete.files.FileReclaimer;
+import ome.system.metrics.NullMetrics;
+import ome.util.SqlAction;
+import ome.util.SqlAction.FileReclaim;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.SetMultimap;
+import com.google.common.io.Files;
+
+import static org.testng.AssertJUnit.*;
+
+/**
+ * Tests the background removal of the files of deleted objects by
+ * {@link FileReclaimer} against an in-memory {@code _file_reclaim} queue.
+ */
+@Test(groups = "unit")
+public class FileReclaimerTest {
+
+    File root;
+
+    AbstractFileSystemService afs;
+
+    /** Queued entries by "type:id". */
+    Map<String, FileReclaim> table;
+
+    SqlExecutor executor;
+
+    FileReclaimer reclaimer;
+
+    class SqlExecutor extends DummyExecutor {
+
+        final SqlAction sql = (SqlAction) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[]{SqlAction.class},
+                new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method,
+                            Object[] args) {
+                        return call(method.getName(), args);
+                    }
+                });
+
+        SqlExecutor() {
+            super(null, null);
+        }
+
+        @Override
+        public Object executeSql(SqlWork work) {
+            return work.doWork(sql);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    Object call(String method, Object[] args) {
+        if ("queueFileReclaims".equals(method)) {
+            int count = 0;
+            for (Long id : (Collection<Long>) args[1]) {
+                final String key = args[0] + ":" + id;
+                if (!table.containsKey(key)) {
+                    final FileReclaim fr = new FileReclaim();
+                    fr.type = (String) args[0];
+                    fr.objectId = id;
+                    fr.attempts = 0;
+                    table.put(key, fr);
+                    count++;
+                }
+            }
+            return count;
+        } else if ("nextFileReclaims".equals(method)) {
+            final List<FileReclaim> rv = new ArrayList<FileReclaim>();
+            for (FileReclaim fr : table.values()) {
+                if (fr.attempts < (Integer) args[0]
+                        && rv.size() < (Integer) args[1]) {
+                    rv.add(fr);
+                }
+            }
+            return rv;
+        } else if ("failedFileReclaims".equals(method)) {
+            final List<FileReclaim> rv = new ArrayList<FileReclaim>();
+            for (FileReclaim fr : table.values()) {
+                if (fr.attempts >= (Integer) args[0]) {
+                    rv.add(fr);
+                }
+            }
+            return rv;
+        } else if ("deleteFileReclaims".equals(method)) {
+            for (FileReclaim fr : (List<FileReclaim>) args[0]) {
+                table.remove(fr.type + ":" + fr.objectId);
+            }
+            return 0;
+        } else if ("failFileReclaims".equals(method)) {
+            for (FileReclaim fr : (List<FileReclaim>) args[0]) {
+                final FileReclaim row = table.get(fr.type + ":" + fr.objectId);
+                row.attempts++;
+                row.error = (String) args[1];
+            }
+            return 0;
+        }
+        throw new UnsupportedOperationException(method);
+    }
+
+    @BeforeMethod
+    public void setup() {
+        root = Files.createTempDir();
+        afs = new AbstractFileSystemService(root.getAbsolutePath());
+        table = new LinkedHashMap<String, FileReclaim>();
+        executor = new SqlExecutor();
+        reclaimer = new FileReclaimer(executor, afs, new NullMetrics(), 4, 2,
+                10, 3);
+    }
+
+    @AfterMethod
+    public void teardown() throws IOException {
+        reclaimer.destroy();
+        FileUtils.deleteDirectory(root);
+    }
+
+    File thumbnail(long id) throws IOException {
+        final File file = new File(afs.getThumbnailPath(id));
+        file.getParentFile().mkdirs();
+        Files.touch(file);
+        return file;
+    }
+
+    void queueThumbnails(long... ids) {
+        final SetMultimap<String, Long> targets = HashMultimap.create();
+        for (long id : ids) {
+            targets.put("Thumbnail", id);
+        }
+        reclaimer.queue(executor.sql, targets);
+    }
+
+    public void testDisabled() {
+        FileReclaimer disabled = new FileReclaimer(executor, afs,
+                new NullMetrics(), 0, 2, 10, 3);
+        assertFalse(disabled.isEnabled());
+        assertTrue(reclaimer.isEnabled());
+    }
+
+    public void testQueuedFilesAreRemovedOnRun() throws IOException {
+        final List<File> files = new ArrayList<File>();
+        final long[] ids = new long[25];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i + 1;
+            files.add(thumbnail(ids[i]));
+        }
+        queueThumbnails(ids);
+        queueThumbnails(ids); // Duplicates are ignored
+        assertEquals(25, table.size());
+        for (File file : files) {
+            assertTrue(file.exists());
+        }
+
+        reclaimer.run(); // Three batches
+        assertTrue(table.isEmpty());
+        for (File file : files) {
+            assertFalse(file.exists());
+        }
+    }
+
+    public void testMissingFilesAreReclaimed() {
+        queueThumbnails(1, 2);
+        reclaimer.run();
+        assertTrue(table.isEmpty());
+    }
+
+    public void testFailuresAreRetriedThenLeftOver() throws IOException {
+        final File removed = thumbnail(1);
+        // A directory with content cannot be removed by File.delete()
+        final File stuck = new File(afs.getThumbnailPath(2L));
+        new File(stuck, "child").mkdirs();
+        queueThumbnails(1, 2);
+
+        reclaimer.run();
+        assertFalse(removed.exists());
+        assertEquals(1, table.size());
+        assertEquals(1, table.get("Thumbnail:2").attempts.intValue());
+        assertNotNull(table.get("Thumbnail:2").error);
+        assertTrue(reclaimer.getLeftovers().isEmpty());
+
+        reclaimer.run();
+        reclaimer.run();
+        reclaimer.run(); // No longer attempted
+        assertEquals(3, table.get("Thumbnail:2").attempts.intValue());
+        final List<FileReclaim> leftovers = reclaimer.getLeftovers();
+        assertEquals(1, leftovers.size());
+        assertEquals(2L, leftovers.get(0).objectId.longValue());
+    }
+
+}
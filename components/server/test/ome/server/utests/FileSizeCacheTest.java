@@ -0,0 +1,92 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+
+package ome.server.utests;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import ome.model.core.Pixels;
+import ome.services.messages.EventLogsMessage;
+import ome.services.util.FileSizeCache;
+import ome.system.metrics.NullMetrics;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.AssertJUnit.*;
+
+/**
+ * Tests the parallel reading and invalidation of cached file sizes.
+ */
+@Test(groups = "unit")
+public class FileSizeCacheTest {
+
+    FileSizeCache cache;
+
+    File file;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        cache = new FileSizeCache(new NullMetrics(), 4, 2, 100, 0);
+        file = File.createTempFile("FileSizeCacheTest", ".bin");
+        write(10);
+    }
+
+    @AfterMethod
+    public void teardown() {
+        cache.destroy();
+        file.delete();
+    }
+
+    private void write(int length) throws Exception {
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(new byte[length]);
+        } finally {
+            out.close();
+        }
+    }
+
+    private long[] sizes() {
+        String key = FileSizeCache.key(Pixels.class, 1L);
+        Map<String, String[]> paths = new HashMap<String, String[]>();
+        paths.put(key, new String[] { file.getPath(), file.getPath() + ".missing" });
+        return cache.getSizes(paths).get(key);
+    }
+
+    private EventLogsMessage message(String action) {
+        return EventLogsMessages.message(this, Pixels.class, 1L, action);
+    }
+
+    public void testMissingFilesAreEmpty() {
+        long[] sizes = sizes();
+        assertEquals(2, sizes.length);
+        assertEquals(10, sizes[0]);
+        assertEquals(0, sizes[1]);
+    }
+
+    public void testSizesAreCachedUntilUpdated() throws Exception {
+        assertEquals(10, sizes()[0]);
+        write(20);
+        assertEquals(10, sizes()[0]);
+        cache.onApplicationEvent(message("INSERT"));
+        assertEquals(10, sizes()[0]);
+        cache.onApplicationEvent(message("UPDATE"));
+        assertEquals(20, sizes()[0]);
+    }
+
+    public void testDisabled() throws Exception {
+        cache.destroy();
+        cache = new FileSizeCache(new NullMetrics(), 1, 1, 0, 0);
+        assertEquals(10, sizes()[0]);
+        write(20);
+        assertEquals(20, sizes()[0]);
+    }
+
+}
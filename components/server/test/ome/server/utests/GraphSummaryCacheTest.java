@@ -0,0 +1,149 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+
+package ome.server.utests;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import ome.model.annotations.FileAnnotation;
+import ome.model.containers.Dataset;
+import ome.model.containers.DatasetImageLink;
+import ome.model.core.Image;
+import ome.model.meta.GroupExperimenterMap;
+import ome.services.messages.AsyncMulticaster;
+import ome.services.messages.Asynchronous;
+import ome.services.messages.EventLogsMessage;
+import ome.services.util.GraphSummaryCache;
+import ome.system.metrics.NullMetrics;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static ome.server.utests.EventLogsMessages.message;
+import static org.testng.AssertJUnit.*;
+
+/**
+ * Tests the invalidation of cached summaries by the event logs of the
+ * objects and types in their footprints.
+ */
+@Test(groups = "unit")
+public class GraphSummaryCacheTest {
+
+    GraphSummaryCache<String> cache;
+
+    /** Dataset:1 holding Image:2 and Image:3, annotated with Annotation:4. */
+    final List<String> objects = Arrays.asList("Dataset:1", "Image:2",
+            "Image:3", "Annotation:4");
+
+    final List<String> types = Arrays.asList("DatasetImageLink",
+            "DatasetAnnotationLink", "GroupExperimenterMap");
+
+    @BeforeMethod
+    public void setup() {
+        cache = new GraphSummaryCache<String>(new NullMetrics(), 10, 100, 0);
+    }
+
+    private void put(String key, List<String> objects) {
+        GraphSummaryCache.Computation computation = cache.begin();
+        try {
+            cache.put(computation, key, "summary", objects, types);
+        } finally {
+            cache.end(computation);
+        }
+    }
+
+    public void testUnrelatedChangesKeepSummary() {
+        put("k", objects);
+        cache.onApplicationEvent(message(this, Image.class, 5L, "UPDATE"));
+        cache.onApplicationEvent(message(this, Image.class, 2L, "INSERT"));
+        cache.onApplicationEvent(message(this, Dataset.class, 6L, "DELETE"));
+        assertEquals("summary", cache.get("k"));
+    }
+
+    public void testUpdateOfObjectDropsSummary() {
+        put("k", objects);
+        cache.onApplicationEvent(message(this, Image.class, 3L, "UPDATE"));
+        assertNull(cache.get("k"));
+    }
+
+    public void testUpdateOfSubclassDropsSummary() {
+        put("k", objects);
+        cache.onApplicationEvent(message(this, FileAnnotation.class, 4L,
+                "UPDATE"));
+        assertNull(cache.get("k"));
+    }
+
+    public void testChangeOfTypeDropsSummary() {
+        put("k", objects);
+        put("other", Collections.singletonList("Image:9"));
+        cache.onApplicationEvent(message(this, DatasetImageLink.class, 7L,
+                "INSERT"));
+        assertNull(cache.get("k"));
+        assertNull(cache.get("other"));
+        put("k", objects);
+        cache.onApplicationEvent(message(this, GroupExperimenterMap.class,
+                8L, "DELETE"));
+        assertNull(cache.get("k"));
+    }
+
+    public void testChangeDuringComputationIsNotCached() {
+        GraphSummaryCache.Computation computation = cache.begin();
+        try {
+            cache.onApplicationEvent(message(this, Image.class, 2L, "UPDATE"));
+            cache.put(computation, "k", "summary", objects, types);
+        } finally {
+            cache.end(computation);
+        }
+        assertNull(cache.get("k"));
+    }
+
+    public void testUnrelatedChangeDuringComputationIsCached() {
+        GraphSummaryCache.Computation computation = cache.begin();
+        try {
+            cache.onApplicationEvent(message(this, Image.class, 5L, "UPDATE"));
+            cache.put(computation, "k", "summary", objects, types);
+        } finally {
+            cache.end(computation);
+        }
+        assertEquals("summary", cache.get("k"));
+    }
+
+    public void testLargeFootprintIsKeptByType() {
+        cache = new GraphSummaryCache<String>(new NullMetrics(), 10, 2, 0);
+        put("k", objects);
+        assertEquals("summary", cache.get("k"));
+        cache.onApplicationEvent(message(this, Image.class, 5L, "UPDATE"));
+        assertNull(cache.get("k"));
+    }
+
+    public void testEventLogsAreReceivedInBackground() {
+        assertEquals(EventLogsMessage.class, GraphSummaryCache.class
+                .getAnnotation(Asynchronous.class).value()[0]);
+        AsyncMulticaster multicaster = new AsyncMulticaster();
+        multicaster.addApplicationListener(cache);
+        multicaster.startAsync(1, 10);
+        try {
+            put("k", objects);
+            put("other", Collections.singletonList("Dataset:6"));
+            multicaster.multicastEvent(message(this, Image.class, 2L,
+                    "UPDATE"));
+            multicaster.multicastEvent(message(this, Dataset.class, 6L,
+                    "DELETE"));
+        } finally {
+            multicaster.stopAsync(); // Delivers the queued messages.
+        }
+        assertNull(cache.get("k"));
+        assertNull(cache.get("other"));
+    }
+
+    public void testDisabled() {
+        cache = new GraphSummaryCache<String>(new NullMetrics(), 0, 100, 0);
+        put("k", objects);
+        assertNull(cache.get("k"));
+    }
+
+}
@@ -0,0 +1,227 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+package ome.server.utests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import ome.conditions.SecurityViolation;
+import ome.model.IObject;
+import ome.model.containers.DatasetImageLink;
+import ome.model.internal.Permissions;
+import ome.model.meta.ExperimenterGroup;
+import ome.security.SystemTypes;
+import ome.security.basic.BasicACLVoter;
+import ome.security.basic.GroupChmodStrategy;
+import ome.services.messages.ContextMessage;
+import ome.system.OmeroContext;
+import ome.tools.hibernate.ExtendedMetadata;
+import ome.tools.hibernate.SessionFactory;
+import ome.util.messages.InternalMessage;
+
+import org.hibernate.Query;
+import org.hibernate.Session;
+import org.jmock.Mock;
+import org.jmock.MockObjectTestCase;
+import org.jmock.core.Constraint;
+import org.jmock.core.Invocation;
+import org.jmock.core.Stub;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the batched lock checks of {@link GroupChmodStrategy} when group
+ * read is removed. Every link table holds the ids 1 to 250 and is scanned
+ * in batches of 100 ids.
+ */
+@Test(groups = "unit")
+public class GroupChmodStrategyTest extends MockObjectTestCase {
+
+    GroupChmodStrategy strategy;
+
+    ExperimenterGroup group;
+
+    /** The query of one batch of a link table. */
+    Mock qMock;
+
+    Mock fMock;
+
+    /** Messages published by the strategy. */
+    List<InternalMessage> published;
+
+    /** The last id of each batch queried, in order. */
+    List<Long> batchEnds;
+
+    /**
+     * Returns the given ids as the links found by successive batches, then
+     * no more links.
+     */
+    static class Batches implements Stub {
+
+        final Object[] found;
+
+        int calls = 0;
+
+        Batches(Object... found) {
+            this.found = found;
+        }
+
+        public Object invoke(Invocation invocation) {
+            final int call = calls++;
+            return call < found.length ? found[call] : null;
+        }
+
+        public StringBuffer describeTo(StringBuffer buffer) {
+            return buffer.append("batch results");
+        }
+    }
+
+    @BeforeMethod
+    public void setup() {
+        group = new ExperimenterGroup(1L, true);
+        group.getDetails().setPermissions(Permissions.parseString("rwr---"));
+
+        Mock rangeMock = mock(Query.class, "rangeQuery");
+        rangeMock.stubs().method("uniqueResult")
+                .will(returnValue(new Object[] { 1L, 250L }));
+        qMock = mock(Query.class, "batchQuery");
+        qMock.stubs().method("setMaxResults").will(returnValue(qMock.proxy()));
+        qMock.stubs().method("setLong").will(returnValue(qMock.proxy()));
+        batchEnds = new ArrayList<Long>();
+        qMock.stubs().method("setLong").with(eq("hi"), new Constraint() {
+            public boolean eval(Object arg0) {
+                batchEnds.add((Long) arg0);
+                return true;
+            }
+
+            public StringBuffer describeTo(StringBuffer arg0) {
+                return arg0.append("batch end");
+            }
+        }).will(returnValue(qMock.proxy()));
+
+        Mock sMock = mock(Session.class);
+        sMock.stubs().method("get").will(returnValue(group));
+        sMock.stubs().method("createQuery").with(stringContains("min(x.id)"))
+                .will(returnValue(rangeMock.proxy()));
+        sMock.stubs().method("createQuery").with(stringContains("between"))
+                .will(returnValue(qMock.proxy()));
+        final Session session = (Session) sMock.proxy();
+
+        fMock = mock(org.hibernate.SessionFactory.class);
+        fMock.stubs().method("getAllClassMetadata")
+                .will(returnValue(new HashMap<Object, Object>()));
+        SessionFactory osf = new SessionFactory(
+                (org.hibernate.SessionFactory) fMock.proxy(), null) {
+            @Override
+            public Session getSession() {
+                return session;
+            }
+        };
+
+        // Two classes, so that one call to getChecks returns two checks.
+        Mock emMock = mock(ExtendedMetadata.class);
+        emMock.stubs().method("getClasses").will(returnValue(
+                new LinkedHashSet<String>(Arrays.asList("first", "second"))));
+        emMock.stubs().method("getHibernateClass")
+                .will(returnValue(DatasetImageLink.class));
+        emMock.stubs().method("getLockChecks").will(returnValue(
+                new String[][] { { "DatasetImageLink", "parent" } }));
+
+        BasicACLVoter voter = new BasicACLVoter(null, new SystemTypes(),
+                null, null, null) {
+            @Override
+            public boolean allowChmod(IObject iObject) {
+                return true;
+            }
+        };
+
+        published = new ArrayList<InternalMessage>();
+        strategy = new GroupChmodStrategy(voter, osf, null,
+                (ExtendedMetadata) emMock.proxy());
+        strategy.setApplicationContext(new OmeroContext(new String[0], false) {
+            @Override
+            public void publishMessage(InternalMessage msg) {
+                published.add(msg);
+            }
+        });
+        strategy.setBatchSize(100);
+    }
+
+    Object[] checks() {
+        Object[] checks = strategy.getChecks(group, "rw----");
+        assertEquals(2, checks.length);
+        return checks;
+    }
+
+    Batches batches(Object... found) {
+        Batches batches = new Batches(found);
+        qMock.stubs().method("uniqueResult").will(batches);
+        return batches;
+    }
+
+    public void testEachBatchIsScanned() {
+        Batches batches = batches();
+        for (Object check : checks()) {
+            strategy.check(group, check);
+        }
+        assertEquals(6, batches.calls);
+        assertEquals(Arrays.asList(100L, 200L, 250L, 100L, 200L, 250L),
+                batchEnds);
+    }
+
+    public void testFirstViolationStopsAllChecks() {
+        Batches batches = batches(null, 42L);
+        Object[] checks = checks();
+        try {
+            strategy.check(group, checks[0]);
+            fail("should have found the link");
+        } catch (SecurityViolation sv) {
+            assertTrue(sv.getMessage(), sv.getMessage().contains("42"));
+        }
+        // The second check stops before scanning a single batch.
+        strategy.check(group, checks[1]);
+        assertEquals(2, batches.calls);
+        assertEquals(Arrays.asList(100L, 200L), batchEnds);
+    }
+
+    public void testNoThreadsRunsInCallersSession() {
+        strategy.setThreads(0);
+        assertRunsInCallersSession();
+    }
+
+    /**
+     * Links created earlier in the caller's transaction are only seen by
+     * its own session, so by default no checks run in parallel.
+     */
+    public void testDefaultRunsInCallersSession() {
+        assertRunsInCallersSession();
+    }
+
+    void assertRunsInCallersSession() {
+        fMock.expects(never()).method("openSession");
+        strategy.setSessionFactory(
+                (org.hibernate.SessionFactory) fMock.proxy());
+        strategy.start();
+        try {
+            batches();
+            for (Object check : checks()) {
+                strategy.check(group, check);
+            }
+        } finally {
+            strategy.stop();
+        }
+        // Each check runs across all groups in the current session.
+        assertEquals(4, published.size());
+        for (int i = 0; i < published.size(); i += 2) {
+            assertTrue(published.get(i) instanceof ContextMessage.Push);
+            assertTrue(published.get(i + 1) instanceof ContextMessage.Pop);
+        }
+        verify();
+    }
+
+}
@@ -0,0 +1,157 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+
+package ome.server.utests;
+
+import ome.io.nio.PixelsStats;
+import ome.model.core.Channel;
+import ome.model.core.Pixels;
+import ome.model.stats.StatsInfo;
+import ome.services.messages.EventLogsMessage;
+import ome.services.util.PixelsDescriptionCache;
+import ome.system.metrics.NullMetrics;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.AssertJUnit.*;
+
+/**
+ * Tests the copying and invalidation of cached Pixels descriptions.
+ */
+@Test(groups = "unit")
+public class PixelsDescriptionCacheTest {
+
+    PixelsDescriptionCache cache;
+
+    /** What the pixel data process has written so far. */
+    PixelsStats stats;
+
+    boolean pyramid;
+
+    /**
+     * Takes the statistics files and pyramid flag from the fields rather
+     * than from a {@link ome.io.nio.PixelsService}.
+     */
+    class Cache extends PixelsDescriptionCache {
+        Cache(long maxBytes) {
+            super(new NullMetrics(), maxBytes, 0);
+        }
+        @Override
+        protected PixelsStats getExactStats(Pixels pixels) {
+            return stats == null || stats.isApproximate() ? null : stats;
+        }
+        @Override
+        protected boolean usesPyramid(Pixels pixels) {
+            return pyramid;
+        }
+    }
+
+    @BeforeMethod
+    public void setup() {
+        cache = new Cache(1 << 20);
+        stats = stats(false, 255);
+        pyramid = false;
+    }
+
+    private PixelsStats stats(boolean approximate, double max) {
+        PixelsStats.Accumulator acc = new PixelsStats.Accumulator(0, max);
+        acc.add(0);
+        acc.add(max);
+        return new PixelsStats(approximate,
+                new PixelsStats.Accumulator[] { acc });
+    }
+
+    private Pixels pixels(boolean processed) {
+        Pixels p = new Pixels(1L, true);
+        p.setSizeX(64);
+        Channel c = new Channel(2L, true);
+        if (processed) {
+            StatsInfo si = new StatsInfo(3L, true);
+            si.setGlobalMin(0.0);
+            si.setGlobalMax(255.0);
+            c.setStatsInfo(si);
+        }
+        p.addChannel(c);
+        return p;
+    }
+
+    private EventLogsMessage message(Class<?> type, long id, String action) {
+        return EventLogsMessages.message(this, type, id, action);
+    }
+
+    public void testReturnsCopies() {
+        Pixels p = pixels(true);
+        cache.put(p);
+        Pixels a = cache.get(1L);
+        Pixels b = cache.get(1L);
+        assertNotNull(a);
+        assertNotSame(p, a);
+        assertNotSame(a, b);
+        assertEquals(Integer.valueOf(64), a.getSizeX());
+        assertEquals(255.0, a.getChannel(0).getStatsInfo().getGlobalMax());
+        a.setSizeX(1);
+        assertEquals(Integer.valueOf(64), cache.get(1L).getSizeX());
+    }
+
+    public void testUnprocessedPixelsAreNotCached() {
+        cache.put(pixels(false));
+        assertNull(cache.get(1L));
+    }
+
+    public void testApproximateStatsAreNotCached() {
+        stats = null;
+        cache.put(pixels(true));
+        assertNull(cache.get(1L));
+        stats = stats(true, 255);
+        cache.put(pixels(true));
+        assertNull(cache.get(1L));
+    }
+
+    public void testStatsNotYetUpdatedAreNotCached() {
+        // The exact statistics are written before the StatsInfo is updated.
+        stats = stats(false, 4095);
+        cache.put(pixels(true));
+        assertNull(cache.get(1L));
+    }
+
+    public void testPyramidFlag() {
+        assertNull(cache.isPyramid(1L));
+        pyramid = true;
+        cache.put(pixels(true));
+        assertEquals(Boolean.TRUE, cache.isPyramid(1L));
+        cache.onApplicationEvent(message(Pixels.class, 1L, "UPDATE"));
+        assertNull(cache.isPyramid(1L));
+    }
+
+    public void testChildUpdateInvalidates() {
+        cache.put(pixels(true));
+        cache.onApplicationEvent(message(StatsInfo.class, 3L, "UPDATE"));
+        assertNull(cache.get(1L));
+    }
+
+    public void testChildUpdateInvalidatesAfterRecaching() {
+        cache.put(pixels(true));
+        cache.put(pixels(true));
+        cache.onApplicationEvent(message(StatsInfo.class, 3L, "UPDATE"));
+        assertNull(cache.get(1L));
+    }
+
+    public void testInsertDoesNotInvalidate() {
+        cache.put(pixels(true));
+        cache.onApplicationEvent(message(Pixels.class, 1L, "INSERT"));
+        cache.onApplicationEvent(message(Channel.class, 99L, "DELETE"));
+        assertNotNull(cache.get(1L));
+        cache.onApplicationEvent(message(Pixels.class, 1L, "DELETE"));
+        assertNull(cache.get(1L));
+    }
+
+    public void testDisabled() {
+        cache = new Cache(0);
+        cache.put(pixels(true));
+        assertNull(cache.get(1L));
+    }
+
+}
@@ -0,0 +1,142 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+
+package ome.server.utests;
+
+import java.util.HashMap;
+
+import ome.api.local.LocalQuery;
+import ome.io.nio.PixelsStats;
+import ome.logic.PixelsImpl;
+import ome.model.core.Channel;
+import ome.model.core.Pixels;
+import ome.model.stats.StatsInfo;
+import ome.security.ACLVoter;
+import ome.security.SecuritySystem;
+import ome.services.util.PixelsDescriptionCache;
+import ome.system.EventContext;
+import ome.system.metrics.NullMetrics;
+import ome.tools.hibernate.SessionFactory;
+
+import org.hibernate.Session;
+import org.jmock.Mock;
+import org.jmock.MockObjectTestCase;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that {@link PixelsImpl#retrievePixDescription(long)} answers calls
+ * made directly on the bean, as ThumbnailCtx or RenderingSettingsImpl do,
+ * from the {@link PixelsDescriptionCache} without querying the database.
+ */
+@Test(groups = "unit")
+public class PixelsImplCacheTest extends MockObjectTestCase {
+
+    PixelsImpl pixelsImpl;
+
+    PixelsDescriptionCache cache;
+
+    Mock qMock, aclMock, ecMock;
+
+    @BeforeMethod
+    public void setup() {
+        cache = new PixelsDescriptionCache(new NullMetrics(), 1 << 20, 0) {
+            @Override
+            protected PixelsStats getExactStats(Pixels pixels) {
+                PixelsStats.Accumulator acc =
+                        new PixelsStats.Accumulator(0, 255);
+                acc.add(0);
+                acc.add(255);
+                return new PixelsStats(false,
+                        new PixelsStats.Accumulator[] { acc });
+            }
+        };
+
+        qMock = mock(LocalQuery.class);
+        aclMock = mock(ACLVoter.class);
+        ecMock = mock(EventContext.class);
+        ecMock.stubs().method("getCurrentShareId").will(returnValue(null));
+        Mock secMock = mock(SecuritySystem.class);
+        secMock.stubs().method("getEventContext")
+                .will(returnValue(ecMock.proxy()));
+        Mock fMock = mock(org.hibernate.SessionFactory.class);
+        fMock.stubs().method("getAllClassMetadata")
+                .will(returnValue(new HashMap<Object, Object>()));
+        final Session session = (Session) mock(Session.class).proxy();
+
+        pixelsImpl = new PixelsImpl();
+        pixelsImpl.setQueryService((LocalQuery) qMock.proxy());
+        pixelsImpl.setSecuritySystem((SecuritySystem) secMock.proxy());
+        pixelsImpl.setAclVoter((ACLVoter) aclMock.proxy());
+        pixelsImpl.setSessionFactory(new SessionFactory(
+                (org.hibernate.SessionFactory) fMock.proxy(), null) {
+            @Override
+            public Session getSession() {
+                return session;
+            }
+        });
+        pixelsImpl.setDescriptionCache(cache);
+    }
+
+    private Pixels pixels() {
+        Pixels p = new Pixels(1L, true);
+        p.setSizeX(64);
+        Channel c = new Channel(2L, true);
+        StatsInfo si = new StatsInfo(3L, true);
+        si.setGlobalMin(0.0);
+        si.setGlobalMax(255.0);
+        c.setStatsInfo(si);
+        p.addChannel(c);
+        return p;
+    }
+
+    public void testMissIsLoadedOnceThenServedFromCache() {
+        Pixels loaded = pixels();
+        qMock.expects(once()).method("findByQuery")
+                .will(returnValue(loaded));
+        aclMock.expects(once()).method("allowLoad")
+                .will(returnValue(true));
+        assertSame(loaded, pixelsImpl.retrievePixDescription(1L));
+        Pixels cached = pixelsImpl.retrievePixDescription(1L);
+        assertNotNull(cached);
+        assertNotSame(loaded, cached);
+        assertEquals(Integer.valueOf(64), cached.getSizeX());
+        verify();
+    }
+
+    public void testHitRunsNoQuery() {
+        cache.put(pixels());
+        qMock.expects(never()).method("findByQuery");
+        qMock.expects(never()).method("projection");
+        aclMock.expects(once()).method("allowLoad")
+                .will(returnValue(true));
+        Pixels cached = pixelsImpl.retrievePixDescription(1L);
+        assertNotNull(cached);
+        assertEquals(255.0,
+                cached.getChannel(0).getStatsInfo().getGlobalMax());
+        verify();
+    }
+
+    public void testUnreadableHitIsFilteredOut() {
+        cache.put(pixels());
+        qMock.expects(never()).method("findByQuery");
+        aclMock.expects(once()).method("allowLoad")
+                .will(returnValue(false));
+        assertNull(pixelsImpl.retrievePixDescription(1L));
+        verify();
+    }
+
+    public void testShareAlwaysQueries() {
+        cache.put(pixels());
+        ecMock.stubs().method("getCurrentShareId").will(returnValue(5L));
+        Pixels loaded = pixels();
+        qMock.expects(once()).method("findByQuery")
+                .will(returnValue(loaded));
+        aclMock.expects(never()).method("allowLoad");
+        assertSame(loaded, pixelsImpl.retrievePixDescription(1L));
+        verify();
+    }
+
+}
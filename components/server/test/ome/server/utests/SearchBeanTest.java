@@ -14,6 +14,7 @@ import ome.model.annotations.TagAnnotation;
 import ome.model.core.Image;
 import ome.services.SearchBean;
 import ome.services.fulltext.FullTextAnalyzer;
+import ome.services.search.FullText;
 import ome.services.search.SearchAction;
 import ome.services.search.SearchValues;
 import ome.services.util.Executor;
@@ -21,8 +22,14 @@ import ome.system.Principal;
 import ome.system.ServiceFactory;
 
 import org.apache.lucene.analysis.Analyzer;
+import org.hibernate.Criteria;
 import org.hibernate.Session;
+import org.hibernate.search.FullTextQuery;
+import org.hibernate.search.FullTextSession;
+import org.jmock.Mock;
 import org.jmock.MockObjectTestCase;
+import org.jmock.core.Invocation;
+import org.jmock.core.Stub;
 import org.testng.annotations.Test;
 
 public class SearchBeanTest extends MockObjectTestCase {
@@ -158,6 +165,165 @@ public class SearchBeanTest extends MockObjectTestCase {
 
     // ==============================================
 
+    @Test
+    public void testFullTextIsPagedByBatchSize() {
+        bean = new SearchBean(executor, analyzer);
+        bean.setBatchSize(2);
+        final SearchValues values = new SearchValues();
+        values.onlyTypes = Arrays.<Class> asList(Image.class);
+        final List<Integer> pageSizes = new ArrayList<Integer>();
+        bean.addAction(new FullText(values, "a", analyzer) {
+            int remaining = 5;
+
+            @Override
+            public void setPageSize(int pageSize) {
+                super.setPageSize(pageSize);
+                pageSizes.add(pageSize);
+            }
+
+            @Override
+            public boolean hasMore() {
+                return remaining > 0;
+            }
+
+            @Override
+            public Object doWork(Session session, ServiceFactory sf) {
+                List<IObject> rv = new ArrayList<IObject>();
+                for (int i = 0; i < 2 && remaining > 0; i++, remaining--) {
+                    rv.add(new Image());
+                }
+                return rv;
+            }
+        });
+
+        int count = 0;
+        while (bean.hasNext()) {
+            bean.next();
+            count++;
+        }
+        assertEquals(5, count);
+        assertEquals(Arrays.asList(2, 2, 2), pageSizes);
+    }
+
+    /**
+     * Drives {@link FullText} paging against Lucene hits with the ids 1 to
+     * 8, of which 2 is removed by the database filters.
+     */
+    @Test
+    public void testFullTextPagesThroughHits() {
+        final List<Long> hits = new ArrayList<Long>();
+        for (long id = 1; id <= 8; id++) {
+            hits.add(id);
+        }
+        final List<int[]> limits = new ArrayList<int[]>();
+        final List<Long> lastHits = new ArrayList<Long>();
+        final int[] limit = new int[2];
+
+        final Mock qMock = mock(FullTextQuery.class);
+        qMock.stubs().method("setProjection").will(returnValue(qMock.proxy()));
+        qMock.stubs().method("setFirstResult").will(new Record(limit, 0, qMock));
+        qMock.stubs().method("setMaxResults").will(new Record(limit, 1, qMock));
+        qMock.stubs().method("getResultSize").will(returnValue(hits.size()));
+        qMock.stubs().method("list").will(new Stub() {
+            public Object invoke(Invocation invocation) {
+                limits.add(limit.clone());
+                lastHits.clear();
+                lastHits.addAll(hits.subList(limit[0],
+                        Math.min(hits.size(), limit[0] + limit[1])));
+                List<Object[]> rv = new ArrayList<Object[]>();
+                for (Long id : lastHits) {
+                    rv.add(new Object[] { 1.0f, id });
+                }
+                return rv;
+            }
+
+            public StringBuffer describeTo(StringBuffer buffer) {
+                return buffer.append("hits");
+            }
+        });
+
+        final Mock cMock = mock(Criteria.class);
+        cMock.stubs().method(ANYTHING).will(returnValue(cMock.proxy()));
+        cMock.stubs().method("list").will(new Stub() {
+            public Object invoke(Invocation invocation) {
+                List<IObject> rv = new ArrayList<IObject>();
+                for (Long id : lastHits) {
+                    if (id != 2L) {
+                        rv.add(new Image(id, true));
+                    }
+                }
+                return rv;
+            }
+
+            public StringBuffer describeTo(StringBuffer buffer) {
+                return buffer.append("filtered hits");
+            }
+        });
+
+        final Mock sMock = mock(FullTextSession.class);
+        sMock.stubs().method("createFullTextQuery")
+                .will(returnValue(qMock.proxy()));
+        sMock.stubs().method("createCriteria").will(returnValue(cMock.proxy()));
+
+        final SearchValues values = new SearchValues();
+        values.onlyTypes = Arrays.<Class> asList(Image.class);
+        bean = new SearchBean(executor, analyzer);
+        bean.setBatchSize(3);
+        bean.addAction(new FullText(values, "a", analyzer) {
+            @Override
+            protected FullTextSession fullTextSession(Session s) {
+                return (FullTextSession) sMock.proxy();
+            }
+        });
+
+        assertEquals(Arrays.asList(1L, 3L, 4L), ids(bean.results()));
+        assertEquals(Arrays.asList(5L, 6L, 7L), ids(bean.results()));
+        assertEquals(Arrays.asList(8L), ids(bean.results()));
+        assertFalse(bean.hasNext());
+
+        // The filtered hit is replaced by fetching the next single hit.
+        assertEquals(4, limits.size());
+        int[][] expected = { { 0, 3 }, { 3, 1 }, { 4, 3 }, { 7, 3 } };
+        for (int i = 0; i < expected.length; i++) {
+            assertTrue(Arrays.equals(expected[i], limits.get(i)));
+        }
+    }
+
+    /**
+     * Records an int argument at the given index and returns the mock.
+     */
+    static class Record implements Stub {
+
+        final int[] values;
+
+        final int index;
+
+        final Mock mock;
+
+        Record(int[] values, int index, Mock mock) {
+            this.values = values;
+            this.index = index;
+            this.mock = mock;
+        }
+
+        public Object invoke(Invocation invocation) {
+            values[index] = (Integer) invocation.parameterValues.get(0);
+            return mock.proxy();
+        }
+
+        public StringBuffer describeTo(StringBuffer buffer) {
+            return buffer.append("records argument");
+        }
+    }
+
+    private static List<Long> ids(List<? extends IObject> objects) {
+        List<Long> ids = new ArrayList<Long>();
+        for (IObject object : objects) {
+            ids.add(object.getId());
+        }
+        return ids;
+    }
+
     private void addActionWithResultOfSize_n(final int n) {
         bean.addAction(new SearchAction(new SearchValues()) {
 
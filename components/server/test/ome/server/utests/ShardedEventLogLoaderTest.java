@@ -0,0 +1,159 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+package ome.server.utests;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import ome.api.IQuery;
+import ome.model.containers.Project;
+import ome.model.meta.EventLog;
+import ome.services.eventlogs.EventLogQueue;
+import ome.services.eventlogs.ShardedEventLogLoader;
+import ome.system.metrics.Metrics;
+import ome.system.metrics.NullMetrics;
+import ome.util.SqlAction;
+
+import org.jmock.Mock;
+import org.jmock.MockObjectTestCase;
+import org.jmock.core.stub.DefaultResultStub;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+@Test(groups = { "query", "fulltext" })
+public class ShardedEventLogLoaderTest extends MockObjectTestCase {
+
+    static long eventLogId = 0;
+
+    ShardedEventLogLoader loader;
+
+    /** Rows returned by the next lookup of the shard which owns them. */
+    List<Object[]> results;
+
+    @BeforeMethod
+    public void setup() {
+        results = new ArrayList<Object[]>();
+        loader = new ShardedEventLogLoader(new NullMetrics(), 100,
+                new String[]{Project.class.getName()},
+                new String[]{"INSERT"}, 2) {
+            @Override
+            protected EventLogQueue newShard(Metrics metrics, int max,
+                    String[] types, String[] actions) {
+                return new EventLogQueue(metrics, max, types, actions) {
+                    @Override
+                    protected List<Object[]> lookup() {
+                        List<Object[]> rv = new ArrayList<Object[]>();
+                        Iterator<Object[]> it = results.iterator();
+                        while (it.hasNext()) {
+                            Object[] row = it.next();
+                            if ((Long) row[2] % getShards() == getShard()) {
+                                rv.add(row);
+                                it.remove();
+                            }
+                        }
+                        return rv;
+                    }
+                };
+            }
+        };
+        Mock sqlMock = mock(SqlAction.class);
+        sqlMock.setDefaultStub(new DefaultResultStub());
+        loader.setSqlAction((SqlAction) sqlMock.proxy());
+        Mock queryMock = mock(IQuery.class);
+        queryMock.stubs().method("findByQuery").will(returnValue(null));
+        loader.setQueryService((IQuery) queryMock.proxy());
+    }
+
+    Object[] project(long id) {
+        return new Object[] {eventLogId++, Project.class.getName(), id,
+                "INSERT", 0};
+    }
+
+    long nextId() {
+        assertTrue(loader.hasNext());
+        EventLog log = loader.next();
+        return log.getEntityId();
+    }
+
+    @Test
+    public void testShardsAlternate() {
+        results.add(project(1));
+        results.add(project(3));
+        results.add(project(2));
+        results.add(project(4));
+        assertEquals(2L, nextId());
+        assertEquals(1L, nextId());
+        assertEquals(4L, nextId());
+        assertEquals(3L, nextId());
+        assertFalse(loader.hasNext());
+    }
+
+    @Test
+    public void testEmptyShardIsSkipped() {
+        results.add(project(1));
+        results.add(project(3));
+        assertEquals(1L, nextId());
+        assertEquals(3L, nextId());
+        assertFalse(loader.hasNext());
+    }
+
+    @Test
+    public void testDupesSkippedWithinShard() {
+        results.add(project(1));
+        results.add(project(1));
+        assertEquals(1L, nextId());
+        assertFalse(loader.hasNext());
+    }
+
+    @Test
+    public void testBatchSize() {
+        loader.setBatchSize(1);
+        results.add(project(1));
+        results.add(project(2));
+        assertEquals(2L, nextId());
+        assertFalse(loader.hasNext());
+        assertEquals(1L, nextId());
+    }
+
+    @Test
+    public void testBacklog() {
+        loader.addEventLog(Project.class, 3L);
+        assertEquals(3L, nextId());
+        assertFalse(loader.hasNext());
+    }
+
+    @Test
+    public void testNewestEventLogQueriedOncePerBatch() {
+        Mock queryMock = mock(IQuery.class);
+        queryMock.expects(once()).method("findByQuery")
+                .will(returnValue(new EventLog(99L, true)));
+        loader.setQueryService((IQuery) queryMock.proxy());
+        results.add(project(1));
+        results.add(project(2));
+        nextId();
+        nextId();
+        assertFalse(loader.hasNext());
+        queryMock.verify();
+    }
+
+    @Test
+    public void testKeysPerShard() {
+        loader.setKey("PixelDataHandler.v1");
+        String[] keys = loader.getKeys();
+        assertEquals(2, keys.length);
+        assertFalse(keys[0].equals(keys[1]));
+        assertTrue(keys[0].startsWith("PixelDataHandler.v1"));
+    }
+
+    @Test
+    public void testStopSet() {
+        loader.addEventLog(Project.class, 1L);
+        loader.setStop(true);
+        assertFalse(loader.hasNext());
+        loader.setStop(false);
+        assertTrue(loader.hasNext());
+    }
+}
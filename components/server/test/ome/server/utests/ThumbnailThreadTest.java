@@ -0,0 +1,124 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+
+package ome.server.utests;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import ome.model.meta.EventLog;
+import ome.services.eventlogs.EventLogLoader;
+import ome.services.sessions.SessionManager;
+import ome.services.thumbnail.ThumbnailHandler;
+import ome.services.thumbnail.ThumbnailHandler.Stale;
+import ome.services.thumbnail.ThumbnailThread;
+import ome.services.util.Executor;
+import ome.system.metrics.NullMetrics;
+
+import org.hibernate.Session;
+import org.jmock.Mock;
+import org.jmock.MockObjectTestCase;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the background thumbnail generation handles every changed
+ * rendering settings once without exceeding the configured concurrency.
+ */
+@Test(groups = "unit", timeOut = 10000)
+public class ThumbnailThreadTest extends MockObjectTestCase {
+
+    ExecutorService threads;
+
+    @BeforeMethod
+    public void setup() {
+        threads = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterMethod
+    public void teardown() {
+        threads.shutdownNow();
+    }
+
+    public void testBoundedConcurrency() throws Exception {
+
+        final int total = 20;
+        final int numThreads = 3;
+        final AtomicInteger logs = new AtomicInteger();
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final List<Long> regenerated = new CopyOnWriteArrayList<Long>();
+
+        EventLogLoader loader = new EventLogLoader() {
+            @Override
+            protected EventLog query() {
+                long id = logs.incrementAndGet();
+                if (id > total) {
+                    return null;
+                }
+                EventLog log = new EventLog();
+                log.setEntityId(id);
+                return log;
+            }
+
+            @Override
+            public long more() {
+                return 0;
+            }
+        };
+
+        ThumbnailHandler handler = new ThumbnailHandler(loader) {
+            @Override
+            protected Stale getStale(Long id, Session session) {
+                if (id % 5 == 0) {
+                    return null; // deleted in the meantime
+                }
+                return new Stale(id, id * 10, "user", "group");
+            }
+        };
+        handler.setRepetitions(total);
+
+        Mock mgrMock = mock(SessionManager.class);
+        SessionManager mgr = (SessionManager) mgrMock.proxy();
+        Executor ex = new DummyExecutor(null, null, threads);
+
+        ThumbnailThread thread = new ThumbnailThread(mgr, ex, handler,
+                numThreads, new int[] { 96 }, new NullMetrics()) {
+            @Override
+            protected void regenerate(Stale s) {
+                int now = running.incrementAndGet();
+                int max;
+                while ((max = maxRunning.get()) < now) {
+                    maxRunning.compareAndSet(max, now);
+                }
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    // ignore
+                }
+                regenerated.add(s.renderingDefId);
+                running.decrementAndGet();
+            }
+
+            @Override
+            protected void onExecutionException(ExecutionException ee) {
+                throw new RuntimeException(ee.getCause());
+            }
+        };
+
+        thread.doRun();
+
+        assertEquals(16, regenerated.size());
+        assertFalse(regenerated.contains(5L));
+        assertTrue(maxRunning.get() <= numThreads);
+        assertTrue(maxRunning.get() > 0);
+    }
+
+}
@@ -24,9 +24,11 @@ import static org.testng.AssertJUnit.fail;
 
 import java.util.Arrays;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import omero.LockTimeout;
 import omero.ServerError;
 import omero.cmd.CmdCallbackI;
 import omero.cmd.DoAll;
@@ -68,6 +70,10 @@ public class CmdCallbackTest extends AbstractServerTest {
             finished.countDown();
         }
 
+        public boolean cancel() throws ServerError {
+            return handle.cancel();
+        }
+
         public void assertSteps(int expected) {
             assertEquals(expected, steps.get());
         }
@@ -137,6 +143,45 @@ public class CmdCallbackTest extends AbstractServerTest {
         cb.assertFinished(10); // Modulus-10
     }
 
+    @Test
+    public void testTimingFinishesOnFuture() throws Exception {
+        TestCB cb = timing(25, 4 * 10); // Runs 1 second
+        Response rsp = cb.getFuture().get(5 * scalingFactor,
+                TimeUnit.MILLISECONDS);
+        assertEquals(rsp, cb.getResponse());
+        cb.assertFinished(10); // Modulus-10
+    }
+
+    @Test
+    public void testTimingFutureTimesOut() throws Exception {
+        TestCB cb = timing(25, 4 * 100); // Runs 10 seconds
+        try {
+            cb.getFuture(100, TimeUnit.MILLISECONDS).get();
+            fail("should have timed out");
+        } catch (ExecutionException ee) {
+            assertTrue(ee.getCause() instanceof LockTimeout);
+        }
+        // The command itself carries on.
+        assertFalse(cb.getFuture().isDone());
+        cb.loop(30, scalingFactor);
+        cb.assertFinished(10); // Modulus-10
+    }
+
+    @Test
+    public void testTimingCancelReturnsOnceStopped() throws Exception {
+        TestCB cb = timing(25, 4 * 100); // Runs 10 seconds
+        for (int i = 0; i < 50 && cb.steps.get() == 0; i++) {
+            Thread.sleep(100); // Until the request is running.
+        }
+        long start = System.currentTimeMillis();
+        assertTrue(cb.cancel());
+        long elapsed = System.currentTimeMillis() - start;
+        // Woken as soon as the request stops rather than at the timeout.
+        assertTrue("cancel took " + elapsed + "ms", elapsed < 5000);
+        cb.finished.await(5, TimeUnit.SECONDS);
+        cb.assertCancelled();
+    }
+
     // DoAll
     // =========================================================================
 
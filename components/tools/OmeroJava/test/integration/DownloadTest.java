@@ -0,0 +1,122 @@
+/*
+ *   Copyright 2015 Glencoe Software, Inc. All rights reserved.
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+package integration;
+
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Arrays;
+
+import omero.ClientError;
+import omero.model.OriginalFile;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link omero.client#download(long, File, int, int, int, boolean)}
+ * into a local file which already has content, with and without resuming.
+ */
+@Test(groups = "integration")
+public class DownloadTest extends AbstractServerTest {
+
+    private static final int BLOCK_SIZE = 1024;
+
+    /** Content of the uploaded file: several blocks and a partial one. */
+    private byte[] content;
+
+    private long fileId;
+
+    private File local;
+
+    @BeforeMethod
+    public void uploadFile() throws Exception {
+        newUserAndGroup("rw----");
+        content = new byte[5 * BLOCK_SIZE + 100];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i % 251);
+        }
+        final File upload = File.createTempFile("DownloadTest", ".upload");
+        local = File.createTempFile("DownloadTest", ".download");
+        try {
+            FileUtils.writeByteArrayToFile(upload, content);
+            final OriginalFile file = client.upload(upload);
+            fileId = file.getId().getValue();
+        } finally {
+            upload.delete();
+        }
+    }
+
+    @AfterMethod
+    public void deleteLocal() {
+        local.delete();
+    }
+
+    /**
+     * Writes the given content over the whole local file.
+     */
+    private void writeLocal(byte[] bytes) throws Exception {
+        final FileOutputStream out = new FileOutputStream(local);
+        try {
+            out.write(bytes);
+        } finally {
+            out.close();
+        }
+    }
+
+    private void assertDownloaded() throws Exception {
+        assertTrue(Arrays.equals(content, FileUtils.readFileToByteArray(local)));
+    }
+
+    /**
+     * Test that, without resuming, a longer local file is truncated.
+     */
+    public void testDownloadTruncatesLongerFile() throws Exception {
+        writeLocal(new byte[content.length * 2]);
+        client.download(fileId, local, BLOCK_SIZE);
+        assertDownloaded();
+    }
+
+    /**
+     * Test that, without resuming, stale content at the start of the local
+     * file is overwritten.
+     */
+    public void testDownloadOverwritesFromStart() throws Exception {
+        writeLocal(new byte[3 * BLOCK_SIZE]);
+        client.download(fileId, local, BLOCK_SIZE, 4, 2, false);
+        assertDownloaded();
+    }
+
+    /**
+     * Test that resuming completes a download of which the local file
+     * holds the start, including a partial block.
+     */
+    public void testResumeCompletesPartialFile() throws Exception {
+        writeLocal(Arrays.copyOf(content, 2 * BLOCK_SIZE + 10));
+        client.download(fileId, local, BLOCK_SIZE, 4, 2, true);
+        assertDownloaded();
+    }
+
+    /**
+     * Test that resuming keeps the existing content, so that stale content
+     * fails the checksum and the corrupt file is deleted.
+     */
+    public void testResumeKeepsExistingContent() throws Exception {
+        writeLocal(new byte[3 * BLOCK_SIZE]);
+        try {
+            client.download(fileId, local, BLOCK_SIZE, 4, 2, true);
+            fail("stale content should fail the checksum");
+        } catch (ClientError ce) {
+            // expected
+        }
+        assertFalse(local.exists());
+    }
+
+}
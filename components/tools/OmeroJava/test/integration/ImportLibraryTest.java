@@ -23,10 +23,15 @@
 package integration;
 
 import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
 import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertTrue;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import ome.formats.importer.IObservable;
 import ome.formats.importer.IObserver;
@@ -173,6 +178,76 @@ public class ImportLibraryTest extends AbstractServerTest {
         assertEquals(pixels.size(), 1);
     }
 
+    /**
+     * Imports several filesets concurrently and checks that the observers
+     * see the events of each fileset in the order of the containers and
+     * are never called concurrently.
+     *
+     * @throws Throwable
+     *             Thrown if an error occurred.
+     */
+    @Test
+    public void testImportCandidatesConcurrently() throws Throwable {
+        login("rw----", MEMBER);
+        final int count = 4;
+        final String[] paths = new String[count];
+        for (int i = 0; i < count; i++) {
+            File f = File.createTempFile("testImportCandidatesConcurrently"
+                    + i + ModelMockFactory.FORMATS[0], "."
+                    + ModelMockFactory.FORMATS[0]);
+            mmFactory.createImageFile(f, ModelMockFactory.FORMATS[0]);
+            f.deleteOnExit();
+            paths[i] = f.getAbsolutePath();
+        }
+        ImportConfig config = new ImportConfig();
+        config.parallelFileset.set(2);
+        OMEROWrapper reader = new OMEROWrapper(config);
+        ImportCandidates candidates = new ImportCandidates(reader, paths,
+                new IObserver() {
+                    public void update(IObservable importLibrary,
+                            ImportEvent event) {
+                    }
+                });
+        final List<ImportContainer> containers = candidates.getContainers();
+        assertEquals(count, containers.size());
+
+        final List<Integer> started = new ArrayList<Integer>();
+        final List<ImportContainer> finished = new ArrayList<ImportContainer>();
+        final AtomicInteger imported = new AtomicInteger();
+        final AtomicInteger inside = new AtomicInteger();
+        final AtomicBoolean overlapped = new AtomicBoolean();
+        ImportLibrary library = new ImportLibrary(importer, reader);
+        library.addObserver(new IObserver() {
+            public void update(IObservable importLibrary, ImportEvent event) {
+                if (inside.incrementAndGet() > 1) {
+                    overlapped.set(true);
+                }
+                try {
+                    if (event instanceof ImportEvent.FILESET_UPLOAD_START) {
+                        started.add(((ImportEvent.FILESET_UPLOAD_START) event)
+                                .fileIndex);
+                    } else if (event instanceof ImportEvent.FILESET_THROUGHPUT) {
+                        finished.add(((ImportEvent.FILESET_THROUGHPUT) event)
+                                .container);
+                    } else if (event instanceof ImportEvent.IMPORT_DONE) {
+                        imported.incrementAndGet();
+                    }
+                } finally {
+                    inside.decrementAndGet();
+                }
+            }
+        });
+
+        assertTrue(library.importCandidates(config, candidates));
+        assertFalse(overlapped.get());
+        assertEquals(count, imported.get());
+        assertEquals(count, started.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, started.get(i).intValue());
+            assertEquals(containers.get(i), finished.get(i));
+        }
+    }
+
     /**
      * Overridden to initialize the list.
      *
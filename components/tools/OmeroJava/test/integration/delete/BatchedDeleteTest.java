@@ -0,0 +1,255 @@
+/*
+ *   Copyright (C) 2015 University of Dundee & Open Microscopy Environment.
+ *   All rights reserved.
+ *
+ *   Use is subject to license terms supplied in LICENSE.txt
+ */
+
+package integration.delete;
+
+import integration.AbstractServerTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import omero.cmd.CmdCallbackI;
+import omero.cmd.Delete2;
+import omero.cmd.Delete2Response;
+import omero.cmd.ERR;
+import omero.cmd.HandlePrx;
+import omero.cmd.Response;
+import omero.cmd.State;
+import omero.cmd.Status;
+import omero.gateway.util.Requests;
+import omero.model.Dataset;
+import omero.model.Image;
+import omero.model.Instrument;
+import omero.sys.ParametersI;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import Ice.Current;
+
+/**
+ * Tests {@link Delete2} with a positive {@code batchSize}, which commits the
+ * planned deletions over several transactions.
+ * @since 5.1.0
+ */
+@Test(groups = { "integration", "delete" })
+public class BatchedDeleteTest extends AbstractServerTest {
+
+    private static final int IMAGES = 5;
+
+    private static final int BATCH_SIZE = 10;
+
+    /**
+     * Cancels the request the {@code n}th time that the server reports being
+     * between chunks, i.e. at step 0.
+     */
+    private static class CancellingCallback extends CmdCallbackI {
+
+        private final int n;
+
+        private int seen = 0;
+
+        private boolean cancelled = false;
+
+        CancellingCallback(omero.client client, HandlePrx handle, int n)
+                throws Exception {
+            super(client, handle);
+            this.n = n;
+        }
+
+        @Override
+        public synchronized void step(int complete, int total, Current __current) {
+            if (complete == 0 && !cancelled && ++seen == n) {
+                try {
+                    cancelled = handle.cancel();
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a dataset of {@link #IMAGES} images.
+     * @return the dataset
+     * @throws Exception unexpected
+     */
+    private Dataset createDataset() throws Exception {
+        Dataset dataset = (Dataset) iUpdate.saveAndReturnObject(mmFactory.simpleDataset());
+        for (int i = 0; i < IMAGES; i++) {
+            final Image image = (Image) iUpdate.saveAndReturnObject(mmFactory.createImage());
+            image.unload();
+            dataset.linkImage(image);
+        }
+        return (Dataset) iUpdate.saveAndReturnObject(dataset);
+    }
+
+    /**
+     * @param dataset a dataset
+     * @return the IDs of the images in the dataset
+     * @throws Exception unexpected
+     */
+    private List<Long> getImageIds(Dataset dataset) throws Exception {
+        final List<Long> ids = new ArrayList<Long>();
+        for (final List<omero.RType> row : iQuery.projection(
+                "SELECT child.id FROM DatasetImageLink WHERE parent.id = :id",
+                new ParametersI().addId(dataset.getId()))) {
+            ids.add(((omero.RLong) row.get(0)).getValue());
+        }
+        return ids;
+    }
+
+    /**
+     * @param request a delete request
+     * @return the request's response
+     * @throws Exception unexpected
+     */
+    private Delete2Response deleteInBatches(Delete2 request) throws Exception {
+        request.batchSize = BATCH_SIZE;
+        final Response rsp = doChange(request);
+        Assert.assertTrue(rsp instanceof Delete2Response);
+        return (Delete2Response) rsp;
+    }
+
+    /**
+     * Test that a batched deletion reports each batch, deletes everything
+     * and that its final response lists the deleted objects.
+     * @throws Exception unexpected
+     */
+    public void testBatchedDelete() throws Exception {
+        newUserAndGroup("rw----");
+        final Dataset dataset = createDataset();
+        final List<Long> imageIds = getImageIds(dataset);
+        Assert.assertEquals(imageIds.size(), IMAGES);
+
+        final Delete2Response response = deleteInBatches(Requests.delete("Dataset", dataset.getId().getValue()));
+
+        /* one count and one time for each committed batch */
+        Assert.assertTrue(response.batchObjectCounts.size() > 1);
+        Assert.assertEquals(response.batchTimes.size(), response.batchObjectCounts.size());
+        long batchTotal = 0;
+        for (final Long count : response.batchObjectCounts) {
+            Assert.assertTrue(count > 0);
+            batchTotal += count;
+        }
+        for (final Long time : response.batchTimes) {
+            Assert.assertTrue(time >= 0);
+        }
+
+        /* the final response notes everything that was deleted */
+        long deletedTotal = 0;
+        for (final List<Long> ids : response.deletedObjects.values()) {
+            deletedTotal += ids.size();
+        }
+        Assert.assertTrue(batchTotal <= deletedTotal);
+        Assert.assertEquals(response.deletedObjects.get(ome.model.containers.Dataset.class.getName()).size(), 1);
+        Assert.assertEquals(response.deletedObjects.get(ome.model.core.Image.class.getName()).size(), IMAGES);
+
+        assertDoesNotExist(dataset);
+        for (final Long imageId : imageIds) {
+            Assert.assertNull(iQuery.find("Image", imageId));
+        }
+    }
+
+    /**
+     * Test that a deletion without a batch size is not batched.
+     * @throws Exception unexpected
+     */
+    public void testUnbatchedDelete() throws Exception {
+        newUserAndGroup("rw----");
+        final Dataset dataset = createDataset();
+        final Response rsp = doChange(Requests.delete("Dataset", dataset.getId().getValue()));
+        Assert.assertTrue(rsp instanceof Delete2Response);
+        final Delete2Response response = (Delete2Response) rsp;
+        Assert.assertTrue(response.batchObjectCounts.isEmpty());
+        Assert.assertTrue(response.batchTimes.isEmpty());
+        assertDoesNotExist(dataset);
+    }
+
+    /**
+     * Test that a batched deletion may be cancelled between batches, keeping
+     * the batches already committed, and that submitting the same request
+     * again completes the deletion.
+     * @throws Exception unexpected
+     */
+    public void testCancelBetweenBatches() throws Exception {
+        newUserAndGroup("rw----");
+        final Dataset dataset = createDataset();
+        final Delete2 request = Requests.delete("Dataset", dataset.getId().getValue());
+        request.batchSize = BATCH_SIZE;
+
+        /* the planning transaction and one batch are committed before the cancel */
+        final HandlePrx handle = client.getSession().submit(request);
+        final CancellingCallback cb = new CancellingCallback(client, handle, 2);
+        cb.loop(20, scalingFactor);
+        final Status status = cb.getStatus();
+        Assert.assertTrue(cb.getResponse() instanceof ERR);
+        Assert.assertTrue(status.flags.contains(State.CANCELLED));
+        Assert.assertTrue(cb.cancelled);
+
+        /* the dataset is deleted last so it is still there */
+        assertExists(dataset);
+
+        final Delete2Response response = deleteInBatches(Requests.delete("Dataset", dataset.getId().getValue()));
+        Assert.assertFalse(response.batchObjectCounts.isEmpty());
+        assertDoesNotExist(dataset);
+    }
+
+    /**
+     * Test that a batched deletion cancelled part-way leaves surviving objects still linked to the objects that it did not
+     * yet delete: the images' link to the instrument is removed only in the batch that deletes the instrument.
+     * @throws Exception unexpected
+     */
+    public void testCancelLeavesLinksIntact() throws Exception {
+        newUserAndGroup("rw----");
+        Instrument instrument = mmFactory.createInstrument();
+        instrument.addDetector(mmFactory.createDetector());
+        instrument.addObjective(mmFactory.createObjective());
+        instrument = (Instrument) iUpdate.saveAndReturnObject(instrument);
+        final long instrumentId = instrument.getId().getValue();
+        final List<Long> imageIds = new ArrayList<Long>();
+        for (int i = 0; i < 2; i++) {
+            final Image image = mmFactory.createImage();
+            image.setInstrument((Instrument) instrument.proxy());
+            imageIds.add(iUpdate.saveAndReturnObject(image).getId().getValue());
+        }
+
+        /* the planning transaction and one batch, which cannot include the instrument, are committed before the cancel */
+        final Delete2 request = Requests.delete("Instrument", instrumentId);
+        request.batchSize = 1;
+        final HandlePrx handle = client.getSession().submit(request);
+        final CancellingCallback cb = new CancellingCallback(client, handle, 2);
+        cb.loop(20, scalingFactor);
+        Assert.assertTrue(cb.getResponse() instanceof ERR);
+        Assert.assertTrue(cb.cancelled);
+
+        Assert.assertNotNull(iQuery.find("Instrument", instrumentId));
+        for (final Long imageId : imageIds) {
+            Assert.assertEquals(getInstrumentId(imageId), Long.valueOf(instrumentId));
+        }
+
+        /* completing the deletion unlinks the images */
+        deleteInBatches(Requests.delete("Instrument", instrumentId));
+        Assert.assertNull(iQuery.find("Instrument", instrumentId));
+        for (final Long imageId : imageIds) {
+            Assert.assertNotNull(iQuery.find("Image", imageId));
+            Assert.assertNull(getInstrumentId(imageId));
+        }
+    }
+
+    /**
+     * @param imageId the ID of an image
+     * @return the ID of the image's instrument, or {@code null} if it has none
+     * @throws Exception unexpected
+     */
+    private Long getInstrumentId(long imageId) throws Exception {
+        final List<List<omero.RType>> rows = iQuery.projection(
+                "SELECT instrument.id FROM Image WHERE id = :id", new ParametersI().addId(imageId));
+        final omero.RType id = rows.isEmpty() ? null : rows.get(0).get(0);
+        return id == null ? null : ((omero.RLong) id).getValue();
+    }
+}
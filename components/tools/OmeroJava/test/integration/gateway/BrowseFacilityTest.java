@@ -22,6 +22,7 @@ package integration.gateway;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.concurrent.Future;
 
 import omero.gateway.SecurityContext;
 import omero.gateway.exception.DSAccessException;
@@ -32,6 +33,9 @@ import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import omero.gateway.model.BrowsePage;
+import omero.gateway.model.BrowseRow;
+import omero.gateway.model.DataObject;
 import omero.gateway.model.DatasetData;
 import omero.gateway.model.ExperimenterData;
 import omero.gateway.model.GroupData;
@@ -253,6 +257,45 @@ public class BrowseFacilityTest extends GatewayTest {
         Assert.assertEquals(screen.getId(), s.getId());
     }
 
+    @Test
+    public void testBrowse() throws Exception {
+        SecurityContext ctx = new SecurityContext(group.getId());
+
+        // all the projects of the group, one per page
+        BrowsePage page = browseFacility.browse(ctx, ProjectData.class, -1,
+                -1, -1, 1);
+        Assert.assertEquals(page.getRows().size(), 1);
+        Assert.assertTrue(page.hasMore());
+        BrowseRow first = page.getRows().get(0);
+        Assert.assertEquals(first.getChildCount(), 1);
+
+        Future<BrowsePage> next = browseFacility.browseAsync(ctx, page);
+        page = next.get();
+        Assert.assertEquals(page.getRows().size(), 1);
+        Assert.assertTrue(page.getRows().get(0).getId() > first.getId());
+
+        page = browseFacility.browseNext(ctx, page);
+        Assert.assertTrue(page.getRows().isEmpty());
+        Assert.assertFalse(page.hasMore());
+
+        // the images of a dataset
+        page = browseFacility.browse(ctx, ImageData.class, ds.getId(), -1);
+        Assert.assertEquals(page.getRows().size(), 1);
+        Assert.assertEquals(page.getRows().get(0).getId(), img.getId());
+
+        // the plates of user2
+        page = browseFacility.browse(ctx, PlateData.class, -1, user2.getId());
+        Assert.assertEquals(page.getRows().size(), 1);
+        Assert.assertEquals(page.getRows().get(0).getId(), plate2.getId());
+        Assert.assertEquals(page.getRows().get(0).getOwnerId(), user2.getId());
+
+        // conversion on demand
+        Collection<DataObject> objects = browseFacility.getDataObjects(ctx,
+                page.getRows());
+        Assert.assertEquals(objects.size(), 1);
+        Assert.assertTrue(objects.iterator().next() instanceof PlateData);
+    }
+
     private void initData() throws Exception {
         this.group = createGroup();
         this.user = createExperimenter(group);
@@ -30,6 +30,7 @@ import omero.RLong;
 import omero.api.IPixelsPrx;
 import omero.gateway.Gateway;
 import omero.gateway.LoginCredentials;
+import omero.gateway.PoolStatistics;
 import omero.gateway.SecurityContext;
 import omero.gateway.exception.DSAccessException;
 import omero.gateway.exception.DSOutOfServiceException;
@@ -80,11 +81,106 @@ public class GatewayTest {
     TransferFacility transferFacility = null;
     DataManagerFacility datamanagerFacility = null;
 
+    /** The server to connect further gateways to. */
+    String host = null;
+    int port = 0;
+
     @Test
     public void testConnected() throws DSOutOfServiceException {
         String version = gw.getServerVersion();
         Assert.assertTrue(version != null && version.trim().length() > 0);
     }
+
+    /**
+     * Tests that a group multiplexed over the session of another group
+     * passes its own group in the call context.
+     */
+    @Test
+    public void testMultiplexedGroupContext() throws Exception {
+        GroupData other = createGroup();
+        Gateway mgw = connectMultiplexed(other);
+        try {
+            long defaultId = mgw.getLoggedInUser().getDefaultGroup().getId();
+            SecurityContext ctx = new SecurityContext(defaultId);
+            SecurityContext otherCtx = new SecurityContext(other.getId());
+
+            Assert.assertEquals(mgw.getAdminService(ctx).getEventContext()
+                    .groupId, defaultId);
+            Assert.assertEquals(mgw.getAdminService(otherCtx)
+                    .getEventContext().groupId, other.getId());
+            assertPool(mgw, 1, 2, 1);
+
+            DataManagerFacility dm = Facility.getFacility(
+                    DataManagerFacility.class, mgw);
+            ProjectData proj = new ProjectData();
+            proj.setName(UUID.randomUUID().toString());
+            proj = (ProjectData) dm.saveAndReturnObject(otherCtx, proj);
+            Assert.assertEquals(proj.getGroupId(), other.getId());
+        } finally {
+            mgw.disconnect();
+        }
+    }
+
+    /**
+     * Tests that closing the connector owning a session keeps the session
+     * while another group still uses it, that closing the multiplexed
+     * connector only closes its own services, and that disconnecting
+     * closes everything.
+     */
+    @Test
+    public void testCloseConnectorAndDisconnect() throws Exception {
+        GroupData other = createGroup();
+        Gateway mgw = connectMultiplexed(other);
+        long defaultId = mgw.getLoggedInUser().getDefaultGroup().getId();
+        SecurityContext ctx = new SecurityContext(defaultId);
+        SecurityContext otherCtx = new SecurityContext(other.getId());
+        try {
+            mgw.getAdminService(otherCtx).getEventContext();
+            assertPool(mgw, 1, 2, 1);
+
+            // The multiplexed connector goes, the session stays.
+            mgw.closeConnector(otherCtx);
+            assertPool(mgw, 1, 1, 0);
+            Assert.assertEquals(mgw.getAdminService(ctx).getEventContext()
+                    .groupId, defaultId);
+
+            // The owner is kept while the other group uses its session.
+            mgw.getAdminService(otherCtx).getEventContext();
+            mgw.closeConnector(ctx);
+            assertPool(mgw, 1, 2, 1);
+            Assert.assertEquals(mgw.getAdminService(otherCtx)
+                    .getEventContext().groupId, other.getId());
+        } finally {
+            mgw.disconnect();
+        }
+        assertPool(mgw, 0, 0, 0);
+        Assert.assertFalse(mgw.isConnected());
+    }
+
+    /**
+     * Tests that after rejoining, the multiplexed group still shares the
+     * rejoined session with its own group context.
+     */
+    @Test
+    public void testRejoinMultiplexed() throws Exception {
+        GroupData other = createGroup();
+        Gateway mgw = connectMultiplexed(other);
+        try {
+            long defaultId = mgw.getLoggedInUser().getDefaultGroup().getId();
+            SecurityContext ctx = new SecurityContext(defaultId);
+            SecurityContext otherCtx = new SecurityContext(other.getId());
+            mgw.getAdminService(otherCtx).getEventContext();
+
+            Assert.assertTrue(mgw.joinSession());
+            assertPool(mgw, 1, 2, 1);
+            Assert.assertEquals(mgw.getAdminService(ctx).getEventContext()
+                    .groupId, defaultId);
+            Assert.assertEquals(mgw.getAdminService(otherCtx)
+                    .getEventContext().groupId, other.getId());
+        } finally {
+            mgw.disconnect();
+        }
+    }
     
     /**
      * Initializes the Gateway.
@@ -97,12 +193,12 @@ public class GatewayTest {
 
         omero.client client =  new omero.client();
         String pass = client.getProperty("omero.rootpass");
-        String host = client.getProperty("omero.host");
-        String port = client.getProperty("omero.port");
+        host = client.getProperty("omero.host");
+        port = Integer.parseInt(client.getProperty("omero.port"));
         
         LoginCredentials c = new LoginCredentials();
         c.getServer().setHostname(host);
-        c.getServer().setPort(Integer.parseInt(port));
+        c.getServer().setPort(port);
         c.getUser().setUsername("root");
         c.getUser().setPassword(pass);
 
@@ -147,6 +243,43 @@ public class GatewayTest {
                 .toString(), "test", groups, false, true);
     }
 
+    /**
+     * Connects a new gateway with a single session as a new user who is a
+     * member of a new default group and of the passed group.
+     */
+    Gateway connectMultiplexed(GroupData other) throws Exception {
+        ExperimenterData exp = new ExperimenterData();
+        exp.setFirstName("Test");
+        exp.setLastName("User");
+        List<GroupData> groups = new ArrayList<GroupData>();
+        groups.add(createGroup());
+        groups.add(other);
+        String name = UUID.randomUUID().toString();
+        adminFacility.createExperimenter(rootCtx, exp, name, "test", groups,
+                false, true);
+
+        LoginCredentials c = new LoginCredentials();
+        c.getServer().setHostname(host);
+        c.getServer().setPort(port);
+        c.getUser().setUsername(name);
+        c.getUser().setPassword("test");
+        c.setMaxSessions(1);
+
+        Gateway mgw = new Gateway(new SimpleLogger());
+        mgw.connect(c);
+        return mgw;
+    }
+
+    void assertPool(Gateway g, int sessions, int connectors,
+            int multiplexed) {
+        PoolStatistics stats = g.getPoolStatistics();
+        Assert.assertEquals(stats.getSessions(), sessions, stats.toString());
+        Assert.assertEquals(stats.getConnectors(), connectors,
+                stats.toString());
+        Assert.assertEquals(stats.getMultiplexed(), multiplexed,
+                stats.toString());
+    }
+
     ProjectData createProject(SecurityContext ctx)
             throws DSOutOfServiceException, DSAccessException {
         ProjectData proj = new ProjectData();